@@ -0,0 +1,334 @@
+package com.company.analyzer;
+
+import com.company.analyzer.plan.ExecutionPlan;
+import com.company.analyzer.plan.ExecutionPlanner;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed command-line arguments of {@link EmployeeAnalyzerApplication}.
+ *
+ * The first {@code --batch}, {@code --watch}, {@code --trend} or {@code --find} flag selects the mode; options that
+ * take a value consume the following argument. Everything else is positional.
+ */
+final class CommandLineOptions {
+
+    enum Mode {
+        ANALYZE, BATCH, WATCH, TREND, FIND
+    }
+
+    private Mode mode = Mode.ANALYZE;
+    private Path rulesFile;
+    private boolean suggestReorg;
+    private boolean salaryDistribution;
+    private boolean orgShape;
+    private boolean progress;
+    private boolean lenient;
+    private boolean reportingChains;
+    private int shards;
+    private Path cacheDir;
+    private Path historyDir;
+    private Path executiveReportDir;
+    private Path ndjsonFile;
+    private LocalDate snapshotDate;
+    private String query;
+    private ExecutionPlan.Parser parser;
+    private int threads;
+    private boolean inMemory;
+    private ExecutionPlanner.Thresholds plannerThresholds = ExecutionPlanner.Thresholds.defaults();
+    private final List<String> positional = new ArrayList<>();
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @throws IllegalArgumentException if an option is unknown, misses its value or the
+     *         number of positional arguments does not fit the mode
+     */
+    static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--batch" -> options.setMode(Mode.BATCH);
+                case "--watch" -> options.setMode(Mode.WATCH);
+                case "--trend" -> options.setMode(Mode.TREND);
+                case "--find" -> {
+                    options.setMode(Mode.FIND);
+                    options.query = requireValue(args, ++i, arg);
+                }
+                case "--rules" -> options.rulesFile = Path.of(requireValue(args, ++i, arg));
+                case "--suggest-reorg" -> options.suggestReorg = true;
+                case "--salary-distribution" -> options.salaryDistribution = true;
+                case "--org-shape" -> options.orgShape = true;
+                case "--progress" -> options.progress = true;
+                case "--lenient" -> options.lenient = true;
+                case "--reporting-chains" -> options.reportingChains = true;
+                case "--ndjson" -> options.ndjsonFile = Path.of(requireValue(args, ++i, arg));
+                case "--shards" -> options.shards = parsePositive(requireValue(args, ++i, arg), arg);
+                case "--cache" -> options.cacheDir = Path.of(requireValue(args, ++i, arg));
+                case "--split-by-executive" -> options.executiveReportDir = Path.of(requireValue(args, ++i, arg));
+                case "--history" -> options.historyDir = Path.of(requireValue(args, ++i, arg));
+                case "--snapshot-date" -> options.snapshotDate = parseDate(requireValue(args, ++i, arg), arg);
+                case "--parser" -> options.parser = parseParser(requireValue(args, ++i, arg));
+                case "--threads" -> options.threads = parsePositive(requireValue(args, ++i, arg), arg);
+                case "--in-memory" -> options.inMemory = true;
+                case "--plan" -> options.plannerThresholds = parseThreshold(options.plannerThresholds,
+                    requireValue(args, ++i, arg));
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    options.positional.add(arg);
+                }
+            }
+        }
+
+        int count = options.positional.size();
+        boolean valid = switch (options.mode) {
+            case ANALYZE, WATCH, TREND, FIND -> count == 1;
+            case BATCH -> count == 1 || count == 2;
+        };
+        if (!valid) {
+            throw new IllegalArgumentException("Wrong number of arguments");
+        }
+        if (options.shards > 0 && (options.mode != Mode.ANALYZE || options.needsIndex())) {
+            throw new IllegalArgumentException("--shards only applies to a plain single-file analysis");
+        }
+        if (options.progress && (options.mode != Mode.ANALYZE || options.shards > 0)) {
+            throw new IllegalArgumentException("--progress only applies to an in-process single-file analysis");
+        }
+        boolean planned = options.parser != null || options.threads > 0 || options.inMemory
+            || options.plannerThresholds != ExecutionPlanner.Thresholds.defaults();
+        if (planned && options.mode != Mode.ANALYZE) {
+            throw new IllegalArgumentException("--parser, --threads, --in-memory and --plan only apply to a single-file analysis");
+        }
+        if (options.shards > 0 && (options.inMemory || options.threads > 0)) {
+            throw new IllegalArgumentException("--shards cannot be combined with --in-memory or --threads");
+        }
+        if (options.cacheDir != null && options.mode != Mode.ANALYZE) {
+            throw new IllegalArgumentException("--cache only applies to a single-file analysis");
+        }
+        if (options.historyDir != null && options.mode != Mode.ANALYZE) {
+            throw new IllegalArgumentException("--history only applies to a single-file analysis");
+        }
+        if (options.executiveReportDir != null && options.mode != Mode.ANALYZE) {
+            throw new IllegalArgumentException("--split-by-executive only applies to a single-file analysis");
+        }
+        if ((options.reportingChains || options.ndjsonFile != null) && options.mode != Mode.ANALYZE) {
+            throw new IllegalArgumentException("--reporting-chains and --ndjson only apply to a single-file analysis");
+        }
+        if (options.ndjsonFile != null && options.executiveReportDir != null) {
+            throw new IllegalArgumentException("--ndjson cannot be combined with --split-by-executive");
+        }
+        if (options.lenient && (options.mode != Mode.ANALYZE || options.shards > 0 || options.cacheDir != null)) {
+            throw new IllegalArgumentException("--lenient only applies to an in-process single-file analysis without --cache");
+        }
+        if (options.snapshotDate != null && options.historyDir == null) {
+            throw new IllegalArgumentException("--snapshot-date requires --history");
+        }
+        return options;
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parsePositive(String value, String option) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+    }
+
+    private static LocalDate parseDate(String value, String option) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value for " + option + ", expected yyyy-mm-dd: " + value);
+        }
+    }
+
+    private static ExecutionPlan.Parser parseParser(String value) {
+        return switch (value) {
+            case "serial" -> ExecutionPlan.Parser.SERIAL;
+            case "pipelined" -> ExecutionPlan.Parser.PIPELINED;
+            default -> throw new IllegalArgumentException("Invalid value for --parser: " + value);
+        };
+    }
+
+    private static ExecutionPlanner.Thresholds parseThreshold(ExecutionPlanner.Thresholds thresholds, String value) {
+        int separator = value.indexOf('=');
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid value for --plan, expected <key>=<value>: " + value);
+        }
+        return thresholds.with(value.substring(0, separator), value.substring(separator + 1));
+    }
+
+    private void setMode(Mode mode) {
+        if (this.mode != Mode.ANALYZE) {
+            throw new IllegalArgumentException("Only one of --batch, --watch, --trend and --find can be given");
+        }
+        this.mode = mode;
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the rule configuration file, or null to use the default thresholds.
+     */
+    Path getRulesFile() {
+        return rulesFile;
+    }
+
+    /**
+     * Returns whether progress of the reading and analysis phases should be printed to stderr.
+     */
+    boolean isProgress() {
+        return progress;
+    }
+
+    /**
+     * Returns whether invalid rows should be skipped and summarized instead of failing the run.
+     */
+    boolean isLenient() {
+        return lenient;
+    }
+
+    /**
+     * Returns whether the report should list the managers above each employee with a long
+     * reporting line.
+     */
+    boolean isReportingChains() {
+        return reportingChains;
+    }
+
+    /**
+     * Returns whether reassignments fixing long reporting lines should be proposed.
+     */
+    boolean isSuggestReorg() {
+        return suggestReorg;
+    }
+
+    /**
+     * Returns whether salary percentiles by level and executive subtree should be printed.
+     */
+    boolean isSalaryDistribution() {
+        return salaryDistribution;
+    }
+
+    /**
+     * Returns whether span-of-control and depth statistics should be printed.
+     */
+    boolean isOrgShape() {
+        return orgShape;
+    }
+
+    /**
+     * Returns whether an option needs the whole organization in memory after the analysis.
+     */
+    boolean needsIndex() {
+        return suggestReorg || salaryDistribution || orgShape || historyDir != null || executiveReportDir != null
+            || reportingChains || ndjsonFile != null;
+    }
+
+    /**
+     * Returns the number of worker processes for a sharded analysis, or 0 to analyze in-process.
+     */
+    int getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the result cache directory, or null to always analyze.
+     */
+    Path getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Returns the name or ID prefix to look up in {@link Mode#FIND} mode.
+     */
+    String getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the directory receiving one report per executive subtree, or null to print
+     * the whole report to the console.
+     */
+    Path getExecutiveReportDir() {
+        return executiveReportDir;
+    }
+
+    /**
+     * Returns the file receiving the report as newline-delimited JSON, or null to print it.
+     */
+    Path getNdjsonFile() {
+        return ndjsonFile;
+    }
+
+    /**
+     * Returns the history directory the run is recorded in, or null to not record it.
+     */
+    Path getHistoryDir() {
+        return historyDir;
+    }
+
+    /**
+     * Returns the date the run is recorded under, by default today.
+     */
+    LocalDate getSnapshotDate() {
+        return snapshotDate != null ? snapshotDate : LocalDate.now();
+    }
+
+    /**
+     * Returns the execution choices fixed on the command line. Runs that need the whole
+     * organization afterwards, report progress or skip invalid rows are never spilled to worker
+     * processes.
+     */
+    ExecutionPlanner.Overrides getPlanOverrides() {
+        ExecutionPlanner.Overrides overrides = ExecutionPlanner.Overrides.none();
+        if (parser != null) {
+            overrides = overrides.parser(parser);
+        }
+        if (threads > 0) {
+            overrides = overrides.threads(threads);
+        }
+        if (shards > 0) {
+            overrides = overrides.shards(shards);
+        } else if (inMemory || needsIndex() || progress || lenient) {
+            overrides = overrides.inMemory();
+        }
+        return overrides;
+    }
+
+    /**
+     * Returns the planner thresholds, with any {@code --plan <key>=<value>} changes applied.
+     */
+    ExecutionPlanner.Thresholds getPlannerThresholds() {
+        return plannerThresholds;
+    }
+
+    List<String> getPositional() {
+        return Collections.unmodifiableList(positional);
+    }
+}
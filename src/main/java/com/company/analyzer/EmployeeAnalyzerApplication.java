@@ -1,52 +1,122 @@
 package com.company.analyzer;
 
+import com.company.analyzer.cache.ResultCache;
 import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.history.HistoryStore;
+import com.company.analyzer.history.Snapshot;
 import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.BatchSummary;
 import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.IngestionErrors;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.plan.ExecutionPlan;
+import com.company.analyzer.plan.ExecutionPlanner;
+import com.company.analyzer.progress.CancellationToken;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.search.EmployeeSearchIndex;
+import com.company.analyzer.service.BatchAnalysisService;
 import com.company.analyzer.service.CsvReaderService;
+import com.company.analyzer.service.DirectoryWatchService;
+import com.company.analyzer.service.ExecutiveReportService;
+import com.company.analyzer.service.IngestionPipeline;
+import com.company.analyzer.service.NdjsonReportWriter;
 import com.company.analyzer.service.OrganizationAnalyzer;
 import com.company.analyzer.service.ReportGenerator;
+import com.company.analyzer.shard.ShardCoordinator;
+import com.company.analyzer.simulation.ReorgOptimizer;
+import com.company.analyzer.stats.OrgShapeMetrics;
+import com.company.analyzer.stats.SalaryDistribution;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Main application for analyzing employee organizational structure.
  *
- * Usage: java -jar employee-analyzer.jar <path-to-csv-file>
+ * Usage: java -jar employee-analyzer.jar [--rules <rules.properties>] [--suggest-reorg] [--salary-distribution]
+ *                                         [--org-shape] [--split-by-executive <output-directory>] [--progress]
+ *                                         [--lenient] [--reporting-chains] [--ndjson <output-file>]
+ *                                         [execution options] <path-to-csv-file[.gz]>
+ *        java -jar employee-analyzer.jar [--rules <rules.properties>] --shards <workers> <path-to-csv-file>
+ *        java -jar employee-analyzer.jar [--rules <rules.properties>] --batch <directory-or-glob> [output-directory]
+ *        java -jar employee-analyzer.jar [--rules <rules.properties>] --watch <directory>
+ *        java -jar employee-analyzer.jar --trend <history-directory>
+ *        java -jar employee-analyzer.jar --find <name-or-id-prefix> <path-to-csv-file[.gz]>
  *
  * The application reads employee data from a CSV file and analyzes:
  * 1. Manager salaries relative to their subordinates
  * 2. Reporting line lengths from employees to CEO
+ * 3. Any additional rules enabled in the rule configuration
  */
 public class EmployeeAnalyzerApplication {
+    private static final String DEFAULT_BATCH_OUTPUT_DIR = "reports";
+    private static final Duration WATCH_DEBOUNCE = Duration.ofSeconds(2);
+    private static final long CACHE_MAX_BYTES = 256L * 1024 * 1024;
+    private static final int FIND_LIMIT = 50;
 
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("Usage: java -jar employee-analyzer.jar <path-to-csv-file>");
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
             System.exit(1);
+            return;
         }
 
-        String filePath = args[0];
-
         try {
             // Initialize services
+            RuleConfig ruleConfig = options.getRulesFile() == null
+                ? RuleConfig.defaults()
+                : RuleConfig.load(options.getRulesFile());
             CsvReaderService csvReader = new CsvReaderService();
-            OrganizationAnalyzer analyzer = new OrganizationAnalyzer();
-            ReportGenerator reportGenerator = new ReportGenerator();
+            RuleEngine ruleEngine = RuleEngine.fromConfig(ruleConfig);
+            OrganizationAnalyzer analyzer = new OrganizationAnalyzer(ruleEngine);
+            ReportGenerator reportGenerator = new ReportGenerator(ruleConfig, options.isReportingChains());
+            CachedRun cachedRun = options.getCacheDir() == null
+                ? null
+                : new CachedRun(new ResultCache(options.getCacheDir(), CACHE_MAX_BYTES), ruleEngine);
 
-            // Read employee data
-            System.out.println("Reading employee data from: " + filePath);
-            List<Employee> employees = csvReader.readEmployees(filePath);
-            System.out.println("Successfully loaded " + employees.size() + " employees.");
-            System.out.println();
-
-            // Analyze organization
-            System.out.println("Analyzing organizational structure...");
-            AnalysisReport report = analyzer.analyze(employees);
-            System.out.println();
-
-            // Generate and print report
-            reportGenerator.printReport(report);
+            switch (options.getMode()) {
+                case BATCH -> runBatch(options, csvReader, analyzer, reportGenerator);
+                case WATCH -> runWatch(options, csvReader, analyzer);
+                case TREND -> runTrend(options, reportGenerator);
+                case FIND -> runFind(options, csvReader);
+                default -> {
+                    String filePath = options.getPositional().get(0);
+                    if (!options.needsIndex() && cachedRun != null && cachedRun.printIfCached(filePath, reportGenerator)) {
+                        return;
+                    }
+                    ExecutionPlan plan = new ExecutionPlanner(options.getPlannerThresholds())
+                        .plan(Path.of(filePath), options.getPlanOverrides());
+                    logPlan(plan);
+                    if (plan.getStrategy() == ExecutionPlan.Strategy.SHARDED) {
+                        runSharded(filePath, new ShardCoordinator(ruleConfig, plan.getShards()),
+                            reportGenerator, cachedRun);
+                        return;
+                    }
+                    ReorgOptimizer reorgOptimizer = options.isSuggestReorg() ? ReorgOptimizer.fromConfig(ruleConfig) : null;
+                    // Batch and watch mode already analyze one file per core; a single file is planned
+                    OrganizationAnalyzer plannedAnalyzer = new OrganizationAnalyzer(ruleEngine, plan.getAnalysisThreads());
+                    ProgressTracker tracker = options.isProgress()
+                        ? new ProgressTracker(progress -> System.err.println("[progress] " + progress), new CancellationToken())
+                        : ProgressTracker.silent();
+                    HistoryRun historyRun = options.getHistoryDir() == null
+                        ? null
+                        : new HistoryRun(new HistoryStore(options.getHistoryDir()), options.getSnapshotDate());
+                    IngestionErrors ingestionErrors = options.isLenient() ? new IngestionErrors() : null;
+                    runSingle(filePath, plan, csvReader, plannedAnalyzer, reportGenerator, reorgOptimizer,
+                        options.isSalaryDistribution(), options.isOrgShape(), options.getExecutiveReportDir(),
+                        options.getNdjsonFile(), cachedRun, historyRun, ingestionErrors, tracker);
+                }
+            }
 
         } catch (EmployeeDataException e) {
             System.err.println("Error: " + e.getMessage());
@@ -57,4 +127,293 @@ public class EmployeeAnalyzerApplication {
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Analyzes a single file, plain or gzipped, and prints the report to the console,
+     * followed by suggested reassignments if an optimizer is given and the salary
+     * distribution and organization shape if requested. The shape metrics are collected
+     * by the analysis pass itself. With an executive report directory, the report is written
+     * there as one file per executive subtree instead of being printed; with an NDJSON file,
+     * it is written there as one JSON object per issue. The report is stored in the result cache, if one is configured,
+     * and recorded in the history, if one is given. With an error buffer, invalid rows are
+     * skipped and summarized before the report instead of failing the run.
+     * The plan selects the parser and the number of analysis threads; reading, indexing
+     * and analysis report their progress to the tracker.
+     */
+    private static void runSingle(String filePath,
+                                  ExecutionPlan plan,
+                                  CsvReaderService csvReader,
+                                  OrganizationAnalyzer analyzer,
+                                  ReportGenerator reportGenerator,
+                                  ReorgOptimizer reorgOptimizer,
+                                  boolean salaryDistribution,
+                                  boolean orgShape,
+                                  Path executiveReportDir,
+                                  Path ndjsonFile,
+                                  CachedRun cachedRun,
+                                  HistoryRun historyRun,
+                                  IngestionErrors ingestionErrors,
+                                  ProgressTracker tracker) throws EmployeeDataException {
+        // Read and index employee data
+        System.out.println("Reading employee data from: " + filePath);
+        OrgIndex org = ingestionErrors == null
+            ? readIndex(filePath, plan, csvReader, tracker)
+            : readValidIndex(filePath, plan, csvReader, ingestionErrors, tracker);
+        System.out.println("Successfully loaded " + org.size() + " employees.");
+        System.out.println();
+        if (ingestionErrors != null) {
+            reportGenerator.printIngestionErrors(ingestionErrors, System.out);
+        }
+
+        // Analyze organization
+        System.out.println("Analyzing organizational structure...");
+        OrgShapeMetrics.Collector shape = orgShape ? new OrgShapeMetrics.Collector() : null;
+        AnalysisReport report = analyzer.analyzeIndex(org, tracker, shape);
+        System.out.println();
+        if (cachedRun != null) {
+            cachedRun.store(filePath, report);
+        }
+
+        // Generate and print report
+        if (ndjsonFile != null) {
+            new NdjsonReportWriter().write(report, org, ndjsonFile);
+            System.out.println("Wrote report to: " + ndjsonFile);
+        } else if (executiveReportDir == null) {
+            reportGenerator.printReport(report, org, System.out);
+        } else {
+            Map<Employee, Path> files = new ExecutiveReportService(reportGenerator)
+                .writeReports(org, report, executiveReportDir);
+            System.out.println("Wrote " + files.size() + " executive reports to: " + executiveReportDir);
+            files.forEach((executive, file) -> System.out.printf("  • %s (ID: %s): %s%n",
+                executive.getFullName(), executive.getId(), file.getFileName()));
+        }
+
+        if (reorgOptimizer != null) {
+            System.out.println();
+            reportGenerator.printReorgPlan(reorgOptimizer.optimize(org), System.out);
+        }
+
+        if (salaryDistribution) {
+            System.out.println();
+            reportGenerator.printSalaryDistribution(
+                SalaryDistribution.of(org, SalaryDistribution.EXECUTIVE_SUBTREES), System.out);
+        }
+
+        if (shape != null) {
+            System.out.println();
+            reportGenerator.printOrgShape(shape.finish(), org, System.out);
+        }
+
+        if (historyRun != null) {
+            historyRun.record(org, report);
+        }
+    }
+
+    private static OrgIndex readIndex(String filePath, ExecutionPlan plan, CsvReaderService csvReader,
+                                      ProgressTracker tracker) throws EmployeeDataException {
+        return plan.getParser() == ExecutionPlan.Parser.PIPELINED
+            ? new IngestionPipeline(plan.getParseWorkers()).readIndex(filePath, tracker)
+            : csvReader.readIndex(filePath, tracker);
+    }
+
+    private static OrgIndex readValidIndex(String filePath, ExecutionPlan plan, CsvReaderService csvReader,
+                                           IngestionErrors errors, ProgressTracker tracker) throws EmployeeDataException {
+        return plan.getParser() == ExecutionPlan.Parser.PIPELINED
+            ? new IngestionPipeline(plan.getParseWorkers()).readIndex(filePath, tracker, errors)
+            : csvReader.readIndex(filePath, tracker, errors);
+    }
+
+    /**
+     * Logs the planner's decision and its reasons to stderr, keeping stdout for the report.
+     */
+    private static void logPlan(ExecutionPlan plan) {
+        System.err.println("Execution plan: " + plan);
+        for (String reason : plan.getReasons()) {
+            System.err.println("  - " + reason);
+        }
+    }
+
+    /**
+     * Analyzes a single file across worker processes, one per group of executive
+     * subtrees, and prints the merged report.
+     */
+    private static void runSharded(String filePath,
+                                   ShardCoordinator coordinator,
+                                   ReportGenerator reportGenerator,
+                                   CachedRun cachedRun) throws EmployeeDataException {
+        System.out.println("Analyzing " + filePath + " in worker processes...");
+        AnalysisReport report = coordinator.analyze(filePath);
+        System.out.println();
+        if (cachedRun != null) {
+            cachedRun.store(filePath, report);
+        }
+        reportGenerator.printReport(report);
+    }
+
+    /**
+     * Runs batch mode: every matching file is analyzed concurrently and a
+     * consolidated summary is printed. Exits with 1 if any file failed.
+     */
+    private static void runBatch(CommandLineOptions options,
+                                 CsvReaderService csvReader,
+                                 OrganizationAnalyzer analyzer,
+                                 ReportGenerator reportGenerator) throws EmployeeDataException {
+        List<String> positional = options.getPositional();
+        Path outputDir = Path.of(positional.size() == 2 ? positional.get(1) : DEFAULT_BATCH_OUTPUT_DIR);
+
+        BatchAnalysisService batchService = new BatchAnalysisService(
+            csvReader, analyzer, reportGenerator, Runtime.getRuntime().availableProcessors());
+        List<Path> inputs = batchService.resolveInputs(positional.get(0));
+        System.out.println("Analyzing " + inputs.size() + " files, writing reports to: " + outputDir);
+        System.out.println();
+
+        BatchSummary summary = batchService.analyzeAll(inputs, outputDir);
+        batchService.printSummary(summary, System.out);
+
+        if (summary.hasFailures()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs watch mode: analyzes the directory's CSV files and re-analyzes each
+     * one when it changes, printing only the issues that changed.
+     */
+    private static void runWatch(CommandLineOptions options,
+                                 CsvReaderService csvReader,
+                                 OrganizationAnalyzer analyzer) throws EmployeeDataException {
+        String directory = options.getPositional().get(0);
+        DirectoryWatchService watchService = new DirectoryWatchService(csvReader, analyzer, WATCH_DEBOUNCE, System.out);
+        System.out.println("Watching " + directory + " for changes (Ctrl+C to stop)...");
+        System.out.println();
+        watchService.watch(Path.of(directory));
+    }
+
+    /**
+     * Prints the recorded issue counts over time and, for the issues of the latest
+     * snapshot, since when they have been flagged.
+     */
+    private static void runTrend(CommandLineOptions options,
+                                 ReportGenerator reportGenerator) throws EmployeeDataException {
+        HistoryStore history = new HistoryStore(Path.of(options.getPositional().get(0)));
+        List<LocalDate> dates = history.getDates();
+        if (dates.isEmpty()) {
+            throw new EmployeeDataException("No snapshots recorded in " + options.getPositional().get(0));
+        }
+        LocalDate latest = dates.get(dates.size() - 1);
+        reportGenerator.printTrend(history.trend(dates.get(0), latest), history.flaggedSince(latest), System.out);
+    }
+
+    /**
+     * Prints the employees whose ID, full name or last name starts with the query,
+     * with their managers.
+     */
+    private static void runFind(CommandLineOptions options, CsvReaderService csvReader) throws EmployeeDataException {
+        String filePath = options.getPositional().get(0);
+        ExecutionPlan plan = new ExecutionPlanner(options.getPlannerThresholds())
+            .plan(Path.of(filePath), ExecutionPlanner.Overrides.none().inMemory());
+        OrgIndex org = readIndex(filePath, plan, csvReader, ProgressTracker.silent());
+        int[] matches = EmployeeSearchIndex.build(org).findByPrefix(options.getQuery(), FIND_LIMIT + 1);
+
+        System.out.println("Employees matching \"" + options.getQuery() + "\":");
+        for (int i = 0; i < Math.min(matches.length, FIND_LIMIT); i++) {
+            int employee = matches[i];
+            int manager = org.getManagerIndex(employee);
+            System.out.printf("  %-10s %-30s %s%n", org.getEmployee(employee).getId(),
+                org.getEmployee(employee).getFullName(),
+                manager == OrgIndex.NO_MANAGER ? "(CEO)" : "reports to " + org.getEmployee(manager).getFullName()
+                    + " (ID: " + org.getEmployee(manager).getId() + ")");
+        }
+        if (matches.length == 0) {
+            System.out.println("  No matches.");
+        } else if (matches.length > FIND_LIMIT) {
+            System.out.println("  ... more than " + FIND_LIMIT + " matches, refine the query.");
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java -jar employee-analyzer.jar [options] <path-to-csv-file[.gz]>");
+        System.err.println("       java -jar employee-analyzer.jar [options] --batch <directory-or-glob> [output-directory]");
+        System.err.println("       java -jar employee-analyzer.jar [options] --watch <directory>");
+        System.err.println("       java -jar employee-analyzer.jar --trend <history-directory>");
+        System.err.println("       java -jar employee-analyzer.jar --find <name-or-id-prefix> <path-to-csv-file[.gz]>");
+        System.err.println();
+        System.err.println("Options:");
+        System.err.println("  --rules <file>     rule thresholds as a properties file (see README)");
+        System.err.println("  --suggest-reorg    propose reassignments that fix long reporting lines");
+        System.err.println("  --salary-distribution  print p10/p50/p90 salaries by level and executive subtree");
+        System.err.println("  --org-shape        print span-of-control and headcount-per-level statistics");
+        System.err.println("  --split-by-executive <dir>  write one report per executive subtree into dir");
+        System.err.println("  --shards <n>       analyze in up to n worker processes, split by executive");
+        System.err.println("  --cache <dir>      reuse reports of unchanged inputs stored in this directory");
+        System.err.println("  --progress         print phase, rows, throughput and ETA to stderr while running");
+        System.err.println("  --lenient          skip invalid rows and summarize them instead of stopping at the first");
+        System.err.println("  --reporting-chains  list the managers above each employee with a long reporting line");
+        System.err.println("  --ndjson <file>    write the report as one JSON object per issue instead of printing it");
+        System.err.println("  --history <dir>    record the run's counts, issues and team aggregates in this history");
+        System.err.println("  --snapshot-date <yyyy-mm-dd>  date to record the run under (default: today)");
+        System.err.println();
+        System.err.println("Execution (planned from input size, cores and heap unless given):");
+        System.err.println("  --parser <serial|pipelined>  CSV parser");
+        System.err.println("  --threads <n>      rule evaluation threads");
+        System.err.println("  --in-memory        never spill to worker processes");
+        System.err.println("  --plan <key>=<v>   planner threshold: pipeline-min-bytes, parallel-min-rows,");
+        System.err.println("                     heap-bytes-per-row, heap-fraction");
+    }
+
+    /**
+     * Looks up and stores single-file reports in the result cache. Cache write
+     * failures only produce a warning; the analysis itself has succeeded.
+     */
+    private static final class CachedRun {
+        private final ResultCache cache;
+        private final RuleEngine ruleEngine;
+        private String key;
+
+        CachedRun(ResultCache cache, RuleEngine ruleEngine) {
+            this.cache = cache;
+            this.ruleEngine = ruleEngine;
+        }
+
+        boolean printIfCached(String filePath, ReportGenerator reportGenerator) throws EmployeeDataException {
+            // Hashed once; the file is not expected to change during the run
+            key = cache.key(Path.of(filePath), ruleEngine);
+            Optional<AnalysisReport> cached = cache.get(key);
+            if (cached.isEmpty()) {
+                return false;
+            }
+            System.out.println("Using cached analysis of unchanged file: " + filePath);
+            System.out.println();
+            reportGenerator.printReport(cached.get());
+            return true;
+        }
+
+        void store(String filePath, AnalysisReport report) {
+            try {
+                cache.put(key != null ? key : cache.key(Path.of(filePath), ruleEngine), report);
+            } catch (EmployeeDataException e) {
+                System.err.println("Warning: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records single-file runs in the history. Unlike cache writes, a failed write fails
+     * the run, since recording it was requested explicitly.
+     */
+    private static final class HistoryRun {
+        private final HistoryStore history;
+        private final LocalDate date;
+
+        HistoryRun(HistoryStore history, LocalDate date) {
+            this.history = history;
+            this.date = date;
+        }
+
+        void record(OrgIndex org, AnalysisReport report) throws EmployeeDataException {
+            history.append(Snapshot.of(date, org, report));
+            System.out.println();
+            System.out.println("Recorded snapshot of " + date + " in history.");
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.company.analyzer.cache;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.service.IngestionPipeline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * In-memory registry of loaded organizations, keyed by source file, for processes that
+ * serve many organizations.
+ *
+ * Concurrent requests for an organization that is not loaded yet share one load: the
+ * first request parses the file, the others wait for its result. Every loaded
+ * organization is charged its {@link OrgIndex#estimateHeapBytes() estimated heap size};
+ * once the total exceeds the budget, the least recently requested organizations are
+ * dropped until it fits again. The organization just loaded is never dropped, so one
+ * organization larger than the budget is still served. Dropped organizations stay
+ * valid for callers still holding them. A file whose size or modification time changed
+ * since it was loaded is loaded again on the next request. A failed load is not kept;
+ * the next request retries.
+ */
+public class OrgRegistry {
+    private final long maxBytes;
+    private final Loader loader;
+    // Access order, eldest first; guarded by this
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+    private long loads;
+
+    /**
+     * Creates a registry that reads plain or gzipped CSV files through the {@link IngestionPipeline}.
+     *
+     * @param maxBytes estimated heap budget for all loaded organizations together
+     */
+    public OrgRegistry(long maxBytes) {
+        this(maxBytes, source -> new IngestionPipeline().readIndex(source.toString()));
+    }
+
+    /**
+     * @param maxBytes estimated heap budget for all loaded organizations together
+     * @param loader reads and indexes an organization; called at most once at a time per file
+     */
+    public OrgRegistry(long maxBytes, Loader loader) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the organization of the file, loading it if it is not loaded or changed.
+     *
+     * @param source the employee CSV file
+     * @return the indexed organization
+     * @throws EmployeeDataException if the file cannot be read, its data is invalid or the
+     *         calling thread is interrupted while waiting for another request's load
+     */
+    public OrgIndex get(Path source) throws EmployeeDataException {
+        Path key = source.toAbsolutePath().normalize();
+        FileStamp stamp = FileStamp.of(key);
+
+        Entry entry;
+        boolean load = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null || !entry.stamp.sameAs(stamp)) {
+                if (entry != null) {
+                    remove(key, entry);
+                }
+                entry = new Entry(stamp);
+                entries.put(key, entry);
+                load = true;
+            }
+        }
+        if (load) {
+            load(key, entry);
+        }
+        return entry.await(key);
+    }
+
+    /**
+     * Drops the organization of the file, if it is loaded.
+     */
+    public synchronized void invalidate(Path source) {
+        Path key = source.toAbsolutePath().normalize();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    /**
+     * Returns the estimated heap size of all loaded organizations.
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Returns the number of organizations loaded or being loaded.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of loads started since the registry was created.
+     */
+    public synchronized long getLoadCount() {
+        return loads;
+    }
+
+    private void load(Path key, Entry entry) throws EmployeeDataException {
+        synchronized (this) {
+            loads++;
+        }
+        OrgIndex org;
+        try {
+            org = loader.load(key);
+        } catch (EmployeeDataException | RuntimeException | Error e) {
+            // Waiting requests must not hang on a load that died
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    remove(key, entry);
+                }
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+
+        long bytes = org.estimateHeapBytes();
+        synchronized (this) {
+            // Skip accounting if the entry was invalidated or replaced while loading
+            if (entries.get(key) == entry) {
+                entry.bytes = bytes;
+                residentBytes += bytes;
+                evict(entry);
+            }
+        }
+        entry.result.complete(org);
+    }
+
+    /**
+     * Drops the least recently requested loaded organizations, other than the one just
+     * loaded, until the budget is met. Organizations still loading are skipped.
+     */
+    private void evict(Entry keep) {
+        Iterator<Map.Entry<Path, Entry>> eldest = entries.entrySet().iterator();
+        while (residentBytes > maxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next().getValue();
+            if (entry != keep && entry.bytes > 0) {
+                residentBytes -= entry.bytes;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void remove(Path key, Entry entry) {
+        entries.remove(key);
+        residentBytes -= entry.bytes;
+    }
+
+    /**
+     * Reads and indexes the organization of a file.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        OrgIndex load(Path source) throws EmployeeDataException;
+    }
+
+    private static final class Entry {
+        final FileStamp stamp;
+        final CompletableFuture<OrgIndex> result = new CompletableFuture<>();
+        /** Estimated heap size once loaded, 0 while loading. */
+        long bytes;
+
+        Entry(FileStamp stamp) {
+            this.stamp = stamp;
+        }
+
+        OrgIndex await(Path key) throws EmployeeDataException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EmployeeDataException("Interrupted while waiting for " + key + " to load", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof EmployeeDataException cause) {
+                    throw cause;
+                }
+                throw new EmployeeDataException("Error loading " + key + ": " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Size and modification time of a file, to notice that a loaded file was replaced.
+     */
+    private static final class FileStamp {
+        final long size;
+        final FileTime modified;
+
+        private FileStamp(long size, FileTime modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+
+        static FileStamp of(Path file) throws EmployeeDataException {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileStamp(attributes.size(), attributes.lastModifiedTime());
+            } catch (IOException e) {
+                throw new EmployeeDataException("File does not exist: " + file, e);
+            }
+        }
+
+        boolean sameAs(FileStamp other) {
+            return size == other.size && modified.equals(other.modified);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.analyzer.cache;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compact binary encoding of an {@link AnalysisReport} for the {@link ResultCache}.
+ *
+ * Layout: magic, format version, then each issue category as a count followed by its
+ * issues; rule issues are grouped by rule ID in report order. Decoding a report with a
+ * different magic or version fails, so old entries are treated as misses.
+ */
+final class ReportCodec {
+    private static final int MAGIC = 0x4F524743; // "ORGC"
+    static final int VERSION = 2;
+
+    private ReportCodec() {
+        // Prevent instantiation
+    }
+
+    static void write(AnalysisReport report, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        writeSalaryIssues(report.getUnderpaidManagers(), out);
+        writeSalaryIssues(report.getOverpaidManagers(), out);
+
+        List<AnalysisReport.ReportingLineIssue> longLines = report.getLongReportingLines();
+        out.writeInt(longLines.size());
+        for (AnalysisReport.ReportingLineIssue issue : longLines) {
+            writeEmployee(issue.getEmployee(), out);
+            out.writeInt(issue.getReportingLevels());
+            out.writeInt(issue.getExcessLevels());
+        }
+
+        List<AnalysisReport.PeerSalaryOutlier> outliers = report.getPeerSalaryOutliers();
+        out.writeInt(outliers.size());
+        for (AnalysisReport.PeerSalaryOutlier issue : outliers) {
+            writeEmployee(issue.getEmployee(), out);
+            out.writeDouble(issue.getPeerAverageSalary());
+            out.writeDouble(issue.getZScore());
+        }
+
+        out.writeInt(report.getRuleIds().size());
+        for (String ruleId : report.getRuleIds()) {
+            List<AnalysisReport.RuleIssue> issues = report.getRuleIssues(ruleId);
+            out.writeUTF(ruleId);
+            out.writeInt(issues.size());
+            for (AnalysisReport.RuleIssue issue : issues) {
+                writeEmployee(issue.getEmployee(), out);
+                out.writeDouble(issue.getActualValue());
+                out.writeDouble(issue.getLimit());
+                out.writeUTF(issue.getDescription());
+            }
+        }
+    }
+
+    /**
+     * @throws IOException if the data is truncated or was written by another format version
+     */
+    static AnalysisReport read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Unsupported cache entry format");
+        }
+        AnalysisReport report = new AnalysisReport();
+
+        int underpaid = in.readInt();
+        for (int i = 0; i < underpaid; i++) {
+            report.addUnderpaidManager(readSalaryIssue(in));
+        }
+        int overpaid = in.readInt();
+        for (int i = 0; i < overpaid; i++) {
+            report.addOverpaidManager(readSalaryIssue(in));
+        }
+
+        int longLines = in.readInt();
+        for (int i = 0; i < longLines; i++) {
+            report.addLongReportingLine(new AnalysisReport.ReportingLineIssue(
+                readEmployee(in), in.readInt(), in.readInt()));
+        }
+
+        int outliers = in.readInt();
+        for (int i = 0; i < outliers; i++) {
+            report.addPeerSalaryOutlier(new AnalysisReport.PeerSalaryOutlier(
+                readEmployee(in), in.readDouble(), in.readDouble()));
+        }
+
+        int rules = in.readInt();
+        for (int r = 0; r < rules; r++) {
+            String ruleId = in.readUTF();
+            int issues = in.readInt();
+            for (int i = 0; i < issues; i++) {
+                report.addRuleIssue(new AnalysisReport.RuleIssue(
+                    ruleId, readEmployee(in), in.readDouble(), in.readDouble(), in.readUTF()));
+            }
+        }
+        return report;
+    }
+
+    private static void writeSalaryIssues(List<AnalysisReport.SalaryIssue> issues, DataOutputStream out)
+            throws IOException {
+        out.writeInt(issues.size());
+        for (AnalysisReport.SalaryIssue issue : issues) {
+            writeEmployee(issue.getManager(), out);
+            out.writeDouble(issue.getAverageSubordinateSalary());
+            out.writeDouble(issue.getDifference());
+        }
+    }
+
+    private static AnalysisReport.SalaryIssue readSalaryIssue(DataInputStream in) throws IOException {
+        return new AnalysisReport.SalaryIssue(readEmployee(in), in.readDouble(), in.readDouble());
+    }
+
+    private static void writeEmployee(Employee employee, DataOutputStream out) throws IOException {
+        out.writeUTF(employee.getId());
+        out.writeUTF(employee.getFirstName());
+        out.writeUTF(employee.getLastName());
+        out.writeDouble(employee.getSalary());
+        out.writeBoolean(employee.getManagerId() != null);
+        if (employee.getManagerId() != null) {
+            out.writeUTF(employee.getManagerId());
+        }
+    }
+
+    private static Employee readEmployee(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        String firstName = in.readUTF();
+        String lastName = in.readUTF();
+        double salary = in.readDouble();
+        String managerId = in.readBoolean() ? in.readUTF() : null;
+        return new Employee(id, firstName, lastName, salary, managerId);
+    }
+}
@@ -0,0 +1,193 @@
+package com.company.analyzer.cache;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.rule.OrganizationRule;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.util.ContentHasher;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistent, content-addressed cache of analysis reports.
+ *
+ * An entry is keyed by the SHA-256 of the input file combined with the active rules
+ * and their effective thresholds, so a changed export or configuration never hits a
+ * stale entry. Entries are written to a temporary file and atomically renamed into
+ * place, so several analyzer processes can share one cache directory: readers see
+ * either a complete entry or none. Hits refresh the entry's modification time, and
+ * after each write the least recently used entries are deleted until the directory
+ * fits the size limit.
+ */
+public class ResultCache {
+    static final String ENTRY_SUFFIX = ".report";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Temporary files this old belong to a crashed writer
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * @param directory cache directory, created if missing
+     * @param maxBytes upper bound for the total size of all entries
+     */
+    public ResultCache(Path directory, long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache size limit must be positive");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Computes the cache key of an input file analyzed with the given rules.
+     *
+     * @throws EmployeeDataException if the file cannot be read
+     */
+    public String key(Path input, RuleEngine ruleEngine) throws EmployeeDataException {
+        String contentHash;
+        try {
+            contentHash = ContentHasher.hash(input);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error reading file: " + input, e);
+        }
+
+        StringBuilder fingerprint = new StringBuilder("format=").append(ReportCodec.VERSION).append('\n');
+        fingerprint.append("input=").append(contentHash).append('\n');
+        for (OrganizationRule rule : ruleEngine.getRules()) {
+            fingerprint.append("rule=").append(rule).append('\n');
+        }
+        return ContentHasher.hash(fingerprint.toString());
+    }
+
+    /**
+     * Returns the cached report, or empty if there is none or the entry cannot be read.
+     */
+    public Optional<AnalysisReport> get(String key) {
+        Path entry = entryPath(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            AnalysisReport report = ReportCodec.read(in);
+            touch(entry);
+            return Optional.of(report);
+        } catch (IOException e) {
+            // Missing, evicted meanwhile or unreadable: a miss either way
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a report and evicts least recently used entries beyond the size limit.
+     *
+     * @throws EmployeeDataException if the entry cannot be written
+     */
+    public void put(String key, AnalysisReport report) throws EmployeeDataException {
+        Path entry = entryPath(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                ReportCodec.write(report, out);
+            }
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            evict();
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error writing cache entry: " + entry, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Removed as stale by a later eviction
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes entries, least recently used first, until the total size fits the limit.
+     * Entries that disappear meanwhile were evicted by another process and are skipped.
+     */
+    void evict() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        Instant staleBefore = Instant.now().minus(STALE_TEMP_AGE);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    if (attributes.lastModifiedTime().toInstant().isBefore(staleBefore)) {
+                        Files.deleteIfExists(file);
+                    }
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    entries.add(new Entry(file, attributes.size(), attributes.lastModifiedTime()));
+                    total += attributes.size();
+                }
+            }
+        }
+
+        entries.sort(Comparator.comparing((Entry entry) -> entry.lastUsed));
+        for (Entry entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            Files.deleteIfExists(entry.file);
+            total -= entry.size;
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Evicted meanwhile; the report was already read
+        }
+    }
+
+    private static final class Entry {
+        final Path file;
+        final long size;
+        final FileTime lastUsed;
+
+        Entry(Path file, long size, FileTime lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.analyzer.exception;
+
+/**
+ * Thrown when a run is stopped through its cancellation token.
+ */
+public class AnalysisCancelledException extends EmployeeDataException {
+    public AnalysisCancelledException(String message) {
+        super(message);
+    }
+}
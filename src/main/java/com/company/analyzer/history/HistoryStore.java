@@ -0,0 +1,289 @@
+package com.company.analyzer.history;
+
+import com.company.analyzer.exception.EmployeeDataException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Local, append-only history of analysis runs, indexed by snapshot date.
+ *
+ * The directory holds two files. {@code snapshots.log} is the sequence of encoded
+ * {@link Snapshot} records; {@code snapshots.idx} holds one fixed-size entry per record with
+ * its date, offset and the end offsets of its summary and issue sections. Neither file is
+ * ever rewritten. A record is flushed to disk before its index entry is written, and a
+ * torn trailing index entry is ignored, so a crashed append leaves at most an unreferenced
+ * record behind. Appends from several processes are serialized with a file lock on the index.
+ *
+ * Queries load the small index, pick the records of the requested dates and read only the
+ * sections they need: trends read summaries, issue history reads issue keys. Snapshots may
+ * be appended in any date order; a later snapshot for the same date supersedes the earlier one.
+ */
+public class HistoryStore {
+    static final String LOG_FILE = "snapshots.log";
+    static final String INDEX_FILE = "snapshots.idx";
+    private static final int MAGIC = 0x4F524748; // "ORGH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int ENTRY_BYTES = 28;
+
+    private final Path directory;
+
+    /**
+     * @param directory history directory, created on the first append
+     */
+    public HistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Appends a snapshot.
+     *
+     * @throws EmployeeDataException if the history cannot be written or has an unknown format
+     */
+    public void append(Snapshot snapshot) throws EmployeeDataException {
+        try {
+            SnapshotCodec.Encoded record = SnapshotCodec.encode(snapshot);
+            Files.createDirectories(directory);
+            try (FileChannel index = FileChannel.open(directory.resolve(INDEX_FILE),
+                     StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = index.lock();
+                 FileChannel log = FileChannel.open(directory.resolve(LOG_FILE),
+                     StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                checkHeader(log);
+                checkHeader(index);
+
+                long offset = log.size();
+                writeFully(log, ByteBuffer.wrap(record.bytes), offset);
+                log.force(false);
+
+                ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES)
+                    .putLong(snapshot.getSummary().getDate().toEpochDay())
+                    .putLong(offset)
+                    .putInt(record.summaryEnd)
+                    .putInt(record.issuesEnd)
+                    .putInt(record.bytes.length)
+                    .flip();
+                // Overwrites a torn entry left by a crashed append
+                long entries = (index.size() - HEADER_BYTES) / ENTRY_BYTES;
+                writeFully(index, entry, HEADER_BYTES + entries * ENTRY_BYTES);
+                index.force(false);
+            }
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error writing history: " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the dates that have a snapshot, in ascending order.
+     *
+     * @throws EmployeeDataException if the history cannot be read
+     */
+    public List<LocalDate> getDates() throws EmployeeDataException {
+        List<LocalDate> dates = new ArrayList<>();
+        for (long day : readIndex().keySet()) {
+            dates.add(LocalDate.ofEpochDay(day));
+        }
+        return dates;
+    }
+
+    /**
+     * Returns the summaries of all snapshots between two dates, in date order.
+     *
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @throws EmployeeDataException if the history cannot be read
+     */
+    public List<SnapshotSummary> trend(LocalDate from, LocalDate to) throws EmployeeDataException {
+        NavigableMap<Long, Entry> range = readIndex().subMap(from.toEpochDay(), true, to.toEpochDay(), true);
+        List<SnapshotSummary> summaries = new ArrayList<>(range.size());
+        try (FileChannel log = openLog()) {
+            for (Entry entry : range.values()) {
+                summaries.add(SnapshotCodec.decodeSummary(read(log, entry.offset, entry.summaryEnd)));
+            }
+        } catch (IOException e) {
+            throw readError(e);
+        }
+        return summaries;
+    }
+
+    /**
+     * Returns the full snapshot of a date.
+     *
+     * @throws EmployeeDataException if the history cannot be read
+     */
+    public Optional<Snapshot> get(LocalDate date) throws EmployeeDataException {
+        Entry entry = readIndex().get(date.toEpochDay());
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try (FileChannel log = openLog()) {
+            return Optional.of(SnapshotCodec.decode(read(log, entry.offset, entry.length)));
+        } catch (IOException e) {
+            throw readError(e);
+        }
+    }
+
+    /**
+     * Returns since when an issue has been flagged without interruption.
+     *
+     * @param issueKey issue key as in {@link Snapshot#getIssues()}
+     * @param asOf the latest snapshot on or before this date is the reference
+     * @return date of the earliest snapshot of the unbroken run that ends in the reference
+     *         snapshot, or empty if the issue is not flagged there
+     * @throws EmployeeDataException if the history cannot be read
+     */
+    public Optional<LocalDate> flaggedSince(String issueKey, LocalDate asOf) throws EmployeeDataException {
+        return Optional.ofNullable(flaggedSince(asOf, issueKey).get(issueKey));
+    }
+
+    /**
+     * Returns, for every issue flagged in the latest snapshot on or before a date, since when
+     * it has been flagged without interruption. Walks back from that snapshot and stops at the
+     * first one that lacks all remaining issues.
+     *
+     * @param asOf reference date
+     * @return flagged-since date by issue key, in the reference snapshot's issue order
+     * @throws EmployeeDataException if the history cannot be read
+     */
+    public Map<String, LocalDate> flaggedSince(LocalDate asOf) throws EmployeeDataException {
+        return flaggedSince(asOf, null);
+    }
+
+    private Map<String, LocalDate> flaggedSince(LocalDate asOf, String onlyKey) throws EmployeeDataException {
+        Map<String, LocalDate> since = new LinkedHashMap<>();
+        Iterator<Map.Entry<Long, Entry>> entries = readIndex()
+            .headMap(asOf.toEpochDay(), true).descendingMap().entrySet().iterator();
+        if (!entries.hasNext()) {
+            return since;
+        }
+
+        try (FileChannel log = openLog()) {
+            Map.Entry<Long, Entry> reference = entries.next();
+            LocalDate referenceDate = LocalDate.ofEpochDay(reference.getKey());
+            for (String key : readIssueKeys(log, reference.getValue())) {
+                if (onlyKey == null || onlyKey.equals(key)) {
+                    since.put(key, referenceDate);
+                }
+            }
+
+            Set<String> open = new HashSet<>(since.keySet());
+            while (!open.isEmpty() && entries.hasNext()) {
+                Map.Entry<Long, Entry> previous = entries.next();
+                LocalDate date = LocalDate.ofEpochDay(previous.getKey());
+                Set<String> flagged = readIssueKeys(log, previous.getValue());
+                for (Iterator<String> keys = open.iterator(); keys.hasNext(); ) {
+                    String key = keys.next();
+                    if (flagged.contains(key)) {
+                        since.put(key, date);
+                    } else {
+                        keys.remove();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw readError(e);
+        }
+        return since;
+    }
+
+    /**
+     * Loads the index; for a date with several snapshots, the last appended one wins.
+     */
+    private TreeMap<Long, Entry> readIndex() throws EmployeeDataException {
+        TreeMap<Long, Entry> entries = new TreeMap<>();
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            return entries;
+        }
+        try {
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (index.remaining() < HEADER_BYTES) {
+                return entries;
+            }
+            if (index.getInt() != MAGIC || index.getInt() != VERSION) {
+                throw new EmployeeDataException("Unsupported history format: " + indexFile);
+            }
+            // A torn trailing entry is skipped
+            while (index.remaining() >= ENTRY_BYTES) {
+                entries.put(index.getLong(), new Entry(index.getLong(), index.getInt(), index.getInt(), index.getInt()));
+            }
+        } catch (IOException e) {
+            throw readError(e);
+        }
+        return entries;
+    }
+
+    private FileChannel openLog() throws IOException {
+        return FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.READ);
+    }
+
+    private static Set<String> readIssueKeys(FileChannel log, Entry entry) throws IOException {
+        return SnapshotCodec.decodeIssueKeys(
+            read(log, entry.offset + entry.summaryEnd, entry.issuesEnd - entry.summaryEnd));
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated history record at offset " + position);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Writes the header to a new file, or verifies the header of an existing one.
+     */
+    private static void checkHeader(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            return;
+        }
+        ByteBuffer header = ByteBuffer.wrap(read(channel, 0, HEADER_BYTES));
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Unsupported history format");
+        }
+    }
+
+    private EmployeeDataException readError(IOException e) {
+        return new EmployeeDataException("Error reading history: " + directory, e);
+    }
+
+    private static final class Entry {
+        final long offset;
+        final int summaryEnd;
+        final int issuesEnd;
+        final int length;
+
+        Entry(long offset, int summaryEnd, int issuesEnd, int length) {
+            this.offset = offset;
+            this.summaryEnd = summaryEnd;
+            this.issuesEnd = issuesEnd;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.company.analyzer.history;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.rule.PeerSalaryOutlierRule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact record of one analysis run, as kept by the {@link HistoryStore}.
+ *
+ * Besides the {@link SnapshotSummary} it holds the issue set, keyed by category and
+ * employee ID like in watch mode ({@code underpaid:<id>}, {@code overpaid:<id>},
+ * {@code reporting-line:<id>}, {@code <rule-id>:<id>}), and the team aggregates of every
+ * manager. Employee names and non-manager rows are not kept.
+ */
+public class Snapshot {
+    private final SnapshotSummary summary;
+    private final Map<String, Double> issues;
+    private final List<ManagerAggregate> managers;
+
+    public Snapshot(SnapshotSummary summary, Map<String, Double> issues, List<ManagerAggregate> managers) {
+        this.summary = summary;
+        this.issues = new LinkedHashMap<>(issues);
+        this.managers = new ArrayList<>(managers);
+    }
+
+    /**
+     * Records an analysis run.
+     *
+     * @param date date of the export
+     * @param org the analyzed organization
+     * @param report its analysis report
+     * @return the snapshot
+     */
+    public static Snapshot of(LocalDate date, OrgView org, AnalysisReport report) {
+        int size = org.size();
+        int maxDepth = 0;
+        List<ManagerAggregate> managers = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            maxDepth = Math.max(maxDepth, org.getDepth(i));
+            int directReports = org.getDirectReportCount(i);
+            if (directReports > 0) {
+                managers.add(new ManagerAggregate(org.getEmployee(i).getId(), org.getSalary(i),
+                    directReports, org.getDirectReportAverageSalary(i)));
+            }
+        }
+
+        Map<String, Double> issues = new LinkedHashMap<>();
+        for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {
+            issues.put("underpaid:" + issue.getManager().getId(), issue.getDifference());
+        }
+        for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {
+            issues.put("overpaid:" + issue.getManager().getId(), issue.getDifference());
+        }
+        for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {
+            issues.put("reporting-line:" + issue.getEmployee().getId(), (double) issue.getReportingLevels());
+        }
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            issues.put("peer-outlier:" + issue.getEmployee().getId(), issue.getZScore());
+        }
+        Map<String, Integer> ruleIssueCounts = new LinkedHashMap<>();
+        if (!report.getPeerSalaryOutliers().isEmpty()) {
+            ruleIssueCounts.put(PeerSalaryOutlierRule.ID, report.getPeerSalaryOutliers().size());
+        }
+        for (String ruleId : report.getRuleIds()) {
+            List<AnalysisReport.RuleIssue> ruleIssues = report.getRuleIssues(ruleId);
+            ruleIssueCounts.put(ruleId, ruleIssues.size());
+            for (AnalysisReport.RuleIssue issue : ruleIssues) {
+                issues.put(ruleId + ":" + issue.getEmployee().getId(), issue.getActualValue());
+            }
+        }
+
+        SnapshotSummary summary = new SnapshotSummary(date, size, maxDepth,
+            report.getUnderpaidManagers().size(), report.getOverpaidManagers().size(),
+            report.getLongReportingLines().size(), ruleIssueCounts);
+        return new Snapshot(summary, issues, managers);
+    }
+
+    public SnapshotSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Returns the issues by key. The value is the salary difference for salary issues,
+     * the number of reporting levels for long lines and the measured value for other rules.
+     */
+    public Map<String, Double> getIssues() {
+        return Collections.unmodifiableMap(issues);
+    }
+
+    /**
+     * Returns the aggregates of every employee with direct reports, in organization order.
+     */
+    public List<ManagerAggregate> getManagers() {
+        return Collections.unmodifiableList(managers);
+    }
+
+    /**
+     * Team aggregates of one manager.
+     */
+    public static class ManagerAggregate {
+        private final String managerId;
+        private final double salary;
+        private final int directReports;
+        private final double averageDirectReportSalary;
+
+        public ManagerAggregate(String managerId, double salary, int directReports, double averageDirectReportSalary) {
+            this.managerId = managerId;
+            this.salary = salary;
+            this.directReports = directReports;
+            this.averageDirectReportSalary = averageDirectReportSalary;
+        }
+
+        public String getManagerId() {
+            return managerId;
+        }
+
+        public double getSalary() {
+            return salary;
+        }
+
+        public int getDirectReports() {
+            return directReports;
+        }
+
+        public double getAverageDirectReportSalary() {
+            return averageDirectReportSalary;
+        }
+    }
+}
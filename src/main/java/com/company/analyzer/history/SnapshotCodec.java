@@ -0,0 +1,135 @@
+package com.company.analyzer.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary encoding of a {@link Snapshot} for the {@link HistoryStore}.
+ *
+ * A record has three sections in a fixed order: the summary, the issue set (count, then
+ * key and value per issue) and the manager aggregates (count, then ID, salary, direct
+ * report count and their average salary). The store indexes where the first two sections
+ * end, so queries decode only the prefix they need.
+ */
+final class SnapshotCodec {
+
+    private SnapshotCodec() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Encoded record and the end offsets of its summary and issue sections.
+     */
+    static final class Encoded {
+        final byte[] bytes;
+        final int summaryEnd;
+        final int issuesEnd;
+
+        Encoded(byte[] bytes, int summaryEnd, int issuesEnd) {
+            this.bytes = bytes;
+            this.summaryEnd = summaryEnd;
+            this.issuesEnd = issuesEnd;
+        }
+    }
+
+    static Encoded encode(Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        SnapshotSummary summary = snapshot.getSummary();
+        out.writeLong(summary.getDate().toEpochDay());
+        out.writeInt(summary.getEmployeeCount());
+        out.writeInt(summary.getMaxDepth());
+        out.writeInt(summary.getUnderpaidManagers());
+        out.writeInt(summary.getOverpaidManagers());
+        out.writeInt(summary.getLongReportingLines());
+        out.writeInt(summary.getRuleIssueCounts().size());
+        for (Map.Entry<String, Integer> rule : summary.getRuleIssueCounts().entrySet()) {
+            out.writeUTF(rule.getKey());
+            out.writeInt(rule.getValue());
+        }
+        int summaryEnd = out.size();
+
+        out.writeInt(snapshot.getIssues().size());
+        for (Map.Entry<String, Double> issue : snapshot.getIssues().entrySet()) {
+            out.writeUTF(issue.getKey());
+            out.writeDouble(issue.getValue());
+        }
+        int issuesEnd = out.size();
+
+        out.writeInt(snapshot.getManagers().size());
+        for (Snapshot.ManagerAggregate manager : snapshot.getManagers()) {
+            out.writeUTF(manager.getManagerId());
+            out.writeDouble(manager.getSalary());
+            out.writeInt(manager.getDirectReports());
+            out.writeDouble(manager.getAverageDirectReportSalary());
+        }
+        out.flush();
+        return new Encoded(buffer.toByteArray(), summaryEnd, issuesEnd);
+    }
+
+    static SnapshotSummary decodeSummary(byte[] record) throws IOException {
+        return readSummary(open(record));
+    }
+
+    /**
+     * Decodes only the issue keys from the bytes following the summary section.
+     */
+    static Set<String> decodeIssueKeys(byte[] issueSection) throws IOException {
+        DataInputStream in = open(issueSection);
+        int count = in.readInt();
+        Set<String> keys = new LinkedHashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            keys.add(in.readUTF());
+            in.readDouble();
+        }
+        return keys;
+    }
+
+    static Snapshot decode(byte[] record) throws IOException {
+        DataInputStream in = open(record);
+        SnapshotSummary summary = readSummary(in);
+
+        int issueCount = in.readInt();
+        Map<String, Double> issues = new LinkedHashMap<>(issueCount * 2);
+        for (int i = 0; i < issueCount; i++) {
+            issues.put(in.readUTF(), in.readDouble());
+        }
+
+        int managerCount = in.readInt();
+        List<Snapshot.ManagerAggregate> managers = new ArrayList<>(managerCount);
+        for (int i = 0; i < managerCount; i++) {
+            managers.add(new Snapshot.ManagerAggregate(in.readUTF(), in.readDouble(), in.readInt(), in.readDouble()));
+        }
+        return new Snapshot(summary, issues, managers);
+    }
+
+    private static SnapshotSummary readSummary(DataInputStream in) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        int employeeCount = in.readInt();
+        int maxDepth = in.readInt();
+        int underpaid = in.readInt();
+        int overpaid = in.readInt();
+        int longLines = in.readInt();
+        int rules = in.readInt();
+        Map<String, Integer> ruleIssueCounts = new LinkedHashMap<>();
+        for (int i = 0; i < rules; i++) {
+            ruleIssueCounts.put(in.readUTF(), in.readInt());
+        }
+        return new SnapshotSummary(date, employeeCount, maxDepth, underpaid, overpaid, longLines, ruleIssueCounts);
+    }
+
+    private static DataInputStream open(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
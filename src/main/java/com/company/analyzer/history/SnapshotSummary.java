@@ -0,0 +1,68 @@
+package com.company.analyzer.history;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Headline numbers of one analysis run: organization size, deepest reporting line and
+ * issue counts per category. This is the part of a {@link Snapshot} that trend queries read.
+ */
+public class SnapshotSummary {
+    private final LocalDate date;
+    private final int employeeCount;
+    private final int maxDepth;
+    private final int underpaidManagers;
+    private final int overpaidManagers;
+    private final int longReportingLines;
+    private final Map<String, Integer> ruleIssueCounts;
+
+    public SnapshotSummary(LocalDate date, int employeeCount, int maxDepth, int underpaidManagers,
+                           int overpaidManagers, int longReportingLines, Map<String, Integer> ruleIssueCounts) {
+        this.date = date;
+        this.employeeCount = employeeCount;
+        this.maxDepth = maxDepth;
+        this.underpaidManagers = underpaidManagers;
+        this.overpaidManagers = overpaidManagers;
+        this.longReportingLines = longReportingLines;
+        this.ruleIssueCounts = new LinkedHashMap<>(ruleIssueCounts);
+    }
+
+    /**
+     * Returns the date of the export the snapshot was taken from.
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    /**
+     * Returns the largest number of managers between an employee and the CEO.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getUnderpaidManagers() {
+        return underpaidManagers;
+    }
+
+    public int getOverpaidManagers() {
+        return overpaidManagers;
+    }
+
+    public int getLongReportingLines() {
+        return longReportingLines;
+    }
+
+    /**
+     * Returns the issue count of each additional rule that reported issues, in report order.
+     */
+    public Map<String, Integer> getRuleIssueCounts() {
+        return Collections.unmodifiableMap(ruleIssueCounts);
+    }
+}
@@ -0,0 +1,37 @@
+package com.company.analyzer.kernel;
+
+/**
+ * Bulk salary arithmetic over the primitive columns of an organization index.
+ *
+ * Direct reports are given in CSR layout: the reports of manager {@code m} are
+ * {@code children[childOffsets[m]]} up to (excluding) {@code children[childOffsets[m + 1]]}.
+ * Results for manager ranges are written to caller-provided arrays; masks are bitsets
+ * with bit {@code i % 64} of word {@code i / 64} standing for employee {@code i}.
+ *
+ * Obtain an instance through {@link SalaryKernels#get()}.
+ */
+public interface SalaryKernel {
+
+    /**
+     * Sums the salaries of the direct reports of managers {@code from} (inclusive)
+     * to {@code to} (exclusive) into {@code sums}. The salaries are added in child order,
+     * so every kernel produces the same sums to the last bit.
+     */
+    void sumDirectReports(double[] salaries, int[] children, int[] childOffsets,
+                          int from, int to, double[] sums);
+
+    /**
+     * Marks the managers in {@code [from, to)} whose salary is below
+     * {@code average * minRatio} (underpaid) or above {@code average * maxRatio}
+     * (overpaid), where the average is taken over their direct reports.
+     * Employees without direct reports are never marked. Bits are only set, never cleared.
+     */
+    void markSalaryBand(double[] salaries, double[] sums, int[] childOffsets,
+                        double minRatio, double maxRatio, int from, int to,
+                        long[] underpaid, long[] overpaid);
+
+    /**
+     * Returns a short name for diagnostics, e.g. {@code "scalar"}.
+     */
+    String getName();
+}
@@ -0,0 +1,79 @@
+package com.company.analyzer.kernel;
+
+/**
+ * Selects the salary kernel for this JVM.
+ *
+ * The vectorized kernel is used when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise, or when the system property
+ * {@value #KERNEL_PROPERTY} is set to {@code scalar}, the plain loop implementation is used.
+ */
+public final class SalaryKernels {
+    /** System property forcing a kernel: {@code scalar} or {@code vector}. */
+    public static final String KERNEL_PROPERTY = "analyzer.salary-kernel";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final SalaryKernel SCALAR = new ScalarSalaryKernel();
+    private static final SalaryKernel SELECTED = select();
+
+    private SalaryKernels() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the fastest kernel available in this JVM.
+     */
+    public static SalaryKernel get() {
+        return SELECTED;
+    }
+
+    /**
+     * Returns the plain loop kernel.
+     */
+    public static SalaryKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns whether the incubating Vector API module is present in the boot layer.
+     */
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Returns the vectorized kernel.
+     *
+     * @throws IllegalStateException if the Vector API module is not enabled
+     */
+    public static SalaryKernel vector() {
+        if (!isVectorApiAvailable()) {
+            throw new IllegalStateException("Start the JVM with --add-modules " + VECTOR_MODULE);
+        }
+        try {
+            // Loaded reflectively so this class links without the incubator module
+            return (SalaryKernel) Class.forName(SalaryKernels.class.getPackageName() + ".VectorSalaryKernel")
+                .getDeclaredConstructor()
+                .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Vector API kernel cannot be loaded: " + e.getMessage(), e);
+        }
+    }
+
+    private static SalaryKernel select() {
+        String forced = System.getProperty(KERNEL_PROPERTY, "");
+        if (forced.equals("scalar")) {
+            return SCALAR;
+        }
+        if (forced.equals("vector")) {
+            return vector();
+        }
+        if (!isVectorApiAvailable()) {
+            return SCALAR;
+        }
+        try {
+            return vector();
+        } catch (IllegalStateException e) {
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.analyzer.kernel;
+
+/**
+ * Plain loop implementation, used when the Vector API is not available.
+ */
+final class ScalarSalaryKernel implements SalaryKernel {
+
+    @Override
+    public void sumDirectReports(double[] salaries, int[] children, int[] childOffsets,
+                                 int from, int to, double[] sums) {
+        for (int m = from; m < to; m++) {
+            double sum = 0.0;
+            for (int k = childOffsets[m]; k < childOffsets[m + 1]; k++) {
+                sum += salaries[children[k]];
+            }
+            sums[m] = sum;
+        }
+    }
+
+    @Override
+    public void markSalaryBand(double[] salaries, double[] sums, int[] childOffsets,
+                               double minRatio, double maxRatio, int from, int to,
+                               long[] underpaid, long[] overpaid) {
+        for (int i = from; i < to; i++) {
+            int count = childOffsets[i + 1] - childOffsets[i];
+            if (count == 0) {
+                continue;
+            }
+            double average = sums[i] / count;
+            if (salaries[i] < average * minRatio) {
+                underpaid[i >>> 6] |= 1L << i;
+            } else if (salaries[i] > average * maxRatio) {
+                overpaid[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
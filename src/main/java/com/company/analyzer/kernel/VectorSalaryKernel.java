@@ -0,0 +1,79 @@
+package com.company.analyzer.kernel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation on top of the incubating {@code jdk.incubator.vector} module.
+ *
+ * Only loaded through {@link SalaryKernels}, and only when the module is part of the
+ * boot layer; referencing this class without the module fails with a linkage error.
+ * Tails shorter than one vector are handled by the scalar loop.
+ *
+ * Only the band masks are vectorized. Direct report sums are added one by one in child
+ * order, as in the scalar kernel: a lane-wise reduction has no defined order, so its sums
+ * could differ in the last bit between kernels and lane widths and flip managers that sit
+ * exactly on a band limit.
+ */
+final class VectorSalaryKernel implements SalaryKernel {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Same lane count as DOUBLES, used to load the CSR offsets
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(
+        int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private final ScalarSalaryKernel tail = new ScalarSalaryKernel();
+
+    @Override
+    public void sumDirectReports(double[] salaries, int[] children, int[] childOffsets,
+                                 int from, int to, double[] sums) {
+        tail.sumDirectReports(salaries, children, childOffsets, from, to, sums);
+    }
+
+    @Override
+    public void markSalaryBand(double[] salaries, double[] sums, int[] childOffsets,
+                               double minRatio, double maxRatio, int from, int to,
+                               long[] underpaid, long[] overpaid) {
+        int lanes = DOUBLES.length();
+        int upper = from + DOUBLES.loopBound(to - from);
+        int i = from;
+        for (; i < upper; i += lanes) {
+            DoubleVector salary = DoubleVector.fromArray(DOUBLES, salaries, i);
+            DoubleVector sum = DoubleVector.fromArray(DOUBLES, sums, i);
+            DoubleVector count = (DoubleVector) IntVector.fromArray(INTS, childOffsets, i + 1)
+                .sub(IntVector.fromArray(INTS, childOffsets, i))
+                .convertShape(VectorOperators.I2D, DOUBLES, 0);
+
+            // Lanes without direct reports divide by zero; the mask discards them
+            VectorMask<Double> isManager = count.compare(VectorOperators.GT, 0.0);
+            DoubleVector average = sum.div(count);
+            VectorMask<Double> under = salary.compare(VectorOperators.LT, average.mul(minRatio)).and(isManager);
+            VectorMask<Double> over = salary.compare(VectorOperators.GT, average.mul(maxRatio)).and(isManager)
+                .andNot(under);
+
+            setBits(underpaid, i, under.toLong());
+            setBits(overpaid, i, over.toLong());
+        }
+        tail.markSalaryBand(salaries, sums, childOffsets, minRatio, maxRatio, i, to, underpaid, overpaid);
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + DOUBLES.vectorBitSize();
+    }
+
+    private static void setBits(long[] bits, int position, long laneBits) {
+        if (laneBits == 0) {
+            return;
+        }
+        int word = position >>> 6;
+        int shift = position & 63;
+        bits[word] |= laneBits << shift;
+        if (shift != 0 && (laneBits >>> (64 - shift)) != 0) {
+            bits[word + 1] |= laneBits >>> (64 - shift);
+        }
+    }
+}
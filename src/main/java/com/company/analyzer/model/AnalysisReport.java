@@ -1,54 +1,297 @@
 package com.company.analyzer.model;
   
+import java.util.AbstractList;
 import java.util.ArrayList;  
+import java.util.Arrays;
 import java.util.Collections;  
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
   
 /**  
  * Contains the results of organizational analysis.  
- * Includes salary discrepancies and reporting line issues.  
+ * Includes salary discrepancies, reporting line issues and peer salary outliers,
+ * plus the issues of any additional rules, grouped by rule ID.
+ *
+ * Salary, reporting line and peer outlier issues are stored column-wise in primitive arrays. A report
+ * created for an {@link OrgIndex} keeps only the employee's index for issues added through
+ * that index, and resolves the {@link Employee} when the issue is read. The issue objects
+ * returned by the getters are views built on access.
  */  
 public class AnalysisReport {  
-    private final List<SalaryIssue> underpaidManagers;  
-    private final List<SalaryIssue> overpaidManagers;  
-    private final List<ReportingLineIssue> longReportingLines;
+    private final OrgIndex org;
+    private final List<Employee> detachedEmployees;
+    private final IssueColumns underpaidManagers;  
+    private final IssueColumns overpaidManagers;  
+    private final IssueColumns longReportingLines;
+    private final IssueColumns peerSalaryOutliers;
+    private final Map<String, List<RuleIssue>> ruleIssues;
+    private boolean sealed;
   
     public AnalysisReport() {  
-        this.underpaidManagers = new ArrayList<>();  
-        this.overpaidManagers = new ArrayList<>();  
-        this.longReportingLines = new ArrayList<>();  
+        this(null);
+    }
+
+    /**
+     * Creates a report whose issues may refer to employees of {@code org} by index.
+     * The index is immutable, so the report can be read from any thread.
+     *
+     * @param org the organization the report is computed for, or null
+     */
+    public AnalysisReport(OrgIndex org) {
+        this.org = org;
+        this.detachedEmployees = new ArrayList<>();
+        this.underpaidManagers = new IssueColumns();  
+        this.overpaidManagers = new IssueColumns();  
+        this.longReportingLines = new IssueColumns();  
+        this.peerSalaryOutliers = new IssueColumns();
+        this.ruleIssues = new LinkedHashMap<>();
     }
   
     public void addUnderpaidManager(SalaryIssue issue) {  
-        underpaidManagers.add(issue);  
+        checkWritable();
+        underpaidManagers.add(detach(issue.getManager()), issue.getAverageSubordinateSalary(), issue.getDifference());
+    }
+
+    /**
+     * Adds an underpaid manager without allocating an issue object if {@code view} is
+     * this report's organization.
+     */
+    public void addUnderpaidManager(OrgView view, int manager, double averageSubordinateSalary, double difference) {
+        checkWritable();
+        underpaidManagers.add(reference(view, manager), averageSubordinateSalary, difference);
     }
   
     public void addOverpaidManager(SalaryIssue issue) {  
-        overpaidManagers.add(issue);  
+        checkWritable();
+        overpaidManagers.add(detach(issue.getManager()), issue.getAverageSubordinateSalary(), issue.getDifference());
+    }
+
+    /**
+     * Adds an overpaid manager without allocating an issue object if {@code view} is
+     * this report's organization.
+     */
+    public void addOverpaidManager(OrgView view, int manager, double averageSubordinateSalary, double difference) {
+        checkWritable();
+        overpaidManagers.add(reference(view, manager), averageSubordinateSalary, difference);
     }
   
     public void addLongReportingLine(ReportingLineIssue issue) {  
-        longReportingLines.add(issue);  
+        checkWritable();
+        longReportingLines.add(detach(issue.getEmployee()), issue.getReportingLevels(), issue.getExcessLevels());
+    }
+
+    /**
+     * Adds a long reporting line without allocating an issue object if {@code view} is
+     * this report's organization.
+     */
+    public void addLongReportingLine(OrgView view, int employee, int reportingLevels, int excessLevels) {
+        checkWritable();
+        longReportingLines.add(reference(view, employee), reportingLevels, excessLevels);
+    }
+
+    public void addPeerSalaryOutlier(PeerSalaryOutlier issue) {
+        checkWritable();
+        peerSalaryOutliers.add(detach(issue.getEmployee()), issue.getPeerAverageSalary(), issue.getZScore());
+    }
+
+    /**
+     * Adds a peer salary outlier without allocating an issue object if {@code view} is
+     * this report's organization.
+     */
+    public void addPeerSalaryOutlier(OrgView view, int employee, double peerAverageSalary, double zScore) {
+        checkWritable();
+        peerSalaryOutliers.add(reference(view, employee), peerAverageSalary, zScore);
+    }
+
+    public void addRuleIssue(RuleIssue issue) {
+        checkWritable();
+        ruleIssues.computeIfAbsent(issue.getRuleId(), ruleId -> new ArrayList<>()).add(issue);
     }
   
     public List<SalaryIssue> getUnderpaidManagers() {  
-        return Collections.unmodifiableList(underpaidManagers);  
+        return new SalaryIssueList(underpaidManagers);
     }
   
     public List<SalaryIssue> getOverpaidManagers() {  
-        return Collections.unmodifiableList(overpaidManagers);  
+        return new SalaryIssueList(overpaidManagers);
     }
   
     public List<ReportingLineIssue> getLongReportingLines() {  
-        return Collections.unmodifiableList(longReportingLines);  
+        return new ReportingLineIssueList(longReportingLines);
+    }
+
+    public List<PeerSalaryOutlier> getPeerSalaryOutliers() {
+        return new PeerSalaryOutlierList(peerSalaryOutliers);
     }
   
+    /**
+     * Returns the IDs of the additional rules that reported issues, in the order
+     * their first issue was added.
+     */
+    public Set<String> getRuleIds() {
+        return Collections.unmodifiableSet(ruleIssues.keySet());
+    }
+
+    /**
+     * Returns the issues reported by an additional rule.
+     *
+     * @param ruleId the rule ID
+     * @return the rule's issues, empty if it reported none
+     */
+    public List<RuleIssue> getRuleIssues(String ruleId) {
+        List<RuleIssue> issues = ruleIssues.get(ruleId);
+        return issues == null ? List.of() : Collections.unmodifiableList(issues);
+    }
+
     public boolean hasIssues() {  
-        return !underpaidManagers.isEmpty() ||   
-               !overpaidManagers.isEmpty() ||   
-               !longReportingLines.isEmpty();  
+        return underpaidManagers.size > 0 ||
+               overpaidManagers.size > 0 ||
+               longReportingLines.size > 0 ||
+               peerSalaryOutliers.size > 0 ||
+               !ruleIssues.isEmpty();
+    }
+
+    /**
+     * Appends all issues of another report, after the issues already present.
+     */
+    void appendAll(AnalysisReport other) {
+        checkWritable();
+        appendColumns(other, other.underpaidManagers, underpaidManagers);
+        appendColumns(other, other.overpaidManagers, overpaidManagers);
+        appendColumns(other, other.longReportingLines, longReportingLines);
+        appendColumns(other, other.peerSalaryOutliers, peerSalaryOutliers);
+        other.ruleIssues.forEach((ruleId, issues) ->
+            ruleIssues.computeIfAbsent(ruleId, id -> new ArrayList<>()).addAll(issues));
+    }
+
+    /**
+     * Makes the report read-only; any further add throws {@link IllegalStateException}.
+     */
+    void seal() {
+        sealed = true;
+    }
+
+    private void checkWritable() {
+        if (sealed) {
+            throw new IllegalStateException("Report is read-only");
+        }
+    }
+
+    private void appendColumns(AnalysisReport other, IssueColumns from, IssueColumns to) {
+        for (int i = 0; i < from.size; i++) {
+            int reference = from.employees[i];
+            if (reference < 0 || other.org != org) {
+                reference = detach(other.resolve(reference));
+            }
+            to.add(reference, from.first[i], from.second[i]);
+        }
+    }
+
+    /**
+     * Encodes an employee of this report's organization as its index; any other
+     * employee is kept in the detached list and encoded as {@code -1 - position}.
+     */
+    private int reference(OrgView view, int employee) {
+        if (view == org && org != null) {
+            return employee;
+        }
+        return detach(view.getEmployee(employee));
+    }
+
+    private int detach(Employee employee) {
+        detachedEmployees.add(employee);
+        return -detachedEmployees.size();
+    }
+
+    private Employee resolve(int reference) {
+        return reference >= 0 ? org.getEmployee(reference) : detachedEmployees.get(-1 - reference);
+    }
+
+    /**
+     * Growable parallel arrays: an employee reference and two values per issue.
+     */
+    private static final class IssueColumns {
+        private int[] employees = new int[0];
+        private double[] first = new double[0];
+        private double[] second = new double[0];
+        private int size;
+
+        void add(int employee, double firstValue, double secondValue) {
+            if (size == employees.length) {
+                int capacity = Math.max(8, size * 2);
+                employees = Arrays.copyOf(employees, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+            }
+            employees[size] = employee;
+            first[size] = firstValue;
+            second[size] = secondValue;
+            size++;
+        }
+    }
+
+    private final class SalaryIssueList extends AbstractList<SalaryIssue> implements RandomAccess {
+        private final IssueColumns columns;
+
+        SalaryIssueList(IssueColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public SalaryIssue get(int index) {
+            Objects.checkIndex(index, columns.size);
+            return new SalaryIssue(resolve(columns.employees[index]), columns.first[index], columns.second[index]);
+        }
+
+        @Override
+        public int size() {
+            return columns.size;
+        }
+    }
+
+    private final class ReportingLineIssueList extends AbstractList<ReportingLineIssue> implements RandomAccess {
+        private final IssueColumns columns;
+
+        ReportingLineIssueList(IssueColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public ReportingLineIssue get(int index) {
+            Objects.checkIndex(index, columns.size);
+            return new ReportingLineIssue(resolve(columns.employees[index]),
+                (int) columns.first[index], (int) columns.second[index]);
+        }
+
+        @Override
+        public int size() {
+            return columns.size;
+        }
     }
   
+    private final class PeerSalaryOutlierList extends AbstractList<PeerSalaryOutlier> implements RandomAccess {
+        private final IssueColumns columns;
+
+        PeerSalaryOutlierList(IssueColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public PeerSalaryOutlier get(int index) {
+            Objects.checkIndex(index, columns.size);
+            return new PeerSalaryOutlier(resolve(columns.employees[index]), columns.first[index], columns.second[index]);
+        }
+
+        @Override
+        public int size() {
+            return columns.size;
+        }
+    }
+
     /**  
      * Represents a salary discrepancy for a manager.  
      */  
@@ -102,4 +345,75 @@ public class AnalysisReport {
             return excessLevels;  
         }  
     }  
-}  
\ No newline at end of file
+
+    /**
+     * Represents an employee whose salary stands out from the salaries of the other
+     * direct reports of the same manager. The z-score is the distance from the peers'
+     * average in standard deviations of the peers' salaries; it is negative for
+     * employees paid below their peers.
+     */
+    public static class PeerSalaryOutlier {
+        private final Employee employee;
+        private final double peerAverageSalary;
+        private final double zScore;
+
+        public PeerSalaryOutlier(Employee employee, double peerAverageSalary, double zScore) {
+            this.employee = employee;
+            this.peerAverageSalary = peerAverageSalary;
+            this.zScore = zScore;
+        }
+
+        public Employee getEmployee() {
+            return employee;
+        }
+
+        public double getPeerAverageSalary() {
+            return peerAverageSalary;
+        }
+
+        public double getZScore() {
+            return zScore;
+        }
+    }
+
+    /**
+     * Represents an issue reported by a rule without a dedicated category,
+     * e.g. a span-of-control violation. The actual value is compared against
+     * the rule's configured limit.
+     */
+    public static class RuleIssue {
+        private final String ruleId;
+        private final Employee employee;
+        private final double actualValue;
+        private final double limit;
+        private final String description;
+
+        public RuleIssue(String ruleId, Employee employee, double actualValue, double limit, String description) {
+            this.ruleId = ruleId;
+            this.employee = employee;
+            this.actualValue = actualValue;
+            this.limit = limit;
+            this.description = description;
+        }
+
+        public String getRuleId() {
+            return ruleId;
+        }
+
+        public Employee getEmployee() {
+            return employee;
+        }
+
+        public double getActualValue() {
+            return actualValue;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.company.analyzer.model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contains the outcome of a batch run over several CSV files.
+ * Successful files and failed files are kept apart so one bad input
+ * never hides the results of the others.
+ */
+public class BatchSummary {
+    private final List<FileResult> results;
+
+    public BatchSummary(List<FileResult> results) {
+        this.results = new ArrayList<>(results);
+    }
+
+    public List<FileResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    public List<FileResult> getSuccessfulResults() {
+        return results.stream().filter(FileResult::isSuccess).toList();
+    }
+
+    public List<FileResult> getFailedResults() {
+        return results.stream().filter(result -> !result.isSuccess()).toList();
+    }
+
+    public boolean hasFailures() {
+        return results.stream().anyMatch(result -> !result.isSuccess());
+    }
+
+    /**
+     * Represents the outcome of analyzing a single input file.
+     */
+    public static class FileResult {
+        private final Path input;
+        private final Path reportFile;
+        private final int employeeCount;
+        private final int underpaidManagers;
+        private final int overpaidManagers;
+        private final int longReportingLines;
+        private final int peerSalaryOutliers;
+        private final String error;
+
+        private FileResult(Path input, Path reportFile, int employeeCount, int underpaidManagers,
+                           int overpaidManagers, int longReportingLines, int peerSalaryOutliers, String error) {
+            this.input = input;
+            this.reportFile = reportFile;
+            this.employeeCount = employeeCount;
+            this.underpaidManagers = underpaidManagers;
+            this.overpaidManagers = overpaidManagers;
+            this.longReportingLines = longReportingLines;
+            this.peerSalaryOutliers = peerSalaryOutliers;
+            this.error = error;
+        }
+
+        public static FileResult success(Path input, Path reportFile, int employeeCount, AnalysisReport report) {
+            return new FileResult(input, reportFile, employeeCount,
+                report.getUnderpaidManagers().size(),
+                report.getOverpaidManagers().size(),
+                report.getLongReportingLines().size(),
+                report.getPeerSalaryOutliers().size(),
+                null);
+        }
+
+        public static FileResult failure(Path input, String error) {
+            return new FileResult(input, null, 0, 0, 0, 0, 0, error);
+        }
+
+        public Path getInput() {
+            return input;
+        }
+
+        public Path getReportFile() {
+            return reportFile;
+        }
+
+        public int getEmployeeCount() {
+            return employeeCount;
+        }
+
+        public int getUnderpaidManagers() {
+            return underpaidManagers;
+        }
+
+        public int getOverpaidManagers() {
+            return overpaidManagers;
+        }
+
+        public int getLongReportingLines() {
+            return longReportingLines;
+        }
+
+        public int getPeerSalaryOutliers() {
+            return peerSalaryOutliers;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
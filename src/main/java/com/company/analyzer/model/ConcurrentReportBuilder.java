@@ -0,0 +1,66 @@
+package com.company.analyzer.model;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Collects issues from several producer threads into one report.
+ *
+ * Each producer writes to its own segment, an unshared {@link AnalysisReport}, so adding
+ * an issue takes no lock and touches no shared state. Only creating a segment goes
+ * through the builder. Segments are identified by an ordering key, and {@link #build()}
+ * concatenates them in key order, so the final report does not depend on how the
+ * producers were scheduled. Giving each producer a contiguous index range and keying the
+ * segment by the range's start yields the same report as a sequential pass.
+ */
+public final class ConcurrentReportBuilder {
+    private final OrgIndex org;
+    private final ConcurrentSkipListMap<Long, AnalysisReport> segments = new ConcurrentSkipListMap<>();
+    private volatile boolean built;
+
+    /**
+     * @param org the organization the issues refer to, or null if producers add detached issues
+     */
+    public ConcurrentReportBuilder(OrgIndex org) {
+        this.org = org;
+    }
+
+    /**
+     * Creates the buffer for one producer. The segment must only be written by one
+     * thread at a time.
+     *
+     * @param order position of the segment's issues in the final report
+     * @throws IllegalArgumentException if a segment with that key already exists
+     * @throws IllegalStateException if the report was already built
+     */
+    public AnalysisReport segment(long order) {
+        if (built) {
+            throw new IllegalStateException("Report already built");
+        }
+        AnalysisReport segment = new AnalysisReport(org);
+        if (segments.putIfAbsent(order, segment) != null) {
+            throw new IllegalArgumentException("Duplicate segment: " + order);
+        }
+        return segment;
+    }
+
+    /**
+     * Combines all segments into one read-only report. Must be called after every producer
+     * has finished, e.g. after joining their tasks.
+     *
+     * @throws IllegalStateException if the report was already built
+     */
+    public AnalysisReport build() {
+        if (built) {
+            throw new IllegalStateException("Report already built");
+        }
+        built = true;
+        AnalysisReport report = new AnalysisReport(org);
+        for (AnalysisReport segment : segments.values()) {
+            report.appendAll(segment);
+            segment.seal();
+        }
+        segments.clear();
+        report.seal();
+        return report;
+    }
+}
@@ -0,0 +1,155 @@
+package com.company.analyzer.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the rows rejected by a lenient read, so that one pass over a large file
+ * reports all of its problems instead of stopping at the first.
+ *
+ * Errors are grouped by kind (such as "Invalid salary value" or "Duplicate employee ID").
+ * Every kind keeps its total count and the first few distinct occurrences with their line
+ * numbers; the number of kinds is capped as well, so a file in which every row is broken
+ * does not hold its errors in memory. Errors of kinds beyond the cap are only counted.
+ * A buffer is not thread-safe; readers record errors from the thread that assembles rows
+ * in file order.
+ */
+public class IngestionErrors {
+    /** Distinct kinds kept by default. */
+    public static final int DEFAULT_MAX_KINDS = 32;
+    /** Occurrences kept per kind by default. */
+    public static final int DEFAULT_SAMPLES_PER_KIND = 5;
+
+    private final int maxKinds;
+    private final int samplesPerKind;
+    private final Map<String, ErrorKind> kinds = new LinkedHashMap<>();
+    private long totalCount;
+    private long otherCount;
+
+    public IngestionErrors() {
+        this(DEFAULT_MAX_KINDS, DEFAULT_SAMPLES_PER_KIND);
+    }
+
+    /**
+     * @param maxKinds number of distinct kinds kept
+     * @param samplesPerKind number of distinct occurrences kept per kind
+     */
+    public IngestionErrors(int maxKinds, int samplesPerKind) {
+        if (maxKinds < 1 || samplesPerKind < 1) {
+            throw new IllegalArgumentException("Error buffer limits must be positive");
+        }
+        this.maxKinds = maxKinds;
+        this.samplesPerKind = samplesPerKind;
+    }
+
+    /**
+     * Records a rejected row.
+     *
+     * @param lineNumber line of the row in the input file
+     * @param kind what is wrong, without row-specific values
+     * @param message the full error message
+     */
+    public void record(long lineNumber, String kind, String message) {
+        totalCount++;
+        ErrorKind errorKind = kinds.get(kind);
+        if (errorKind == null) {
+            if (kinds.size() == maxKinds) {
+                otherCount++;
+                return;
+            }
+            errorKind = new ErrorKind(kind);
+            kinds.put(kind, errorKind);
+        }
+        errorKind.add(lineNumber, message, samplesPerKind);
+    }
+
+    public boolean hasErrors() {
+        return totalCount > 0;
+    }
+
+    /**
+     * Returns the number of rejected rows, including those of kinds beyond the cap.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of rejected rows whose kind was not kept.
+     */
+    public long getOtherCount() {
+        return otherCount;
+    }
+
+    /**
+     * Returns the kept kinds in the order they were first seen.
+     */
+    public List<ErrorKind> getKinds() {
+        return List.copyOf(kinds.values());
+    }
+
+    /**
+     * One kind of error with its count and first distinct occurrences.
+     */
+    public static class ErrorKind {
+        private final String kind;
+        private final List<Occurrence> occurrences = new ArrayList<>();
+        private long count;
+
+        private ErrorKind(String kind) {
+            this.kind = kind;
+        }
+
+        private void add(long lineNumber, String message, int samples) {
+            count++;
+            if (occurrences.size() == samples) {
+                return;
+            }
+            for (Occurrence occurrence : occurrences) {
+                if (occurrence.message.equals(message)) {
+                    return;
+                }
+            }
+            occurrences.add(new Occurrence(lineNumber, message));
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the first occurrences with distinct messages, in file order.
+         */
+        public List<Occurrence> getOccurrences() {
+            return Collections.unmodifiableList(occurrences);
+        }
+    }
+
+    /**
+     * A rejected row: its line number and what was wrong with it.
+     */
+    public static class Occurrence {
+        private final long lineNumber;
+        private final String message;
+
+        private Occurrence(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.company.analyzer.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Describes how the issues of an organization changed between two analysis runs.
+ * Issues are identified by a stable key (category plus employee ID); the value is
+ * a human-readable description of the issue.
+ */
+public class IssueDelta {
+    private final Map<String, String> added;
+    private final Map<String, String> resolved;
+    private final Map<String, String> changed;
+
+    private IssueDelta(Map<String, String> added, Map<String, String> resolved, Map<String, String> changed) {
+        this.added = added;
+        this.resolved = resolved;
+        this.changed = changed;
+    }
+
+    /**
+     * Computes the delta between two keyed issue sets.
+     *
+     * @param previous issues of the previous run, empty for the first run
+     * @param current issues of the current run
+     * @return the issues that appeared, disappeared or changed
+     */
+    public static IssueDelta between(Map<String, String> previous, Map<String, String> current) {
+        Map<String, String> added = new LinkedHashMap<>();
+        Map<String, String> changed = new LinkedHashMap<>();
+        Map<String, String> resolved = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String before = previous.get(entry.getKey());
+            if (before == null) {
+                added.put(entry.getKey(), entry.getValue());
+            } else if (!before.equals(entry.getValue())) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, String> entry : previous.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                resolved.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new IssueDelta(added, resolved, changed);
+    }
+
+    public Map<String, String> getAdded() {
+        return Collections.unmodifiableMap(added);
+    }
+
+    public Map<String, String> getResolved() {
+        return Collections.unmodifiableMap(resolved);
+    }
+
+    public Map<String, String> getChanged() {
+        return Collections.unmodifiableMap(changed);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && resolved.isEmpty() && changed.isEmpty();
+    }
+}
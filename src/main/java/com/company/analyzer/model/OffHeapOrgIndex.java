@@ -0,0 +1,297 @@
+package com.company.analyzer.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Organization index whose columns live outside the Java heap, for processes that keep
+ * an organization loaded for a long time.
+ *
+ * Salaries, direct-report salary sums and variances, manager indices, depths and the direct-report
+ * lists are stored in direct {@link ByteBuffer}s, as are the employees' IDs and names
+ * (one UTF-8 pool with an offset column) and an open-addressing table from ID to index.
+ * The heap holds a dozen buffer objects whatever the headcount, so the garbage collector
+ * neither scans nor copies the organization. {@link #getEmployee} decodes a new
+ * {@link Employee} on every call; the analysis only asks for employees it reports on.
+ *
+ * Instances are immutable and only read the buffers at absolute positions, so any
+ * number of threads can share one. The memory is released when the instance is
+ * garbage collected. A single column holds at most 2 GB, which limits the name pool
+ * rather than the headcount.
+ */
+public final class OffHeapOrgIndex implements OrgView {
+    private static final int STRINGS_PER_EMPLOYEE = 3;
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 2;
+    private static final int EMPTY = 0;
+
+    private final int size;
+    private final int ceoIndex;
+    private final ByteBuffer salaries;
+    private final ByteBuffer directSalarySum;
+    private final ByteBuffer directSalaryVariance;
+    private final ByteBuffer managerIndex;
+    private final ByteBuffer depth;
+    private final ByteBuffer childOffsets;
+    private final ByteBuffer children;
+    /** Start of every employee's ID, first and last name in the pool, plus the pool's end. */
+    private final ByteBuffer stringOffsets;
+    private final ByteBuffer stringPool;
+    /** Open-addressing table of employee index + 1 by ID hash; 0 marks a free slot. */
+    private final ByteBuffer idTable;
+    private final int idTableMask;
+
+    private OffHeapOrgIndex(int size, int ceoIndex, ByteBuffer salaries, ByteBuffer directSalarySum,
+                            ByteBuffer directSalaryVariance, ByteBuffer managerIndex, ByteBuffer depth, ByteBuffer childOffsets, ByteBuffer children,
+                            ByteBuffer stringOffsets, ByteBuffer stringPool, ByteBuffer idTable) {
+        this.size = size;
+        this.ceoIndex = ceoIndex;
+        this.salaries = salaries;
+        this.directSalarySum = directSalarySum;
+        this.directSalaryVariance = directSalaryVariance;
+        this.managerIndex = managerIndex;
+        this.depth = depth;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.stringOffsets = stringOffsets;
+        this.stringPool = stringPool;
+        this.idTable = idTable;
+        this.idTableMask = idTable.capacity() / Integer.BYTES - 1;
+    }
+
+    /**
+     * Copies a validated organization off the heap, keeping its employee indices. The
+     * source index can be dropped afterwards.
+     *
+     * @param org the organization to copy
+     * @return the off-heap copy
+     * @throws IllegalArgumentException if the names do not fit into one 2 GB column
+     */
+    public static OffHeapOrgIndex copyOf(OrgIndex org) {
+        int n = org.size();
+        ByteBuffer salaries = allocate(n, Double.BYTES);
+        ByteBuffer directSalarySum = allocate(n, Double.BYTES);
+        ByteBuffer directSalaryVariance = allocate(n, Double.BYTES);
+        ByteBuffer managerIndex = allocate(n, Integer.BYTES);
+        ByteBuffer depth = allocate(n, Integer.BYTES);
+        ByteBuffer childOffsets = allocate(n + 1L, Integer.BYTES);
+        ByteBuffer children = allocate(n - 1L, Integer.BYTES);
+        ByteBuffer stringOffsets = allocate(STRINGS_PER_EMPLOYEE * (long) n + 1, Integer.BYTES);
+        ByteBuffer stringPool = allocate(n, 32);
+        ByteBuffer idTable = allocate(Integer.highestOneBit(Math.max(2, n) * 2 - 1) * 2L, Integer.BYTES);
+
+        int childCursor = 0;
+        for (int i = 0; i < n; i++) {
+            salaries.putDouble(org.getSalary(i));
+            directSalarySum.putDouble(org.getDirectReportSalarySum(i));
+            directSalaryVariance.putDouble(org.getDirectReportSalaryVariance(i));
+            managerIndex.putInt(org.getManagerIndex(i));
+            depth.putInt(org.getDepth(i));
+            childOffsets.putInt(childCursor);
+            int reports = org.getDirectReportCount(i);
+            for (int k = 0; k < reports; k++) {
+                children.putInt(org.getDirectReport(i, k));
+            }
+            childCursor += reports;
+
+            Employee employee = org.getEmployee(i);
+            stringOffsets.putInt(stringPool.position());
+            stringPool = putUtf8(stringPool, employee.getId());
+            stringOffsets.putInt(stringPool.position());
+            stringPool = putUtf8(stringPool, employee.getFirstName());
+            stringOffsets.putInt(stringPool.position());
+            stringPool = putUtf8(stringPool, employee.getLastName());
+        }
+        childOffsets.putInt(childCursor);
+        stringOffsets.putInt(stringPool.position());
+
+        OffHeapOrgIndex index = new OffHeapOrgIndex(n, org.getCeoIndex(), salaries, directSalarySum,
+            directSalaryVariance, managerIndex, depth, childOffsets, children, stringOffsets, shrink(stringPool), idTable);
+        for (int i = 0; i < n; i++) {
+            index.insertId(i);
+        }
+        return index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes the employee at the index; every call returns a new object.
+     */
+    @Override
+    public Employee getEmployee(int index) {
+        int manager = getManagerIndex(index);
+        return new Employee(string(index, 0), string(index, FIRST_NAME), string(index, LAST_NAME),
+            getSalary(index), manager == OrgIndex.NO_MANAGER ? null : string(manager, 0));
+    }
+
+    /**
+     * Returns the index of the employee with the given ID, or -1 if there is none.
+     */
+    public int indexOf(String employeeId) {
+        byte[] id = employeeId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(id, 0, id.length);
+        for (int slot = hash & idTableMask; ; slot = (slot + 1) & idTableMask) {
+            int entry = idTable.getInt(slot * Integer.BYTES);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (idEquals(entry - 1, id)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    public int getCeoIndex() {
+        return ceoIndex;
+    }
+
+    @Override
+    public int getManagerIndex(int index) {
+        return managerIndex.getInt(index * Integer.BYTES);
+    }
+
+    @Override
+    public int getDepth(int index) {
+        return depth.getInt(index * Integer.BYTES);
+    }
+
+    @Override
+    public double getSalary(int index) {
+        return salaries.getDouble(index * Double.BYTES);
+    }
+
+    @Override
+    public int getDirectReportCount(int index) {
+        return childOffsets.getInt((index + 1) * Integer.BYTES) - childOffsets.getInt(index * Integer.BYTES);
+    }
+
+    @Override
+    public double getDirectReportSalarySum(int index) {
+        return directSalarySum.getDouble(index * Double.BYTES);
+    }
+
+    @Override
+    public double getDirectReportSalaryVariance(int index) {
+        return directSalaryVariance.getDouble(index * Double.BYTES);
+    }
+
+    /**
+     * Returns the index of the {@code i}-th direct report of a manager.
+     */
+    public int getDirectReport(int managerIndex, int i) {
+        return children.getInt((childOffsets.getInt(managerIndex * Integer.BYTES) + i) * Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of bytes held outside the heap.
+     */
+    public long getOffHeapBytes() {
+        return (long) salaries.capacity() + directSalarySum.capacity() + directSalaryVariance.capacity()
+            + managerIndex.capacity()
+            + depth.capacity() + childOffsets.capacity() + children.capacity()
+            + stringOffsets.capacity() + stringPool.capacity() + idTable.capacity();
+    }
+
+    private String string(int index, int field) {
+        int entry = (index * STRINGS_PER_EMPLOYEE + field) * Integer.BYTES;
+        int start = stringOffsets.getInt(entry);
+        byte[] bytes = new byte[stringOffsets.getInt(entry + Integer.BYTES) - start];
+        stringPool.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void insertId(int index) {
+        int entry = index * STRINGS_PER_EMPLOYEE * Integer.BYTES;
+        int start = stringOffsets.getInt(entry);
+        int hash = hash(stringPool, start, stringOffsets.getInt(entry + Integer.BYTES));
+        int slot = hash & idTableMask;
+        while (idTable.getInt(slot * Integer.BYTES) != EMPTY) {
+            slot = (slot + 1) & idTableMask;
+        }
+        idTable.putInt(slot * Integer.BYTES, index + 1);
+    }
+
+    private boolean idEquals(int index, byte[] id) {
+        int entry = index * STRINGS_PER_EMPLOYEE * Integer.BYTES;
+        int start = stringOffsets.getInt(entry);
+        if (stringOffsets.getInt(entry + Integer.BYTES) - start != id.length) {
+            return false;
+        }
+        for (int i = 0; i < id.length; i++) {
+            if (stringPool.get(start + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes of an ID, with a final mix so that the low bits used
+     * for the slot depend on every byte.
+     */
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 0x811c9dc5;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(ByteBuffer bytes, int from, int to) {
+        int hash = 0x811c9dc5;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (bytes.get(i) & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Appends the string's UTF-8 bytes, growing the pool if needed. ASCII strings, by far
+     * the common case for IDs and names, are written without an intermediate array.
+     */
+    private static ByteBuffer putUtf8(ByteBuffer pool, String value) {
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        byte[] bytes = ascii ? null : value.getBytes(StandardCharsets.UTF_8);
+        int needed = ascii ? length : bytes.length;
+        if (pool.remaining() < needed) {
+            long capacity = Math.max((long) pool.capacity() * 2, (long) pool.position() + needed);
+            if (capacity > Integer.MAX_VALUE) {
+                capacity = (long) pool.position() + needed;
+            }
+            ByteBuffer grown = allocate(capacity, 1);
+            grown.put(pool.flip());
+            pool = grown;
+        }
+        if (ascii) {
+            for (int i = 0; i < length; i++) {
+                pool.put((byte) value.charAt(i));
+            }
+        } else {
+            pool.put(bytes);
+        }
+        return pool;
+    }
+
+    private static ByteBuffer shrink(ByteBuffer pool) {
+        ByteBuffer exact = allocate(pool.position(), 1);
+        exact.put(pool.flip());
+        return exact;
+    }
+
+    private static ByteBuffer allocate(long count, int bytesPerEntry) {
+        long bytes = count * bytesPerEntry;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Organization column exceeds 2 GB: " + bytes + " bytes");
+        }
+        return ByteBuffer.allocateDirect((int) Math.max(0, bytes)).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,409 @@
+package com.company.analyzer.model;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.kernel.SalaryKernels;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Array-based index of a validated organization.
+ *
+ * Employees are addressed by their position in the input list. The index keeps
+ * the manager of every employee, its depth below the CEO, its salary and the
+ * direct-report aggregates (count, salary sum and salary variance) in primitive arrays, so analysis
+ * passes can read per-node facts in constant time without walking the hierarchy.
+ * Bulk salary arithmetic over these columns goes through the {@link SalaryKernels}.
+ * Instances are immutable once built.
+ */
+public final class OrgIndex implements OrgView {
+    /** Manager index of the CEO. */
+    public static final int NO_MANAGER = -1;
+
+    // Reachability states of a lenient build
+    private static final byte UNRESOLVED = 0;
+    private static final byte WALKING = 1;
+    private static final byte CONNECTED = 2;
+    private static final byte LEFT_OUT = 3;
+
+    private final Employee[] employees;
+    private final Map<String, Integer> indexById;
+    private final int ceoIndex;
+    private final int[] managerIndex;
+    private final int[] depth;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] breadthFirstOrder;
+    private final double[] salaries;
+    private final double[] directSalarySum;
+    /** Sum of squared deviations from the mean of the direct reports' salaries. */
+    private final double[] directSalaryM2;
+
+    private OrgIndex(Employee[] employees, Map<String, Integer> indexById, int ceoIndex,
+                     int[] managerIndex, int[] depth, int[] childOffsets, int[] children,
+                     int[] breadthFirstOrder, double[] salaries, double[] directSalarySum,
+                     double[] directSalaryM2) {
+        this.employees = employees;
+        this.indexById = indexById;
+        this.ceoIndex = ceoIndex;
+        this.managerIndex = managerIndex;
+        this.depth = depth;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.breadthFirstOrder = breadthFirstOrder;
+        this.salaries = salaries;
+        this.directSalarySum = directSalarySum;
+        this.directSalaryM2 = directSalaryM2;
+    }
+
+    /**
+     * Validates the organization and builds its index in linear time.
+     *
+     * @param employees list of all employees
+     * @return the index
+     * @throws EmployeeDataException if the list is empty, contains duplicate IDs, does not have
+     *         exactly one CEO, references unknown managers or contains a reporting cycle
+     */
+    public static OrgIndex build(List<Employee> employees) throws EmployeeDataException {
+        if (employees == null || employees.isEmpty()) {
+            throw new EmployeeDataException("Employee list cannot be null or empty");
+        }
+
+        int n = employees.size();
+        Employee[] byIndex = employees.toArray(new Employee[0]);
+
+        // Check for duplicate IDs
+        Map<String, Integer> indexById = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            if (indexById.putIfAbsent(byIndex[i].getId(), i) != null) {
+                throw new EmployeeDataException("Duplicate employee ID found: " + byIndex[i].getId());
+            }
+        }
+
+        // Check for exactly one CEO
+        int ceoIndex = NO_MANAGER;
+        for (int i = 0; i < n; i++) {
+            if (byIndex[i].isCeo()) {
+                if (ceoIndex != NO_MANAGER) {
+                    throw new EmployeeDataException("Multiple CEOs found (employees with no manager)");
+                }
+                ceoIndex = i;
+            }
+        }
+        if (ceoIndex == NO_MANAGER) {
+            throw new EmployeeDataException("No CEO found (employee with no manager)");
+        }
+
+        // Validate manager references and count direct reports, keeping Welford's running
+        // mean and squared deviations of their salaries per manager
+        int[] managerIndex = new int[n];
+        int[] childOffsets = new int[n + 1];
+        double[] salaries = new double[n];
+        double[] directSalaryMean = new double[n];
+        double[] directSalaryM2 = new double[n];
+        for (int i = 0; i < n; i++) {
+            Employee employee = byIndex[i];
+            salaries[i] = employee.getSalary();
+            if (employee.isCeo()) {
+                managerIndex[i] = NO_MANAGER;
+                continue;
+            }
+            Integer manager = indexById.get(employee.getManagerId());
+            if (manager == null) {
+                throw new EmployeeDataException(
+                    "Employee " + employee.getId() + " references non-existent manager: " + employee.getManagerId());
+            }
+            managerIndex[i] = manager;
+            int count = ++childOffsets[manager + 1];
+            double delta = salaries[i] - directSalaryMean[manager];
+            directSalaryMean[manager] += delta / count;
+            directSalaryM2[manager] += delta * (salaries[i] - directSalaryMean[manager]);
+        }
+
+        // Lay out direct reports contiguously per manager, preserving input order
+        for (int i = 0; i < n; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        int[] children = new int[n - 1];
+        int[] cursor = new int[n];
+        for (int i = 0; i < n; i++) {
+            int manager = managerIndex[i];
+            if (manager != NO_MANAGER) {
+                children[childOffsets[manager] + cursor[manager]++] = i;
+            }
+        }
+        double[] directSalarySum = new double[n];
+        SalaryKernels.get().sumDirectReports(salaries, children, childOffsets, 0, n, directSalarySum);
+
+        // Breadth-first walk from the CEO; anyone not reached sits on a reporting cycle
+        int[] depth = new int[n];
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        order[tail++] = ceoIndex;
+        while (head < tail) {
+            int current = order[head++];
+            for (int c = childOffsets[current]; c < childOffsets[current + 1]; c++) {
+                int child = children[c];
+                depth[child] = depth[current] + 1;
+                order[tail++] = child;
+            }
+        }
+        if (tail != n) {
+            boolean[] reached = new boolean[n];
+            for (int i = 0; i < tail; i++) {
+                reached[order[i]] = true;
+            }
+            for (int i = 0; i < n; i++) {
+                if (!reached[i]) {
+                    throw new EmployeeDataException(
+                        "Circular reference detected in reporting structure involving employee: " + byIndex[i].getId());
+                }
+            }
+        }
+
+        return new OrgIndex(byIndex, indexById, ceoIndex, managerIndex, depth,
+            childOffsets, children, order, salaries, directSalarySum, directSalaryM2);
+    }
+
+    /**
+     * Builds the index of the valid part of an organization, recording every employee left
+     * out instead of failing on the first. Left out are repeated IDs (the first row wins),
+     * further employees without a manager (the first is the CEO), employees whose manager
+     * does not exist, employees on a reporting cycle, and everyone whose reporting line
+     * passes through one of these.
+     *
+     * @param employees list of all employees
+     * @param lineNumbers input line of each employee, for the error messages
+     * @param errors receives one error per employee left out, in input order per kind
+     * @return the index of the employees connected to the CEO
+     * @throws EmployeeDataException if the list is empty or has no CEO
+     */
+    public static OrgIndex buildLenient(List<Employee> employees, int[] lineNumbers, IngestionErrors errors)
+            throws EmployeeDataException {
+        if (employees == null || employees.isEmpty()) {
+            throw new EmployeeDataException("Employee list cannot be null or empty");
+        }
+
+        int n = employees.size();
+        Employee[] byIndex = employees.toArray(new Employee[0]);
+        byte[] state = new byte[n];
+
+        Map<String, Integer> indexById = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            Integer first = indexById.putIfAbsent(byIndex[i].getId(), i);
+            if (first != null) {
+                state[i] = LEFT_OUT;
+                errors.record(lineNumbers[i], "Duplicate employee ID", "Duplicate employee ID found: "
+                    + byIndex[i].getId() + " (first defined at line " + lineNumbers[first] + ")");
+            }
+        }
+
+        int ceoIndex = NO_MANAGER;
+        for (int i = 0; i < n; i++) {
+            if (state[i] == UNRESOLVED && byIndex[i].isCeo()) {
+                if (ceoIndex == NO_MANAGER) {
+                    ceoIndex = i;
+                    state[i] = CONNECTED;
+                } else {
+                    state[i] = LEFT_OUT;
+                    errors.record(lineNumbers[i], "Multiple CEOs", "Employee " + byIndex[i].getId()
+                        + " has no manager, but " + byIndex[ceoIndex].getId() + " is already the CEO");
+                }
+            }
+        }
+        if (ceoIndex == NO_MANAGER) {
+            throw new EmployeeDataException("No CEO found (employee with no manager)");
+        }
+
+        int[] managerIndex = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (state[i] != UNRESOLVED) {
+                continue;
+            }
+            Integer manager = indexById.get(byIndex[i].getManagerId());
+            if (manager == null) {
+                state[i] = LEFT_OUT;
+                errors.record(lineNumbers[i], "Unknown manager", "Employee " + byIndex[i].getId()
+                    + " references non-existent manager: " + byIndex[i].getManagerId());
+            } else {
+                managerIndex[i] = manager;
+            }
+        }
+
+        // Walk up from every unresolved employee until a resolved one or the walk itself is met;
+        // the whole walk then shares that outcome, so each employee is walked once
+        int[] path = new int[n];
+        int[] cutOffBy = new int[n];
+        boolean[] onCycle = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (state[i] != UNRESOLVED) {
+                continue;
+            }
+            int length = 0;
+            int current = i;
+            while (state[current] == UNRESOLVED) {
+                state[current] = WALKING;
+                path[length++] = current;
+                current = managerIndex[current];
+            }
+            if (state[current] == CONNECTED) {
+                for (int p = 0; p < length; p++) {
+                    state[path[p]] = CONNECTED;
+                }
+                continue;
+            }
+            boolean cycle = state[current] == WALKING;
+            int cause = cycle ? current : (cutOffBy[current] != 0 ? cutOffBy[current] - 1 : current);
+            boolean inCycle = false;
+            for (int p = 0; p < length; p++) {
+                inCycle |= cycle && path[p] == current;
+                onCycle[path[p]] = inCycle;
+                cutOffBy[path[p]] = inCycle ? 0 : cause + 1;
+                state[path[p]] = LEFT_OUT;
+            }
+        }
+
+        List<Employee> valid = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (state[i] == CONNECTED) {
+                valid.add(byIndex[i]);
+            } else if (onCycle[i]) {
+                errors.record(lineNumbers[i], "Reporting cycle",
+                    "Circular reference detected in reporting structure involving employee: " + byIndex[i].getId());
+            } else if (cutOffBy[i] != 0) {
+                errors.record(lineNumbers[i], "Cut off from the CEO", "Employee " + byIndex[i].getId()
+                    + " reports through left-out employee " + byIndex[cutOffBy[i] - 1].getId());
+            }
+        }
+        return build(valid);
+    }
+
+    @Override
+    public int size() {
+        return employees.length;
+    }
+
+    @Override
+    public Employee getEmployee(int index) {
+        return employees[index];
+    }
+
+    /**
+     * Returns all employees in index order.
+     */
+    public List<Employee> getEmployees() {
+        return Collections.unmodifiableList(Arrays.asList(employees));
+    }
+
+    /**
+     * Returns the index of the employee with the given ID, or -1 if there is none.
+     */
+    public int indexOf(String employeeId) {
+        Integer index = indexById.get(employeeId);
+        return index == null ? -1 : index;
+    }
+
+    public int getCeoIndex() {
+        return ceoIndex;
+    }
+
+    /**
+     * Returns the manager's index, or {@link #NO_MANAGER} for the CEO.
+     */
+    @Override
+    public int getManagerIndex(int index) {
+        return managerIndex[index];
+    }
+
+    /**
+     * Returns the number of managers between the employee and the CEO
+     * (the CEO has depth 0, direct reports of the CEO have depth 1).
+     */
+    @Override
+    public int getDepth(int index) {
+        return depth[index];
+    }
+
+    @Override
+    public double getSalary(int index) {
+        return salaries[index];
+    }
+
+    @Override
+    public int getDirectReportCount(int index) {
+        return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    @Override
+    public double getDirectReportSalarySum(int index) {
+        return directSalarySum[index];
+    }
+
+    /**
+     * Returns the average salary of the direct reports, or 0 if there are none.
+     */
+    @Override
+    public double getDirectReportAverageSalary(int index) {
+        int count = getDirectReportCount(index);
+        return count == 0 ? 0.0 : directSalarySum[index] / count;
+    }
+
+    @Override
+    public double getDirectReportSalaryVariance(int index) {
+        int count = getDirectReportCount(index);
+        return count == 0 ? 0.0 : directSalaryM2[index] / count;
+    }
+
+    /**
+     * Marks every manager whose salary is outside {@code [minRatio, maxRatio]} times the
+     * average of their direct reports, using the fastest available salary kernel.
+     *
+     * @param underpaid bitset of at least {@code ceil(size() / 64)} words receiving underpaid managers
+     * @param overpaid bitset of the same length receiving overpaid managers
+     */
+    public void markSalaryBand(double minRatio, double maxRatio, long[] underpaid, long[] overpaid) {
+        SalaryKernels.get().markSalaryBand(salaries, directSalarySum, childOffsets,
+            minRatio, maxRatio, 0, employees.length, underpaid, overpaid);
+    }
+
+    /**
+     * Returns the index of the {@code i}-th direct report of a manager.
+     */
+    public int getDirectReport(int managerIndex, int i) {
+        return children[childOffsets[managerIndex] + i];
+    }
+
+    /**
+     * Estimates the heap retained by the index, its employees and their strings, assuming
+     * compressed object pointers and compact strings. Used to budget memory when several
+     * organizations stay loaded.
+     */
+    public long estimateHeapBytes() {
+        int n = employees.length;
+        // Reference, 5 int and 3 double columns, plus a hash map node, boxed index and table slot
+        long bytes = n * (4L + 5 * Integer.BYTES + 3 * Double.BYTES + 32 + 16 + 8);
+        for (Employee employee : employees) {
+            bytes += 40 + stringBytes(employee.getId()) + stringBytes(employee.getFirstName())
+                + stringBytes(employee.getLastName()) + stringBytes(employee.getManagerId());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        // String object plus its byte array, aligned to 8 bytes
+        return value == null ? 0 : 24 + ((16L + value.length() + 7) & ~7L);
+    }
+
+    /**
+     * Returns the employee indices in breadth-first order starting at the CEO.
+     * Walking the array backwards visits every employee before its manager.
+     */
+    public int[] breadthFirstOrder() {
+        return breadthFirstOrder.clone();
+    }
+}
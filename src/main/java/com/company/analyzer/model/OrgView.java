@@ -0,0 +1,45 @@
+package com.company.analyzer.model;
+
+/**
+ * Read-only, index-addressed view of an organization as seen by the analysis rules.
+ *
+ * Employees are identified by an index in {@code [0, size())}. Implementations expose
+ * per-node facts and direct-report aggregates in constant time; {@link OrgIndex} is
+ * the base implementation, overlays such as what-if scenarios wrap it.
+ */
+public interface OrgView {
+
+    int size();
+
+    Employee getEmployee(int index);
+
+    /**
+     * Returns the manager's index, or {@link OrgIndex#NO_MANAGER} for the CEO.
+     */
+    int getManagerIndex(int index);
+
+    /**
+     * Returns the number of managers between the employee and the CEO.
+     */
+    int getDepth(int index);
+
+    double getSalary(int index);
+
+    int getDirectReportCount(int index);
+
+    double getDirectReportSalarySum(int index);
+
+    /**
+     * Returns the population variance of the direct reports' salaries, or 0 if there
+     * are fewer than two.
+     */
+    double getDirectReportSalaryVariance(int index);
+
+    /**
+     * Returns the average salary of the direct reports, or 0 if there are none.
+     */
+    default double getDirectReportAverageSalary(int index) {
+        int count = getDirectReportCount(index);
+        return count == 0 ? 0.0 : getDirectReportSalarySum(index) / count;
+    }
+}
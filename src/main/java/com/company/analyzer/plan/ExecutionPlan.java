@@ -0,0 +1,118 @@
+package com.company.analyzer.plan;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The execution strategy chosen by the {@link ExecutionPlanner} for one input, with the
+ * estimates it was based on and the reasons for each choice.
+ */
+public final class ExecutionPlan {
+
+    /**
+     * How the CSV file is turned into employees.
+     */
+    public enum Parser {
+        /** Single thread reading and parsing; plain files only. */
+        SERIAL,
+        /** Reader thread plus parse workers, see {@code IngestionPipeline}; reads gzip. */
+        PIPELINED
+    }
+
+    /**
+     * Where the organization is held during the analysis.
+     */
+    public enum Strategy {
+        /** The whole organization is indexed in this JVM. */
+        IN_MEMORY,
+        /** Only the hierarchy is kept here; employees are spilled to worker processes. */
+        SHARDED
+    }
+
+    private final Parser parser;
+    private final int parseWorkers;
+    private final int analysisThreads;
+    private final Strategy strategy;
+    private final int shards;
+    private final long inputBytes;
+    private final long estimatedRows;
+    private final long estimatedHeapBytes;
+    private final List<String> reasons;
+
+    ExecutionPlan(Parser parser, int parseWorkers, int analysisThreads, Strategy strategy, int shards,
+                  long inputBytes, long estimatedRows, long estimatedHeapBytes, List<String> reasons) {
+        this.parser = parser;
+        this.parseWorkers = parseWorkers;
+        this.analysisThreads = analysisThreads;
+        this.strategy = strategy;
+        this.shards = shards;
+        this.inputBytes = inputBytes;
+        this.estimatedRows = estimatedRows;
+        this.estimatedHeapBytes = estimatedHeapBytes;
+        this.reasons = List.copyOf(reasons);
+    }
+
+    public Parser getParser() {
+        return parser;
+    }
+
+    /**
+     * Returns the number of parse workers of the pipelined parser, 0 for the serial one.
+     */
+    public int getParseWorkers() {
+        return parseWorkers;
+    }
+
+    /**
+     * Returns the number of threads evaluating the rules; 1 evaluates in the calling thread.
+     */
+    public int getAnalysisThreads() {
+        return analysisThreads;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the number of worker processes of a sharded run, 0 for an in-memory run.
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the size of the input file, or 0 if the plan was made from a row count.
+     */
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Returns the estimated heap needed to hold the whole organization in memory.
+     */
+    public long getEstimatedHeapBytes() {
+        return estimatedHeapBytes;
+    }
+
+    /**
+     * Returns one line per decision explaining why it was made.
+     */
+    public List<String> getReasons() {
+        return Collections.unmodifiableList(reasons);
+    }
+
+    @Override
+    public String toString() {
+        String reading = parser == Parser.SERIAL ? "serial parser" : "pipelined parser (" + parseWorkers + " workers)";
+        String holding = strategy == Strategy.SHARDED
+            ? "sharded across " + shards + " worker processes"
+            : "in memory, " + analysisThreads + " analysis thread" + (analysisThreads == 1 ? "" : "s");
+        return reading + ", " + holding + " (~" + estimatedRows + " rows, ~"
+            + (estimatedHeapBytes >> 20) + " MB heap)";
+    }
+}
@@ -0,0 +1,311 @@
+package com.company.analyzer.plan;
+
+import com.company.analyzer.exception.EmployeeDataException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Chooses the parser, the analysis parallelism and whether to hold the organization in
+ * memory or spill it to worker processes, from the input size, an estimated row count,
+ * the available cores and the maximum heap.
+ *
+ * The row count is extrapolated from the average line length of the first
+ * {@value #SAMPLE_BYTES} bytes; for gzipped files the uncompressed size comes from the
+ * gzip trailer. Every choice can be forced through {@link Overrides}, and the
+ * thresholds through {@link Thresholds#with(String, String)}.
+ */
+public final class ExecutionPlanner {
+    static final int SAMPLE_BYTES = 64 * 1024;
+
+    /** Uncompressed size is at least this many times the gzipped size for CSV data. */
+    private static final long MIN_GZIP_RATIO = 2;
+    private static final long GZIP_SIZE_MODULUS = 1L << 32;
+
+    private final Thresholds thresholds;
+    private final int cores;
+    private final long maxHeapBytes;
+
+    /**
+     * Creates a planner for this JVM's cores and maximum heap.
+     */
+    public ExecutionPlanner(Thresholds thresholds) {
+        this(thresholds, Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory());
+    }
+
+    public ExecutionPlanner(Thresholds thresholds, int cores, long maxHeapBytes) {
+        if (cores < 1 || maxHeapBytes < 1) {
+            throw new IllegalArgumentException("Cores and heap must be positive");
+        }
+        this.thresholds = thresholds;
+        this.cores = cores;
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    /**
+     * Plans the analysis of a CSV file, plain or gzipped.
+     *
+     * @param input the file to analyze
+     * @param overrides choices fixed by the operator
+     * @throws EmployeeDataException if the file cannot be read
+     */
+    public ExecutionPlan plan(Path input, Overrides overrides) throws EmployeeDataException {
+        long size;
+        boolean gzip;
+        long uncompressedBytes;
+        long averageRowBytes;
+        try {
+            size = Files.size(input);
+            gzip = isGzip(input);
+            uncompressedBytes = gzip ? uncompressedSize(input, size) : size;
+            averageRowBytes = sampleAverageRowBytes(input, gzip);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error reading file: " + input, e);
+        }
+        long rows = Math.max(1, uncompressedBytes / averageRowBytes);
+
+        List<String> reasons = new ArrayList<>();
+        ExecutionPlan.Parser parser;
+        if (overrides.parser != null) {
+            parser = overrides.parser;
+            reasons.add("parser forced to " + parser);
+        } else if (gzip) {
+            parser = ExecutionPlan.Parser.PIPELINED;
+            reasons.add("pipelined parser: input is gzipped");
+        } else if (cores > 1 && size >= thresholds.pipelineMinBytes) {
+            parser = ExecutionPlan.Parser.PIPELINED;
+            reasons.add("pipelined parser: " + size + " bytes >= pipeline-min-bytes " + thresholds.pipelineMinBytes);
+        } else {
+            parser = ExecutionPlan.Parser.SERIAL;
+            reasons.add(cores == 1
+                ? "serial parser: single core"
+                : "serial parser: " + size + " bytes < pipeline-min-bytes " + thresholds.pipelineMinBytes);
+        }
+        if (parser == ExecutionPlan.Parser.SERIAL && gzip) {
+            parser = ExecutionPlan.Parser.PIPELINED;
+            reasons.add("pipelined parser after all: the serial parser cannot read gzipped input");
+        }
+        int parseWorkers = parser == ExecutionPlan.Parser.PIPELINED ? Math.max(1, cores - 1) : 0;
+        if (gzip && overrides.shards == 0) {
+            // Worker processes are fed by the plain-text reader
+            overrides = overrides.inMemory();
+        }
+        return finish(parser, parseWorkers, size, rows, overrides, reasons);
+    }
+
+    /**
+     * Plans the analysis of employees already in memory; only the parallelism applies.
+     *
+     * @param rows number of employees
+     */
+    public ExecutionPlan planRows(long rows, Overrides overrides) {
+        Overrides inMemory = overrides.inMemory();
+        return finish(ExecutionPlan.Parser.SERIAL, 0, 0, rows, inMemory, new ArrayList<>());
+    }
+
+    private ExecutionPlan finish(ExecutionPlan.Parser parser, int parseWorkers, long size, long rows,
+                                 Overrides overrides, List<String> reasons) {
+        long heapBytes = rows * thresholds.heapBytesPerRow;
+        long heapBudget = (long) (maxHeapBytes * thresholds.heapFraction);
+
+        ExecutionPlan.Strategy strategy;
+        int shards = 0;
+        if (overrides.shards > 0) {
+            strategy = ExecutionPlan.Strategy.SHARDED;
+            shards = overrides.shards;
+            reasons.add("sharding forced to " + shards + " worker processes");
+        } else if (heapBytes <= heapBudget) {
+            strategy = ExecutionPlan.Strategy.IN_MEMORY;
+            reasons.add("in memory: ~" + (heapBytes >> 20) + " MB fits the heap budget of " + (heapBudget >> 20) + " MB");
+        } else if (overrides.inMemory) {
+            strategy = ExecutionPlan.Strategy.IN_MEMORY;
+            reasons.add("in memory although ~" + (heapBytes >> 20) + " MB exceeds the heap budget of "
+                + (heapBudget >> 20) + " MB: sharding is ruled out for this run");
+        } else {
+            strategy = ExecutionPlan.Strategy.SHARDED;
+            shards = (int) Math.max(2, Math.min(Math.max(2, cores), (heapBytes + heapBudget - 1) / heapBudget));
+            reasons.add("sharded: ~" + (heapBytes >> 20) + " MB exceeds the heap budget of "
+                + (heapBudget >> 20) + " MB");
+        }
+
+        int threads;
+        if (strategy == ExecutionPlan.Strategy.SHARDED) {
+            threads = 1;
+        } else if (overrides.threads > 0) {
+            threads = overrides.threads;
+            reasons.add("analysis threads forced to " + threads);
+        } else if (cores > 1 && rows >= thresholds.parallelMinRows) {
+            threads = cores;
+            reasons.add(cores + " analysis threads: ~" + rows + " rows >= parallel-min-rows " + thresholds.parallelMinRows);
+        } else {
+            threads = 1;
+            reasons.add(cores == 1
+                ? "1 analysis thread: single core"
+                : "1 analysis thread: ~" + rows + " rows < parallel-min-rows " + thresholds.parallelMinRows);
+        }
+        return new ExecutionPlan(parser, parseWorkers, threads, strategy, shards, size, rows, heapBytes, reasons);
+    }
+
+    private static boolean isGzip(Path input) throws IOException {
+        try (InputStream in = Files.newInputStream(input)) {
+            return in.read() == 0x1f && in.read() == 0x8b;
+        }
+    }
+
+    /**
+     * Returns the uncompressed size of a gzip file. The trailer stores it modulo 2^32,
+     * so the smallest matching size that is plausible for the compressed size is used.
+     */
+    private static long uncompressedSize(Path input, long compressedSize) throws IOException {
+        long trailer;
+        try (RandomAccessFile file = new RandomAccessFile(input.toFile(), "r")) {
+            if (compressedSize < 4) {
+                return compressedSize;
+            }
+            file.seek(compressedSize - 4);
+            trailer = Integer.toUnsignedLong(Integer.reverseBytes(file.readInt()));
+        }
+        long minimum = compressedSize * MIN_GZIP_RATIO;
+        long size = trailer;
+        while (size < minimum) {
+            size += GZIP_SIZE_MODULUS;
+        }
+        return size;
+    }
+
+    private static long sampleAverageRowBytes(Path input, boolean gzip) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(input));
+             InputStream in = gzip ? new GZIPInputStream(file) : file) {
+            byte[] sample = in.readNBytes(SAMPLE_BYTES);
+            long lines = 0;
+            for (byte b : sample) {
+                if (b == '\n') {
+                    lines++;
+                }
+            }
+            return lines == 0 ? Math.max(1, sample.length) : Math.max(1, sample.length / lines);
+        }
+    }
+
+    /**
+     * Planner thresholds. The defaults were calibrated with the performance suite's
+     * random 1M-employee organization (42 bytes per CSV row): about 420 bytes of heap
+     * per indexed employee, the pipelined parser ahead of the serial one from about
+     * 1 MB of input on two or more cores, and parallel rule evaluation paying for its
+     * thread start-up from about half a million employees.
+     */
+    public static final class Thresholds {
+        private static final Thresholds DEFAULTS = new Thresholds(1L << 20, 500_000, 420, 0.5);
+
+        private final long pipelineMinBytes;
+        private final long parallelMinRows;
+        private final long heapBytesPerRow;
+        private final double heapFraction;
+
+        private Thresholds(long pipelineMinBytes, long parallelMinRows, long heapBytesPerRow, double heapFraction) {
+            this.pipelineMinBytes = pipelineMinBytes;
+            this.parallelMinRows = parallelMinRows;
+            this.heapBytesPerRow = heapBytesPerRow;
+            this.heapFraction = heapFraction;
+        }
+
+        public static Thresholds defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * Returns a copy with one threshold changed. Keys: {@code pipeline-min-bytes},
+         * {@code parallel-min-rows}, {@code heap-bytes-per-row} and {@code heap-fraction}
+         * (share of the maximum heap the organization may use before spilling).
+         *
+         * @throws IllegalArgumentException if the key is unknown or the value invalid
+         */
+        public Thresholds with(String key, String value) {
+            try {
+                Thresholds changed = switch (key) {
+                    case "pipeline-min-bytes" -> new Thresholds(Long.parseLong(value), parallelMinRows, heapBytesPerRow, heapFraction);
+                    case "parallel-min-rows" -> new Thresholds(pipelineMinBytes, Long.parseLong(value), heapBytesPerRow, heapFraction);
+                    case "heap-bytes-per-row" -> new Thresholds(pipelineMinBytes, parallelMinRows, Long.parseLong(value), heapFraction);
+                    case "heap-fraction" -> new Thresholds(pipelineMinBytes, parallelMinRows, heapBytesPerRow, Double.parseDouble(value));
+                    default -> throw new IllegalArgumentException("Unknown planner threshold: " + key);
+                };
+                if (changed.pipelineMinBytes < 0 || changed.parallelMinRows < 0 || changed.heapBytesPerRow < 1
+                        || !(changed.heapFraction > 0 && changed.heapFraction <= 1)) {
+                    throw new IllegalArgumentException("Invalid value for planner threshold " + key + ": " + value);
+                }
+                return changed;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for planner threshold " + key + ": " + value);
+            }
+        }
+
+        /**
+         * Returns the current values by key, for logging.
+         */
+        public Map<String, String> asMap() {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("pipeline-min-bytes", String.valueOf(pipelineMinBytes));
+            values.put("parallel-min-rows", String.valueOf(parallelMinRows));
+            values.put("heap-bytes-per-row", String.valueOf(heapBytesPerRow));
+            values.put("heap-fraction", String.valueOf(heapFraction));
+            return values;
+        }
+    }
+
+    /**
+     * Choices fixed by the operator instead of planned; unset choices are planned.
+     */
+    public static final class Overrides {
+        private static final Overrides NONE = new Overrides(null, 0, 0, false);
+
+        private final ExecutionPlan.Parser parser;
+        private final int threads;
+        private final int shards;
+        private final boolean inMemory;
+
+        private Overrides(ExecutionPlan.Parser parser, int threads, int shards, boolean inMemory) {
+            this.parser = parser;
+            this.threads = threads;
+            this.shards = shards;
+            this.inMemory = inMemory;
+        }
+
+        public static Overrides none() {
+            return NONE;
+        }
+
+        public Overrides parser(ExecutionPlan.Parser parser) {
+            return new Overrides(parser, threads, shards, inMemory);
+        }
+
+        /**
+         * Fixes the number of analysis threads of an in-memory run.
+         */
+        public Overrides threads(int threads) {
+            return new Overrides(parser, threads, shards, inMemory);
+        }
+
+        /**
+         * Forces a sharded run with this many worker processes.
+         */
+        public Overrides shards(int shards) {
+            return new Overrides(parser, threads, shards, inMemory);
+        }
+
+        /**
+         * Never spills, e.g. because the run needs the whole organization afterwards.
+         */
+        public Overrides inMemory() {
+            return new Overrides(parser, threads, 0, true);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.company.analyzer.progress;
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+
+/**
+ * Cooperative stop signal for a long run.
+ *
+ * Any thread may cancel; the reader and the analyzer check the token at chunk
+ * boundaries and stop with an {@link AnalysisCancelledException}, leaving the JVM
+ * and its other work untouched.
+ */
+public final class CancellationToken {
+    /**
+     * A token that is never cancelled, shared by runs that cannot be stopped. Its
+     * {@link #cancel()} throws, so that no caller can stop every such run at once.
+     */
+    public static final CancellationToken NONE = new CancellationToken(false);
+
+    private final boolean cancellable;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(true);
+    }
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if this is {@link #NONE}
+     */
+    public void cancel() {
+        if (!cancellable) {
+            throw new UnsupportedOperationException("This token cannot be cancelled");
+        }
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws AnalysisCancelledException if the token was cancelled
+     */
+    public void throwIfCancelled() throws AnalysisCancelledException {
+        if (cancelled) {
+            throw new AnalysisCancelledException("Analysis cancelled");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.company.analyzer.progress;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Snapshot of a run's progress within its current phase.
+ */
+public final class Progress {
+
+    /**
+     * Stages of a single-file run, in order.
+     */
+    public enum Phase {
+        READING, INDEXING, ANALYZING
+    }
+
+    public static final long UNKNOWN = -1;
+
+    private final Phase phase;
+    private final long bytesProcessed;
+    private final long totalBytes;
+    private final long rowsProcessed;
+    private final long totalRows;
+    private final Duration elapsed;
+    private final boolean phaseComplete;
+
+    Progress(Phase phase, long bytesProcessed, long totalBytes, long rowsProcessed, long totalRows,
+             Duration elapsed, boolean phaseComplete) {
+        this.phase = phase;
+        this.bytesProcessed = bytesProcessed;
+        this.totalBytes = totalBytes;
+        this.rowsProcessed = rowsProcessed;
+        this.totalRows = totalRows;
+        this.elapsed = elapsed;
+        this.phaseComplete = phaseComplete;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the bytes of the input file consumed so far; for gzipped files these are
+     * compressed bytes. 0 for phases that do not read the file.
+     */
+    public long getBytesProcessed() {
+        return bytesProcessed;
+    }
+
+    /**
+     * Returns the input file size, or {@link #UNKNOWN}.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    /**
+     * Returns the number of rows the phase will process, or {@link #UNKNOWN}.
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * Returns the time spent in the current phase.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public boolean isPhaseComplete() {
+        return phaseComplete;
+    }
+
+    /**
+     * Returns the rows processed per second since the phase started.
+     */
+    public double getRowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds > 0 ? rowsProcessed / seconds : 0.0;
+    }
+
+    /**
+     * Returns the estimated time until the phase completes, extrapolated from the rate so
+     * far. Empty if neither the total bytes nor the total rows are known yet.
+     */
+    public Optional<Duration> getEta() {
+        if (phaseComplete) {
+            return Optional.of(Duration.ZERO);
+        }
+        double fraction;
+        if (totalBytes > 0 && bytesProcessed > 0) {
+            fraction = (double) bytesProcessed / totalBytes;
+        } else if (totalRows > 0 && rowsProcessed > 0) {
+            fraction = (double) rowsProcessed / totalRows;
+        } else {
+            return Optional.empty();
+        }
+        long remainingNanos = (long) (elapsed.toNanos() * (1 - fraction) / fraction);
+        return Optional.of(Duration.ofNanos(Math.max(0, remainingNanos)));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(phase.name().toLowerCase());
+        if (totalRows > 0) {
+            text.append(String.format(": %d/%d rows", rowsProcessed, totalRows));
+        } else {
+            text.append(String.format(": %d rows", rowsProcessed));
+        }
+        if (totalBytes > 0) {
+            text.append(String.format(", %d%% of %s", bytesProcessed * 100 / totalBytes, formatBytes(totalBytes)));
+        }
+        text.append(String.format(", %.0f rows/s", getRowsPerSecond()));
+        if (phaseComplete) {
+            text.append(", done");
+        } else {
+            getEta().ifPresent(eta -> text.append(", ETA ").append(eta.toSeconds()).append(" s"));
+        }
+        return text.toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1L << 20) {
+            return (bytes >> 20) + " MB";
+        }
+        return bytes >= 1L << 10 ? (bytes >> 10) + " KB" : bytes + " B";
+    }
+}
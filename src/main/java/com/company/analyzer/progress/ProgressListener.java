@@ -0,0 +1,12 @@
+package com.company.analyzer.progress;
+
+/**
+ * Receives progress snapshots of a run. Called from the thread doing the work, at most
+ * once per throttle interval plus once at the end of each phase, so implementations
+ * should return quickly.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    void onProgress(Progress progress);
+}
@@ -0,0 +1,114 @@
+package com.company.analyzer.progress;
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks one run's progress, throttles notifications to its listener and checks its
+ * cancellation token.
+ *
+ * Workers call {@link #update} at chunk boundaries, e.g. every few thousand rows. The
+ * call is cheap when no notification is due, so chunks can be small enough for a
+ * cancellation to take effect quickly. A tracker is used by one thread at a time.
+ */
+public final class ProgressTracker {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(500);
+
+    private static final ProgressTracker SILENT = new ProgressTracker(null, CancellationToken.NONE, DEFAULT_INTERVAL);
+
+    private final ProgressListener listener;
+    private final CancellationToken token;
+    private final long intervalNanos;
+    private final LongSupplier clock;
+
+    private Progress.Phase phase;
+    private long totalBytes = Progress.UNKNOWN;
+    private long totalRows = Progress.UNKNOWN;
+    private long phaseStart;
+    private long lastNotified;
+
+    public ProgressTracker(ProgressListener listener, CancellationToken token) {
+        this(listener, token, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * @param listener receives snapshots, or null to only check for cancellation
+     * @param token the run's cancellation token
+     * @param interval minimum time between two notifications within a phase
+     */
+    public ProgressTracker(ProgressListener listener, CancellationToken token, Duration interval) {
+        this(listener, token, interval, System::nanoTime);
+    }
+
+    ProgressTracker(ProgressListener listener, CancellationToken token, Duration interval, LongSupplier clock) {
+        this.listener = listener;
+        this.token = token;
+        this.intervalNanos = interval.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a tracker that reports nothing and is never cancelled. It is shared, so its
+     * token is {@link CancellationToken#NONE}.
+     */
+    public static ProgressTracker silent() {
+        return SILENT;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    /**
+     * Starts a phase; totals may be {@link Progress#UNKNOWN}.
+     *
+     * @throws AnalysisCancelledException if the run was cancelled
+     */
+    public void startPhase(Progress.Phase phase, long totalBytes, long totalRows) throws AnalysisCancelledException {
+        token.throwIfCancelled();
+        if (listener == null) {
+            return;
+        }
+        this.phase = phase;
+        this.totalBytes = totalBytes;
+        this.totalRows = totalRows;
+        this.phaseStart = clock.getAsLong();
+        this.lastNotified = phaseStart;
+    }
+
+    /**
+     * Records the progress of the current phase and notifies the listener if the throttle
+     * interval has passed since the last notification.
+     *
+     * @param bytesProcessed bytes consumed so far in this phase
+     * @param rowsProcessed rows processed so far in this phase
+     * @throws AnalysisCancelledException if the run was cancelled
+     */
+    public void update(long bytesProcessed, long rowsProcessed) throws AnalysisCancelledException {
+        token.throwIfCancelled();
+        if (listener == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (now - lastNotified >= intervalNanos) {
+            lastNotified = now;
+            notify(bytesProcessed, rowsProcessed, now, false);
+        }
+    }
+
+    /**
+     * Ends the current phase with a final notification.
+     */
+    public void finishPhase(long bytesProcessed, long rowsProcessed) {
+        if (listener != null) {
+            notify(bytesProcessed, rowsProcessed, clock.getAsLong(), true);
+        }
+    }
+
+    private void notify(long bytesProcessed, long rowsProcessed, long now, boolean complete) {
+        listener.onProgress(new Progress(phase, bytesProcessed, totalBytes, rowsProcessed, totalRows,
+            Duration.ofNanos(now - phaseStart), complete));
+    }
+}
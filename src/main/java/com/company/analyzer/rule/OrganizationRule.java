@@ -0,0 +1,44 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgView;
+
+/**
+ * A single organizational policy check.
+ *
+ * Rules do not traverse the organization themselves. The {@link RuleEngine} visits
+ * every employee once and hands each one to all active rules; a rule reads whatever
+ * per-node aggregates it needs from the {@link OrgView} and records violations in
+ * the report.
+ *
+ * {@link Object#toString()} should name the rule and its effective thresholds; it is
+ * part of the result cache key, so two differently configured rules must differ in it.
+ */
+public interface OrganizationRule {
+
+    /**
+     * Returns the rule ID used in configuration keys and report sections.
+     */
+    String getId();
+
+    /**
+     * Checks one employee and adds any violation to the report.
+     *
+     * @param org the indexed organization
+     * @param employee index of the employee to check
+     * @param report the report receiving violations
+     */
+    void evaluate(OrgView org, int employee, AnalysisReport report);
+
+    /**
+     * Optionally checks all employees in one bulk operation instead of one call per
+     * employee. The issues must be the same as those of {@link #evaluate} in index order.
+     *
+     * @param org the indexed organization
+     * @param report the report receiving violations
+     * @return true if all employees were checked, false to be called per employee
+     */
+    default boolean evaluateAll(OrgView org, AnalysisReport report) {
+        return false;
+    }
+}
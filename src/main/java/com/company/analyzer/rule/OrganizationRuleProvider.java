@@ -0,0 +1,30 @@
+package com.company.analyzer.rule;
+
+/**
+ * Service provider interface for analysis rules.
+ *
+ * Providers are discovered with {@link java.util.ServiceLoader}; additional rules can be
+ * added by listing their provider in
+ * {@code META-INF/services/com.company.analyzer.rule.OrganizationRuleProvider} on the classpath.
+ */
+public interface OrganizationRuleProvider {
+
+    /**
+     * Returns the ID of the rule this provider creates.
+     */
+    String getRuleId();
+
+    /**
+     * Returns whether the rule runs when the configuration does not mention it.
+     */
+    boolean isEnabledByDefault();
+
+    /**
+     * Creates the rule with thresholds taken from the configuration.
+     *
+     * @param config the active rule configuration
+     * @return the configured rule
+     * @throws IllegalArgumentException if a configured threshold is invalid
+     */
+    OrganizationRule create(RuleConfig config);
+}
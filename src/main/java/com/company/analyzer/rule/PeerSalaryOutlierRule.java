@@ -0,0 +1,104 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.util.Constants;
+
+/**
+ * Flags employees whose salary is a statistical outlier among their peers, the other
+ * direct reports of the same manager.
+ *
+ * An employee is flagged if their salary is more than {@code max-z-score} standard
+ * deviations from the peers' average and they have at least {@code min-peers} peers.
+ * The peers' mean and variance are derived in constant time from the manager's
+ * direct-report count, salary sum and variance, which the organization accumulates
+ * with Welford's online update while it counts direct reports, by taking the employee
+ * back out of them. Groups whose other members all earn the same are not checked,
+ * as any difference would be infinitely many deviations away.
+ */
+public class PeerSalaryOutlierRule implements OrganizationRule {
+    public static final String ID = "peer-salary-outlier";
+
+    private final double maxZScore;
+    private final int minPeers;
+
+    public PeerSalaryOutlierRule(double maxZScore, int minPeers) {
+        if (!(maxZScore > 0)) {
+            throw new IllegalArgumentException("Invalid max-z-score: " + maxZScore);
+        }
+        if (minPeers < 2) {
+            throw new IllegalArgumentException("Invalid min-peers: " + minPeers);
+        }
+        this.maxZScore = maxZScore;
+        this.minPeers = minPeers;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    public double getMaxZScore() {
+        return maxZScore;
+    }
+
+    public int getMinPeers() {
+        return minPeers;
+    }
+
+    @Override
+    public void evaluate(OrgView org, int employee, AnalysisReport report) {
+        int manager = org.getManagerIndex(employee);
+        if (manager < 0) {
+            return;
+        }
+        int count = org.getDirectReportCount(manager);
+        int peers = count - 1;
+        if (peers < minPeers) {
+            return;
+        }
+
+        // Remove the employee from the group's mean and squared deviations
+        double salary = org.getSalary(employee);
+        double mean = org.getDirectReportAverageSalary(manager);
+        double peerMean = (count * mean - salary) / peers;
+        double peerM2 = count * org.getDirectReportSalaryVariance(manager) - (salary - mean) * (salary - peerMean);
+        double peerDeviation = Math.sqrt(Math.max(0.0, peerM2 / peers));
+        // Below a millionth of the mean, the deviation is rounding noise of equal salaries
+        if (peerDeviation <= 1e-6 * Math.max(1.0, Math.abs(peerMean))) {
+            return;
+        }
+
+        double zScore = (salary - peerMean) / peerDeviation;
+        if (Math.abs(zScore) > maxZScore) {
+            report.addPeerSalaryOutlier(org, employee, peerMean, zScore);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ID + "[" + maxZScore + "," + minPeers + "]";
+    }
+
+    /**
+     * Registers the rule with the {@link RuleEngine}.
+     */
+    public static class Provider implements OrganizationRuleProvider {
+        @Override
+        public String getRuleId() {
+            return ID;
+        }
+
+        @Override
+        public boolean isEnabledByDefault() {
+            return true;
+        }
+
+        @Override
+        public OrganizationRule create(RuleConfig config) {
+            return new PeerSalaryOutlierRule(
+                config.getDouble(ID, "max-z-score", Constants.MAX_PEER_SALARY_Z_SCORE),
+                config.getInt(ID, "min-peers", Constants.MIN_PEERS));
+        }
+    }
+}
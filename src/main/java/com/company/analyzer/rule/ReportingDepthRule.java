@@ -0,0 +1,64 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.util.Constants;
+
+/**
+ * Flags employees with more than {@code max-levels} managers between them and the CEO.
+ * Defaults to {@link Constants#MAX_REPORTING_LEVELS}.
+ */
+public class ReportingDepthRule implements OrganizationRule {
+    public static final String ID = "reporting-depth";
+
+    private final int maxLevels;
+
+    public ReportingDepthRule(int maxLevels) {
+        if (maxLevels < 0) {
+            throw new IllegalArgumentException("Invalid max-levels: " + maxLevels);
+        }
+        this.maxLevels = maxLevels;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    public int getMaxLevels() {
+        return maxLevels;
+    }
+
+    @Override
+    public void evaluate(OrgView org, int employee, AnalysisReport report) {
+        int reportingLevels = org.getDepth(employee);
+        if (reportingLevels > maxLevels) {
+            report.addLongReportingLine(org, employee, reportingLevels, reportingLevels - maxLevels);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ID + "[" + maxLevels + "]";
+    }
+
+    /**
+     * Registers the rule with the {@link RuleEngine}; enabled by default.
+     */
+    public static class Provider implements OrganizationRuleProvider {
+        @Override
+        public String getRuleId() {
+            return ID;
+        }
+
+        @Override
+        public boolean isEnabledByDefault() {
+            return true;
+        }
+
+        @Override
+        public OrganizationRule create(RuleConfig config) {
+            return new ReportingDepthRule(config.getInt(ID, "max-levels", Constants.MAX_REPORTING_LEVELS));
+        }
+    }
+}
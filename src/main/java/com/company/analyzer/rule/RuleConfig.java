@@ -0,0 +1,121 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.exception.EmployeeDataException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Thresholds and switches for the analysis rules, loaded at runtime.
+ *
+ * Keys follow the pattern {@code rules.<rule-id>.<setting>}, for example:
+ * <pre>
+ * rules.salary-band.min-ratio=1.20
+ * rules.salary-band.level.1.max-ratio=2.00
+ * rules.reporting-depth.max-levels=4
+ * rules.span-of-control.enabled=true
+ * rules.span-of-control.max-direct-reports=12
+ * </pre>
+ * Settings that are not configured fall back to the rule's defaults.
+ */
+public final class RuleConfig {
+    private static final String PREFIX = "rules.";
+    private static final RuleConfig DEFAULTS = new RuleConfig(Map.of());
+
+    private final Map<String, String> values;
+
+    private RuleConfig(Map<String, String> values) {
+        this.values = new TreeMap<>(values);
+    }
+
+    /**
+     * Returns a configuration with every rule at its default settings.
+     */
+    public static RuleConfig defaults() {
+        return DEFAULTS;
+    }
+
+    public static RuleConfig of(Map<String, String> values) {
+        return new RuleConfig(values);
+    }
+
+    /**
+     * Loads a configuration from a properties file.
+     *
+     * @param file the properties file
+     * @return the loaded configuration
+     * @throws EmployeeDataException if the file cannot be read
+     */
+    public static RuleConfig load(Path file) throws EmployeeDataException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error reading rule configuration: " + file, e);
+        }
+
+        Map<String, String> values = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key).trim());
+        }
+        return new RuleConfig(values);
+    }
+
+    /**
+     * Returns whether a rule is enabled, falling back to the given default.
+     */
+    public boolean isEnabled(String ruleId, boolean defaultValue) {
+        String value = values.get(PREFIX + ruleId + ".enabled");
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Returns a numeric rule setting.
+     *
+     * @throws IllegalArgumentException if the configured value is not a number
+     */
+    public double getDouble(String ruleId, String setting, double defaultValue) {
+        String key = PREFIX + ruleId + "." + setting;
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    /**
+     * Returns an integer rule setting.
+     *
+     * @throws IllegalArgumentException if the configured value is not an integer
+     */
+    public int getInt(String ruleId, String setting, int defaultValue) {
+        String key = PREFIX + ruleId + "." + setting;
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid integer for " + key + ": " + value);
+        }
+    }
+
+    /**
+     * Returns all configured settings in key order.
+     */
+    public Map<String, String> asMap() {
+        return Collections.unmodifiableMap(values);
+    }
+}
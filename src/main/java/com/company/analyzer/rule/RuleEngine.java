@@ -0,0 +1,315 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.ConcurrentReportBuilder;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.progress.CancellationToken;
+import com.company.analyzer.progress.Progress;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.stats.OrgShapeMetrics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates all active rules in a single pass over the organization.
+ *
+ * Per-node aggregates (depth, direct-report count, salary sum and variance) are computed once
+ * when the {@link OrgIndex} is built. The engine then visits each employee exactly once
+ * and applies every rule to it, so adding a rule adds a constant amount of work per
+ * employee instead of another traversal.
+ */
+public class RuleEngine {
+    private static final RuleEngine DEFAULT = new RuleEngine(List.of(
+        new SalaryBandRule.Provider().create(RuleConfig.defaults()),
+        new ReportingDepthRule.Provider().create(RuleConfig.defaults()),
+        new PeerSalaryOutlierRule.Provider().create(RuleConfig.defaults())));
+
+    private static final int MIN_RANGE_SIZE = 4096;
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int PROGRESS_CHUNK_SIZE = 65536;
+
+    private final OrganizationRule[] rules;
+
+    public RuleEngine(List<OrganizationRule> rules) {
+        this.rules = rules.toArray(new OrganizationRule[0]);
+    }
+
+    /**
+     * Returns an engine running the built-in rules that are enabled by default (salary
+     * band, reporting depth and peer salary outlier) with their default thresholds.
+     */
+    public static RuleEngine defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Discovers all rule providers on the classpath and creates the rules that are
+     * enabled in the configuration.
+     *
+     * @param config the rule configuration
+     * @return engine running the enabled rules in discovery order
+     * @throws EmployeeDataException if two providers share a rule ID or a threshold is invalid
+     */
+    public static RuleEngine fromConfig(RuleConfig config) throws EmployeeDataException {
+        List<OrganizationRule> rules = new ArrayList<>();
+        Set<String> ruleIds = new HashSet<>();
+
+        for (OrganizationRuleProvider provider : ServiceLoader.load(OrganizationRuleProvider.class)) {
+            String ruleId = provider.getRuleId();
+            if (!ruleIds.add(ruleId)) {
+                throw new EmployeeDataException("Duplicate rule ID: " + ruleId);
+            }
+            if (!config.isEnabled(ruleId, provider.isEnabledByDefault())) {
+                continue;
+            }
+            try {
+                rules.add(provider.create(config));
+            } catch (IllegalArgumentException e) {
+                throw new EmployeeDataException("Invalid configuration for rule " + ruleId + ": " + e.getMessage(), e);
+            }
+        }
+        return new RuleEngine(rules);
+    }
+
+    public List<OrganizationRule> getRules() {
+        return List.of(rules);
+    }
+
+    /**
+     * Runs every rule against every employee in index order. Rules that support a
+     * bulk pass over the whole organization run that first; the rest share the
+     * per-employee pass.
+     *
+     * @param org the organization
+     * @return report containing the issues of all rules
+     */
+    public AnalysisReport evaluate(OrgView org) {
+        try {
+            return evaluate(org, ProgressTracker.silent());
+        } catch (AnalysisCancelledException e) {
+            throw new IllegalStateException("Uncancellable run was cancelled", e);
+        }
+    }
+
+    /**
+     * Runs every rule against every employee in index order, reporting the
+     * {@link Progress.Phase#ANALYZING} phase and checking for cancellation between chunks
+     * of employees.
+     *
+     * @param org the organization
+     * @param tracker receives progress in employees checked
+     * @return report containing the issues of all rules
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport evaluate(OrgView org, ProgressTracker tracker) throws AnalysisCancelledException {
+        return evaluate(org, tracker, null);
+    }
+
+    /**
+     * Variant of {@link #evaluate(OrgView, ProgressTracker)} that also feeds every employee to
+     * a shape metrics collector from the same per-employee pass.
+     *
+     * @param org the organization
+     * @param tracker receives progress in employees checked
+     * @param metrics receives every employee in index order, or null
+     * @return report containing the issues of all rules
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport evaluate(OrgView org, ProgressTracker tracker, OrgShapeMetrics.Collector metrics)
+            throws AnalysisCancelledException {
+        int size = org.size();
+        tracker.startPhase(Progress.Phase.ANALYZING, Progress.UNKNOWN, size);
+        AnalysisReport report = newReport(org);
+        List<OrganizationRule> perEmployee = new ArrayList<>(rules.length);
+        for (OrganizationRule rule : rules) {
+            if (!rule.evaluateAll(org, report)) {
+                perEmployee.add(rule);
+            }
+        }
+
+        if (!perEmployee.isEmpty() || metrics != null) {
+            evaluateInChunks(org, perEmployee.toArray(new OrganizationRule[0]), report, metrics, tracker);
+        }
+        tracker.finishPhase(0, size);
+        return report;
+    }
+
+    /**
+     * Runs every rule against every employee, splitting the per-employee pass into index
+     * ranges evaluated on {@code parallelism} threads. Each range writes to its own
+     * segment of a {@link ConcurrentReportBuilder}, so the report is the same as that of
+     * {@link #evaluate(OrgView)}. Rules must be safe to call concurrently, which holds
+     * for rules that keep no mutable state. The organization must be safe to read concurrently,
+     * as {@link OrgIndex} and {@link com.company.analyzer.model.OffHeapOrgIndex} are.
+     *
+     * @param org the organization
+     * @param parallelism number of worker threads; 1 runs in the calling thread
+     * @return read-only report containing the issues of all rules
+     */
+    public AnalysisReport evaluateParallel(OrgView org, int parallelism) {
+        try {
+            return evaluateParallel(org, parallelism, ProgressTracker.silent());
+        } catch (AnalysisCancelledException e) {
+            throw new IllegalStateException("Uncancellable run was cancelled", e);
+        }
+    }
+
+    /**
+     * Parallel variant of {@link #evaluate(OrgView, ProgressTracker)}. Progress counts the
+     * employees of ranges completed in index order; on cancellation, workers stop at
+     * their next chunk boundary.
+     *
+     * @param org the organization
+     * @param parallelism number of worker threads; 1 runs in the calling thread
+     * @param tracker receives progress in employees checked
+     * @return read-only report containing the issues of all rules
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport evaluateParallel(OrgView org, int parallelism, ProgressTracker tracker)
+            throws AnalysisCancelledException {
+        return evaluateParallel(org, parallelism, tracker, null);
+    }
+
+    /**
+     * Variant of {@link #evaluateParallel(OrgView, int, ProgressTracker)} that also collects
+     * shape metrics. Each range fills its own partial collector, merged into {@code metrics}
+     * in range order once all ranges are done.
+     *
+     * @param org the organization
+     * @param parallelism number of worker threads; 1 runs in the calling thread
+     * @param tracker receives progress in employees checked
+     * @param metrics receives every employee, or null
+     * @return read-only report containing the issues of all rules
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport evaluateParallel(OrgView org, int parallelism, ProgressTracker tracker,
+                                           OrgShapeMetrics.Collector metrics) throws AnalysisCancelledException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        int size = org.size();
+        // A few ranges per thread so that uneven ranges do not leave threads idle
+        int rangeSize = Math.max(MIN_RANGE_SIZE, size / (parallelism * RANGES_PER_THREAD) + 1);
+
+        tracker.startPhase(Progress.Phase.ANALYZING, Progress.UNKNOWN, size);
+        ConcurrentReportBuilder builder = new ConcurrentReportBuilder(org instanceof OrgIndex index ? index : null);
+        AnalysisReport bulk = builder.segment(Long.MIN_VALUE);
+        List<OrganizationRule> perEmployee = new ArrayList<>(rules.length);
+        for (OrganizationRule rule : rules) {
+            if (!rule.evaluateAll(org, bulk)) {
+                perEmployee.add(rule);
+            }
+        }
+
+        boolean perEmployeePass = !perEmployee.isEmpty() || metrics != null;
+        OrganizationRule[] active = perEmployee.toArray(new OrganizationRule[0]);
+        if (perEmployeePass && (parallelism == 1 || size <= rangeSize)) {
+            evaluateInChunks(org, active, builder.segment(0), metrics, tracker);
+        } else if (perEmployeePass) {
+            CancellationToken token = tracker.getToken();
+            List<OrgShapeMetrics.Collector> partials = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+                List<Future<?>> ranges = new ArrayList<>();
+                for (int start = 0; start < size; start += rangeSize) {
+                    int end = Math.min(size, start + rangeSize);
+                    AnalysisReport segment = builder.segment(start);
+                    OrgShapeMetrics.Collector partial = metrics == null ? null : metrics.newPartial();
+                    if (partial != null) {
+                        partials.add(partial);
+                    }
+                    int from = start;
+                    ranges.add(executor.submit(() -> evaluateRange(org, active, from, end, segment, partial, token)));
+                }
+                int completed = 0;
+                for (Future<?> range : ranges) {
+                    range.get();
+                    completed = Math.min(size, completed + rangeSize);
+                    tracker.update(0, completed);
+                }
+                for (OrgShapeMetrics.Collector partial : partials) {
+                    metrics.merge(partial);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Analysis interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Rule evaluation failed", e.getCause());
+            }
+        }
+        tracker.finishPhase(0, size);
+        return builder.build();
+    }
+
+    private static void evaluateInChunks(OrgView org, OrganizationRule[] active, AnalysisReport report,
+                                         OrgShapeMetrics.Collector metrics, ProgressTracker tracker)
+            throws AnalysisCancelledException {
+        int size = org.size();
+        for (int start = 0; start < size; start += PROGRESS_CHUNK_SIZE) {
+            int end = Math.min(size, start + PROGRESS_CHUNK_SIZE);
+            evaluateRange(org, active, start, end, report, metrics, null);
+            tracker.update(0, end);
+        }
+    }
+
+    /**
+     * Checks a range of employees and records them in the metrics collector, if any; stops
+     * early at a chunk boundary once the token, if any, is cancelled.
+     */
+    private static void evaluateRange(OrgView org, OrganizationRule[] active, int start, int end,
+                                      AnalysisReport report, OrgShapeMetrics.Collector metrics,
+                                      CancellationToken token) {
+        for (int employee = start; employee < end; employee++) {
+            if (token != null && (employee - start) % PROGRESS_CHUNK_SIZE == 0 && token.isCancelled()) {
+                return;
+            }
+            for (OrganizationRule rule : active) {
+                rule.evaluate(org, employee, report);
+            }
+            if (metrics != null) {
+                metrics.record(org, employee);
+            }
+        }
+    }
+
+    /**
+     * Runs every rule against a subset of employees, in the given order.
+     * Used to re-check only the nodes affected by a change.
+     *
+     * @param org the organization
+     * @param employees indices of the employees to check
+     * @return report containing the issues of those employees
+     */
+    public AnalysisReport evaluate(OrgView org, int[] employees) {
+        AnalysisReport report = newReport(org);
+        OrganizationRule[] active = rules;
+
+        for (int employee : employees) {
+            for (OrganizationRule rule : active) {
+                rule.evaluate(org, employee, report);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Reports on an {@link OrgIndex} refer to employees by index; overlays may change
+     * between evaluations, so their issues keep the employee objects.
+     */
+    private static AnalysisReport newReport(OrgView org) {
+        return new AnalysisReport(org instanceof OrgIndex index ? index : null);
+    }
+}
@@ -0,0 +1,159 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.util.Constants;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Flags managers whose salary falls outside a band around their direct reports' average.
+ *
+ * The band defaults to {@link Constants#MIN_MANAGER_SALARY_RATIO} and
+ * {@link Constants#MAX_MANAGER_SALARY_RATIO} and can be overridden globally
+ * ({@code min-ratio}, {@code max-ratio}) or per manager depth
+ * ({@code level.<depth>.min-ratio}, {@code level.<depth>.max-ratio}).
+ *
+ * Without per-level overrides, a full pass over an {@link OrgIndex} finds the violating
+ * managers with the index's salary kernel and only builds issues for those.
+ */
+public class SalaryBandRule implements OrganizationRule {
+    public static final String ID = "salary-band";
+
+    private static final Pattern LEVEL_KEY = Pattern.compile(
+        "rules\\." + Pattern.quote(ID) + "\\.level\\.(\\d+)\\.(min-ratio|max-ratio)");
+
+    private final double defaultMinRatio;
+    private final double defaultMaxRatio;
+    private final double[] minRatioByLevel;
+    private final double[] maxRatioByLevel;
+
+    public SalaryBandRule(double minRatio, double maxRatio) {
+        this(minRatio, maxRatio, new double[0], new double[0]);
+    }
+
+    private SalaryBandRule(double minRatio, double maxRatio, double[] minRatioByLevel, double[] maxRatioByLevel) {
+        if (minRatio <= 0 || maxRatio < minRatio) {
+            throw new IllegalArgumentException(
+                "Invalid salary band: min-ratio " + minRatio + ", max-ratio " + maxRatio);
+        }
+        this.defaultMinRatio = minRatio;
+        this.defaultMaxRatio = maxRatio;
+        this.minRatioByLevel = minRatioByLevel;
+        this.maxRatioByLevel = maxRatioByLevel;
+    }
+
+    /**
+     * Creates the rule from configuration, including any per-level overrides.
+     */
+    public static SalaryBandRule fromConfig(RuleConfig config) {
+        double minRatio = config.getDouble(ID, "min-ratio", Constants.MIN_MANAGER_SALARY_RATIO);
+        double maxRatio = config.getDouble(ID, "max-ratio", Constants.MAX_MANAGER_SALARY_RATIO);
+
+        int maxLevel = -1;
+        for (String key : config.asMap().keySet()) {
+            Matcher matcher = LEVEL_KEY.matcher(key);
+            if (matcher.matches()) {
+                maxLevel = Math.max(maxLevel, Integer.parseInt(matcher.group(1)));
+            }
+        }
+
+        double[] minByLevel = new double[maxLevel + 1];
+        double[] maxByLevel = new double[maxLevel + 1];
+        for (int level = 0; level <= maxLevel; level++) {
+            minByLevel[level] = config.getDouble(ID, "level." + level + ".min-ratio", minRatio);
+            maxByLevel[level] = config.getDouble(ID, "level." + level + ".max-ratio", maxRatio);
+            if (minByLevel[level] <= 0 || maxByLevel[level] < minByLevel[level]) {
+                throw new IllegalArgumentException("Invalid salary band for level " + level);
+            }
+        }
+        return new SalaryBandRule(minRatio, maxRatio, minByLevel, maxByLevel);
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    public double getMinRatio(int level) {
+        return level < minRatioByLevel.length ? minRatioByLevel[level] : defaultMinRatio;
+    }
+
+    public double getMaxRatio(int level) {
+        return level < maxRatioByLevel.length ? maxRatioByLevel[level] : defaultMaxRatio;
+    }
+
+    @Override
+    public void evaluate(OrgView org, int employee, AnalysisReport report) {
+        int directReports = org.getDirectReportCount(employee);
+        if (directReports == 0) {
+            return; // No subordinates, no salary check needed
+        }
+
+        int level = org.getDepth(employee);
+        double avgSubordinateSalary = org.getDirectReportSalarySum(employee) / directReports;
+        double managerSalary = org.getSalary(employee);
+
+        double minExpectedSalary = avgSubordinateSalary * getMinRatio(level);
+        double maxExpectedSalary = avgSubordinateSalary * getMaxRatio(level);
+
+        if (managerSalary < minExpectedSalary) {
+            report.addUnderpaidManager(org, employee, avgSubordinateSalary, minExpectedSalary - managerSalary);
+        } else if (managerSalary > maxExpectedSalary) {
+            report.addOverpaidManager(org, employee, avgSubordinateSalary, managerSalary - maxExpectedSalary);
+        }
+    }
+
+    @Override
+    public boolean evaluateAll(OrgView org, AnalysisReport report) {
+        if (!(org instanceof OrgIndex index) || minRatioByLevel.length > 0) {
+            return false;
+        }
+
+        int words = (index.size() + 63) >>> 6;
+        long[] underpaid = new long[words];
+        long[] overpaid = new long[words];
+        index.markSalaryBand(defaultMinRatio, defaultMaxRatio, underpaid, overpaid);
+
+        for (int word = 0; word < words; word++) {
+            long flagged = underpaid[word] | overpaid[word];
+            while (flagged != 0) {
+                int employee = (word << 6) + Long.numberOfTrailingZeros(flagged);
+                evaluate(org, employee, report);
+                flagged &= flagged - 1;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return ID + "[" + defaultMinRatio + ".." + defaultMaxRatio
+            + (minRatioByLevel.length > 0 ? ", per-level " + Arrays.toString(minRatioByLevel)
+                + ".." + Arrays.toString(maxRatioByLevel) : "") + "]";
+    }
+
+    /**
+     * Registers the rule with the {@link RuleEngine}; enabled by default.
+     */
+    public static class Provider implements OrganizationRuleProvider {
+        @Override
+        public String getRuleId() {
+            return ID;
+        }
+
+        @Override
+        public boolean isEnabledByDefault() {
+            return true;
+        }
+
+        @Override
+        public OrganizationRule create(RuleConfig config) {
+            return fromConfig(config);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.util.Constants;
+
+/**
+ * Flags managers with more than {@code max-direct-reports} direct reports.
+ * Disabled unless {@code rules.span-of-control.enabled=true} is configured.
+ */
+public class SpanOfControlRule implements OrganizationRule {
+    public static final String ID = "span-of-control";
+
+    private final int maxDirectReports;
+
+    public SpanOfControlRule(int maxDirectReports) {
+        if (maxDirectReports < 1) {
+            throw new IllegalArgumentException("Invalid max-direct-reports: " + maxDirectReports);
+        }
+        this.maxDirectReports = maxDirectReports;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    public int getMaxDirectReports() {
+        return maxDirectReports;
+    }
+
+    @Override
+    public void evaluate(OrgView org, int employee, AnalysisReport report) {
+        int directReports = org.getDirectReportCount(employee);
+        if (directReports > maxDirectReports) {
+            report.addRuleIssue(new AnalysisReport.RuleIssue(ID, org.getEmployee(employee),
+                directReports, maxDirectReports,
+                directReports + " direct reports (limit " + maxDirectReports + ")"));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ID + "[" + maxDirectReports + "]";
+    }
+
+    /**
+     * Registers the rule with the {@link RuleEngine}; disabled by default.
+     */
+    public static class Provider implements OrganizationRuleProvider {
+        @Override
+        public String getRuleId() {
+            return ID;
+        }
+
+        @Override
+        public boolean isEnabledByDefault() {
+            return false;
+        }
+
+        @Override
+        public OrganizationRule create(RuleConfig config) {
+            return new SpanOfControlRule(
+                config.getInt(ID, "max-direct-reports", Constants.MAX_DIRECT_REPORTS));
+        }
+    }
+}
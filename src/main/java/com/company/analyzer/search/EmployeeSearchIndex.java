@@ -0,0 +1,229 @@
+package com.company.analyzer.search;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgView;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Case-insensitive prefix and exact lookup of employees by ID, full name or last name.
+ *
+ * The index is a single sorted {@code int[]} with three entries per employee, one per key.
+ * An entry encodes the employee index and which of its keys it stands for; the key itself is
+ * never copied but read from the organization's {@link Employee} objects and lower-cased one
+ * character at a time while comparing. The index therefore adds 12 bytes per employee, and a
+ * lookup is a binary search over the array: {@code O(log n)} comparisons plus the matches.
+ * Indices returned by lookups refer to the {@link OrgView} the index was built from.
+ */
+public final class EmployeeSearchIndex {
+    private static final int KEY_ID = 0;
+    private static final int KEY_FULL_NAME = 1;
+    private static final int KEY_LAST_NAME = 2;
+    private static final int KEYS = 3;
+
+    private final OrgView org;
+    private final int[] entries;
+
+    private EmployeeSearchIndex(OrgView org, int[] entries) {
+        this.org = org;
+        this.entries = entries;
+    }
+
+    /**
+     * Builds the index in {@code O(n log n)}.
+     *
+     * @param org the organization; its employees must not change while the index is used
+     * @throws IllegalArgumentException if the organization is too large to encode
+     */
+    public static EmployeeSearchIndex build(OrgView org) {
+        int size = org.size();
+        if (size > Integer.MAX_VALUE / KEYS) {
+            throw new IllegalArgumentException("Too many employees to index: " + size);
+        }
+        int[] entries = new int[size * KEYS];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = i;
+        }
+        EmployeeSearchIndex index = new EmployeeSearchIndex(org, entries);
+        index.sort();
+        return index;
+    }
+
+    /**
+     * Returns the number of indexed employees.
+     */
+    public int size() {
+        return entries.length / KEYS;
+    }
+
+    /**
+     * Finds employees whose ID, full name ("first last") or last name starts with the query.
+     * Case and repeated or surrounding whitespace in the query are ignored.
+     *
+     * @param query the prefix; an empty query matches everyone
+     * @param limit maximum number of employees to return
+     * @return distinct employee indices, ordered by the matching key
+     */
+    public int[] findByPrefix(String query, int limit) {
+        String prefix = normalize(query);
+        int from = lowerBound(prefix, false);
+        int to = lowerBound(prefix, true);
+        return collect(from, to, -1, limit);
+    }
+
+    /**
+     * Finds employees whose ID, full name or last name equals the query, ignoring case and
+     * repeated or surrounding whitespace.
+     *
+     * @return distinct employee indices, ordered by the matching key
+     */
+    public int[] findExact(String query) {
+        String key = normalize(query);
+        int from = lowerBound(key, false);
+        int to = lowerBound(key, true);
+        return collect(from, to, key.length(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Collects distinct employees from a range of entries, optionally only those whose key
+     * has the given length. Exact matches sort first within a prefix range.
+     */
+    private int[] collect(int from, int to, int keyLength, int limit) {
+        int[] found = new int[Math.min(limit, to - from)];
+        int count = 0;
+        BitSet seen = new BitSet();
+        for (int i = from; i < to && count < found.length; i++) {
+            int entry = entries[i];
+            if (keyLength >= 0 && keyLength(entry) != keyLength) {
+                break;
+            }
+            int employee = entry / KEYS;
+            if (!seen.get(employee)) {
+                seen.set(employee);
+                found[count++] = employee;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Returns the first entry whose key is not less than the prefix, or, if {@code after} is
+     * set, the first entry whose key is greater and does not start with it.
+     */
+    private int lowerBound(String prefix, boolean after) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareToPrefix(entries[middle], prefix);
+            if (comparison < 0 || (after && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the start of an entry's key with a normalized prefix; 0 if the key starts with it.
+     */
+    private int compareToPrefix(int entry, String prefix) {
+        int length = keyLength(entry);
+        int common = Math.min(length, prefix.length());
+        for (int i = 0; i < common; i++) {
+            int difference = keyChar(entry, i) - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length >= prefix.length() ? 0 : -1;
+    }
+
+    private int compareEntries(int left, int right) {
+        int leftLength = keyLength(left);
+        int rightLength = keyLength(right);
+        int common = Math.min(leftLength, rightLength);
+        for (int i = 0; i < common; i++) {
+            int difference = keyChar(left, i) - keyChar(right, i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return leftLength != rightLength ? Integer.compare(leftLength, rightLength) : Integer.compare(left, right);
+    }
+
+    private int keyLength(int entry) {
+        Employee employee = org.getEmployee(entry / KEYS);
+        return switch (entry % KEYS) {
+            case KEY_ID -> employee.getId().length();
+            case KEY_FULL_NAME -> employee.getFirstName().length() + 1 + employee.getLastName().length();
+            default -> employee.getLastName().length();
+        };
+    }
+
+    private char keyChar(int entry, int position) {
+        Employee employee = org.getEmployee(entry / KEYS);
+        char c = switch (entry % KEYS) {
+            case KEY_ID -> employee.getId().charAt(position);
+            case KEY_FULL_NAME -> {
+                String firstName = employee.getFirstName();
+                if (position < firstName.length()) {
+                    yield firstName.charAt(position);
+                }
+                yield position == firstName.length() ? ' ' : employee.getLastName().charAt(position - firstName.length() - 1);
+            }
+            default -> employee.getLastName().charAt(position);
+        };
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Lower-cases the query and collapses whitespace the way keys are compared.
+     */
+    static String normalize(String query) {
+        String trimmed = query.trim();
+        StringBuilder normalized = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (!Character.isWhitespace(trimmed.charAt(i - 1))) {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Bottom-up merge sort of the entries; a primitive sort avoids boxing millions of
+     * entries for a comparator.
+     */
+    private void sort() {
+        int length = entries.length;
+        int[] source = entries;
+        int[] target = new int[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int start = 0; start < length; start += 2 * width) {
+                int middle = Math.min(start + width, length);
+                int end = Math.min(start + 2 * width, length);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    if (left < middle && (right >= end || compareEntries(source[left], source[right]) <= 0)) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != entries) {
+            System.arraycopy(source, 0, entries, 0, length);
+        }
+    }
+}
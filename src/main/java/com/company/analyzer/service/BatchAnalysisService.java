@@ -0,0 +1,240 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.BatchSummary;
+import com.company.analyzer.model.Employee;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Analyzes many CSV files in one JVM.
+ *
+ * Every file gets its own virtual thread. Reading and analyzing a file are gated
+ * together by a semaphore, so no more than {@code maxConcurrentAnalyses} files are
+ * parsed and analyzed at once and only that many employee lists are held in memory.
+ * Writing the reports overlaps freely; all writers share one {@link ReportGenerator},
+ * which is safe to use from several threads at once.
+ */
+public class BatchAnalysisService {
+    static final String REPORT_SUFFIX = ".report.txt";
+    static final String SUMMARY_FILE_NAME = "batch-summary.txt";
+
+    private final CsvReaderService csvReader;
+    private final OrganizationAnalyzer analyzer;
+    private final ReportGenerator reportGenerator;
+    private final int maxConcurrentAnalyses;
+
+    public BatchAnalysisService() {
+        this(new CsvReaderService(), new OrganizationAnalyzer(), new ReportGenerator(),
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchAnalysisService(CsvReaderService csvReader,
+                                OrganizationAnalyzer analyzer,
+                                ReportGenerator reportGenerator,
+                                int maxConcurrentAnalyses) {
+        if (maxConcurrentAnalyses < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.csvReader = csvReader;
+        this.analyzer = analyzer;
+        this.reportGenerator = reportGenerator;
+        this.maxConcurrentAnalyses = maxConcurrentAnalyses;
+    }
+
+    /**
+     * Resolves a directory or a glob pattern into the list of CSV files to analyze.
+     * A directory selects every {@code *.csv} file directly inside it; a pattern such as
+     * {@code exports/2024-*.csv} is matched against the files of its parent directory.
+     *
+     * @param dirOrGlob directory path or glob pattern
+     * @return matching files in name order
+     * @throws EmployeeDataException if nothing can be listed or nothing matches
+     */
+    public List<Path> resolveInputs(String dirOrGlob) throws EmployeeDataException {
+        if (dirOrGlob == null || dirOrGlob.trim().isEmpty()) {
+            throw new EmployeeDataException("Batch input cannot be null or empty");
+        }
+
+        Path directory;
+        PathMatcher matcher;
+        Path candidate = Path.of(dirOrGlob);
+        if (Files.isDirectory(candidate)) {
+            directory = candidate;
+            matcher = FileSystems.getDefault().getPathMatcher("glob:*.csv");
+        } else {
+            directory = candidate.getParent() == null ? Path.of(".") : candidate.getParent();
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + candidate.getFileName());
+        }
+
+        if (!Files.isDirectory(directory)) {
+            throw new EmployeeDataException("Batch directory does not exist: " + directory);
+        }
+
+        List<Path> inputs;
+        try (Stream<Path> files = Files.list(directory)) {
+            inputs = files
+                .filter(Files::isRegularFile)
+                .filter(path -> matcher.matches(path.getFileName()))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error listing batch directory: " + directory, e);
+        }
+
+        if (inputs.isEmpty()) {
+            throw new EmployeeDataException("No CSV files matched: " + dirOrGlob);
+        }
+        return inputs;
+    }
+
+    /**
+     * Analyzes all inputs concurrently and writes one report per file plus a
+     * consolidated summary into the output directory. A file that fails to load
+     * or analyze is recorded in the summary instead of aborting the batch.
+     *
+     * @param inputs files to analyze
+     * @param outputDir directory receiving the per-file reports and the summary
+     * @return summary with one result per input, in input order
+     * @throws EmployeeDataException if the output directory cannot be prepared
+     */
+    public BatchSummary analyzeAll(List<Path> inputs, Path outputDir) throws EmployeeDataException {
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Cannot create output directory: " + outputDir, e);
+        }
+
+        Semaphore analysisPermits = new Semaphore(maxConcurrentAnalyses);
+        List<Future<BatchSummary.FileResult>> futures = new ArrayList<>(inputs.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path input : inputs) {
+                futures.add(executor.submit(() -> analyzeFile(input, outputDir, analysisPermits)));
+            }
+
+            List<BatchSummary.FileResult> results = new ArrayList<>(inputs.size());
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(awaitResult(inputs.get(i), futures.get(i)));
+            }
+
+            BatchSummary summary = new BatchSummary(results);
+            writeSummary(summary, outputDir.resolve(SUMMARY_FILE_NAME));
+            return summary;
+        }
+    }
+
+    /**
+     * Prints the consolidated batch summary to the specified output stream.
+     *
+     * @param summary the batch summary to print
+     * @param out the output stream to write to
+     */
+    public void printSummary(BatchSummary summary, PrintStream out) {
+        out.println("=".repeat(80));
+        out.println("BATCH ANALYSIS SUMMARY");
+        out.println("=".repeat(80));
+        out.printf("Files analyzed: %d, succeeded: %d, failed: %d%n",
+            summary.getResults().size(),
+            summary.getSuccessfulResults().size(),
+            summary.getFailedResults().size());
+        out.println();
+
+        for (BatchSummary.FileResult result : summary.getSuccessfulResults()) {
+            out.printf("  • %s%n", result.getInput().getFileName());
+            out.printf("    Employees: %d, underpaid: %d, overpaid: %d, long reporting lines: %d, peer salary outliers: %d%n",
+                result.getEmployeeCount(),
+                result.getUnderpaidManagers(),
+                result.getOverpaidManagers(),
+                result.getLongReportingLines(),
+                result.getPeerSalaryOutliers());
+        }
+
+        if (summary.hasFailures()) {
+            out.println();
+            out.println("ERRORS");
+            out.println("-".repeat(80));
+            for (BatchSummary.FileResult result : summary.getFailedResults()) {
+                out.printf("  • %s: %s%n", result.getInput().getFileName(), result.getError());
+            }
+        }
+        out.println();
+    }
+
+    /**
+     * Reads, analyzes and reports a single file. Reading and analysis hold a permit,
+     * which bounds the parsed files in memory; the report is written without one.
+     */
+    private BatchSummary.FileResult analyzeFile(Path input, Path outputDir, Semaphore analysisPermits) {
+        try {
+            int employeeCount;
+            AnalysisReport report;
+            analysisPermits.acquire();
+            try {
+                List<Employee> employees = csvReader.readEmployees(input.toString());
+                employeeCount = employees.size();
+                report = analyzer.analyze(employees);
+            } finally {
+                analysisPermits.release();
+            }
+
+            Path reportFile = outputDir.resolve(input.getFileName() + REPORT_SUFFIX);
+            try (PrintStream out = openReport(reportFile)) {
+                reportGenerator.printReport(report, out);
+                if (out.checkError()) {
+                    throw new IOException("write failed for " + reportFile);
+                }
+            }
+            return BatchSummary.FileResult.success(input, reportFile, employeeCount, report);
+
+        } catch (EmployeeDataException e) {
+            return BatchSummary.FileResult.failure(input, e.getMessage());
+        } catch (IOException e) {
+            return BatchSummary.FileResult.failure(input, "Error writing report: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchSummary.FileResult.failure(input, "Analysis interrupted");
+        } catch (RuntimeException e) {
+            return BatchSummary.FileResult.failure(input, "Unexpected error: " + e.getMessage());
+        }
+    }
+
+    private BatchSummary.FileResult awaitResult(Path input, Future<BatchSummary.FileResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchSummary.FileResult.failure(input, "Analysis interrupted");
+        } catch (ExecutionException e) {
+            return BatchSummary.FileResult.failure(input, "Unexpected error: " + e.getCause().getMessage());
+        }
+    }
+
+    private void writeSummary(BatchSummary summary, Path summaryFile) throws EmployeeDataException {
+        try (PrintStream out = openReport(summaryFile)) {
+            printSummary(summary, out);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error writing batch summary: " + summaryFile, e);
+        }
+    }
+
+    private PrintStream openReport(Path file) throws IOException {
+        return new PrintStream(new BufferedOutputStream(Files.newOutputStream(file)), false, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package com.company.analyzer.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Cuts an input stream into lines without decoding it. The current line is a range
+ * of {@link #buffer()}, valid until the next call to {@link #next()}; the line feed and
+ * a preceding carriage return are not part of it. The buffer grows to fit the longest line.
+ */
+final class ByteLineReader {
+    private static final int INITIAL_BUFFER = 1 << 16;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[INITIAL_BUFFER];
+    private int limit;
+    private int position;
+    private boolean eof;
+    private int lineStart;
+    private int lineEnd;
+
+    ByteLineReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return false once the stream is exhausted
+     */
+    boolean next() throws IOException {
+        int scanFrom = position;
+        while (true) {
+            for (int i = scanFrom; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    setLine(position, i);
+                    position = i + 1;
+                    return true;
+                }
+            }
+            if (eof) {
+                if (position == limit) {
+                    return false;
+                }
+                setLine(position, limit);
+                position = limit;
+                return true;
+            }
+            scanFrom = limit - position;
+            fill();
+            scanFrom += position;
+        }
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int start() {
+        return lineStart;
+    }
+
+    int end() {
+        return lineEnd;
+    }
+
+    private void setLine(int start, int end) {
+        lineStart = start;
+        lineEnd = end > start && buffer[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    /**
+     * Moves the unread bytes to the front, growing the buffer if they fill it, and reads more.
+     */
+    private void fill() throws IOException {
+        int unread = limit - position;
+        if (unread == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, unread);
+        }
+        position = 0;
+        limit = unread;
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.analyzer.service;
+
+/**
+ * Selects the columns a CSV read decodes. Columns outside the projection are only
+ * scanned for their delimiters.
+ */
+public enum CsvProjection {
+    /** Every employee column. */
+    ALL,
+    /**
+     * IDs, salaries and managers. Names are decoded for the CEO only, who heads every
+     * report; other employees get empty names and their name columns are not validated.
+     */
+    HIERARCHY
+}
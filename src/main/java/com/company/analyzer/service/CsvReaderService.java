@@ -2,20 +2,27 @@ package com.company.analyzer.service;
   
 import com.company.analyzer.exception.EmployeeDataException;  
 import com.company.analyzer.model.Employee;  
-import com.company.analyzer.util.Constants;
+import com.company.analyzer.model.IngestionErrors;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.progress.CountingInputStream;
+import com.company.analyzer.progress.Progress;
+import com.company.analyzer.progress.ProgressTracker;
   
-import java.io.BufferedReader;  
-import java.io.FileReader;  
+import java.io.ByteArrayInputStream;
 import java.io.IOException;  
 import java.nio.file.Files;  
 import java.nio.file.Path;  
 import java.util.ArrayList;  
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
   
 /**  
  * Service responsible for reading employee data from CSV files.  
  */  
 public class CsvReaderService {
+    /** Rows between two progress updates and cancellation checks. */
+    static final int PROGRESS_CHUNK_ROWS = 4096;
   
     /**  
      * Reads employee data from a CSV file.  
@@ -25,91 +32,197 @@ public class CsvReaderService {
      * @throws EmployeeDataException if file cannot be read or data is invalid  
      */  
     public List<Employee> readEmployees(String filePath) throws EmployeeDataException {  
-        validateFilePath(filePath);
-          
+        return readEmployees(filePath, ProgressTracker.silent());
+    }
+
+    /**
+     * Reads employee data from a CSV file, reporting progress in the
+     * {@link Progress.Phase#READING} phase.
+     *
+     * @param filePath path to the CSV file
+     * @param tracker receives progress and is checked for cancellation every few thousand rows
+     * @return list of employees
+     * @throws EmployeeDataException if file cannot be read, data is invalid or the run is cancelled
+     */
+    public List<Employee> readEmployees(String filePath, ProgressTracker tracker) throws EmployeeDataException {
         List<Employee> employees = new ArrayList<>();  
-        int lineNumber = 0;
-  
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {  
-            String line;  
-            boolean isFirstLine = true;
-  
-            while ((line = reader.readLine()) != null) {  
-                lineNumber++;
-                  
-                // Skip header line  
-                if (isFirstLine) {  
-                    isFirstLine = false;  
-                    continue;  
-                }
-  
-                // Skip empty lines  
-                if (line.trim().isEmpty()) {  
-                    continue;  
-                }
-  
-                try {  
-                    Employee employee = parseLine(line);
-                    employees.add(employee);  
-                } catch (IllegalArgumentException e) {  
-                    throw new EmployeeDataException(  
-                        "Invalid data at line " + lineNumber + ": " + e.getMessage(), e);  
-                }  
-            }
-  
-            if (employees.isEmpty()) {  
-                throw new EmployeeDataException("No employee data found in file");  
-            }
-  
-            return employees;
+        forEachEmployee(filePath, employees::add, tracker);
+        return employees;
+    }
+
+    /**
+     * Reads employee data from the content of a CSV file that is already in memory,
+     * e.g. to parse exactly the bytes that were hashed.
+     *
+     * @param content the file content
+     * @param fileName name of the file, used in error messages
+     * @return list of employees
+     * @throws EmployeeDataException if the data is invalid
+     */
+    public List<Employee> readEmployees(byte[] content, String fileName) throws EmployeeDataException {
+        List<Employee> employees = new ArrayList<>();
+        try (CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(content))) {
+            read(in, content.length, fileName, (employee, lineNumber) -> employees.add(employee),
+                ProgressTracker.silent(), null, CsvProjection.ALL);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error reading file: " + fileName, e);
+        }
+        return employees;
+    }
+
+    /**
+     * Reads and indexes the organization in the calling thread, reporting the
+     * {@link Progress.Phase#READING} and {@link Progress.Phase#INDEXING} phases.
+     *
+     * @param filePath path to the CSV file
+     * @param tracker receives progress and is checked for cancellation every few thousand rows
+     * @return the validated organization index
+     * @throws EmployeeDataException if file cannot be read, data is invalid or the run is cancelled
+     */
+    public OrgIndex readIndex(String filePath, ProgressTracker tracker) throws EmployeeDataException {
+        List<Employee> employees = readEmployees(filePath, tracker);
+        tracker.startPhase(Progress.Phase.INDEXING, Progress.UNKNOWN, employees.size());
+        OrgIndex org = OrgIndex.build(employees);
+        tracker.finishPhase(0, employees.size());
+        return org;
+    }
+
+    /**
+     * Streams employee data from a CSV file to a callback without keeping it,
+     * for inputs too large to hold in memory. Validation and error messages are
+     * the same as for {@link #readEmployees(String)}.
+     *
+     * @param filePath path to the CSV file
+     * @param action receives each employee in file order
+     * @return number of employees read
+     * @throws EmployeeDataException if file cannot be read or data is invalid
+     */
+    public int forEachEmployee(String filePath, Consumer<Employee> action) throws EmployeeDataException {
+        return forEachEmployee(filePath, action, ProgressTracker.silent());
+    }
+
+    /**
+     * Streams employee data from a CSV file to a callback, reporting progress in the
+     * {@link Progress.Phase#READING} phase.
+     *
+     * @param filePath path to the CSV file
+     * @param action receives each employee in file order
+     * @param tracker receives progress and is checked for cancellation every few thousand rows
+     * @return number of employees read
+     * @throws EmployeeDataException if file cannot be read, data is invalid or the run is cancelled
+     */
+    public int forEachEmployee(String filePath, Consumer<Employee> action, ProgressTracker tracker)
+            throws EmployeeDataException {
+        return forEachEmployee(filePath, action, tracker, CsvProjection.ALL);
+    }
+
+    /**
+     * Streams employee data from a CSV file to a callback, decoding only the columns of the
+     * projection, and reports progress in the {@link Progress.Phase#READING} phase.
+     *
+     * @param filePath path to the CSV file
+     * @param action receives each employee in file order
+     * @param tracker receives progress and is checked for cancellation every few thousand rows
+     * @param projection the columns to decode
+     * @return number of employees read
+     * @throws EmployeeDataException if file cannot be read, data is invalid or the run is cancelled
+     */
+    public int forEachEmployee(String filePath, Consumer<Employee> action, ProgressTracker tracker,
+                               CsvProjection projection) throws EmployeeDataException {
+        return read(filePath, (employee, lineNumber) -> action.accept(employee), tracker, null, projection);
+    }
+
+    /**
+     * Reads and indexes the valid part of the organization in the calling thread. Invalid
+     * rows, and employees that cannot be placed in the organization, are recorded in the
+     * error buffer and left out instead of failing the read.
+     *
+     * @param filePath path to the CSV file
+     * @param tracker receives progress and is checked for cancellation every few thousand rows
+     * @param errors receives the rows left out
+     * @return the organization index of the valid rows
+     * @throws EmployeeDataException if the file cannot be read, has no valid rows or no CEO,
+     *         or the run is cancelled
+     */
+    public OrgIndex readIndex(String filePath, ProgressTracker tracker, IngestionErrors errors)
+            throws EmployeeDataException {
+        LenientRows rows = new LenientRows();
+        read(filePath, rows::add, tracker, errors, CsvProjection.ALL);
+        return rows.index(tracker, errors);
+    }
+
+    /**
+     * Reads the file row by row, mapping columns from the header. Without an error buffer
+     * the first invalid row fails the read; with one, invalid rows are recorded and skipped.
+     */
+    private int read(String filePath, RowAction action, ProgressTracker tracker, IngestionErrors errors,
+                     CsvProjection projection) throws EmployeeDataException {
+        validateFilePath(filePath);
+        Path path = Path.of(filePath);
   
+        try (CountingInputStream file = new CountingInputStream(Files.newInputStream(path))) {
+            return read(file, Files.size(path), filePath, action, tracker, errors, projection);
         } catch (IOException e) {  
             throw new EmployeeDataException("Error reading file: " + filePath, e);  
         }  
     }
-  
-    /**  
-     * Parses a single CSV line into an Employee object.  
-     */  
-    private Employee parseLine(String line) {
-        String[] parts = line.split(Constants.CSV_DELIMITER, -1);
-  
-        if (parts.length != Constants.CSV_EXPECTED_COLUMNS) {  
-            throw new IllegalArgumentException(  
-                "Expected " + Constants.CSV_EXPECTED_COLUMNS + " columns, found " + parts.length);  
-        }
-  
-        String id = parts[0].trim();  
-        String firstName = parts[1].trim();  
-        String lastName = parts[2].trim();  
-        String salaryStr = parts[3].trim();  
-        String managerId = parts[4].trim();
-  
-        if (id.isEmpty()) {  
-            throw new IllegalArgumentException("Employee ID cannot be empty");  
-        }
-  
-        if (firstName.isEmpty() || lastName.isEmpty()) {  
-            throw new IllegalArgumentException("Employee name cannot be empty");  
+
+    /**
+     * Reads the rows of an open CSV stream of {@code totalBytes} bytes.
+     */
+    private int read(CountingInputStream file, long totalBytes, String filePath, RowAction action,
+                     ProgressTracker tracker, IngestionErrors errors, CsvProjection projection)
+            throws EmployeeDataException, IOException {
+        int count = 0;
+        int lineNumber = 0;
+        tracker.startPhase(Progress.Phase.READING, totalBytes, Progress.UNKNOWN);
+        ByteLineReader reader = new ByteLineReader(file);
+        CsvSchema schema = null;
+
+        while (reader.next()) {
+            lineNumber++;
+            byte[] line = reader.buffer();
+
+            if (schema == null) {
+                schema = CsvSchema.fromHeader(line, reader.start(), reader.end());
+                continue;
+            }
+
+            // Skip empty lines
+            if (CsvSchema.isBlank(line, reader.start(), reader.end())) {
+                continue;
+            }
+
+            Employee employee;
+            try {
+                employee = schema.parse(line, reader.start(), reader.end(), projection);
+            } catch (InvalidRowException e) {
+                if (errors == null) {
+                    throw new EmployeeDataException(
+                        "Invalid data at line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                errors.record(lineNumber, e.getKind(), e.getMessage());
+                continue;
+            }
+            action.accept(employee, lineNumber);
+            count++;
+            if (count % PROGRESS_CHUNK_ROWS == 0) {
+                tracker.update(file.getCount(), count);
+            }
         }
   
-        double salary;  
-        try {  
-            salary = Double.parseDouble(salaryStr);  
-        } catch (NumberFormatException e) {  
-            throw new IllegalArgumentException("Invalid salary value: " + salaryStr);  
+        if (count == 0) {  
+            throw noEmployeeData(errors);
         }
+        tracker.finishPhase(file.getCount(), count);
   
-        // Empty managerId is valid for CEO  
-        String managerIdValue = managerId.isEmpty() ? null : managerId;
-  
-        return new Employee(id, firstName, lastName, salary, managerIdValue);  
+        return count;
     }
   
     /**  
      * Validates that the file path exists and is readable.  
      */  
-    private void validateFilePath(String filePath) throws EmployeeDataException {  
+    static void validateFilePath(String filePath) throws EmployeeDataException {  
         if (filePath == null || filePath.trim().isEmpty()) {  
             throw new EmployeeDataException("File path cannot be null or empty");  
         }
@@ -123,4 +236,66 @@ public class CsvReaderService {
             throw new EmployeeDataException("File is not readable: " + filePath);  
         }  
     }  
-}  
\ No newline at end of file
+
+    /**
+     * Returns the error for a file without employees, naming the invalid rows of a lenient read.
+     */
+    static EmployeeDataException noEmployeeData(IngestionErrors errors) {
+        return errors == null || !errors.hasErrors()
+            ? new EmployeeDataException("No employee data found in file")
+            : new EmployeeDataException("No valid employee data found in file, " + errors.getTotalCount() + " rows are invalid");
+    }
+
+    /**
+     * Receives each parsed employee with its line number.
+     */
+    @FunctionalInterface
+    private interface RowAction {
+        void accept(Employee employee, int lineNumber);
+    }
+
+    /**
+     * A row that cannot be parsed, thrown by {@link CsvSchema#parse}. The kind names the problem without the row's values,
+     * so lenient reads can group rows failing the same way.
+     */
+    static final class InvalidRowException extends IllegalArgumentException {
+        private final String kind;
+
+        InvalidRowException(String kind, String message) {
+            super(message);
+            this.kind = kind;
+        }
+
+        String getKind() {
+            return kind;
+        }
+    }
+
+    /**
+     * Valid rows of a lenient read with their line numbers, indexed once the read is done.
+     * Shared with {@link IngestionPipeline}.
+     */
+    static final class LenientRows {
+        private final List<Employee> employees = new ArrayList<>();
+        private int[] lineNumbers = new int[1024];
+
+        void add(Employee employee, int lineNumber) {
+            if (employees.size() == lineNumbers.length) {
+                lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+            }
+            lineNumbers[employees.size()] = lineNumber;
+            employees.add(employee);
+        }
+
+        int size() {
+            return employees.size();
+        }
+
+        OrgIndex index(ProgressTracker tracker, IngestionErrors errors) throws EmployeeDataException {
+            tracker.startPhase(Progress.Phase.INDEXING, Progress.UNKNOWN, employees.size());
+            OrgIndex org = OrgIndex.buildLenient(employees, lineNumbers, errors);
+            tracker.finishPhase(0, org.size());
+            return org;
+        }
+    }
+}
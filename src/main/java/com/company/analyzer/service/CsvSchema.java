@@ -0,0 +1,186 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.util.Constants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Column layout of an employee CSV file, taken from its header, and the row parser for it.
+ *
+ * Header names are matched ignoring case, spaces and punctuation, so {@code managerId},
+ * {@code Manager ID} and {@code manager_id} are the same column. Columns may come in any
+ * order and columns the analyzer does not use are ignored. A header that does not name all
+ * employee columns but has exactly {@link Constants#CSV_EXPECTED_COLUMNS} columns is read
+ * in the fixed order id, first name, last name, salary, manager ID, as before headers were
+ * mapped.
+ *
+ * Rows are parsed from their UTF-8 bytes: the parser finds the delimiters and decodes only
+ * the columns the projection needs. Instances are immutable and shared by parse workers.
+ */
+final class CsvSchema {
+    private static final int ID = 0;
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 2;
+    private static final int SALARY = 3;
+    private static final int MANAGER_ID = 4;
+    private static final int SKIPPED = -1;
+
+    /** Accepted normalized header names per employee column, in column constant order. */
+    private static final List<List<String>> NAMES = List.of(
+        List.of("id", "employeeid"),
+        List.of("firstname", "givenname"),
+        List.of("lastname", "surname", "familyname"),
+        List.of("salary"),
+        List.of("managerid", "reportsto"));
+    private static final String[] DISPLAY_NAMES = {"id", "firstName", "lastName", "salary", "managerId"};
+
+    private static final byte DELIMITER = (byte) Constants.CSV_DELIMITER.charAt(0);
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final int columnCount;
+    /** Employee column of each file column, or {@link #SKIPPED}. */
+    private final int[] fields;
+
+    private CsvSchema(int columnCount, int[] fields) {
+        this.columnCount = columnCount;
+        this.fields = fields;
+    }
+
+    /**
+     * Maps the columns of a header line.
+     *
+     * @throws EmployeeDataException if an employee column is missing from the header
+     */
+    static CsvSchema fromHeader(byte[] line, int start, int end) throws EmployeeDataException {
+        if (Arrays.equals(line, start, Math.min(end, start + 3), BYTE_ORDER_MARK, 0, 3)) {
+            start += 3;
+        }
+        String[] names = new String(line, start, end - start, StandardCharsets.UTF_8)
+            .split(Constants.CSV_DELIMITER, -1);
+
+        int[] fields = new int[names.length];
+        Arrays.fill(fields, SKIPPED);
+        boolean[] found = new boolean[NAMES.size()];
+        for (int column = 0; column < names.length; column++) {
+            String name = normalize(names[column]);
+            for (int field = 0; field < NAMES.size(); field++) {
+                // The first column with a name wins
+                if (!found[field] && NAMES.get(field).contains(name)) {
+                    fields[column] = field;
+                    found[field] = true;
+                    break;
+                }
+            }
+        }
+
+        for (int field = 0; field < found.length; field++) {
+            if (!found[field]) {
+                if (names.length == Constants.CSV_EXPECTED_COLUMNS) {
+                    return new CsvSchema(names.length, new int[] {ID, FIRST_NAME, LAST_NAME, SALARY, MANAGER_ID});
+                }
+                throw new EmployeeDataException("Missing column in header: " + DISPLAY_NAMES[field]);
+            }
+        }
+        return new CsvSchema(names.length, fields);
+    }
+
+    /**
+     * Returns true if the line holds nothing but whitespace.
+     */
+    static boolean isBlank(byte[] line, int start, int end) {
+        return trimStart(line, start, end) == end;
+    }
+
+    /**
+     * Parses a data row.
+     *
+     * @throws CsvReaderService.InvalidRowException if the row has the wrong number of
+     *         columns or an invalid value in a decoded column
+     */
+    Employee parse(byte[] line, int start, int end, CsvProjection projection) {
+        // Start and end of each employee column
+        int[] bounds = new int[2 * NAMES.size()];
+        int column = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || line[i] == DELIMITER) {
+                if (column < columnCount && fields[column] != SKIPPED) {
+                    bounds[2 * fields[column]] = fieldStart;
+                    bounds[2 * fields[column] + 1] = i;
+                }
+                column++;
+                fieldStart = i + 1;
+            }
+        }
+        if (column != columnCount) {
+            throw new CsvReaderService.InvalidRowException("Wrong number of columns",
+                "Expected " + columnCount + " columns, found " + column);
+        }
+
+        String id = decode(line, bounds, ID);
+        if (id.isEmpty()) {
+            throw new CsvReaderService.InvalidRowException("Employee ID cannot be empty", "Employee ID cannot be empty");
+        }
+
+        // Empty managerId is valid for CEO
+        String managerId = decode(line, bounds, MANAGER_ID);
+        String firstName = "";
+        String lastName = "";
+        if (projection == CsvProjection.ALL || managerId.isEmpty()) {
+            firstName = decode(line, bounds, FIRST_NAME);
+            lastName = decode(line, bounds, LAST_NAME);
+            if (firstName.isEmpty() || lastName.isEmpty()) {
+                throw new CsvReaderService.InvalidRowException("Employee name cannot be empty",
+                    "Employee name cannot be empty");
+            }
+        }
+
+        String salaryStr = decode(line, bounds, SALARY);
+        double salary;
+        try {
+            salary = Double.parseDouble(salaryStr);
+        } catch (NumberFormatException e) {
+            throw new CsvReaderService.InvalidRowException("Invalid salary value", "Invalid salary value: " + salaryStr);
+        }
+        if (salary < 0) {
+            throw new CsvReaderService.InvalidRowException("Invalid salary value", "Salary cannot be negative: " + salaryStr);
+        }
+
+        return new Employee(id, firstName, lastName, salary, managerId.isEmpty() ? null : managerId);
+    }
+
+    private static String decode(byte[] line, int[] bounds, int field) {
+        int end = bounds[2 * field + 1];
+        int start = trimStart(line, bounds[2 * field], end);
+        while (end > start && (line[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return start == end ? "" : new String(line, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips leading whitespace and control characters, as {@link String#trim()} does.
+     */
+    private static int trimStart(byte[] line, int start, int end) {
+        while (start < end && (line[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+}
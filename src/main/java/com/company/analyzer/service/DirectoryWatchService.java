@@ -0,0 +1,289 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.IssueDelta;
+import com.company.analyzer.util.ContentHasher;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory for CSV exports and re-analyzes a file whenever it changes.
+ *
+ * Change events are debounced: a file is only processed once no further events
+ * arrived for it during the debounce interval, so half-written exports are not
+ * picked up. Files whose content hash did not change since the last run are skipped
+ * without parsing, and only issues that differ from the previous run are printed.
+ */
+public class DirectoryWatchService {
+    private static final String CSV_EXTENSION = ".csv";
+
+    private final CsvReaderService csvReader;
+    private final OrganizationAnalyzer analyzer;
+    private final Duration debounce;
+    private final PrintStream out;
+    private final NumberFormat currencyFormat;
+    private final Map<Path, LoadedOrganization> loaded = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile WatchService watchService;
+
+    public DirectoryWatchService(Duration debounce, PrintStream out) {
+        this(new CsvReaderService(), new OrganizationAnalyzer(), debounce, out);
+    }
+
+    public DirectoryWatchService(CsvReaderService csvReader,
+                                 OrganizationAnalyzer analyzer,
+                                 Duration debounce,
+                                 PrintStream out) {
+        if (debounce.isNegative()) {
+            throw new IllegalArgumentException("Debounce interval cannot be negative");
+        }
+        this.csvReader = csvReader;
+        this.analyzer = analyzer;
+        this.debounce = debounce;
+        this.out = out;
+        this.currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+    }
+
+    /**
+     * Processes every CSV file already present in the directory, then blocks and
+     * re-processes files as they change until {@link #stop()} is called or the
+     * calling thread is interrupted.
+     *
+     * @param directory directory to watch
+     * @throws EmployeeDataException if the directory cannot be watched
+     */
+    public void watch(Path directory) throws EmployeeDataException {
+        if (!Files.isDirectory(directory)) {
+            throw new EmployeeDataException("Watch directory does not exist: " + directory);
+        }
+
+        Map<Path, Long> pending = new LinkedHashMap<>();
+        long debounceNanos = debounce.toNanos();
+        long pollMillis = Math.max(10, debounce.toMillis() / 4);
+
+        try (WatchService service = directory.getFileSystem().newWatchService()) {
+            watchService = service;
+            running = true;
+            directory.register(service,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+            for (Path file : listCsvFiles(directory)) {
+                processFile(file);
+            }
+
+            while (running) {
+                WatchKey key = service.poll(pollMillis, TimeUnit.MILLISECONDS);
+                long now = System.nanoTime();
+
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            // Events were lost; fall back to a full rescan
+                            listCsvFiles(directory).forEach(file -> pending.put(file, now));
+                            continue;
+                        }
+                        Path file = directory.resolve((Path) event.context());
+                        if (isCsvFile(file)) {
+                            pending.put(file, now);
+                        }
+                    }
+                    key.reset();
+                }
+
+                Iterator<Map.Entry<Path, Long>> it = pending.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Path, Long> entry = it.next();
+                    if (now - entry.getValue() >= debounceNanos) {
+                        it.remove();
+                        processFile(entry.getKey());
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stop() closed the service; fall through and return
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error watching directory: " + directory, e);
+        } finally {
+            running = false;
+            watchService = null;
+        }
+    }
+
+    /**
+     * Stops a running {@link #watch(Path)} loop. Safe to call from any thread.
+     */
+    public void stop() {
+        running = false;
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                // Closing is best effort; the loop exits on the running flag anyway
+            }
+        }
+    }
+
+    /**
+     * Re-ingests and re-analyzes a single file if its content changed since the last run,
+     * and prints the issues that changed.
+     *
+     * @param file the CSV file to process
+     * @return the issue delta, or empty if the file was unchanged, removed or could not be analyzed
+     */
+    public Optional<IssueDelta> processFile(Path file) {
+        LoadedOrganization previous = loaded.get(file);
+
+        // Hash and parse the same bytes, so the stored hash always matches the analyzed content
+        // even if the file is rewritten meanwhile
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            if (loaded.remove(file) != null) {
+                out.printf("%s: removed%n", file.getFileName());
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            out.printf("%s: error reading file: %s%n", file.getFileName(), e.getMessage());
+            return Optional.empty();
+        }
+
+        String hash = ContentHasher.hash(content);
+        if (previous != null && previous.hash.equals(hash)) {
+            return Optional.empty();
+        }
+
+        try {
+            List<Employee> employees = csvReader.readEmployees(content, file.toString());
+            AnalysisReport report = analyzer.analyze(employees);
+            Map<String, String> issues = describeIssues(report);
+
+            Map<String, String> previousIssues = previous == null ? Map.of() : previous.issues;
+            IssueDelta delta = IssueDelta.between(previousIssues, issues);
+            loaded.put(file, new LoadedOrganization(hash, employees, issues));
+
+            printDelta(file, employees.size(), delta);
+            return Optional.of(delta);
+
+        } catch (EmployeeDataException e) {
+            // Keep the previous state so the next change is compared against the last good run
+            out.printf("%s: error: %s%n", file.getFileName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the employees of the last successfully analyzed version of a file.
+     *
+     * @param file the watched CSV file
+     * @return the loaded employees, or an empty list if the file has not been analyzed
+     */
+    public List<Employee> getLoadedEmployees(Path file) {
+        LoadedOrganization organization = loaded.get(file);
+        return organization == null ? List.of() : Collections.unmodifiableList(organization.employees);
+    }
+
+    /**
+     * Keys every issue of the report by category and employee ID.
+     */
+    private Map<String, String> describeIssues(AnalysisReport report) {
+        Map<String, String> issues = new LinkedHashMap<>();
+        for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {
+            issues.put("underpaid:" + issue.getManager().getId(),
+                String.format("Underpaid manager %s (ID: %s) by %s",
+                    issue.getManager().getFullName(), issue.getManager().getId(),
+                    currencyFormat.format(issue.getDifference())));
+        }
+        for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {
+            issues.put("overpaid:" + issue.getManager().getId(),
+                String.format("Overpaid manager %s (ID: %s) by %s",
+                    issue.getManager().getFullName(), issue.getManager().getId(),
+                    currencyFormat.format(issue.getDifference())));
+        }
+        for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {
+            issues.put("reporting-line:" + issue.getEmployee().getId(),
+                String.format("Long reporting line for %s (ID: %s): %d levels",
+                    issue.getEmployee().getFullName(), issue.getEmployee().getId(),
+                    issue.getReportingLevels()));
+        }
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            issues.put("peer-outlier:" + issue.getEmployee().getId(),
+                String.format("Peer salary outlier %s (ID: %s): %.1f standard deviations from %s",
+                    issue.getEmployee().getFullName(), issue.getEmployee().getId(),
+                    issue.getZScore(), currencyFormat.format(issue.getPeerAverageSalary())));
+        }
+        for (String ruleId : report.getRuleIds()) {
+            for (AnalysisReport.RuleIssue issue : report.getRuleIssues(ruleId)) {
+                issues.put(ruleId + ":" + issue.getEmployee().getId(),
+                    String.format("%s for %s (ID: %s): %s", ruleId,
+                        issue.getEmployee().getFullName(), issue.getEmployee().getId(),
+                        issue.getDescription()));
+            }
+        }
+        return issues;
+    }
+
+    private void printDelta(Path file, int employeeCount, IssueDelta delta) {
+        out.printf("%s: analyzed %d employees, %d new, %d resolved, %d changed issues%n",
+            file.getFileName(), employeeCount,
+            delta.getAdded().size(), delta.getResolved().size(), delta.getChanged().size());
+        delta.getAdded().values().forEach(issue -> out.println("  + " + issue));
+        delta.getResolved().values().forEach(issue -> out.println("  - " + issue));
+        delta.getChanged().values().forEach(issue -> out.println("  ~ " + issue));
+        out.flush();
+    }
+
+    private List<Path> listCsvFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(this::isCsvFile).sorted().toList();
+        }
+    }
+
+    private boolean isCsvFile(Path file) {
+        return file.getFileName().toString().endsWith(CSV_EXTENSION);
+    }
+
+    /**
+     * The last successfully analyzed version of a watched file.
+     */
+    private static final class LoadedOrganization {
+        private final String hash;
+        private final List<Employee> employees;
+        private final Map<String, String> issues;
+
+        private LoadedOrganization(String hash, List<Employee> employees, Map<String, String> issues) {
+            this.hash = hash;
+            this.employees = employees;
+            this.issues = issues;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Splits an analysis report by executive subtree and writes one report file per executive.
+ *
+ * Every issue belongs to the executive (direct report of the CEO) above the employee it is
+ * about; issues about the CEO form a slice of their own. Splitting is one pass over the
+ * organization to find each employee's executive plus one pass over the issues. The slices
+ * are then rendered concurrently, one virtual thread and one buffered writer per file, so
+ * the wall time stays close to that of rendering the whole report once. A semaphore bounds
+ * the number of files open at the same time for organizations with very many executives.
+ */
+public class ExecutiveReportService {
+    static final String REPORT_SUFFIX = ".report.txt";
+    private static final int MAX_OPEN_WRITERS = 64;
+    private static final char REPLACEMENT = '_';
+
+    private final ReportGenerator reportGenerator;
+
+    public ExecutiveReportService(ReportGenerator reportGenerator) {
+        this.reportGenerator = reportGenerator;
+    }
+
+    /**
+     * Splits the report by executive subtree.
+     *
+     * @param org the analyzed organization
+     * @param report its analysis report
+     * @return one report per executive, CEO first, then executives in organization order;
+     *         each slice keeps its issues in report order
+     */
+    public Map<Employee, AnalysisReport> split(OrgIndex org, AnalysisReport report) {
+        Slices slices = slice(org, report);
+        Map<Employee, AnalysisReport> byExecutive = new LinkedHashMap<>();
+        for (int slot = 0; slot < slices.executives.length; slot++) {
+            byExecutive.put(org.getEmployee(slices.executives[slot]), slices.reports[slot]);
+        }
+        return byExecutive;
+    }
+
+    private static Slices slice(OrgIndex org, AnalysisReport report) {
+        Slices slices = new Slices(org);
+
+        for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {
+            int manager = org.indexOf(issue.getManager().getId());
+            slices.of(manager).addUnderpaidManager(org, manager,
+                issue.getAverageSubordinateSalary(), issue.getDifference());
+        }
+        for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {
+            int manager = org.indexOf(issue.getManager().getId());
+            slices.of(manager).addOverpaidManager(org, manager,
+                issue.getAverageSubordinateSalary(), issue.getDifference());
+        }
+        for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {
+            int employee = org.indexOf(issue.getEmployee().getId());
+            slices.of(employee).addLongReportingLine(org, employee,
+                issue.getReportingLevels(), issue.getExcessLevels());
+        }
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            int employee = org.indexOf(issue.getEmployee().getId());
+            slices.of(employee).addPeerSalaryOutlier(org, employee,
+                issue.getPeerAverageSalary(), issue.getZScore());
+        }
+        for (String ruleId : report.getRuleIds()) {
+            for (AnalysisReport.RuleIssue issue : report.getRuleIssues(ruleId)) {
+                slices.of(org.indexOf(issue.getEmployee().getId())).addRuleIssue(issue);
+            }
+        }
+        return slices;
+    }
+
+    /**
+     * Splits the report and writes one file per executive, named after the executive's ID,
+     * into the output directory. Characters of the ID other than letters, digits, dots,
+     * dashes and underscores are replaced with underscores, and names that would collide,
+     * ignoring case, get the executive's slot number appended.
+     *
+     * @param org the analyzed organization
+     * @param report its analysis report
+     * @param outputDir directory receiving the reports, created if missing
+     * @return the written file of each executive, in the order of {@link #split}
+     * @throws EmployeeDataException if the directory or any report cannot be written
+     */
+    public Map<Employee, Path> writeReports(OrgIndex org, AnalysisReport report, Path outputDir)
+            throws EmployeeDataException {
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Cannot create output directory: " + outputDir, e);
+        }
+
+        Slices slices = slice(org, report);
+        Map<Employee, Path> files = new LinkedHashMap<>();
+        List<Future<?>> writes = new ArrayList<>(slices.executives.length);
+        Semaphore openWriters = new Semaphore(MAX_OPEN_WRITERS);
+        Set<String> usedNames = new HashSet<>();
+        Path directory = outputDir.toAbsolutePath().normalize();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int slot = 0; slot < slices.executives.length; slot++) {
+                Employee executive = org.getEmployee(slices.executives[slot]);
+                Path file = outputDir.resolve(fileName(executive.getId(), slot, usedNames));
+                if (!file.toAbsolutePath().normalize().getParent().equals(directory)) {
+                    throw new EmployeeDataException("Report file would be outside the output directory: " + file);
+                }
+                int headcount = slices.headcounts[slot];
+                AnalysisReport slice = slices.reports[slot];
+                files.put(executive, file);
+                writes.add(executor.submit(() -> {
+                    openWriters.acquire();
+                    try {
+                        writeReport(file, org, executive, headcount, slice);
+                    } finally {
+                        openWriters.release();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmployeeDataException("Writing executive reports was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new EmployeeDataException("Error writing executive report: " + e.getCause().getMessage(), e.getCause());
+        }
+        return files;
+    }
+
+    /**
+     * Returns a file name for the executive that is safe on any file system and unique
+     * among the names used so far, ignoring case.
+     */
+    static String fileName(String executiveId, int slot, Set<String> usedNames) {
+        StringBuilder name = new StringBuilder(executiveId.length());
+        for (int i = 0; i < executiveId.length(); i++) {
+            char c = executiveId.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '-' || c == '_';
+            name.append(safe ? c : REPLACEMENT);
+        }
+        // Leading dots would make "." and ".." or hidden files
+        if (name.isEmpty() || name.charAt(0) == '.') {
+            name.insert(0, REPLACEMENT);
+        }
+        while (!usedNames.add(name.toString().toLowerCase(Locale.ROOT))) {
+            name.append('-').append(slot);
+        }
+        return name + REPORT_SUFFIX;
+    }
+
+    private void writeReport(Path file, OrgIndex org, Employee executive, int headcount, AnalysisReport slice)
+            throws IOException {
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file)),
+                false, StandardCharsets.UTF_8)) {
+            out.printf("Organization of %s (ID: %s), %d employees%n", executive.getFullName(), executive.getId(), headcount);
+            out.println();
+            reportGenerator.printReport(slice, org, out);
+            if (out.checkError()) {
+                throw new IOException("write failed for " + file);
+            }
+        }
+    }
+
+    /**
+     * Maps every employee to the slot of their executive: slot 0 is the CEO alone, slot
+     * {@code k} the subtree of the CEO's k-th direct report. Also counts each slot's headcount.
+     */
+    private static final class Slices {
+        final int[] executives;
+        final int[] slotOf;
+        final int[] headcounts;
+        final AnalysisReport[] reports;
+
+        Slices(OrgIndex org) {
+            int ceo = org.getCeoIndex();
+            int executiveCount = org.getDirectReportCount(ceo);
+            executives = new int[executiveCount + 1];
+            reports = new AnalysisReport[executiveCount + 1];
+            headcounts = new int[executiveCount + 1];
+            slotOf = new int[org.size()];
+
+            executives[0] = ceo;
+            reports[0] = new AnalysisReport(org);
+            for (int k = 0; k < executiveCount; k++) {
+                int executive = org.getDirectReport(ceo, k);
+                executives[k + 1] = executive;
+                reports[k + 1] = new AnalysisReport(org);
+                slotOf[executive] = k + 1;
+            }
+            // Managers come before their reports in breadth-first order
+            for (int employee : org.breadthFirstOrder()) {
+                if (org.getDepth(employee) > 1) {
+                    slotOf[employee] = slotOf[org.getManagerIndex(employee)];
+                }
+                headcounts[slotOf[employee]]++;
+            }
+        }
+
+        AnalysisReport of(int employee) {
+            return reports[slotOf[employee]];
+        }
+    }
+}
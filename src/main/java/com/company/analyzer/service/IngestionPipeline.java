@@ -0,0 +1,429 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.IngestionErrors;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.progress.CountingInputStream;
+import com.company.analyzer.progress.Progress;
+import com.company.analyzer.progress.ProgressTracker;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an employee CSV file, plain or gzip-compressed, in pipelined stages.
+ *
+ * <pre>
+ *   reader thread  --(line batches)-->  parse workers  --(employee batches)-->  index builder
+ *   (gunzip, split)                     (N threads)                            (caller thread)
+ * </pre>
+ *
+ * Stages hand over batches of lines rather than single rows through bounded queues.
+ * The reader only cuts lines; decoding happens in the parse workers, which decode the
+ * columns named in the header and skip the others (see {@link CsvSchema}).
+ * A semaphore caps the number of batches in flight, so the reader blocks once the
+ * downstream stages fall behind and memory stays bounded regardless of file size.
+ * The index builder restores file order by batch sequence number, so the result and
+ * the reported error (the first invalid line) are the same as with {@link CsvReaderService}.
+ * In lenient mode, parse workers pass invalid rows along with their batch instead of
+ * failing it, and the index builder records them in file order.
+ */
+public class IngestionPipeline {
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private final int parseWorkers;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+
+    public IngestionPipeline() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_BATCH_SIZE);
+    }
+
+    public IngestionPipeline(int parseWorkers) {
+        this(parseWorkers, DEFAULT_BATCH_SIZE);
+    }
+
+    public IngestionPipeline(int parseWorkers, int batchSize) {
+        if (parseWorkers < 1) {
+            throw new IllegalArgumentException("At least one parse worker is required");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.parseWorkers = parseWorkers;
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = 4 * parseWorkers;
+    }
+
+    /**
+     * Reads and indexes the organization in one pass over the file.
+     *
+     * @param filePath path to the CSV file, optionally gzip-compressed
+     * @return the validated organization index
+     * @throws EmployeeDataException if the file cannot be read or the data is invalid
+     */
+    public OrgIndex readIndex(String filePath) throws EmployeeDataException {
+        return readIndex(filePath, ProgressTracker.silent());
+    }
+
+    /**
+     * Reads and indexes the organization, reporting the {@link Progress.Phase#READING}
+     * and {@link Progress.Phase#INDEXING} phases.
+     *
+     * @param filePath path to the CSV file, optionally gzip-compressed
+     * @param tracker receives progress and is checked for cancellation after every batch
+     * @return the validated organization index
+     * @throws EmployeeDataException if the file cannot be read, the data is invalid or the run is cancelled
+     */
+    public OrgIndex readIndex(String filePath, ProgressTracker tracker) throws EmployeeDataException {
+        List<Employee> employees = readEmployees(filePath, tracker);
+        tracker.startPhase(Progress.Phase.INDEXING, Progress.UNKNOWN, employees.size());
+        OrgIndex org = OrgIndex.build(employees);
+        tracker.finishPhase(0, employees.size());
+        return org;
+    }
+
+    /**
+     * Reads and indexes the valid part of the organization. Invalid rows, and employees
+     * that cannot be placed in the organization, are recorded in the error buffer and left
+     * out instead of failing the read.
+     *
+     * @param filePath path to the CSV file, optionally gzip-compressed
+     * @param tracker receives progress and is checked for cancellation after every batch
+     * @param errors receives the rows left out
+     * @return the organization index of the valid rows
+     * @throws EmployeeDataException if the file cannot be read, has no valid rows or no CEO,
+     *         or the run is cancelled
+     */
+    public OrgIndex readIndex(String filePath, ProgressTracker tracker, IngestionErrors errors)
+            throws EmployeeDataException {
+        CsvReaderService.LenientRows rows = new CsvReaderService.LenientRows();
+        read(filePath, tracker, errors, batch -> {
+            for (int i = 0; i < batch.employees.size(); i++) {
+                rows.add(batch.employees.get(i), batch.lineNumbers[i]);
+            }
+        });
+        return rows.index(tracker, errors);
+    }
+
+    /**
+     * Reads employee data, detecting gzip compression from the file's magic bytes.
+     *
+     * @param filePath path to the CSV file, optionally gzip-compressed
+     * @return employees in file order
+     * @throws EmployeeDataException if the file cannot be read or data is invalid
+     */
+    public List<Employee> readEmployees(String filePath) throws EmployeeDataException {
+        return readEmployees(filePath, ProgressTracker.silent());
+    }
+
+    /**
+     * Reads employee data, reporting the {@link Progress.Phase#READING} phase. Progress
+     * counts compressed bytes for gzipped files.
+     *
+     * @param filePath path to the CSV file, optionally gzip-compressed
+     * @param tracker receives progress and is checked for cancellation after every batch
+     * @return employees in file order
+     * @throws EmployeeDataException if the file cannot be read, data is invalid or the run is cancelled
+     */
+    public List<Employee> readEmployees(String filePath, ProgressTracker tracker) throws EmployeeDataException {
+        List<Employee> employees = new ArrayList<>();
+        read(filePath, tracker, null, batch -> employees.addAll(batch.employees));
+        return employees;
+    }
+
+    /**
+     * Runs the stages, handing each parsed batch to the sink in file order. Without an error
+     * buffer the first invalid row fails the read.
+     */
+    private void read(String filePath, ProgressTracker tracker, IngestionErrors errors, Consumer<ParsedBatch> sink)
+            throws EmployeeDataException {
+        CsvReaderService.validateFilePath(filePath);
+
+        BlockingQueue<LineBatch> lineQueue = new ArrayBlockingQueue<>(maxBatchesInFlight);
+        BlockingQueue<ParsedBatch> parsedQueue = new ArrayBlockingQueue<>(maxBatchesInFlight + parseWorkers);
+        Semaphore inFlight = new Semaphore(maxBatchesInFlight);
+
+        ExecutorService stages = Executors.newFixedThreadPool(parseWorkers + 1);
+        try {
+            stages.execute(() -> readLines(Path.of(filePath), lineQueue, inFlight));
+            for (int i = 0; i < parseWorkers; i++) {
+                stages.execute(() -> parseBatches(lineQueue, parsedQueue, errors != null));
+            }
+            tracker.startPhase(Progress.Phase.READING, Files.size(Path.of(filePath)), Progress.UNKNOWN);
+            buildInOrder(parsedQueue, inFlight, tracker, errors, sink);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error reading file: " + filePath, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmployeeDataException("Interrupted while reading file: " + filePath, e);
+        } finally {
+            // Unblocks the reader and workers if the builder stopped early on an error
+            stages.shutdownNow();
+        }
+    }
+
+    /**
+     * Reader stage: decompresses if needed, maps the header and cuts the rest of the file
+     * into batches of undecoded lines. Batches are numbered as they are sent, so a read
+     * error is posted with the number following the last batch sent.
+     */
+    private void readLines(Path path, BlockingQueue<LineBatch> lineQueue, Semaphore inFlight) {
+        int sequence = 0;
+        try {
+            try (CountingInputStream file = new CountingInputStream(Files.newInputStream(path))) {
+                ByteLineReader reader = new ByteLineReader(open(file));
+                CsvSchema schema = reader.next() ? CsvSchema.fromHeader(reader.buffer(), reader.start(), reader.end()) : null;
+                int lineNumber = schema == null ? 0 : 1;
+                LineBatch batch = new LineBatch(lineNumber + 1, schema, batchSize);
+
+                while (reader.next()) {
+                    lineNumber++;
+                    batch.add(reader.buffer(), reader.start(), reader.end());
+                    if (batch.count == batchSize) {
+                        inFlight.acquire();
+                        lineQueue.put(batch.cut(sequence++, file.getCount()));
+                        batch = new LineBatch(lineNumber + 1, schema, batchSize);
+                    }
+                }
+                if (batch.count > 0) {
+                    inFlight.acquire();
+                    lineQueue.put(batch.cut(sequence++, file.getCount()));
+                }
+            } catch (IOException e) {
+                inFlight.acquire();
+                lineQueue.put(LineBatch.failed(sequence, new EmployeeDataException("Error reading file: " + path, e)));
+            } catch (EmployeeDataException e) {
+                inFlight.acquire();
+                lineQueue.put(LineBatch.failed(sequence, e));
+            }
+            for (int i = 0; i < parseWorkers; i++) {
+                lineQueue.put(LineBatch.END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parse stage: turns line batches into employee batches until the end marker arrives.
+     * An unexpected failure fails the batch, so the index builder never waits for it.
+     */
+    private void parseBatches(BlockingQueue<LineBatch> lineQueue, BlockingQueue<ParsedBatch> parsedQueue,
+                              boolean lenient) {
+        try {
+            while (true) {
+                LineBatch batch = lineQueue.take();
+                if (batch == LineBatch.END) {
+                    parsedQueue.put(ParsedBatch.END);
+                    return;
+                }
+                ParsedBatch parsed;
+                try {
+                    parsed = parse(batch, lenient);
+                } catch (RuntimeException e) {
+                    parsed = ParsedBatch.failed(batch.sequence, new EmployeeDataException(
+                        "Invalid data in lines " + batch.firstLineNumber + " to "
+                            + (batch.firstLineNumber + batch.count - 1) + ": " + e.getMessage(), e));
+                }
+                parsedQueue.put(parsed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ParsedBatch parse(LineBatch batch, boolean lenient) {
+        if (batch.error != null) {
+            return ParsedBatch.failed(batch.sequence, batch.error);
+        }
+        List<Employee> employees = new ArrayList<>(batch.count);
+        int[] lineNumbers = lenient ? new int[batch.count] : null;
+        List<CsvReaderService.InvalidRowException> invalidRows = lenient ? new ArrayList<>() : null;
+        int[] invalidLineNumbers = lenient ? new int[batch.count] : null;
+        for (int i = 0; i < batch.count; i++) {
+            int start = batch.offsets[i];
+            int end = batch.offsets[i + 1];
+
+            // Skip empty lines
+            if (CsvSchema.isBlank(batch.data, start, end)) {
+                continue;
+            }
+
+            int lineNumber = batch.firstLineNumber + i;
+            try {
+                Employee employee = batch.schema.parse(batch.data, start, end, CsvProjection.ALL);
+                if (lenient) {
+                    lineNumbers[employees.size()] = lineNumber;
+                }
+                employees.add(employee);
+            } catch (CsvReaderService.InvalidRowException e) {
+                if (!lenient) {
+                    return ParsedBatch.failed(batch.sequence, new EmployeeDataException(
+                        "Invalid data at line " + lineNumber + ": " + e.getMessage(), e));
+                }
+                invalidLineNumbers[invalidRows.size()] = lineNumber;
+                invalidRows.add(e);
+            }
+        }
+        return new ParsedBatch(batch.sequence, employees, lineNumbers, invalidRows, invalidLineNumbers,
+            batch.bytesRead, null);
+    }
+
+    /**
+     * Index builder stage: appends batches in sequence order, holding back early arrivals.
+     */
+    private void buildInOrder(BlockingQueue<ParsedBatch> parsedQueue,
+                              Semaphore inFlight,
+                              ProgressTracker tracker,
+                              IngestionErrors errors,
+                              Consumer<ParsedBatch> sink) throws EmployeeDataException, InterruptedException {
+        long rows = 0;
+        Map<Integer, ParsedBatch> pending = new HashMap<>();
+        int nextSequence = 0;
+        int finishedWorkers = 0;
+        long bytesRead = 0;
+
+        while (finishedWorkers < parseWorkers) {
+            ParsedBatch batch = parsedQueue.take();
+            if (batch == ParsedBatch.END) {
+                finishedWorkers++;
+                continue;
+            }
+            pending.put(batch.sequence, batch);
+
+            ParsedBatch next;
+            while ((next = pending.remove(nextSequence)) != null) {
+                if (next.error != null) {
+                    throw next.error;
+                }
+                for (int i = 0; i < next.invalidRows.size(); i++) {
+                    CsvReaderService.InvalidRowException invalid = next.invalidRows.get(i);
+                    errors.record(next.invalidLineNumbers[i], invalid.getKind(), invalid.getMessage());
+                }
+                sink.accept(next);
+                rows += next.employees.size();
+                bytesRead = next.bytesRead;
+                nextSequence++;
+                inFlight.release();
+                tracker.update(bytesRead, rows);
+            }
+        }
+
+        if (rows == 0) {
+            throw CsvReaderService.noEmployeeData(errors);
+        }
+        tracker.finishPhase(bytesRead, rows);
+    }
+
+    private static InputStream open(InputStream file) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(file);
+        in.mark(2);
+        boolean gzip = in.read() == GZIP_MAGIC_FIRST && in.read() == GZIP_MAGIC_SECOND;
+        in.reset();
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * Lines of a batch, stored back to back in one byte array; line i spans
+     * {@code offsets[i]} to {@code offsets[i + 1]}.
+     */
+    private static final class LineBatch {
+        private static final int INITIAL_BYTES_PER_LINE = 64;
+        static final LineBatch END = failed(-1, null);
+
+        int sequence;
+        final int firstLineNumber;
+        final CsvSchema schema;
+        byte[] data;
+        final int[] offsets;
+        int count;
+        /** File bytes consumed once the batch was cut, for progress reporting. */
+        long bytesRead;
+        final EmployeeDataException error;
+
+        LineBatch(int firstLineNumber, CsvSchema schema, int capacity) {
+            this.firstLineNumber = firstLineNumber;
+            this.schema = schema;
+            this.data = new byte[capacity * INITIAL_BYTES_PER_LINE];
+            this.offsets = new int[capacity + 1];
+            this.error = null;
+        }
+
+        private LineBatch(int sequence, EmployeeDataException error) {
+            this.sequence = sequence;
+            this.firstLineNumber = 0;
+            this.schema = null;
+            this.offsets = null;
+            this.error = error;
+        }
+
+        static LineBatch failed(int sequence, EmployeeDataException error) {
+            return new LineBatch(sequence, error);
+        }
+
+        void add(byte[] line, int start, int end) {
+            int length = end - start;
+            int used = offsets[count];
+            if (used + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, used + length));
+            }
+            System.arraycopy(line, start, data, used, length);
+            offsets[++count] = used + length;
+        }
+
+        LineBatch cut(int sequence, long bytesRead) {
+            this.sequence = sequence;
+            this.bytesRead = bytesRead;
+            return this;
+        }
+    }
+
+    private static final class ParsedBatch {
+        static final ParsedBatch END = failed(-1, null);
+
+        final int sequence;
+        final List<Employee> employees;
+        /** Line number of each employee; only kept in lenient mode. */
+        final int[] lineNumbers;
+        /** Rows skipped in lenient mode, with their line numbers; empty otherwise. */
+        final List<CsvReaderService.InvalidRowException> invalidRows;
+        final int[] invalidLineNumbers;
+        final long bytesRead;
+        final EmployeeDataException error;
+
+        ParsedBatch(int sequence, List<Employee> employees, int[] lineNumbers,
+                    List<CsvReaderService.InvalidRowException> invalidRows, int[] invalidLineNumbers,
+                    long bytesRead, EmployeeDataException error) {
+            this.sequence = sequence;
+            this.employees = employees;
+            this.lineNumbers = lineNumbers;
+            this.invalidRows = invalidRows != null ? invalidRows : List.of();
+            this.invalidLineNumbers = invalidLineNumbers;
+            this.bytesRead = bytesRead;
+            this.error = error;
+        }
+
+        static ParsedBatch failed(int sequence, EmployeeDataException error) {
+            return new ParsedBatch(sequence, null, null, null, null, 0, error);
+        }
+    }
+}
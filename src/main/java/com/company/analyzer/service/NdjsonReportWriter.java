@@ -0,0 +1,138 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes an analysis report as newline-delimited JSON, one object per issue, for loading
+ * into other tools.
+ *
+ * Every object has a {@code type} ({@code underpaid-manager}, {@code overpaid-manager},
+ * {@code long-reporting-line}, {@code peer-salary-outlier} or {@code rule}) and the employee's {@code id} and
+ * {@code name}, followed by the values of its category. Long reporting lines carry a
+ * {@code managers} array from the direct manager up to the CEO when the organization is
+ * given; the arrays are rendered by a {@link ReportingChainRenderer}, so employees under
+ * the same managers share the rendered part.
+ */
+public class NdjsonReportWriter {
+
+    /**
+     * Writes the report to a file, replacing it if it exists.
+     *
+     * @param report the analysis report
+     * @param org the analyzed organization, or null to leave out the chains of managers
+     * @param file the file to write
+     * @throws EmployeeDataException if the file cannot be written
+     */
+    public void write(AnalysisReport report, OrgIndex org, Path file) throws EmployeeDataException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(report, org, out);
+        } catch (IOException e) {
+            throw new EmployeeDataException("Error writing report: " + file, e);
+        }
+    }
+
+    /**
+     * Writes the report, one line per issue in report order.
+     *
+     * @param report the analysis report
+     * @param org the analyzed organization, or null to leave out the chains of managers
+     * @param out receives the lines
+     */
+    public void write(AnalysisReport report, OrgIndex org, Writer out) throws IOException {
+        for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {
+            writeSalaryIssue("underpaid-manager", issue, out);
+        }
+        for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {
+            writeSalaryIssue("overpaid-manager", issue, out);
+        }
+
+        ReportingChainRenderer chains = org == null ? null : new ReportingChainRenderer(org,
+            employee -> "{\"id\":" + quote(employee.getId()) + ",\"name\":" + quote(employee.getFullName()) + "}",
+            ",", ReportingChainRenderer.DEFAULT_MAX_CACHED_CHARS);
+        for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {
+            startObject("long-reporting-line", issue.getEmployee(), out);
+            out.write(",\"reportingLevels\":" + issue.getReportingLevels());
+            out.write(",\"excessLevels\":" + issue.getExcessLevels());
+            if (chains != null) {
+                out.write(",\"managers\":[");
+                out.write(chains.renderManagers(issue.getEmployee()));
+                out.write(']');
+            }
+            out.write("}\n");
+        }
+
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            startObject("peer-salary-outlier", issue.getEmployee(), out);
+            out.write(",\"salary\":" + number(issue.getEmployee().getSalary()));
+            out.write(",\"peerAverageSalary\":" + number(issue.getPeerAverageSalary()));
+            out.write(",\"zScore\":" + number(issue.getZScore()));
+            out.write("}\n");
+        }
+
+        for (String ruleId : report.getRuleIds()) {
+            for (AnalysisReport.RuleIssue issue : report.getRuleIssues(ruleId)) {
+                startObject("rule", issue.getEmployee(), out);
+                out.write(",\"rule\":" + quote(ruleId));
+                out.write(",\"actualValue\":" + number(issue.getActualValue()));
+                out.write(",\"limit\":" + number(issue.getLimit()));
+                out.write(",\"description\":" + quote(issue.getDescription()));
+                out.write("}\n");
+            }
+        }
+    }
+
+    private static void writeSalaryIssue(String type, AnalysisReport.SalaryIssue issue, Writer out) throws IOException {
+        startObject(type, issue.getManager(), out);
+        out.write(",\"salary\":" + number(issue.getManager().getSalary()));
+        out.write(",\"averageSubordinateSalary\":" + number(issue.getAverageSubordinateSalary()));
+        out.write(",\"difference\":" + number(issue.getDifference()));
+        out.write("}\n");
+    }
+
+    private static void startObject(String type, Employee employee, Writer out) throws IOException {
+        out.write("{\"type\":\"" + type + "\",\"id\":" + quote(employee.getId())
+            + ",\"name\":" + quote(employee.getFullName()));
+    }
+
+    /**
+     * Returns the value as a JSON number, or null if it has none (NaN or infinite).
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    /**
+     * Returns the value as a JSON string, escaping quotes, backslashes and control characters.
+     */
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -1,194 +1,151 @@
 package com.company.analyzer.service;
-  
-import com.company.analyzer.exception.EmployeeDataException;  
-import com.company.analyzer.model.AnalysisReport;  
-import com.company.analyzer.model.Employee;  
-import com.company.analyzer.util.Constants;
-  
-import java.util.*;  
-import java.util.stream.Collectors;
-  
-/**  
- * Analyzes organizational structure for salary and reporting line issues.  
- */  
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OffHeapOrgIndex;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.plan.ExecutionPlanner;
+import com.company.analyzer.progress.Progress;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.stats.OrgShapeMetrics;
+
+import java.util.List;
+
+/**
+ * Analyzes organizational structure for salary and reporting line issues.
+ *
+ * Validation and aggregation happen while building the {@link OrgIndex}; all
+ * configured rules are then evaluated together in one pass by the {@link RuleEngine}.
+ */
 public class OrganizationAnalyzer {
+    private final RuleEngine ruleEngine;
+    private final int parallelism;
+    private final ExecutionPlanner planner;
 
-    /**  
-     * Performs complete analysis of the organization.  
-     *  
-     * @param employees list of all employees  
-     * @return analysis report containing all identified issues  
-     * @throws EmployeeDataException if organizational structure is invalid  
-     */  
-    public AnalysisReport analyze(List<Employee> employees) throws EmployeeDataException {  
-        validateOrganization(employees);
-  
-        AnalysisReport report = new AnalysisReport();  
-        Map<String, Employee> employeeMap = buildEmployeeMap(employees);  
-        Map<String, List<Employee>> subordinatesMap = buildSubordinatesMap(employees);
-  
-        analyzeSalaries(report, employeeMap, subordinatesMap);  
-        analyzeReportingLines(report, employees, employeeMap);
-  
-        return report;  
+    public OrganizationAnalyzer() {
+        this(RuleEngine.defaults());
     }
-  
-    /**  
-     * Validates the organizational structure.  
-     */  
-    private void validateOrganization(List<Employee> employees) throws EmployeeDataException {  
-        if (employees == null || employees.isEmpty()) {  
-            throw new EmployeeDataException("Employee list cannot be null or empty");  
-        }
-  
-        // Check for duplicate IDs  
-        Set<String> ids = new HashSet<>();  
-        for (Employee emp : employees) {  
-            if (!ids.add(emp.getId())) {  
-                throw new EmployeeDataException("Duplicate employee ID found: " + emp.getId());  
-            }  
-        }
-  
-        // Check for exactly one CEO  
-        long ceoCount = employees.stream().filter(Employee::isCeo).count();  
-        if (ceoCount == 0) {  
-            throw new EmployeeDataException("No CEO found (employee with no manager)");  
-        }  
-        if (ceoCount > 1) {  
-            throw new EmployeeDataException("Multiple CEOs found (employees with no manager)");  
-        }
-  
-        // Validate manager references  
-        Set<String> employeeIds = employees.stream()  
-            .map(Employee::getId)  
-            .collect(Collectors.toSet());
-  
-        for (Employee emp : employees) {  
-            if (!emp.isCeo() && !employeeIds.contains(emp.getManagerId())) {  
-                throw new EmployeeDataException(  
-                    "Employee " + emp.getId() + " references non-existent manager: " + emp.getManagerId());  
-            }  
+
+    public OrganizationAnalyzer(RuleEngine ruleEngine) {
+        this(ruleEngine, 1);
+    }
+
+    /**
+     * @param ruleEngine the rules to evaluate
+     * @param parallelism threads used for the per-employee pass; 1 evaluates in the calling thread
+     */
+    public OrganizationAnalyzer(RuleEngine ruleEngine, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
         }
-  
-        // Check for circular references  
-        detectCircularReferences(employees);  
+        this.ruleEngine = ruleEngine;
+        this.parallelism = parallelism;
+        this.planner = null;
     }
-  
-    /**  
-     * Detects circular references in the reporting structure.  
-     */  
-    private void detectCircularReferences(List<Employee> employees) throws EmployeeDataException {  
-        Map<String, Employee> employeeMap = buildEmployeeMap(employees);
-  
-        for (Employee employee : employees) {  
-            Set<String> visited = new HashSet<>();  
-            Employee current = employee;
-  
-            while (current != null && !current.isCeo()) {  
-                if (!visited.add(current.getId())) {  
-                    throw new EmployeeDataException(  
-                        "Circular reference detected in reporting structure involving employee: " + employee.getId());  
-                }  
-                current = employeeMap.get(current.getManagerId());  
-            }  
-        }  
+
+    /**
+     * Creates an analyzer that lets the planner choose the parallelism for each organization
+     * from its size and the available cores.
+     */
+    public OrganizationAnalyzer(RuleEngine ruleEngine, ExecutionPlanner planner) {
+        this.ruleEngine = ruleEngine;
+        this.parallelism = 1;
+        this.planner = planner;
     }
-  
-    /**  
-     * Analyzes manager salaries against subordinate averages.  
-     */  
-    private void analyzeSalaries(AnalysisReport report,   
-                                  Map<String, Employee> employeeMap,  
-                                  Map<String, List<Employee>> subordinatesMap) {
 
-        for (Map.Entry<String, List<Employee>> entry : subordinatesMap.entrySet()) {
-            String managerId = entry.getKey();
-            List<Employee> subordinates = entry.getValue();
+    /**
+     * Performs complete analysis of the organization.
+     *
+     * @param employees list of all employees
+     * @return analysis report containing all identified issues
+     * @throws EmployeeDataException if organizational structure is invalid
+     */
+    public AnalysisReport analyze(List<Employee> employees) throws EmployeeDataException {
+        return analyzeIndex(OrgIndex.build(employees));
+    }
 
-            if (subordinates.isEmpty()) {
-                continue; // No subordinates, no salary check needed
-            }
+    /**
+     * Performs complete analysis of an already validated and indexed organization.
+     *
+     * @param org the indexed organization
+     * @return analysis report containing all identified issues
+     */
+    public AnalysisReport analyzeIndex(OrgIndex org) {
+        int threads = threadsFor(org);
+        return threads == 1 ? ruleEngine.evaluate(org) : ruleEngine.evaluateParallel(org, threads);
+    }
 
-            Employee manager = employeeMap.get(managerId);
-            double avgSubordinateSalary = calculateAverageSalary(subordinates);
-            double managerSalary = manager.getSalary();
+    /**
+     * Performs complete analysis of the organization, reporting the
+     * {@link Progress.Phase#INDEXING} and {@link Progress.Phase#ANALYZING} phases.
+     *
+     * @param employees list of all employees
+     * @param tracker receives progress and is checked for cancellation between chunks
+     * @return analysis report containing all identified issues
+     * @throws EmployeeDataException if organizational structure is invalid or the run is cancelled
+     */
+    public AnalysisReport analyze(List<Employee> employees, ProgressTracker tracker) throws EmployeeDataException {
+        tracker.startPhase(Progress.Phase.INDEXING, Progress.UNKNOWN, employees.size());
+        OrgIndex org = OrgIndex.build(employees);
+        tracker.finishPhase(0, employees.size());
+        return analyzeIndex(org, tracker);
+    }
 
-            double minExpectedSalary = avgSubordinateSalary * Constants.MIN_MANAGER_SALARY_RATIO;
-            double maxExpectedSalary = avgSubordinateSalary * Constants.MAX_MANAGER_SALARY_RATIO;
+    /**
+     * Performs complete analysis of an indexed organization, reporting the
+     * {@link Progress.Phase#ANALYZING} phase.
+     *
+     * @param org the indexed organization
+     * @param tracker receives progress and is checked for cancellation between chunks
+     * @return analysis report containing all identified issues
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport analyzeIndex(OrgIndex org, ProgressTracker tracker) throws AnalysisCancelledException {
+        return analyzeIndex(org, tracker, null);
+    }
 
-            if (managerSalary < minExpectedSalary) {
-                double difference = minExpectedSalary - managerSalary;
-                report.addUnderpaidManager(  
-                    new AnalysisReport.SalaryIssue(manager, avgSubordinateSalary, difference));  
-            } else if (managerSalary > maxExpectedSalary) {
-                double difference = managerSalary - maxExpectedSalary;
-                report.addOverpaidManager(  
-                    new AnalysisReport.SalaryIssue(manager, avgSubordinateSalary, difference));  
-            }  
-        }  
+    /**
+     * Performs complete analysis of an indexed organization and collects its shape metrics
+     * in the same pass.
+     *
+     * @param org the indexed organization
+     * @param tracker receives progress and is checked for cancellation between chunks
+     * @param metrics receives every employee, or null to only analyze
+     * @return analysis report containing all identified issues
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport analyzeIndex(OrgIndex org, ProgressTracker tracker, OrgShapeMetrics.Collector metrics)
+            throws AnalysisCancelledException {
+        return analyzeView(org, tracker, metrics);
     }
-  
-    /**  
-     * Analyzes reporting lines for excessive length.  
-     */  
-    private void analyzeReportingLines(AnalysisReport report,   
-                                       List<Employee> employees,  
-                                       Map<String, Employee> employeeMap) {
-          
-        for (Employee employee : employees) {  
-            if (employee.isCeo()) {  
-                continue; // CEO has no reporting line  
-            }
-  
-            int reportingLevels = countReportingLevels(employee, employeeMap);
-              
-            if (reportingLevels > Constants.MAX_REPORTING_LEVELS) {  
-                int excessLevels = reportingLevels - Constants.MAX_REPORTING_LEVELS;  
-                report.addLongReportingLine(  
-                    new AnalysisReport.ReportingLineIssue(employee, reportingLevels, excessLevels));  
-            }  
-        }  
+
+    /**
+     * Performs complete analysis of any organization view that is safe to read from
+     * several threads, such as an {@link OffHeapOrgIndex} kept loaded by a long-running
+     * process. Issues on views other than an {@link OrgIndex} keep their own employee objects.
+     *
+     * @param org the organization
+     * @param tracker receives progress and is checked for cancellation between chunks
+     * @param metrics receives every employee, or null to only analyze
+     * @return analysis report containing all identified issues
+     * @throws AnalysisCancelledException if the run is cancelled
+     */
+    public AnalysisReport analyzeView(OrgView org, ProgressTracker tracker, OrgShapeMetrics.Collector metrics)
+            throws AnalysisCancelledException {
+        int threads = threadsFor(org);
+        return threads == 1
+            ? ruleEngine.evaluate(org, tracker, metrics)
+            : ruleEngine.evaluateParallel(org, threads, tracker, metrics);
     }
-  
-    /**  
-     * Counts the number of managers between an employee and the CEO.  
-     */  
-    private int countReportingLevels(Employee employee, Map<String, Employee> employeeMap) {  
-        int levels = 0;  
-        Employee current = employee;
-  
-        while (!current.isCeo()) {  
-            current = employeeMap.get(current.getManagerId());  
-            levels++;  
+
+    private int threadsFor(OrgView org) {
+        if (planner == null) {
+            return parallelism;
         }
-  
-        return levels;  
-    }
-  
-    /**  
-     * Calculates average salary for a list of employees.  
-     */  
-    private double calculateAverageSalary(List<Employee> employees) {  
-        return employees.stream()  
-            .mapToDouble(Employee::getSalary)  
-            .average()  
-            .orElse(0.0);  
-    }
-  
-    /**  
-     * Builds a map of employee ID to Employee object.  
-     */  
-    private Map<String, Employee> buildEmployeeMap(List<Employee> employees) {  
-        return employees.stream()  
-            .collect(Collectors.toMap(Employee::getId, emp -> emp));  
+        return planner.planRows(org.size(), ExecutionPlanner.Overrides.none()).getAnalysisThreads();
     }
-  
-    /**  
-     * Builds a map of manager ID to list of direct subordinates.  
-     */  
-    private Map<String, List<Employee>> buildSubordinatesMap(List<Employee> employees) {  
-        return employees.stream()  
-            .filter(emp -> !emp.isCeo())  
-            .collect(Collectors.groupingBy(Employee::getManagerId));  
-    }  
-}
\ No newline at end of file
+}
@@ -1,19 +1,76 @@
 package com.company.analyzer.service;
   
+import com.company.analyzer.history.SnapshotSummary;
 import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.IngestionErrors;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.model.OrgView;
+import com.company.analyzer.rule.PeerSalaryOutlierRule;
+import com.company.analyzer.rule.ReportingDepthRule;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.SalaryBandRule;
+import com.company.analyzer.simulation.ReorgPlan;
+import com.company.analyzer.simulation.ScenarioResult;
+import com.company.analyzer.stats.KllSketch;
+import com.company.analyzer.stats.OrgShapeMetrics;
+import com.company.analyzer.stats.SalaryDistribution;
+import com.company.analyzer.util.Constants;
   
 import java.io.PrintStream;  
 import java.text.NumberFormat;  
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
   
 /**  
  * Generates formatted reports from analysis results.  
  */  
 public class ReportGenerator {  
-    private final NumberFormat currencyFormat;
+    /**
+     * Currency formats are not thread-safe, and one generator may print reports from
+     * several threads at once, so each thread formats with its own instance.
+     */
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMAT =
+        ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.US));
+
+    private final int minRatioPercent;
+    private final int maxRatioPercent;
+    private final int maxReportingLevels;
+    private final double maxPeerZScore;
+    private final boolean reportingChains;
   
     public ReportGenerator() {  
-        this.currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);  
+        this(RuleConfig.defaults());
+    }
+
+    /**
+     * Creates a generator whose section descriptions match the configured thresholds.
+     *
+     * @param config the rule configuration used for the analysis
+     */
+    public ReportGenerator(RuleConfig config) {
+        this(config, false);
+    }
+
+    /**
+     * Creates a generator whose section descriptions match the configured thresholds.
+     *
+     * @param config the rule configuration used for the analysis
+     * @param reportingChains whether reports printed with their organization list the
+     *        managers above each employee with a long reporting line
+     */
+    public ReportGenerator(RuleConfig config, boolean reportingChains) {
+        this.reportingChains = reportingChains;
+        this.minRatioPercent = toPercentAbove(
+            config.getDouble(SalaryBandRule.ID, "min-ratio", Constants.MIN_MANAGER_SALARY_RATIO));
+        this.maxRatioPercent = toPercentAbove(
+            config.getDouble(SalaryBandRule.ID, "max-ratio", Constants.MAX_MANAGER_SALARY_RATIO));
+        this.maxReportingLevels = config.getInt(
+            ReportingDepthRule.ID, "max-levels", Constants.MAX_REPORTING_LEVELS);
+        this.maxPeerZScore = config.getDouble(
+            PeerSalaryOutlierRule.ID, "max-z-score", Constants.MAX_PEER_SALARY_Z_SCORE);
     }
   
     /**  
@@ -32,6 +89,19 @@ public class ReportGenerator {
      * @param out the output stream to write to  
      */  
     public void printReport(AnalysisReport report, PrintStream out) {  
+        printReport(report, null, out);
+    }
+
+    /**
+     * Prints the analysis report to the specified output stream. If the generator was
+     * created with reporting chains, each long reporting line is followed by the managers
+     * between the employee and the CEO.
+     *
+     * @param report the analysis report to print
+     * @param org the analyzed organization, or null to leave out the chains
+     * @param out the output stream to write to
+     */
+    public void printReport(AnalysisReport report, OrgIndex org, PrintStream out) {
         out.println("=".repeat(80));  
         out.println("ORGANIZATIONAL ANALYSIS REPORT");  
         out.println("=".repeat(80));  
@@ -45,7 +115,9 @@ public class ReportGenerator {
   
         printUnderpaidManagers(report, out);  
         printOverpaidManagers(report, out);  
-        printLongReportingLines(report, out);
+        printLongReportingLines(report, reportingChains && org != null ? new ReportingChainRenderer(org) : null, out);
+        printPeerSalaryOutliers(report, out);
+        printRuleIssues(report, out);
   
         out.println("=".repeat(80));  
         out.println("END OF REPORT");  
@@ -64,7 +136,7 @@ public class ReportGenerator {
   
         out.println("UNDERPAID MANAGERS");
         out.println("-".repeat(80));  
-        out.println("These managers earn less than 20% more than their subordinates' average:");  
+        out.printf("These managers earn less than %d%% more than their subordinates' average:%n", minRatioPercent);
         out.println();
   
         for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {  
@@ -72,11 +144,11 @@ public class ReportGenerator {
                 issue.getManager().getFullName(),   
                 issue.getManager().getId());  
             out.printf("    Current salary: %s%n",   
-                currencyFormat.format(issue.getManager().getSalary()));  
+                formatCurrency(issue.getManager().getSalary()));  
             out.printf("    Subordinates' average: %s%n",   
-                currencyFormat.format(issue.getAverageSubordinateSalary()));  
+                formatCurrency(issue.getAverageSubordinateSalary()));  
             out.printf("    Underpaid by: %s%n",   
-                currencyFormat.format(issue.getDifference()));  
+                formatCurrency(issue.getDifference()));  
             out.println();  
         }  
     }
@@ -93,7 +165,7 @@ public class ReportGenerator {
   
         out.println("OVERPAID MANAGERS");
         out.println("-".repeat(80));  
-        out.println("These managers earn more than 50% more than their subordinates' average:");  
+        out.printf("These managers earn more than %d%% more than their subordinates' average:%n", maxRatioPercent);
         out.println();
   
         for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {  
@@ -101,19 +173,20 @@ public class ReportGenerator {
                 issue.getManager().getFullName(),   
                 issue.getManager().getId());  
             out.printf("    Current salary: %s%n",   
-                currencyFormat.format(issue.getManager().getSalary()));  
+                formatCurrency(issue.getManager().getSalary()));  
             out.printf("    Subordinates' average: %s%n",   
-                currencyFormat.format(issue.getAverageSubordinateSalary()));  
+                formatCurrency(issue.getAverageSubordinateSalary()));  
             out.printf("    Overpaid by: %s%n",   
-                currencyFormat.format(issue.getDifference()));  
+                formatCurrency(issue.getDifference()));  
             out.println();  
         }  
     }
   
     /**  
-     * Prints long reporting lines section.  
+     * Prints long reporting lines section, with the chain of managers of each employee
+     * if a renderer is given.
      */  
-    private void printLongReportingLines(AnalysisReport report, PrintStream out) {  
+    private void printLongReportingLines(AnalysisReport report, ReportingChainRenderer chains, PrintStream out) {  
         if (report.getLongReportingLines().isEmpty()) {  
             out.println("No excessively long reporting lines found.");
             out.println();  
@@ -122,7 +195,7 @@ public class ReportGenerator {
   
         out.println("LONG REPORTING LINES");
         out.println("-".repeat(80));  
-        out.println("These employees have more than 4 managers between them and the CEO:");  
+        out.printf("These employees have more than %d managers between them and the CEO:%n", maxReportingLevels);
         out.println();
   
         for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {  
@@ -133,7 +206,249 @@ public class ReportGenerator {
                 issue.getReportingLevels());  
             out.printf("    Excess levels: %d%n",   
                 issue.getExcessLevels());  
+            if (chains != null) {
+                out.printf("    Managers: %s%n", chains.renderManagers(issue.getEmployee()));
+            }
             out.println();  
         }  
     }  
-}  
\ No newline at end of file
+
+    /**
+     * Prints the peer salary outliers section, if there are any.
+     */
+    private void printPeerSalaryOutliers(AnalysisReport report, PrintStream out) {
+        if (report.getPeerSalaryOutliers().isEmpty()) {
+            return;
+        }
+
+        out.println("PEER SALARY OUTLIERS");
+        out.println("-".repeat(80));
+        out.printf("These employees' salaries are more than %.1f standard deviations from their peers' average:%n",
+            maxPeerZScore);
+        out.println();
+
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            out.printf("  • %s (ID: %s)%n",
+                issue.getEmployee().getFullName(),
+                issue.getEmployee().getId());
+            out.printf("    Current salary: %s%n",
+                formatCurrency(issue.getEmployee().getSalary()));
+            out.printf("    Peers' average: %s%n",
+                formatCurrency(issue.getPeerAverageSalary()));
+            out.printf("    Standard deviations: %.1f%n",
+                issue.getZScore());
+            out.println();
+        }
+    }
+
+    /**
+     * Prints the reassignments proposed to shorten long reporting lines and the
+     * issue counts before and after applying them.
+     *
+     * @param plan the reorg plan to print
+     * @param out the output stream to write to
+     */
+    public void printReorgPlan(ReorgPlan plan, PrintStream out) {
+        out.println("SUGGESTED REORGANIZATION");
+        out.println("-".repeat(80));
+
+        if (plan.getMoves().isEmpty()) {
+            out.println("No reassignments needed.");
+        } else {
+            out.printf("Moving %d employees (with their teams) brings reporting lines within %d levels:%n",
+                plan.getMoves().size(), maxReportingLevels);
+            out.println();
+            for (ReorgPlan.Move move : plan.getMoves()) {
+                out.printf("  • %s (ID: %s): %s (ID: %s) -> %s (ID: %s)%n",
+                    move.getEmployee().getFullName(), move.getEmployee().getId(),
+                    move.getCurrentManager().getFullName(), move.getCurrentManager().getId(),
+                    move.getNewManager().getFullName(), move.getNewManager().getId());
+            }
+        }
+        out.println();
+
+        ScenarioResult.IssueCounts before = plan.getResult().getBaseline();
+        ScenarioResult.IssueCounts after = plan.getResult().getOutcome();
+        out.printf("    Long reporting lines: %d -> %d%n", before.getLongReportingLines(), after.getLongReportingLines());
+        out.printf("    Underpaid managers: %d -> %d%n", before.getUnderpaidManagers(), after.getUnderpaidManagers());
+        out.printf("    Overpaid managers: %d -> %d%n", before.getOverpaidManagers(), after.getOverpaidManagers());
+        out.printf("    Other rule violations: %d -> %d%n", before.getOtherRuleIssues(), after.getOtherRuleIssues());
+        out.println();
+    }
+
+    /**
+     * Prints approximate p10/p50/p90 salaries per depth level and per kept subtree.
+     *
+     * @param distribution the salary distribution to print
+     * @param out the output stream to write to
+     */
+    public void printSalaryDistribution(SalaryDistribution distribution, PrintStream out) {
+        out.println("SALARY DISTRIBUTION");
+        out.println("-".repeat(80));
+        out.println("Approximate percentiles (within about 1% of rank):");
+        out.println();
+
+        out.println("  By level (0 = CEO):");
+        for (int level = 0; level < distribution.getLevelCount(); level++) {
+            printQuantiles("Level " + level, distribution.getLevel(level), out);
+        }
+        out.println();
+
+        List<Employee> roots = distribution.getSubtreeRoots();
+        if (!roots.isEmpty()) {
+            out.println("  By subtree (employee and everyone below):");
+            for (Employee root : roots) {
+                printQuantiles(root.getFullName() + " (ID: " + root.getId() + ")",
+                    distribution.getSubtree(root.getId()).orElseThrow(), out);
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * Prints one line of counts per snapshot, then the issues of the latest snapshot with
+     * the date since which each has been flagged.
+     *
+     * @param trend snapshot summaries in date order
+     * @param flaggedSince flagged-since date by issue key
+     * @param out the output stream to write to
+     */
+    public void printTrend(List<SnapshotSummary> trend, Map<String, LocalDate> flaggedSince, PrintStream out) {
+        out.println("ISSUE TREND");
+        out.println("-".repeat(80));
+        out.printf("  %-10s  %9s  %5s  %9s  %8s  %10s  %11s%n",
+            "Date", "Employees", "Depth", "Underpaid", "Overpaid", "Long lines", "Other rules");
+        for (SnapshotSummary summary : trend) {
+            int otherRuleIssues = summary.getRuleIssueCounts().values().stream().mapToInt(Integer::intValue).sum();
+            out.printf("  %-10s  %9d  %5d  %9d  %8d  %10d  %11d%n", summary.getDate(),
+                summary.getEmployeeCount(), summary.getMaxDepth(), summary.getUnderpaidManagers(),
+                summary.getOverpaidManagers(), summary.getLongReportingLines(), otherRuleIssues);
+        }
+        out.println();
+
+        if (!flaggedSince.isEmpty()) {
+            out.println("  Open issues (flagged since):");
+            for (Map.Entry<String, LocalDate> issue : flaggedSince.entrySet()) {
+                out.printf("  • %-40s %s%n", issue.getKey(), issue.getValue());
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * Prints the rows left out by a lenient read: one line per kind of error with its
+     * count, followed by its first occurrences.
+     *
+     * @param errors the errors collected while reading
+     * @param out the output stream to write to
+     */
+    public void printIngestionErrors(IngestionErrors errors, PrintStream out) {
+        out.println("SKIPPED ROWS");
+        out.println("-".repeat(80));
+        if (!errors.hasErrors()) {
+            out.println("No invalid rows found.");
+            out.println();
+            return;
+        }
+        out.printf("%d rows were left out of the analysis:%n", errors.getTotalCount());
+        out.println();
+        for (IngestionErrors.ErrorKind kind : errors.getKinds()) {
+            out.printf("  %s: %d rows%n", kind.getKind(), kind.getCount());
+            for (IngestionErrors.Occurrence occurrence : kind.getOccurrences()) {
+                out.printf("  • line %d: %s%n", occurrence.getLineNumber(), occurrence.getMessage());
+            }
+            if (kind.getCount() > kind.getOccurrences().size()) {
+                out.printf("  ... and %d more%n", kind.getCount() - kind.getOccurrences().size());
+            }
+            out.println();
+        }
+        if (errors.getOtherCount() > 0) {
+            out.printf("  Other errors: %d rows%n", errors.getOtherCount());
+            out.println();
+        }
+    }
+
+    /**
+     * Prints the span-of-control distribution, headcount per level, the widest managers
+     * and the deepest employees.
+     *
+     * @param metrics the collected shape metrics
+     * @param org the organization the metrics were collected from
+     * @param out the output stream to write to
+     */
+    public void printOrgShape(OrgShapeMetrics metrics, OrgView org, PrintStream out) {
+        out.println("ORGANIZATION SHAPE");
+        out.println("-".repeat(80));
+        out.printf("%d employees, %d managers, %.1f direct reports per manager on average%n",
+            metrics.getEmployeeCount(), metrics.getManagerCount(), metrics.getAverageSpan());
+        out.println();
+
+        out.println("  Span of control (direct reports: employees):");
+        for (int bucket = 0; bucket < metrics.getSpanBucketCount(); bucket++) {
+            if (metrics.getSpanCount(bucket) == 0) {
+                continue;
+            }
+            int min = metrics.getSpanBucketMin(bucket);
+            int max = metrics.getSpanBucketMax(bucket);
+            out.printf("  • %-15s %d%n", min == max ? String.valueOf(min) : min + "-" + max,
+                metrics.getSpanCount(bucket));
+        }
+        out.println();
+
+        out.println("  Headcount by level (0 = CEO):");
+        for (int level = 0; level < metrics.getLevelCount(); level++) {
+            out.printf("  • Level %-9d %d%n", level, metrics.getHeadcount(level));
+        }
+        out.println();
+
+        out.println("  Widest managers:");
+        for (int manager : metrics.getWidestManagers()) {
+            Employee employee = org.getEmployee(manager);
+            out.printf("  • %s (ID: %s): %d direct reports%n",
+                employee.getFullName(), employee.getId(), org.getDirectReportCount(manager));
+        }
+        out.println();
+
+        out.println("  Longest reporting chains:");
+        for (int deepest : metrics.getDeepestEmployees()) {
+            Employee employee = org.getEmployee(deepest);
+            out.printf("  • %s (ID: %s): %d managers above%n",
+                employee.getFullName(), employee.getId(), org.getDepth(deepest));
+        }
+        out.println();
+    }
+
+    private void printQuantiles(String label, KllSketch sketch, PrintStream out) {
+        out.printf("  • %-30s n=%-8d p10 %s  p50 %s  p90 %s%n", label, sketch.getCount(),
+            formatCurrency(sketch.getQuantile(0.1)),
+            formatCurrency(sketch.getQuantile(0.5)),
+            formatCurrency(sketch.getQuantile(0.9)));
+    }
+
+    /**
+     * Prints one section per additional rule that reported issues.
+     */
+    private void printRuleIssues(AnalysisReport report, PrintStream out) {
+        for (String ruleId : report.getRuleIds()) {
+            out.println(ruleId.toUpperCase(Locale.ROOT).replace('-', ' ') + " VIOLATIONS");
+            out.println("-".repeat(80));
+            out.println();
+
+            for (AnalysisReport.RuleIssue issue : report.getRuleIssues(ruleId)) {
+                out.printf("  • %s (ID: %s)%n",
+                    issue.getEmployee().getFullName(),
+                    issue.getEmployee().getId());
+                out.printf("    %s%n", issue.getDescription());
+                out.println();
+            }
+        }
+    }
+
+    private static int toPercentAbove(double ratio) {
+        return (int) Math.round((ratio - 1.0) * 100);
+    }
+
+    private static String formatCurrency(double amount) {
+        return CURRENCY_FORMAT.get().format(amount);
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Renders the chain of managers above an employee, from the direct manager up to the CEO.
+ *
+ * The chain of a manager is the manager's label followed by the chain of their own manager,
+ * so the renderer walks the manager pointers only until it reaches an ancestor whose chain
+ * is already rendered and caches the chains it builds on the way back down. Employees
+ * flagged under the same managers share those chains instead of rendering the path to the
+ * CEO again. The cache is bounded by a character budget; beyond it, chains are rendered
+ * without being kept. Chains grow longer further down, so once one level is over budget,
+ * so are all levels below it; their part of the chain is rendered in a single pass.
+ *
+ * Not thread-safe: use one renderer per report being written.
+ */
+public class ReportingChainRenderer {
+    /** Characters of rendered chains kept for reuse, by default. */
+    static final long DEFAULT_MAX_CACHED_CHARS = 32L * 1024 * 1024;
+
+    private final OrgIndex org;
+    private final Function<Employee, String> label;
+    private final String separator;
+    private final long maxCachedChars;
+    private final String[] chains;
+    private long cachedChars;
+    private int[] path = new int[16];
+
+    /**
+     * Creates a renderer of {@code Name (ID: id) -> Name (ID: id)} chains, as printed in the
+     * text report.
+     */
+    public ReportingChainRenderer(OrgIndex org) {
+        this(org, employee -> employee.getFullName() + " (ID: " + employee.getId() + ")", " -> ",
+            DEFAULT_MAX_CACHED_CHARS);
+    }
+
+    /**
+     * @param org the organization the employees belong to
+     * @param label renders one manager
+     * @param separator put between two managers
+     * @param maxCachedChars characters of rendered chains kept for reuse
+     */
+    ReportingChainRenderer(OrgIndex org, Function<Employee, String> label, String separator, long maxCachedChars) {
+        this.org = org;
+        this.label = label;
+        this.separator = separator;
+        this.maxCachedChars = maxCachedChars;
+        this.chains = new String[org.size()];
+    }
+
+    /**
+     * Returns the managers above the employee, from the direct manager up to the CEO.
+     *
+     * @param employee an employee of the organization
+     * @return the rendered chain, empty for the CEO
+     * @throws IllegalArgumentException if the employee is not part of the organization
+     */
+    public String renderManagers(Employee employee) {
+        int index = org.indexOf(employee.getId());
+        if (index < 0) {
+            throw new IllegalArgumentException("Employee is not part of the organization: " + employee.getId());
+        }
+        int manager = org.getManagerIndex(index);
+        return manager == OrgIndex.NO_MANAGER ? "" : chainFrom(manager);
+    }
+
+    /**
+     * Returns the chain starting at the given manager, rendering only the part below the
+     * nearest ancestor whose chain is cached.
+     */
+    private String chainFrom(int manager) {
+        int length = 0;
+        int current = manager;
+        while (current != OrgIndex.NO_MANAGER && chains[current] == null) {
+            if (length == path.length) {
+                path = Arrays.copyOf(path, length * 2);
+            }
+            path[length++] = current;
+            current = org.getManagerIndex(current);
+        }
+
+        String above = current == OrgIndex.NO_MANAGER ? null : chains[current];
+        for (int i = length - 1; i >= 0; i--) {
+            String own = label.apply(org.getEmployee(path[i]));
+            long chainLength = above == null ? own.length() : (long) own.length() + separator.length() + above.length();
+            if (cachedChars + chainLength > maxCachedChars) {
+                return uncachedChain(i, own, above);
+            }
+            String chain = above == null ? own : own + separator + above;
+            chains[path[i]] = chain;
+            cachedChars += chain.length();
+            above = chain;
+        }
+        return above;
+    }
+
+    /**
+     * Renders the labels of {@code path[0]} up to {@code path[last]}, whose own label is
+     * already rendered, followed by the chain above them.
+     */
+    private String uncachedChain(int last, String lastLabel, String above) {
+        StringBuilder chain = new StringBuilder();
+        for (int i = 0; i < last; i++) {
+            chain.append(label.apply(org.getEmployee(path[i]))).append(separator);
+        }
+        chain.append(lastLabel);
+        if (above != null) {
+            chain.append(separator).append(above);
+        }
+        return chain.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.service.CsvProjection;
+import com.company.analyzer.service.CsvReaderService;
+
+import java.util.Arrays;
+
+/**
+ * The shard of every row of an organization file, built without holding any employee.
+ *
+ * While the file is read, IDs are kept only as 64-bit hashes in an open-addressing table
+ * of primitive arrays, and each row only as the hash of its manager's ID. Once all rows
+ * are known, the managers are resolved to rows and the table is dropped; what remains is
+ * one shard number per row. The organization is validated like {@code OrgIndex.build},
+ * with the same messages in the same order. The IDs named in an error message are read
+ * back from the file.
+ *
+ * Two distinct IDs with the same hash are reported as a duplicate ID, and a missing
+ * manager whose ID has the hash of another employee's ID goes unnoticed; for 64-bit
+ * hashes both are vanishingly unlikely.
+ */
+final class ShardAssignment {
+    static final int NO_SHARD = -1;
+
+    private static final int UNASSIGNED = -2;
+    private static final int VISITING = -3;
+    private static final int NO_ROW = -1;
+
+    private final int[] shardOf;
+    private final int ceoRow;
+    private final int[] executiveRows;
+
+    private ShardAssignment(int[] shardOf, int ceoRow, int[] executiveRows) {
+        this.shardOf = shardOf;
+        this.ceoRow = ceoRow;
+        this.executiveRows = executiveRows;
+    }
+
+    /**
+     * Reads the hierarchy of the file and assigns every row to the shard of its executive.
+     *
+     * @param csvReader the reader used for the file
+     * @param filePath path to the CSV file
+     * @return the assignment
+     * @throws EmployeeDataException if the file cannot be read or the organization is invalid
+     */
+    static ShardAssignment read(CsvReaderService csvReader, String filePath) throws EmployeeDataException {
+        Rows rows = new Rows();
+        csvReader.forEachEmployee(filePath, rows::add, ProgressTracker.silent(), CsvProjection.HIERARCHY);
+
+        if (rows.count == 0) {
+            throw new EmployeeDataException("Employee list cannot be null or empty");
+        }
+        if (rows.duplicateId != null) {
+            throw new EmployeeDataException("Duplicate employee ID found: " + rows.duplicateId);
+        }
+        if (rows.multipleCeos) {
+            throw new EmployeeDataException("Multiple CEOs found (employees with no manager)");
+        }
+        if (rows.ceoRow == NO_ROW) {
+            throw new EmployeeDataException("No CEO found (employee with no manager)");
+        }
+
+        int[] manager = rows.resolveManagers();
+        int ceo = rows.ceoRow;
+        int count = rows.count;
+        // Drop the hash table before allocating the shard numbers
+        rows = null;
+        for (int row = 0; row < count; row++) {
+            if (manager[row] == NO_ROW && row != ceo) {
+                Employee employee = rowAt(csvReader, filePath, row);
+                throw new EmployeeDataException(
+                    "Employee " + employee.getId() + " references non-existent manager: " + employee.getManagerId());
+            }
+        }
+
+        // The CEO's direct reports root the shards, numbered in file order
+        int[] shardOf = new int[count];
+        Arrays.fill(shardOf, UNASSIGNED);
+        shardOf[ceo] = NO_SHARD;
+        int shardCount = 0;
+        for (int row = 0; row < count; row++) {
+            if (manager[row] == ceo) {
+                shardOf[row] = shardCount++;
+            }
+        }
+        int[] executiveRows = new int[shardCount];
+        for (int row = 0; row < count; row++) {
+            if (manager[row] == ceo) {
+                executiveRows[shardOf[row]] = row;
+            }
+        }
+
+        // Everyone else takes the shard of the first assigned row up their reporting line;
+        // meeting a row of the current walk again means the line runs in a circle
+        int[] walk = new int[16];
+        for (int row = 0; row < count; row++) {
+            int length = 0;
+            int current = row;
+            while (shardOf[current] == UNASSIGNED) {
+                if (length == walk.length) {
+                    walk = Arrays.copyOf(walk, length * 2);
+                }
+                walk[length++] = current;
+                shardOf[current] = VISITING;
+                current = manager[current];
+            }
+            if (shardOf[current] == VISITING) {
+                throw new EmployeeDataException("Circular reference detected in reporting structure involving employee: "
+                    + rowAt(csvReader, filePath, row).getId());
+            }
+            for (int i = 0; i < length; i++) {
+                shardOf[walk[i]] = shardOf[current];
+            }
+        }
+        return new ShardAssignment(shardOf, ceo, executiveRows);
+    }
+
+    int size() {
+        return shardOf.length;
+    }
+
+    /**
+     * Returns the shard of the row, or {@link #NO_SHARD} for the CEO.
+     */
+    int getShard(int row) {
+        return shardOf[row];
+    }
+
+    int getShardCount() {
+        return executiveRows.length;
+    }
+
+    int getCeoRow() {
+        return ceoRow;
+    }
+
+    /**
+     * Returns the row of the executive rooting the shard.
+     */
+    int getExecutiveRow(int shard) {
+        return executiveRows[shard];
+    }
+
+    private static Employee rowAt(CsvReaderService csvReader, String filePath, int row) throws EmployeeDataException {
+        Employee[] found = new Employee[1];
+        int[] position = {0};
+        csvReader.forEachEmployee(filePath, employee -> {
+            if (position[0]++ == row) {
+                found[0] = employee;
+            }
+        }, ProgressTracker.silent(), CsvProjection.HIERARCHY);
+        return found[0];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, with the MurmurHash3 finalizer to spread
+     * the bits used for the table slot.
+     */
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Rows as read: the ID hash table, with each slot holding its row plus one (0 when
+     * empty), and the manager ID hash of every row.
+     */
+    private static final class Rows {
+        private long[] keys = new long[1024];
+        private int[] slots = new int[1024];
+        private long[] managerHashes = new long[512];
+        private int count;
+        private int ceoRow = NO_ROW;
+        private boolean multipleCeos;
+        private String duplicateId;
+
+        void add(Employee employee) {
+            if (count == managerHashes.length) {
+                managerHashes = Arrays.copyOf(managerHashes, count * 2);
+            }
+            if (2 * (count + 1) > slots.length) {
+                rehash(slots.length * 2);
+            }
+            int row = count++;
+            if (employee.isCeo()) {
+                if (ceoRow == NO_ROW) {
+                    ceoRow = row;
+                } else {
+                    multipleCeos = true;
+                }
+            } else {
+                managerHashes[row] = hash(employee.getManagerId());
+            }
+
+            long key = hash(employee.getId());
+            int mask = slots.length - 1;
+            int slot = (int) key & mask;
+            while (slots[slot] != 0) {
+                if (keys[slot] == key) {
+                    if (duplicateId == null) {
+                        duplicateId = employee.getId();
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            slots[slot] = row + 1;
+        }
+
+        int[] resolveManagers() {
+            int[] manager = new int[count];
+            for (int row = 0; row < count; row++) {
+                manager[row] = row == ceoRow ? NO_ROW : find(managerHashes[row]);
+            }
+            return manager;
+        }
+
+        private int find(long key) {
+            int mask = slots.length - 1;
+            for (int slot = (int) key & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slots[slot] - 1;
+                }
+            }
+            return NO_ROW;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[capacity];
+            slots = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != 0) {
+                    int slot = (int) oldKeys[i] & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    slots[slot] = oldSlots[i];
+                }
+            }
+        }
+    }
+}
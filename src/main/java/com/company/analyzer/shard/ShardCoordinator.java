@@ -0,0 +1,416 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.kernel.SalaryKernels;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.OrganizationRule;
+import com.company.analyzer.rule.PeerSalaryOutlierRule;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.service.CsvReaderService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyzes an organization too large for one JVM by splitting it into executive shards.
+ *
+ * Each direct report of the CEO roots one shard holding their whole subtree. The
+ * coordinator reads the file twice. The first pass validates the organization and
+ * assigns shards without holding any employee, see {@link ShardAssignment}; afterwards
+ * the coordinator keeps one shard number per row. Shards are assigned to at most
+ * {@code maxWorkers} worker JVMs so that the workers get similar numbers of employees.
+ * The second pass streams every employee, tagged with its row in the file, over a pipe
+ * to the stdin of the worker that owns its shard.
+ *
+ * Workers analyze each shard as an organization of its own. The coordinator supplies
+ * the facts that cross shard boundaries: each shard root is sent without a manager
+ * together with its depth offset below the CEO, and the root's real manager is put back
+ * when results are merged. The CEO is the only employee outside every shard and is
+ * checked by the coordinator itself, as are the executives for peer salary outliers,
+ * since their peers are the other shard roots. Rules only read per-employee aggregates,
+ * and the CEO's and the executives' only involve the CEO and the executives, so these
+ * checks run on an organization of just the CEO and the executives, kept from the second
+ * pass. Merged issues come out in file order, so the report is the same as that of an
+ * in-process analysis.
+ */
+public class ShardCoordinator {
+    private static final int SHARD_ROOT_DEPTH = 1;
+
+    private final RuleConfig config;
+    private final int maxWorkers;
+    private final List<String> workerJvmOptions;
+    private final CsvReaderService csvReader = new CsvReaderService();
+
+    public ShardCoordinator(RuleConfig config, int maxWorkers) {
+        this(config, maxWorkers, List.of());
+    }
+
+    /**
+     * @param config rule configuration, forwarded to the workers
+     * @param maxWorkers maximum number of worker JVMs
+     * @param workerJvmOptions extra JVM options for the workers, e.g. {@code -Xmx4g}
+     */
+    public ShardCoordinator(RuleConfig config, int maxWorkers, List<String> workerJvmOptions) {
+        if (maxWorkers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.config = config;
+        this.maxWorkers = maxWorkers;
+        this.workerJvmOptions = List.copyOf(workerJvmOptions);
+    }
+
+    /**
+     * Analyzes the file across worker processes.
+     *
+     * @param filePath path to the CSV file
+     * @return merged report, in the same order as an in-process analysis
+     * @throws EmployeeDataException if the data is invalid or a worker fails
+     */
+    public AnalysisReport analyze(String filePath) throws EmployeeDataException {
+        RuleEngine ruleEngine = RuleEngine.fromConfig(config);
+
+        // Pass 1: hierarchy only. Invalid names are reported by pass 2, which reads full rows
+        ShardAssignment assignment = ShardAssignment.read(csvReader, filePath);
+
+        int shardCount = assignment.getShardCount();
+        int workerCount = Math.min(maxWorkers, shardCount);
+        int[] workerOf = balance(assignment, workerCount);
+        // The CEO, then the executives by shard
+        Employee[] top = new Employee[shardCount + 1];
+
+        List<Worker> workers = new ArrayList<>(workerCount);
+        try {
+            for (int w = 0; w < workerCount; w++) {
+                workers.add(Worker.start(command()));
+            }
+            sendShards(filePath, assignment, workerOf, workers, top);
+            for (Worker worker : workers) {
+                worker.awaitSuccess();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new EmployeeDataException("Shard worker communication failed: " + failureMessage(workers, e), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmployeeDataException("Interrupted while waiting for shard workers", e);
+        } finally {
+            for (Worker worker : workers) {
+                worker.process.destroy();
+            }
+        }
+
+        // The CEO is not part of any shard
+        List<Issue> issues = new ArrayList<>();
+        collectTop(ruleEngine, OrgIndex.build(Arrays.asList(top)), assignment, issues);
+        String ceoId = top[0].getId();
+        for (Worker worker : workers) {
+            for (String line : worker.output) {
+                issues.add(Issue.decode(line, ceoId));
+            }
+        }
+        return merge(issues, ruleEngine);
+    }
+
+    /**
+     * Assigns shards to workers, largest shard first to the least loaded worker.
+     */
+    private static int[] balance(ShardAssignment assignment, int workerCount) {
+        int shardCount = assignment.getShardCount();
+        long[] shardSize = new long[shardCount];
+        for (int row = 0; row < assignment.size(); row++) {
+            int shard = assignment.getShard(row);
+            if (shard != ShardAssignment.NO_SHARD) {
+                shardSize[shard]++;
+            }
+        }
+        List<Integer> bySize = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            bySize.add(shard);
+        }
+        bySize.sort(Comparator.comparingLong((Integer shard) -> shardSize[shard]).reversed());
+
+        long[] load = new long[workerCount];
+        int[] workerOf = new int[shardCount];
+        for (int shard : bySize) {
+            int leastLoaded = 0;
+            for (int w = 1; w < workerCount; w++) {
+                if (load[w] < load[leastLoaded]) {
+                    leastLoaded = w;
+                }
+            }
+            workerOf[shard] = leastLoaded;
+            load[leastLoaded] += shardSize[shard];
+        }
+        return workerOf;
+    }
+
+    /**
+     * Pass 2: streams the configuration, the shard declarations and every employee to
+     * the owning worker, then closes the workers' stdin. The CEO and the executives are
+     * also kept, with their names, in {@code top}.
+     */
+    private void sendShards(String filePath, ShardAssignment assignment, int[] workerOf,
+                            List<Worker> workers, Employee[] top) throws IOException, EmployeeDataException {
+        for (Worker worker : workers) {
+            for (Map.Entry<String, String> entry : config.asMap().entrySet()) {
+                worker.send(ShardProtocol.record(ShardProtocol.CONFIG, entry.getKey(), entry.getValue()));
+            }
+        }
+        for (int shard = 0; shard < workerOf.length; shard++) {
+            workers.get(workerOf[shard]).send(ShardProtocol.record(ShardProtocol.SHARD, shard, SHARD_ROOT_DEPTH));
+        }
+
+        int[] position = {0};
+        csvReader.forEachEmployee(filePath, employee -> {
+            int row = position[0]++;
+            int shard = assignment.getShard(row);
+            if (shard == ShardAssignment.NO_SHARD) {
+                top[0] = employee;
+                return;
+            }
+            // Shard roots lose their manager, the CEO, who lives outside the shard
+            Employee sent = employee;
+            if (assignment.getExecutiveRow(shard) == row) {
+                top[1 + shard] = employee;
+                sent = new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                    employee.getSalary(), null);
+            }
+            Object[] fields = ShardProtocol.employeeFields(sent);
+            Object[] record = new Object[fields.length + 2];
+            record[0] = shard;
+            record[1] = row;
+            System.arraycopy(fields, 0, record, 2, fields.length);
+            try {
+                workers.get(workerOf[shard]).send(ShardProtocol.record(ShardProtocol.EMPLOYEE, record));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        for (Worker worker : workers) {
+            worker.input.close();
+        }
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(workerJvmOptions);
+        if (SalaryKernels.isVectorApiAvailable()) {
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        return command;
+    }
+
+    private static String failureMessage(List<Worker> workers, Exception e) {
+        for (Worker worker : workers) {
+            if (!worker.process.isAlive() && worker.process.exitValue() != 0) {
+                return worker.describeFailure();
+            }
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * Checks the CEO with every rule and the executives against each other with the peer
+     * salary outlier rule, if it is active. In {@code top}, index 0 is the CEO and index
+     * {@code 1 + shard} the executive of the shard.
+     */
+    private static void collectTop(RuleEngine ruleEngine, OrgIndex top, ShardAssignment assignment,
+                                   List<Issue> issues) {
+        collect(ruleEngine.evaluate(top, new int[] {0}), assignment.getCeoRow(), issues);
+        for (OrganizationRule rule : ruleEngine.getRules()) {
+            if (!(rule instanceof PeerSalaryOutlierRule)) {
+                continue;
+            }
+            for (int shard = 0; shard < assignment.getShardCount(); shard++) {
+                AnalysisReport report = new AnalysisReport(top);
+                rule.evaluate(top, 1 + shard, report);
+                collect(report, assignment.getExecutiveRow(shard), issues);
+            }
+        }
+    }
+
+    /**
+     * Adds the issues of a report about a single employee, found at {@code row} of the file.
+     */
+    private static void collect(AnalysisReport report, int row, List<Issue> issues) {
+        for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {
+            issues.add(new Issue(ShardProtocol.UNDERPAID, row, issue));
+        }
+        for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {
+            issues.add(new Issue(ShardProtocol.OVERPAID, row, issue));
+        }
+        for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {
+            issues.add(new Issue(ShardProtocol.LONG_LINE, row, issue));
+        }
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            issues.add(new Issue(ShardProtocol.PEER_OUTLIER, row, issue));
+        }
+        for (String ruleId : report.getRuleIds()) {
+            for (AnalysisReport.RuleIssue issue : report.getRuleIssues(ruleId)) {
+                issues.add(new Issue(ShardProtocol.RULE_ISSUE, row, issue));
+            }
+        }
+    }
+
+    /**
+     * Orders issues as an in-process run would: by employee, then by rule order.
+     */
+    private static AnalysisReport merge(List<Issue> issues, RuleEngine ruleEngine) {
+        List<String> ruleOrder = new ArrayList<>();
+        for (OrganizationRule rule : ruleEngine.getRules()) {
+            ruleOrder.add(rule.getId());
+        }
+        issues.sort(Comparator.comparingInt((Issue issue) -> issue.employee)
+            .thenComparingInt(issue -> issue.value instanceof AnalysisReport.RuleIssue ruleIssue
+                ? ruleOrder.indexOf(ruleIssue.getRuleId()) : -1));
+
+        AnalysisReport report = new AnalysisReport();
+        for (Issue issue : issues) {
+            switch (issue.type) {
+                case ShardProtocol.UNDERPAID -> report.addUnderpaidManager((AnalysisReport.SalaryIssue) issue.value);
+                case ShardProtocol.OVERPAID -> report.addOverpaidManager((AnalysisReport.SalaryIssue) issue.value);
+                case ShardProtocol.LONG_LINE ->
+                    report.addLongReportingLine((AnalysisReport.ReportingLineIssue) issue.value);
+                case ShardProtocol.PEER_OUTLIER ->
+                    report.addPeerSalaryOutlier((AnalysisReport.PeerSalaryOutlier) issue.value);
+                default -> report.addRuleIssue((AnalysisReport.RuleIssue) issue.value);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * An issue of any category, tagged with the employee's row in the file.
+     */
+    private static final class Issue {
+        final String type;
+        final int employee;
+        final Object value;
+
+        Issue(String type, int employee, Object value) {
+            this.type = type;
+            this.employee = employee;
+            this.value = value;
+        }
+
+        static Issue decode(String line, String ceoId) {
+            String[] fields = ShardProtocol.parse(line);
+            String type = fields[0];
+            int row = Integer.parseInt(fields[1]);
+            int first = type.equals(ShardProtocol.RULE_ISSUE) ? 3 : 2;
+            Employee sent = ShardProtocol.parseEmployee(fields, first);
+            // Shard roots are the only employees sent without a manager; theirs is the CEO
+            Employee employee = sent.getManagerId() != null ? sent : new Employee(sent.getId(),
+                sent.getFirstName(), sent.getLastName(), sent.getSalary(), ceoId);
+            int rest = first + ShardProtocol.EMPLOYEE_FIELDS;
+
+            Object value = switch (type) {
+                case ShardProtocol.UNDERPAID, ShardProtocol.OVERPAID -> new AnalysisReport.SalaryIssue(
+                    employee, Double.parseDouble(fields[rest]), Double.parseDouble(fields[rest + 1]));
+                case ShardProtocol.LONG_LINE -> new AnalysisReport.ReportingLineIssue(
+                    employee, Integer.parseInt(fields[rest]), Integer.parseInt(fields[rest + 1]));
+                case ShardProtocol.PEER_OUTLIER -> new AnalysisReport.PeerSalaryOutlier(
+                    employee, Double.parseDouble(fields[rest]), Double.parseDouble(fields[rest + 1]));
+                case ShardProtocol.RULE_ISSUE -> new AnalysisReport.RuleIssue(fields[2], employee,
+                    Double.parseDouble(fields[rest]), Double.parseDouble(fields[rest + 1]), fields[rest + 2]);
+                default -> throw new IllegalStateException("Unexpected worker record: " + type);
+            };
+            return new Issue(type, row, value);
+        }
+    }
+
+    /**
+     * A running worker process. Its stdout and stderr are drained on virtual threads
+     * so that the worker never blocks on a full pipe.
+     */
+    private static final class Worker {
+        final Process process;
+        final Writer input;
+        final List<String> output = new ArrayList<>();
+        final StringBuilder errors = new StringBuilder();
+        final Thread outputReader;
+        final Thread errorReader;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.outputReader = Thread.ofVirtual().start(() -> drain(process.getInputStream(), output));
+            List<String> errorLines = new ArrayList<>();
+            this.errorReader = Thread.ofVirtual().start(() -> {
+                drain(process.getErrorStream(), errorLines);
+                synchronized (errors) {
+                    errorLines.forEach(line -> errors.append(line).append('\n'));
+                }
+            });
+        }
+
+        static Worker start(List<String> command) throws IOException {
+            return new Worker(new ProcessBuilder(command).start());
+        }
+
+        void send(String line) throws IOException {
+            input.write(line);
+            input.write('\n');
+        }
+
+        void awaitSuccess() throws InterruptedException, EmployeeDataException {
+            int exitCode = process.waitFor();
+            outputReader.join();
+            errorReader.join();
+            if (exitCode != 0) {
+                throw new EmployeeDataException("Shard worker failed: " + describeFailure());
+            }
+        }
+
+        String describeFailure() {
+            try {
+                outputReader.join();
+                errorReader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (String line : output) {
+                String[] fields = ShardProtocol.parse(line);
+                if (fields[0].equals(ShardProtocol.FAILURE)) {
+                    return fields[1];
+                }
+            }
+            synchronized (errors) {
+                String stderr = errors.toString().strip();
+                return stderr.isEmpty() ? "exit code " + process.exitValue() : stderr;
+            }
+        }
+
+        private static void drain(InputStream stream, List<String> lines) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            } catch (IOException e) {
+                // Process ended; whatever was read is kept
+            }
+        }
+    }
+}
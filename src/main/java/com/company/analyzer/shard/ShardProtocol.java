@@ -0,0 +1,96 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line-based text protocol between the {@link ShardCoordinator} and its {@link ShardWorker}s.
+ *
+ * Every record is one line of tab-separated fields, the first field being the record type.
+ * Tabs, newlines and backslashes inside fields are escaped. Coordinator to worker (stdin):
+ * <pre>
+ *   C  key  value                                  rule configuration entry
+ *   S  shard  depthOffset                          declares a shard
+ *   E  shard  row  id  firstName  lastName  salary  managerId
+ * </pre>
+ * Worker to coordinator (stdout), after the input is complete:
+ * <pre>
+ *   U  row  employee...  averageSalary  difference      underpaid manager
+ *   O  row  employee...  averageSalary  difference      overpaid manager
+ *   L  row  employee...  reportingLevels  excessLevels  long reporting line
+ *   P  row  employee...  peerAverageSalary  zScore      peer salary outlier
+ *   R  row  ruleId  employee...  actual  limit  description
+ *   X  message                                          failure
+ * </pre>
+ * where {@code row} is the employee's position in the file, counted from 0, and
+ * {@code employee...} stands for the five employee fields. Numbers use
+ * {@link Double#toString(double)}, which round-trips exactly.
+ */
+final class ShardProtocol {
+    static final String CONFIG = "C";
+    static final String SHARD = "S";
+    static final String EMPLOYEE = "E";
+    static final String UNDERPAID = "U";
+    static final String OVERPAID = "O";
+    static final String LONG_LINE = "L";
+    static final String PEER_OUTLIER = "P";
+    static final String RULE_ISSUE = "R";
+    static final String FAILURE = "X";
+
+    static final int EMPLOYEE_FIELDS = 5;
+
+    private ShardProtocol() {
+        // Prevent instantiation
+    }
+
+    static String record(String type, Object... fields) {
+        StringBuilder line = new StringBuilder(type);
+        for (Object field : fields) {
+            line.append('\t').append(escape(String.valueOf(field)));
+        }
+        return line.toString();
+    }
+
+    static Object[] employeeFields(Employee employee) {
+        return new Object[] {employee.getId(), employee.getFirstName(), employee.getLastName(),
+            employee.getSalary(), employee.getManagerId() == null ? "" : employee.getManagerId()};
+    }
+
+    static Employee parseEmployee(String[] fields, int offset) {
+        String managerId = fields[offset + 4];
+        return new Employee(fields[offset], fields[offset + 1], fields[offset + 2],
+            Double.parseDouble(fields[offset + 3]), managerId.isEmpty() ? null : managerId);
+    }
+
+    /**
+     * Splits a record into its type and fields, undoing the escaping.
+     */
+    static String[] parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                field.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0
+                && value.indexOf('\\') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+}
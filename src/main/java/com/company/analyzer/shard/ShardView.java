@@ -0,0 +1,59 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.model.OrgView;
+
+/**
+ * A shard's own index, seen at its true position in the whole organization: the
+ * shard root is treated as sitting {@code depthOffset} levels below the CEO.
+ */
+final class ShardView implements OrgView {
+    private final OrgIndex shard;
+    private final int depthOffset;
+
+    ShardView(OrgIndex shard, int depthOffset) {
+        this.shard = shard;
+        this.depthOffset = depthOffset;
+    }
+
+    @Override
+    public int size() {
+        return shard.size();
+    }
+
+    @Override
+    public Employee getEmployee(int index) {
+        return shard.getEmployee(index);
+    }
+
+    @Override
+    public int getManagerIndex(int index) {
+        return shard.getManagerIndex(index);
+    }
+
+    @Override
+    public int getDepth(int index) {
+        return shard.getDepth(index) + depthOffset;
+    }
+
+    @Override
+    public double getSalary(int index) {
+        return shard.getSalary(index);
+    }
+
+    @Override
+    public int getDirectReportCount(int index) {
+        return shard.getDirectReportCount(index);
+    }
+
+    @Override
+    public double getDirectReportSalarySum(int index) {
+        return shard.getDirectReportSalarySum(index);
+    }
+
+    @Override
+    public double getDirectReportSalaryVariance(int index) {
+        return shard.getDirectReportSalaryVariance(index);
+    }
+}
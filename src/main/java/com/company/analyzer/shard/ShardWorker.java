@@ -0,0 +1,151 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.RuleEngine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entry point of a worker JVM started by the {@link ShardCoordinator}.
+ *
+ * Reads its shards from stdin until end of input, analyzes each shard with the rules
+ * sent by the coordinator and writes the issues to stdout, see {@link ShardProtocol}.
+ * Exits with 1 after writing a failure record if anything goes wrong.
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), out);
+            out.flush();
+        } catch (Exception e) {
+            try {
+                out.write(ShardProtocol.record(ShardProtocol.FAILURE,
+                    e.getMessage() == null ? e.toString() : e.getMessage()));
+                out.write('\n');
+                out.flush();
+            } catch (IOException ignored) {
+                // The coordinator also sees the exit code
+            }
+            System.exit(1);
+        }
+    }
+
+    static void run(BufferedReader in, Writer out) throws Exception {
+        Map<String, String> config = new HashMap<>();
+        Map<Integer, Shard> shards = new TreeMap<>();
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] fields = ShardProtocol.parse(line);
+            switch (fields[0]) {
+                case ShardProtocol.CONFIG -> config.put(fields[1], fields[2]);
+                case ShardProtocol.SHARD ->
+                    shards.put(Integer.parseInt(fields[1]), new Shard(Integer.parseInt(fields[2])));
+                case ShardProtocol.EMPLOYEE -> shards.get(Integer.parseInt(fields[1]))
+                    .add(Integer.parseInt(fields[2]), ShardProtocol.parseEmployee(fields, 3));
+                default -> throw new IllegalArgumentException("Unknown record type: " + fields[0]);
+            }
+        }
+
+        RuleEngine ruleEngine = RuleEngine.fromConfig(RuleConfig.of(config));
+        for (Shard shard : shards.values()) {
+            OrgIndex index = OrgIndex.build(shard.employees);
+            shard.employees = null;
+            write(ruleEngine.evaluate(new ShardView(index, shard.depthOffset)), index, shard.rows, out);
+        }
+    }
+
+    /**
+     * Writes the issues of a shard, each with the employee's row in the file.
+     */
+    private static void write(AnalysisReport report, OrgIndex index, int[] rows, Writer out) throws IOException {
+        for (AnalysisReport.SalaryIssue issue : report.getUnderpaidManagers()) {
+            writeSalaryIssue(ShardProtocol.UNDERPAID, issue, index, rows, out);
+        }
+        for (AnalysisReport.SalaryIssue issue : report.getOverpaidManagers()) {
+            writeSalaryIssue(ShardProtocol.OVERPAID, issue, index, rows, out);
+        }
+        for (AnalysisReport.ReportingLineIssue issue : report.getLongReportingLines()) {
+            writeLine(out, ShardProtocol.LONG_LINE, rows[index.indexOf(issue.getEmployee().getId())],
+                issue.getEmployee(), issue.getReportingLevels(), issue.getExcessLevels());
+        }
+        for (AnalysisReport.PeerSalaryOutlier issue : report.getPeerSalaryOutliers()) {
+            writeLine(out, ShardProtocol.PEER_OUTLIER, rows[index.indexOf(issue.getEmployee().getId())],
+                issue.getEmployee(), issue.getPeerAverageSalary(), issue.getZScore());
+        }
+        for (String ruleId : report.getRuleIds()) {
+            for (AnalysisReport.RuleIssue issue : report.getRuleIssues(ruleId)) {
+                Object[] employee = ShardProtocol.employeeFields(issue.getEmployee());
+                Object[] fields = new Object[employee.length + 5];
+                fields[0] = rows[index.indexOf(issue.getEmployee().getId())];
+                fields[1] = ruleId;
+                System.arraycopy(employee, 0, fields, 2, employee.length);
+                fields[employee.length + 2] = issue.getActualValue();
+                fields[employee.length + 3] = issue.getLimit();
+                fields[employee.length + 4] = issue.getDescription();
+                out.write(ShardProtocol.record(ShardProtocol.RULE_ISSUE, fields));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static void writeSalaryIssue(String type, AnalysisReport.SalaryIssue issue, OrgIndex index, int[] rows,
+                                         Writer out) throws IOException {
+        writeLine(out, type, rows[index.indexOf(issue.getManager().getId())], issue.getManager(),
+            issue.getAverageSubordinateSalary(), issue.getDifference());
+    }
+
+    private static void writeLine(Writer out, String type, int row, Employee employee, Object first, Object second)
+            throws IOException {
+        Object[] fields = ShardProtocol.employeeFields(employee);
+        Object[] all = new Object[fields.length + 3];
+        all[0] = row;
+        System.arraycopy(fields, 0, all, 1, fields.length);
+        all[fields.length + 1] = first;
+        all[fields.length + 2] = second;
+        out.write(ShardProtocol.record(type, all));
+        out.write('\n');
+    }
+
+    /**
+     * A shard as received: its employees in arrival order, which is their index order,
+     * and the row of each in the file.
+     */
+    private static final class Shard {
+        final int depthOffset;
+        List<Employee> employees = new ArrayList<>();
+        int[] rows = new int[16];
+
+        Shard(int depthOffset) {
+            this.depthOffset = depthOffset;
+        }
+
+        void add(int row, Employee employee) {
+            if (employees.size() == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+            rows[employees.size()] = row;
+            employees.add(employee);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.ReportingDepthRule;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.rule.SpanOfControlRule;
+import com.company.analyzer.util.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proposes manager reassignments that bring every reporting line within the depth limit.
+ *
+ * The optimizer walks the hierarchy once, bottom-up, tracking for each employee the height
+ * of the subtree that still hangs below them. A subtree is cut loose and re-parented to a
+ * higher ancestor only at the last moment it can still be placed: when the employee's
+ * manager would no longer find any ancestor deep enough in the limit to take the subtree.
+ * Without a span cap that is exactly when the subtree height reaches {@code maxLevels - 1},
+ * which yields the minimum number of moves. Each move goes to the deepest ancestor that
+ * keeps the subtree within the limit.
+ *
+ * With a span cap, ancestors that already have {@code maxDirectReports} direct reports are
+ * skipped. Reporting lines that cannot be fixed without exceeding the cap are left as they
+ * are and show up in the resulting issue counts.
+ *
+ * Runs in O(n * maxLevels) time and O(n) memory, without recursion.
+ */
+public class ReorgOptimizer {
+    /** Span cap value meaning "no cap". */
+    public static final int UNLIMITED_SPAN = Integer.MAX_VALUE;
+
+    private final int maxLevels;
+    private final int maxDirectReports;
+    private final RuleEngine ruleEngine;
+
+    public ReorgOptimizer() {
+        this(Constants.MAX_REPORTING_LEVELS, UNLIMITED_SPAN, RuleEngine.defaults());
+    }
+
+    public ReorgOptimizer(int maxLevels, int maxDirectReports, RuleEngine ruleEngine) {
+        if (maxLevels < 1) {
+            throw new IllegalArgumentException("Reporting lines can only be shortened to at least 1 level");
+        }
+        if (maxDirectReports < 1) {
+            throw new IllegalArgumentException("Span cap must be at least 1");
+        }
+        this.maxLevels = maxLevels;
+        this.maxDirectReports = maxDirectReports;
+        this.ruleEngine = ruleEngine;
+    }
+
+    /**
+     * Creates an optimizer that uses the configured depth limit and, if the span-of-control
+     * rule is enabled, its cap.
+     *
+     * @throws EmployeeDataException if the configuration is invalid
+     */
+    public static ReorgOptimizer fromConfig(RuleConfig config) throws EmployeeDataException {
+        try {
+            int maxLevels = config.getInt(ReportingDepthRule.ID, "max-levels", Constants.MAX_REPORTING_LEVELS);
+            int maxDirectReports = config.isEnabled(SpanOfControlRule.ID, false)
+                ? config.getInt(SpanOfControlRule.ID, "max-direct-reports", Constants.MAX_DIRECT_REPORTS)
+                : UNLIMITED_SPAN;
+            return new ReorgOptimizer(maxLevels, maxDirectReports, RuleEngine.fromConfig(config));
+        } catch (IllegalArgumentException e) {
+            throw new EmployeeDataException("Invalid reorg configuration: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes the reassignments and simulates them to obtain the resulting issue counts.
+     *
+     * @param org the indexed organization
+     * @return the proposed moves and the issue counts before and after applying them
+     * @throws EmployeeDataException if the moves cannot be simulated
+     */
+    public ReorgPlan optimize(OrgIndex org) throws EmployeeDataException {
+        List<ReorgPlan.Move> moves = findMoves(org);
+
+        Scenario.Builder scenario = Scenario.named("reorg suggestion");
+        for (ReorgPlan.Move move : moves) {
+            scenario.reassign(move.getEmployee().getId(), move.getNewManager().getId());
+        }
+        ScenarioResult result = new ScenarioSimulator(org, ruleEngine).simulate(scenario.build());
+        return new ReorgPlan(moves, result);
+    }
+
+    private List<ReorgPlan.Move> findMoves(OrgIndex org) {
+        int n = org.size();
+        int maxDepth = 0;
+        int[] span = new int[n];
+        for (int i = 0; i < n; i++) {
+            maxDepth = Math.max(maxDepth, org.getDepth(i));
+            span[i] = org.getDirectReportCount(i);
+        }
+
+        List<ReorgPlan.Move> moves = new ArrayList<>();
+        if (maxDepth <= maxLevels) {
+            return moves;
+        }
+
+        int[] height = new int[n];
+        boolean[] moved = new boolean[n];
+        int[] path = new int[maxDepth + 1];
+        int[] stackNode = new int[maxDepth + 1];
+        int[] stackCursor = new int[maxDepth + 1];
+
+        // Iterative depth-first walk; the stack doubles as the path of ancestors by depth
+        int top = 0;
+        stackNode[0] = org.getCeoIndex();
+        path[0] = org.getCeoIndex();
+        while (top >= 0) {
+            int node = stackNode[top];
+            if (stackCursor[top] < org.getDirectReportCount(node)) {
+                int child = org.getDirectReport(node, stackCursor[top]++);
+                top++;
+                stackNode[top] = child;
+                stackCursor[top] = 0;
+                path[top] = child;
+                continue;
+            }
+
+            // All direct reports are done: compute the remaining height and decide on a cut
+            int h = 0;
+            for (int i = 0; i < org.getDirectReportCount(node); i++) {
+                int child = org.getDirectReport(node, i);
+                if (!moved[child]) {
+                    h = Math.max(h, height[child] + 1);
+                }
+            }
+            height[node] = h;
+
+            int depth = top;
+            if (depth >= 2 && depth + h > maxLevels) {
+                int deepestTarget = maxLevels - 1 - h;
+                if (deepestTarget >= 0 && !hasCapacity(path, span, deepestTarget - 1)) {
+                    int target = deepestWithCapacity(path, span, deepestTarget);
+                    if (target >= 0) {
+                        int newManager = path[target];
+                        int oldManager = path[depth - 1];
+                        moves.add(new ReorgPlan.Move(org.getEmployee(node),
+                            org.getEmployee(oldManager), org.getEmployee(newManager)));
+                        moved[node] = true;
+                        span[newManager]++;
+                        span[oldManager]--;
+                    }
+                }
+            }
+            top--;
+        }
+        return moves;
+    }
+
+    /**
+     * Returns whether any ancestor at depth 0..maxDepth can take another direct report.
+     */
+    private boolean hasCapacity(int[] path, int[] span, int maxDepth) {
+        return deepestWithCapacity(path, span, maxDepth) >= 0;
+    }
+
+    private int deepestWithCapacity(int[] path, int[] span, int maxDepth) {
+        for (int depth = maxDepth; depth >= 0; depth--) {
+            if (span[path[depth]] < maxDirectReports) {
+                return depth;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.model.Employee;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Manager reassignments proposed by the {@link ReorgOptimizer}, together with the
+ * issue counts before and after applying them.
+ */
+public class ReorgPlan {
+    private final List<Move> moves;
+    private final ScenarioResult result;
+
+    ReorgPlan(List<Move> moves, ScenarioResult result) {
+        this.moves = moves;
+        this.result = result;
+    }
+
+    public List<Move> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Returns the simulated outcome of applying all moves.
+     */
+    public ScenarioResult getResult() {
+        return result;
+    }
+
+    /**
+     * Moves an employee, with everyone reporting to them, to a new manager.
+     */
+    public static class Move {
+        private final Employee employee;
+        private final Employee currentManager;
+        private final Employee newManager;
+
+        public Move(Employee employee, Employee currentManager, Employee newManager) {
+            this.employee = employee;
+            this.currentManager = currentManager;
+            this.newManager = newManager;
+        }
+
+        public Employee getEmployee() {
+            return employee;
+        }
+
+        public Employee getCurrentManager() {
+            return currentManager;
+        }
+
+        public Employee getNewManager() {
+            return newManager;
+        }
+    }
+}
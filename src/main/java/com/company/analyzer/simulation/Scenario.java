@@ -0,0 +1,176 @@
+package com.company.analyzer.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A what-if change to the organization: salary adjustments and manager reassignments.
+ *
+ * A scenario only describes the changes by employee ID; it holds no organization
+ * data and can be simulated against any base organization. Reassignments are applied
+ * before salary changes, and salary changes are applied in the order they were added,
+ * so two raises on the same employee compound.
+ */
+public final class Scenario {
+    private final String name;
+    private final List<Reassignment> reassignments;
+    private final List<SalaryChange> salaryChanges;
+
+    private Scenario(Builder builder) {
+        this.name = builder.name;
+        this.reassignments = List.copyOf(builder.reassignments);
+        this.salaryChanges = List.copyOf(builder.salaryChanges);
+    }
+
+    public static Builder named(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Reassignment> getReassignments() {
+        return Collections.unmodifiableList(reassignments);
+    }
+
+    public List<SalaryChange> getSalaryChanges() {
+        return Collections.unmodifiableList(salaryChanges);
+    }
+
+    @Override
+    public String toString() {
+        return "Scenario{" + name + ", " + reassignments.size() + " reassignments, "
+            + salaryChanges.size() + " salary changes}";
+    }
+
+    /**
+     * Moves an employee, together with everyone reporting to them, under a new manager.
+     */
+    public static final class Reassignment {
+        private final String employeeId;
+        private final String newManagerId;
+
+        private Reassignment(String employeeId, String newManagerId) {
+            this.employeeId = Objects.requireNonNull(employeeId, "Employee ID cannot be null");
+            this.newManagerId = Objects.requireNonNull(newManagerId, "Manager ID cannot be null");
+        }
+
+        public String getEmployeeId() {
+            return employeeId;
+        }
+
+        public String getNewManagerId() {
+            return newManagerId;
+        }
+    }
+
+    /**
+     * Changes the salary of one employee, or of everyone below a manager.
+     */
+    public static final class SalaryChange {
+        private final String employeeId;
+        private final boolean wholeSubtree;
+        private final double factor;
+        private final double newSalary;
+
+        private SalaryChange(String employeeId, boolean wholeSubtree, double factor, double newSalary) {
+            this.employeeId = Objects.requireNonNull(employeeId, "Employee ID cannot be null");
+            this.wholeSubtree = wholeSubtree;
+            this.factor = factor;
+            this.newSalary = newSalary;
+        }
+
+        public String getEmployeeId() {
+            return employeeId;
+        }
+
+        /**
+         * Returns true if the change applies to everyone below the employee
+         * (excluding the employee themselves).
+         */
+        public boolean isWholeSubtree() {
+            return wholeSubtree;
+        }
+
+        /**
+         * Returns true if the change sets an absolute salary instead of scaling it.
+         */
+        public boolean isAbsolute() {
+            return !Double.isNaN(newSalary);
+        }
+
+        /**
+         * Applies the change to a current salary.
+         */
+        public double apply(double salary) {
+            return isAbsolute() ? newSalary : salary * factor;
+        }
+    }
+
+    /**
+     * Collects the changes of a scenario.
+     */
+    public static final class Builder {
+        private final String name;
+        private final List<Reassignment> reassignments = new ArrayList<>();
+        private final List<SalaryChange> salaryChanges = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = Objects.requireNonNull(name, "Scenario name cannot be null");
+        }
+
+        /**
+         * Sets the salary of a single employee.
+         */
+        public Builder setSalary(String employeeId, double salary) {
+            if (salary < 0) {
+                throw new IllegalArgumentException("Salary cannot be negative");
+            }
+            salaryChanges.add(new SalaryChange(employeeId, false, 1.0, salary));
+            return this;
+        }
+
+        /**
+         * Raises (or with a negative percentage, cuts) a single employee's salary.
+         *
+         * @param percent change as a fraction, e.g. 0.05 for a 5% raise
+         */
+        public Builder raiseSalary(String employeeId, double percent) {
+            salaryChanges.add(new SalaryChange(employeeId, false, toFactor(percent), Double.NaN));
+            return this;
+        }
+
+        /**
+         * Raises the salary of everyone below a manager, directly or indirectly.
+         * The manager's own salary is unchanged.
+         *
+         * @param percent change as a fraction, e.g. 0.05 for a 5% raise
+         */
+        public Builder raiseSubtree(String managerId, double percent) {
+            salaryChanges.add(new SalaryChange(managerId, true, toFactor(percent), Double.NaN));
+            return this;
+        }
+
+        /**
+         * Moves an employee and their whole subtree under a new manager.
+         */
+        public Builder reassign(String employeeId, String newManagerId) {
+            reassignments.add(new Reassignment(employeeId, newManagerId));
+            return this;
+        }
+
+        public Scenario build() {
+            return new Scenario(this);
+        }
+
+        private static double toFactor(double percent) {
+            if (percent <= -1.0) {
+                throw new IllegalArgumentException("Salary cut cannot be 100% or more");
+            }
+            return 1.0 + percent;
+        }
+    }
+}
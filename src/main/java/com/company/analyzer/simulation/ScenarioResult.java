@@ -0,0 +1,118 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.model.AnalysisReport;
+
+/**
+ * Outcome of simulating a scenario: issue counts before and after the change,
+ * plus the issues of the employees the scenario affected.
+ */
+public class ScenarioResult {
+    private final Scenario scenario;
+    private final IssueCounts baseline;
+    private final IssueCounts outcome;
+    private final int affectedEmployees;
+    private final AnalysisReport affectedIssues;
+
+    ScenarioResult(Scenario scenario, IssueCounts baseline, IssueCounts outcome,
+                   int affectedEmployees, AnalysisReport affectedIssues) {
+        this.scenario = scenario;
+        this.baseline = baseline;
+        this.outcome = outcome;
+        this.affectedEmployees = affectedEmployees;
+        this.affectedIssues = affectedIssues;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Returns the issue counts of the unchanged organization.
+     */
+    public IssueCounts getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Returns the issue counts of the organization with the scenario applied.
+     */
+    public IssueCounts getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns how many employees had to be re-checked.
+     */
+    public int getAffectedEmployees() {
+        return affectedEmployees;
+    }
+
+    /**
+     * Returns the scenario's issues among the affected employees. Issues of
+     * unaffected employees are identical to the baseline and are not repeated.
+     */
+    public AnalysisReport getAffectedIssues() {
+        return affectedIssues;
+    }
+
+    /**
+     * Number of issues per category. Peer salary outliers count as other rule issues.
+     */
+    public static class IssueCounts {
+        private final int underpaidManagers;
+        private final int overpaidManagers;
+        private final int longReportingLines;
+        private final int otherRuleIssues;
+
+        public IssueCounts(int underpaidManagers, int overpaidManagers, int longReportingLines, int otherRuleIssues) {
+            this.underpaidManagers = underpaidManagers;
+            this.overpaidManagers = overpaidManagers;
+            this.longReportingLines = longReportingLines;
+            this.otherRuleIssues = otherRuleIssues;
+        }
+
+        public static IssueCounts of(AnalysisReport report) {
+            int otherRuleIssues = report.getPeerSalaryOutliers().size();
+            for (String ruleId : report.getRuleIds()) {
+                otherRuleIssues += report.getRuleIssues(ruleId).size();
+            }
+            return new IssueCounts(report.getUnderpaidManagers().size(),
+                report.getOverpaidManagers().size(),
+                report.getLongReportingLines().size(),
+                otherRuleIssues);
+        }
+
+        /**
+         * Returns these counts with {@code removed} subtracted and {@code added} added.
+         */
+        IssueCounts replace(IssueCounts removed, IssueCounts added) {
+            return new IssueCounts(
+                underpaidManagers - removed.underpaidManagers + added.underpaidManagers,
+                overpaidManagers - removed.overpaidManagers + added.overpaidManagers,
+                longReportingLines - removed.longReportingLines + added.longReportingLines,
+                otherRuleIssues - removed.otherRuleIssues + added.otherRuleIssues);
+        }
+
+        public int getUnderpaidManagers() {
+            return underpaidManagers;
+        }
+
+        public int getOverpaidManagers() {
+            return overpaidManagers;
+        }
+
+        public int getLongReportingLines() {
+            return longReportingLines;
+        }
+
+        public int getOtherRuleIssues() {
+            return otherRuleIssues;
+        }
+
+        @Override
+        public String toString() {
+            return "underpaid=" + underpaidManagers + ", overpaid=" + overpaidManagers
+                + ", longReportingLines=" + longReportingLines + ", other=" + otherRuleIssues;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs what-if scenarios against a shared, immutable base organization.
+ *
+ * The base is analyzed once. Each scenario is applied as a {@link ScenarioView}
+ * overlay and only the employees it affects are re-checked: their baseline issues are
+ * subtracted from the baseline counts and their scenario issues added. Scenarios never
+ * copy or modify the base, so any number of them can be simulated in parallel.
+ */
+public class ScenarioSimulator {
+    private final OrgIndex base;
+    private final RuleEngine ruleEngine;
+    private final ScenarioResult.IssueCounts baseline;
+
+    public ScenarioSimulator(OrgIndex base) {
+        this(base, RuleEngine.defaults());
+    }
+
+    public ScenarioSimulator(OrgIndex base, RuleEngine ruleEngine) {
+        this.base = base;
+        this.ruleEngine = ruleEngine;
+        this.baseline = ScenarioResult.IssueCounts.of(ruleEngine.evaluate(base));
+    }
+
+    /**
+     * Returns the issue counts of the unchanged organization.
+     */
+    public ScenarioResult.IssueCounts getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Simulates a single scenario.
+     *
+     * @param scenario the changes to try
+     * @return issue counts before and after the change
+     * @throws EmployeeDataException if the scenario cannot be applied to the base organization
+     */
+    public ScenarioResult simulate(Scenario scenario) throws EmployeeDataException {
+        ScenarioView view = ScenarioView.apply(base, scenario);
+        int[] affected = view.affectedEmployees();
+
+        AnalysisReport before = ruleEngine.evaluate(base, affected);
+        AnalysisReport after = ruleEngine.evaluate(view, affected);
+
+        ScenarioResult.IssueCounts outcome = baseline.replace(
+            ScenarioResult.IssueCounts.of(before),
+            ScenarioResult.IssueCounts.of(after));
+        return new ScenarioResult(scenario, baseline, outcome, affected.length, after);
+    }
+
+    /**
+     * Simulates several scenarios in parallel.
+     *
+     * @param scenarios the scenarios to try
+     * @return one result per scenario, in the same order
+     * @throws EmployeeDataException if any scenario cannot be applied
+     */
+    public List<ScenarioResult> simulateAll(List<Scenario> scenarios) throws EmployeeDataException {
+        try {
+            return scenarios.parallelStream()
+                .map(scenario -> {
+                    try {
+                        return simulate(scenario);
+                    } catch (EmployeeDataException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .toList();
+        } catch (CompletionException e) {
+            throw (EmployeeDataException) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.model.OrgView;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Copy-on-write overlay of a scenario on top of a shared base organization.
+ *
+ * Only the employees touched by the scenario get entries in the overlay maps; every
+ * other lookup falls through to the immutable {@link OrgIndex}. While applying the
+ * scenario the overlay records which employees may have a different rule outcome:
+ * changed salaries, managers whose direct-report aggregates changed together with
+ * those managers' direct reports, whose peers changed, and everyone whose depth changed
+ * because their subtree moved.
+ *
+ * Instances are confined to the thread that simulates the scenario.
+ */
+final class ScenarioView implements OrgView {
+    private final OrgIndex base;
+    private final Map<Integer, Integer> managerOverride = new HashMap<>();
+    private final Map<Integer, Set<Integer>> movedIn = new HashMap<>();
+    private final Map<Integer, Double> salaryOverride = new HashMap<>();
+    private final Map<Integer, Integer> depthOverride = new HashMap<>();
+    private final Map<Integer, Aggregate> aggregateOverride = new HashMap<>();
+    private final Map<Integer, Employee> employeeCache = new HashMap<>();
+    private final BitSet affected = new BitSet();
+
+    private ScenarioView(OrgIndex base) {
+        this.base = base;
+    }
+
+    /**
+     * Applies a scenario to the base organization.
+     *
+     * @throws EmployeeDataException if the scenario references unknown employees,
+     *         moves the CEO or would create a reporting cycle
+     */
+    static ScenarioView apply(OrgIndex base, Scenario scenario) throws EmployeeDataException {
+        ScenarioView view = new ScenarioView(base);
+        Set<Integer> dirtyManagers = new LinkedHashSet<>();
+
+        List<Integer> movedRoots = new ArrayList<>();
+        for (Scenario.Reassignment reassignment : scenario.getReassignments()) {
+            int employee = view.resolve(reassignment.getEmployeeId());
+            int newManager = view.resolve(reassignment.getNewManagerId());
+            if (view.move(employee, newManager, dirtyManagers)) {
+                movedRoots.add(employee);
+            }
+        }
+        view.recomputeDepths(movedRoots);
+
+        for (Scenario.SalaryChange change : scenario.getSalaryChanges()) {
+            int target = view.resolve(change.getEmployeeId());
+            IntConsumer applyChange = employee -> {
+                view.salaryOverride.put(employee, change.apply(view.getSalary(employee)));
+                view.employeeCache.remove(employee);
+                view.affected.set(employee);
+                dirtyManagers.add(view.getManagerIndex(employee));
+            };
+            if (change.isWholeSubtree()) {
+                view.forEachBelow(target, applyChange);
+            } else {
+                applyChange.accept(target);
+            }
+        }
+
+        for (int manager : dirtyManagers) {
+            if (manager != OrgIndex.NO_MANAGER) {
+                view.recomputeAggregate(manager);
+                view.affected.set(manager);
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Returns the employees whose rule outcome may differ from the base, in index order.
+     */
+    int[] affectedEmployees() {
+        return affected.stream().toArray();
+    }
+
+    @Override
+    public int size() {
+        return base.size();
+    }
+
+    @Override
+    public Employee getEmployee(int index) {
+        if (!salaryOverride.containsKey(index) && !managerOverride.containsKey(index)) {
+            return base.getEmployee(index);
+        }
+        return employeeCache.computeIfAbsent(index, i -> {
+            Employee original = base.getEmployee(i);
+            int manager = getManagerIndex(i);
+            return new Employee(original.getId(), original.getFirstName(), original.getLastName(),
+                getSalary(i), manager == OrgIndex.NO_MANAGER ? null : base.getEmployee(manager).getId());
+        });
+    }
+
+    @Override
+    public int getManagerIndex(int index) {
+        Integer manager = managerOverride.get(index);
+        return manager == null ? base.getManagerIndex(index) : manager;
+    }
+
+    @Override
+    public int getDepth(int index) {
+        Integer depth = depthOverride.get(index);
+        return depth == null ? base.getDepth(index) : depth;
+    }
+
+    @Override
+    public double getSalary(int index) {
+        Double salary = salaryOverride.get(index);
+        return salary == null ? base.getSalary(index) : salary;
+    }
+
+    @Override
+    public int getDirectReportCount(int index) {
+        Aggregate aggregate = aggregateOverride.get(index);
+        return aggregate == null ? base.getDirectReportCount(index) : aggregate.count;
+    }
+
+    @Override
+    public double getDirectReportSalarySum(int index) {
+        Aggregate aggregate = aggregateOverride.get(index);
+        return aggregate == null ? base.getDirectReportSalarySum(index) : aggregate.sum;
+    }
+
+    @Override
+    public double getDirectReportSalaryVariance(int index) {
+        Aggregate aggregate = aggregateOverride.get(index);
+        if (aggregate == null) {
+            return base.getDirectReportSalaryVariance(index);
+        }
+        return aggregate.count == 0 ? 0.0 : aggregate.m2 / aggregate.count;
+    }
+
+    private int resolve(String employeeId) throws EmployeeDataException {
+        int index = base.indexOf(employeeId);
+        if (index < 0) {
+            throw new EmployeeDataException("Scenario references unknown employee: " + employeeId);
+        }
+        return index;
+    }
+
+    /**
+     * Moves an employee under a new manager.
+     *
+     * @return false if the employee already reports to that manager
+     */
+    private boolean move(int employee, int newManager, Set<Integer> dirtyManagers) throws EmployeeDataException {
+        if (employee == base.getCeoIndex()) {
+            throw new EmployeeDataException("Scenario cannot reassign the CEO");
+        }
+        for (int current = newManager; current != OrgIndex.NO_MANAGER; current = getManagerIndex(current)) {
+            if (current == employee) {
+                throw new EmployeeDataException("Reassigning " + base.getEmployee(employee).getId()
+                    + " under " + base.getEmployee(newManager).getId() + " would create a reporting cycle");
+            }
+        }
+
+        int oldManager = getManagerIndex(employee);
+        if (oldManager == newManager) {
+            return false;
+        }
+
+        Set<Integer> previouslyMovedIn = movedIn.get(oldManager);
+        if (previouslyMovedIn != null) {
+            previouslyMovedIn.remove(employee);
+        }
+        if (base.getManagerIndex(employee) == newManager) {
+            managerOverride.remove(employee);
+        } else {
+            managerOverride.put(employee, newManager);
+            movedIn.computeIfAbsent(newManager, m -> new LinkedHashSet<>()).add(employee);
+        }
+        employeeCache.remove(employee);
+        affected.set(employee);
+        dirtyManagers.add(oldManager);
+        dirtyManagers.add(newManager);
+        return true;
+    }
+
+    /**
+     * Recomputes the depth of every moved subtree. Each root's new depth is found by
+     * walking up its new management chain; the subtree below it is then relabeled once.
+     */
+    private void recomputeDepths(List<Integer> movedRoots) {
+        Set<Integer> relabeled = new HashSet<>();
+        for (int root : movedRoots) {
+            if (relabeled.contains(root)) {
+                continue; // Already covered by a moved ancestor
+            }
+            int depth = 0;
+            for (int current = root; getManagerIndex(current) != OrgIndex.NO_MANAGER; current = getManagerIndex(current)) {
+                depth++;
+            }
+
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[] {root, depth});
+            while (!stack.isEmpty()) {
+                int[] entry = stack.pop();
+                int employee = entry[0];
+                relabeled.add(employee);
+                if (entry[1] != base.getDepth(employee)) {
+                    depthOverride.put(employee, entry[1]);
+                    affected.set(employee);
+                } else {
+                    depthOverride.remove(employee);
+                }
+                forEachDirectReport(employee, report -> stack.push(new int[] {report, entry[1] + 1}));
+            }
+        }
+    }
+
+    /**
+     * Recomputes a manager's direct-report aggregates in one pass, with Welford's update
+     * for the variance, and marks the direct reports as affected since their peers changed.
+     */
+    private void recomputeAggregate(int manager) {
+        Aggregate aggregate = new Aggregate();
+        forEachDirectReport(manager, report -> {
+            double salary = getSalary(report);
+            aggregate.count++;
+            aggregate.sum += salary;
+            double delta = salary - aggregate.mean;
+            aggregate.mean += delta / aggregate.count;
+            aggregate.m2 += delta * (salary - aggregate.mean);
+            affected.set(report);
+        });
+        aggregateOverride.put(manager, aggregate);
+    }
+
+    /**
+     * Visits the current direct reports of a manager: base reports that were not moved
+     * away, followed by employees moved in by the scenario.
+     */
+    private void forEachDirectReport(int manager, IntConsumer action) {
+        int count = base.getDirectReportCount(manager);
+        for (int i = 0; i < count; i++) {
+            int report = base.getDirectReport(manager, i);
+            if (!managerOverride.containsKey(report)) {
+                action.accept(report);
+            }
+        }
+        Set<Integer> moved = movedIn.get(manager);
+        if (moved != null) {
+            moved.forEach(action::accept);
+        }
+    }
+
+    /**
+     * Visits everyone below a manager in the scenario's hierarchy, excluding the manager.
+     */
+    private void forEachBelow(int manager, IntConsumer action) {
+        Deque<Integer> stack = new ArrayDeque<>();
+        forEachDirectReport(manager, stack::push);
+        while (!stack.isEmpty()) {
+            int employee = stack.pop();
+            action.accept(employee);
+            forEachDirectReport(employee, stack::push);
+        }
+    }
+
+    private static final class Aggregate {
+        private int count;
+        private double sum;
+        private double mean;
+        private double m2;
+    }
+}
@@ -0,0 +1,262 @@
+package com.company.analyzer.stats;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable streaming quantile sketch (Karnin, Lang and Liberty, "Optimal Quantile
+ * Approximation in Streams", 2016).
+ *
+ * Values are kept in a stack of compactors. An item in compactor {@code h} stands for
+ * {@code 2^h} input values. When the sketch exceeds its capacity, the lowest full
+ * compactor is sorted and every other item is promoted to the next level. The sketch
+ * holds {@code O(k)} values regardless of how many it has seen, and answers rank queries
+ * with an error of about {@code 1.7 / k} of the count (1% for the default {@code k = 200}).
+ * Sketches of disjoint inputs can be merged, and the result is as accurate as a single
+ * sketch over both inputs.
+ *
+ * Compaction alternates between keeping even and odd positions instead of flipping a
+ * coin, which makes results reproducible. Not thread-safe.
+ */
+public final class KllSketch {
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int retained;
+    private int totalCapacity;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private boolean keepOdd;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter; larger values keep more items and give smaller errors
+     */
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        this.levels[0] = new double[MIN_CAPACITY];
+        this.totalCapacity = computeTotalCapacity();
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a sketch");
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        append(0, value);
+        compressIfNeeded();
+    }
+
+    /**
+     * Adds all values seen by another sketch; the other sketch is not modified.
+     */
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        compressIfNeeded();
+    }
+
+    /**
+     * Returns the number of values added, including those merged in.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the exact smallest value, or NaN if the sketch is empty.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the exact largest value, or NaN if the sketch is empty.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns an approximate quantile: a value whose rank is about {@code fraction * count}.
+     * Fractions 0 and 1 return the exact minimum and maximum.
+     *
+     * @param fraction quantile between 0 and 1, e.g. 0.9 for p90
+     * @return the estimate, or NaN if the sketch is empty
+     */
+    public double getQuantile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + fraction);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        sortedItems(values, weights);
+        long target = (long) Math.ceil(fraction * count);
+        long cumulative = 0;
+        for (int i = 0; i < values.length; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the approximate fraction of values less than or equal to {@code value}.
+     */
+    public double getRank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long weight = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                if (levels[h][i] <= value) {
+                    weight += 1L << h;
+                }
+            }
+        }
+        return (double) weight / count;
+    }
+
+    /**
+     * Returns the number of values currently held, for memory accounting.
+     */
+    int getRetainedItems() {
+        return retained;
+    }
+
+    private void append(int level, double value) {
+        if (level >= levels.length) {
+            int oldLength = levels.length;
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            for (int h = oldLength; h <= level; h++) {
+                levels[h] = new double[MIN_CAPACITY];
+            }
+            totalCapacity = computeTotalCapacity();
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    private int capacity(int level) {
+        int depthFromTop = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depthFromTop)));
+    }
+
+    private void compressIfNeeded() {
+        while (retained > totalCapacity) {
+            compactLowestFullLevel();
+        }
+    }
+
+    private int computeTotalCapacity() {
+        int total = 0;
+        for (int h = 0; h < levels.length; h++) {
+            total += capacity(h);
+        }
+        return total;
+    }
+
+    private void compactLowestFullLevel() {
+        int level = 0;
+        while (sizes[level] < capacity(level)) {
+            level++;
+        }
+
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+
+        // An odd item out stays behind so that the level's total weight is preserved
+        int leftover = size % 2;
+        int start = leftover + (keepOdd ? 1 : 0);
+        keepOdd = !keepOdd;
+        double[] promoted = new double[size / 2];
+        for (int i = start, j = 0; j < promoted.length; i += 2, j++) {
+            promoted[j] = items[i];
+        }
+        // The odd item out, if any, is items[0] and stays in place
+        sizes[level] = leftover;
+        retained -= size - leftover;
+        for (double value : promoted) {
+            append(level + 1, value);
+        }
+    }
+
+    private void sortedItems(double[] values, long[] weights) {
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        // Sort indices by value, carrying the weights along
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double[] sortedValues = new double[n];
+        long[] sortedWeights = new long[n];
+        for (int i = 0; i < n; i++) {
+            sortedValues[i] = values[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        System.arraycopy(sortedValues, 0, values, 0, n);
+        System.arraycopy(sortedWeights, 0, weights, 0, n);
+    }
+}
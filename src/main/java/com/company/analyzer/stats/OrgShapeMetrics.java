@@ -0,0 +1,290 @@
+package com.company.analyzer.stats;
+
+import com.company.analyzer.model.OrgView;
+
+import java.util.Arrays;
+
+/**
+ * Shape statistics of an organization: span-of-control distribution, headcount per
+ * depth level, the widest managers and the deepest employees (the ends of the longest
+ * reporting chains).
+ *
+ * The numbers are gathered by a {@link Collector} that the {@link com.company.analyzer.rule.RuleEngine}
+ * feeds from its per-employee pass, so they cost no traversal of their own. Histograms are
+ * primitive arrays; spans below {@value #EXACT_SPANS} are counted exactly and larger spans in
+ * power-of-two buckets, so a CEO with a million reports does not grow the histogram.
+ */
+public final class OrgShapeMetrics {
+    /** Spans below this value have their own bucket. */
+    public static final int EXACT_SPANS = 32;
+    /** Number of widest managers and deepest employees kept by default. */
+    public static final int DEFAULT_TOP = 10;
+
+    private static final int SPAN_BUCKETS = spanBucket(Integer.MAX_VALUE) + 1;
+
+    private final int employeeCount;
+    private final int managerCount;
+    private final long directReportTotal;
+    private final int[] spanBuckets;
+    private final int[] headcountByDepth;
+    private final int[] widestManagers;
+    private final int[] deepestEmployees;
+
+    private OrgShapeMetrics(int employeeCount, int managerCount, long directReportTotal, int[] spanBuckets,
+                            int[] headcountByDepth, int[] widestManagers, int[] deepestEmployees) {
+        this.employeeCount = employeeCount;
+        this.managerCount = managerCount;
+        this.directReportTotal = directReportTotal;
+        this.spanBuckets = spanBuckets;
+        this.headcountByDepth = headcountByDepth;
+        this.widestManagers = widestManagers;
+        this.deepestEmployees = deepestEmployees;
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    /**
+     * Returns the number of employees with at least one direct report.
+     */
+    public int getManagerCount() {
+        return managerCount;
+    }
+
+    /**
+     * Returns the average number of direct reports per manager, or 0 without managers.
+     */
+    public double getAverageSpan() {
+        return managerCount == 0 ? 0.0 : (double) directReportTotal / managerCount;
+    }
+
+    /**
+     * Returns the number of span buckets; bucket {@code b} covers spans
+     * {@link #getSpanBucketMin(int)} to {@link #getSpanBucketMax(int)}. Bucket 0 holds
+     * employees without reports.
+     */
+    public int getSpanBucketCount() {
+        return spanBuckets.length;
+    }
+
+    public int getSpanBucketMin(int bucket) {
+        return bucket < EXACT_SPANS ? bucket : 1 << (bucket - EXACT_SPANS + log2(EXACT_SPANS));
+    }
+
+    public int getSpanBucketMax(int bucket) {
+        return bucket < EXACT_SPANS ? bucket : (int) Math.min(Integer.MAX_VALUE, 2L * getSpanBucketMin(bucket) - 1);
+    }
+
+    /**
+     * Returns the number of employees whose direct report count falls into the bucket.
+     */
+    public int getSpanCount(int bucket) {
+        return spanBuckets[bucket];
+    }
+
+    /**
+     * Returns the number of depth levels, the CEO being level 0.
+     */
+    public int getLevelCount() {
+        return headcountByDepth.length;
+    }
+
+    public int getHeadcount(int depth) {
+        return headcountByDepth[depth];
+    }
+
+    /**
+     * Returns the indices of the managers with the most direct reports, widest first.
+     */
+    public int[] getWidestManagers() {
+        return widestManagers.clone();
+    }
+
+    /**
+     * Returns the indices of the employees farthest below the CEO, deepest first.
+     */
+    public int[] getDeepestEmployees() {
+        return deepestEmployees.clone();
+    }
+
+    static int spanBucket(int span) {
+        return span < EXACT_SPANS ? span : EXACT_SPANS + log2(span) - log2(EXACT_SPANS);
+    }
+
+    private static int log2(int value) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Accumulates the metrics one employee at a time. A collector is not thread-safe;
+     * parallel passes give each range its own collector and {@link #merge} them afterwards.
+     */
+    public static final class Collector {
+        private final int top;
+        private int employeeCount;
+        private int managerCount;
+        private long directReportTotal;
+        private final int[] spanBuckets = new int[SPAN_BUCKETS];
+        private int[] headcountByDepth = new int[16];
+        private int levels;
+        private final TopK widest;
+        private final TopK deepest;
+
+        public Collector() {
+            this(DEFAULT_TOP);
+        }
+
+        /**
+         * @param top number of widest managers and deepest employees to keep
+         */
+        public Collector(int top) {
+            if (top < 0) {
+                throw new IllegalArgumentException("Top count must not be negative: " + top);
+            }
+            this.top = top;
+            this.widest = new TopK(top);
+            this.deepest = new TopK(top);
+        }
+
+        /**
+         * Returns an empty collector keeping as many top entries as this one.
+         */
+        public Collector newPartial() {
+            return new Collector(top);
+        }
+
+        public void record(OrgView org, int employee) {
+            employeeCount++;
+            int span = org.getDirectReportCount(employee);
+            spanBuckets[spanBucket(span)]++;
+            if (span > 0) {
+                managerCount++;
+                directReportTotal += span;
+                widest.offer(span, employee);
+            }
+
+            int depth = org.getDepth(employee);
+            if (depth >= headcountByDepth.length) {
+                headcountByDepth = Arrays.copyOf(headcountByDepth, Math.max(depth + 1, headcountByDepth.length * 2));
+            }
+            headcountByDepth[depth]++;
+            levels = Math.max(levels, depth + 1);
+            deepest.offer(depth, employee);
+        }
+
+        /**
+         * Adds the employees recorded by another collector.
+         */
+        public void merge(Collector other) {
+            employeeCount += other.employeeCount;
+            managerCount += other.managerCount;
+            directReportTotal += other.directReportTotal;
+            for (int bucket = 0; bucket < SPAN_BUCKETS; bucket++) {
+                spanBuckets[bucket] += other.spanBuckets[bucket];
+            }
+            if (other.levels > headcountByDepth.length) {
+                headcountByDepth = Arrays.copyOf(headcountByDepth, other.levels);
+            }
+            for (int depth = 0; depth < other.levels; depth++) {
+                headcountByDepth[depth] += other.headcountByDepth[depth];
+            }
+            levels = Math.max(levels, other.levels);
+            widest.merge(other.widest);
+            deepest.merge(other.deepest);
+        }
+
+        public OrgShapeMetrics finish() {
+            int usedBuckets = SPAN_BUCKETS;
+            while (usedBuckets > 1 && spanBuckets[usedBuckets - 1] == 0) {
+                usedBuckets--;
+            }
+            return new OrgShapeMetrics(employeeCount, managerCount, directReportTotal,
+                Arrays.copyOf(spanBuckets, usedBuckets), Arrays.copyOf(headcountByDepth, levels),
+                widest.indices(), deepest.indices());
+        }
+    }
+
+    /**
+     * Bounded min-heap of the k largest values, each packed with its employee index into
+     * one long. On equal values the lower index wins, so results do not depend on the
+     * order in which employees were offered.
+     */
+    private static final class TopK {
+        private final long[] heap;
+        private int size;
+
+        TopK(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        void offer(int value, int index) {
+            offer(((long) value << 32) | (~index & 0xFFFFFFFFL));
+        }
+
+        void merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+        }
+
+        private void offer(long entry) {
+            if (size < heap.length) {
+                heap[size] = entry;
+                siftUp(size++);
+            } else if (size > 0 && entry > heap[0]) {
+                heap[0] = entry;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Returns the indices, largest value first.
+         */
+        int[] indices() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            int[] indices = new int[size];
+            for (int i = 0; i < size; i++) {
+                indices[i] = ~(int) sorted[size - 1 - i];
+            }
+            return indices;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && heap[right] < heap[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long temp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = temp;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.company.analyzer.stats;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Approximate salary distribution of an organization, by depth level and by subtree.
+ *
+ * Built in one iterative depth-first walk. Every employee's salary goes into the sketch
+ * of their level and into the sketch of their own subtree. When the walk leaves an
+ * employee, their subtree sketch is merged into their manager's. Only the sketches of
+ * employees still on the walk's path are alive, plus those kept for reporting (subtree
+ * roots down to {@code maxSubtreeDepth}), so memory stays {@code O(depth * k)} however
+ * large the organization is.
+ */
+public final class SalaryDistribution {
+    /** Subtree depth that keeps the whole organization and every executive's subtree. */
+    public static final int EXECUTIVE_SUBTREES = 1;
+
+    private final List<KllSketch> byLevel;
+    private final Map<String, KllSketch> bySubtree;
+    private final Map<String, Employee> subtreeRoots;
+
+    private SalaryDistribution(List<KllSketch> byLevel, Map<String, KllSketch> bySubtree,
+                               Map<String, Employee> subtreeRoots) {
+        this.byLevel = byLevel;
+        this.bySubtree = bySubtree;
+        this.subtreeRoots = subtreeRoots;
+    }
+
+    /**
+     * Computes the distribution with sketches of the default accuracy.
+     *
+     * @param org the indexed organization
+     * @param maxSubtreeDepth subtree sketches are kept for employees up to this depth
+     *        (0 keeps only the whole organization)
+     */
+    public static SalaryDistribution of(OrgIndex org, int maxSubtreeDepth) {
+        return of(org, maxSubtreeDepth, KllSketch.DEFAULT_K);
+    }
+
+    public static SalaryDistribution of(OrgIndex org, int maxSubtreeDepth, int k) {
+        if (maxSubtreeDepth < 0) {
+            throw new IllegalArgumentException("Subtree depth cannot be negative");
+        }
+        List<KllSketch> byLevel = new ArrayList<>();
+        Map<Integer, KllSketch> keptByIndex = new TreeMap<>();
+
+        // Iterative post-order walk; stack slot d holds the node at depth d and its sketch
+        int capacity = 16;
+        int[] stackNode = new int[capacity];
+        int[] stackCursor = new int[capacity];
+        KllSketch[] stackSketch = new KllSketch[capacity];
+
+        int top = 0;
+        stackNode[0] = org.getCeoIndex();
+        stackSketch[0] = enter(org, org.getCeoIndex(), 0, byLevel, k);
+        while (top >= 0) {
+            int node = stackNode[top];
+            if (stackCursor[top] < org.getDirectReportCount(node)) {
+                int child = org.getDirectReport(node, stackCursor[top]++);
+                if (org.getDirectReportCount(child) == 0 && top + 1 > maxSubtreeDepth) {
+                    // Most employees are leaves; their salary goes straight into the manager's sketch
+                    double salary = org.getSalary(child);
+                    levelSketch(byLevel, top + 1, k).update(salary);
+                    stackSketch[top].update(salary);
+                    continue;
+                }
+                top++;
+                if (top == capacity) {
+                    capacity *= 2;
+                    stackNode = Arrays.copyOf(stackNode, capacity);
+                    stackCursor = Arrays.copyOf(stackCursor, capacity);
+                    stackSketch = Arrays.copyOf(stackSketch, capacity);
+                }
+                stackNode[top] = child;
+                stackCursor[top] = 0;
+                stackSketch[top] = enter(org, child, top, byLevel, k);
+                continue;
+            }
+
+            KllSketch finished = stackSketch[top];
+            stackSketch[top] = null;
+            boolean kept = top <= maxSubtreeDepth;
+            if (kept) {
+                keptByIndex.put(node, finished);
+            }
+            if (top > 0) {
+                KllSketch parent = stackSketch[top - 1];
+                if (!kept && finished.getRetainedItems() > parent.getRetainedItems()) {
+                    // Merge the smaller sketch into the larger one; on a long chain this
+                    // avoids copying a full sketch into a nearly empty one at every level
+                    finished.merge(parent);
+                    stackSketch[top - 1] = finished;
+                } else {
+                    parent.merge(finished);
+                }
+            }
+            top--;
+        }
+
+        // Subtrees in index order, i.e. the order of the input file
+        Map<String, KllSketch> bySubtree = new LinkedHashMap<>();
+        Map<String, Employee> subtreeRoots = new LinkedHashMap<>();
+        for (Map.Entry<Integer, KllSketch> entry : keptByIndex.entrySet()) {
+            Employee root = org.getEmployee(entry.getKey());
+            bySubtree.put(root.getId(), entry.getValue());
+            subtreeRoots.put(root.getId(), root);
+        }
+        return new SalaryDistribution(byLevel, bySubtree, subtreeRoots);
+    }
+
+    private static KllSketch enter(OrgIndex org, int node, int depth, List<KllSketch> byLevel, int k) {
+        double salary = org.getSalary(node);
+        levelSketch(byLevel, depth, k).update(salary);
+        KllSketch subtree = new KllSketch(k);
+        subtree.update(salary);
+        return subtree;
+    }
+
+    private static KllSketch levelSketch(List<KllSketch> byLevel, int depth, int k) {
+        if (depth == byLevel.size()) {
+            byLevel.add(new KllSketch(k));
+        }
+        return byLevel.get(depth);
+    }
+
+    /**
+     * Returns the number of depth levels, the CEO's level being 0.
+     */
+    public int getLevelCount() {
+        return byLevel.size();
+    }
+
+    /**
+     * Returns the sketch of all salaries at a depth level.
+     *
+     * @throws IndexOutOfBoundsException if no employee is at that depth
+     */
+    public KllSketch getLevel(int depth) {
+        return byLevel.get(depth);
+    }
+
+    /**
+     * Returns the employees whose subtree sketches were kept, in input order.
+     */
+    public List<Employee> getSubtreeRoots() {
+        return Collections.unmodifiableList(new ArrayList<>(subtreeRoots.values()));
+    }
+
+    /**
+     * Returns the sketch of the salaries of an employee and everyone below them, if
+     * that employee was within the subtree depth the distribution was built with.
+     */
+    public Optional<KllSketch> getSubtree(String employeeId) {
+        return Optional.ofNullable(bySubtree.get(employeeId));
+    }
+
+    /**
+     * Convenience query: approximate salary quantile of a level.
+     */
+    public double getLevelQuantile(int depth, double fraction) {
+        return getLevel(depth).getQuantile(fraction);
+    }
+
+    /**
+     * Convenience query: approximate salary quantile of an employee's subtree.
+     *
+     * @throws IllegalArgumentException if no sketch was kept for that employee
+     */
+    public double getSubtreeQuantile(String employeeId, double fraction) {
+        return getSubtree(employeeId)
+            .orElseThrow(() -> new IllegalArgumentException("No subtree sketch for employee " + employeeId))
+            .getQuantile(fraction);
+    }
+}
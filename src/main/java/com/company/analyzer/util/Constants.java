@@ -14,6 +14,13 @@ public final class Constants {
   
     // Reporting line threshold  
     public static final int MAX_REPORTING_LEVELS = 4;
+
+    // Span-of-control threshold (rule disabled by default)
+    public static final int MAX_DIRECT_REPORTS = 10;
+
+    // Peer salary outlier thresholds
+    public static final double MAX_PEER_SALARY_Z_SCORE = 3.0;
+    public static final int MIN_PEERS = 5;
   
     // CSV format  
     public static final String CSV_DELIMITER = ",";  
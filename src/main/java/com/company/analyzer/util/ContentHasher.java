@@ -0,0 +1,64 @@
+package com.company.analyzer.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes content hashes of input files so unchanged inputs can be recognized
+ * without parsing them.
+ */
+public final class ContentHasher {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHasher() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 digest of the file contents.
+     *
+     * @param file file to hash
+     * @return lowercase hex digest
+     * @throws IOException if the file cannot be read
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 digest of content already in memory.
+     */
+    public static String hash(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 digest of a string's UTF-8 bytes.
+     */
+    public static String hash(String text) {
+        return hash(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
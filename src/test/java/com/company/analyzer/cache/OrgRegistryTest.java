@@ -0,0 +1,124 @@
+package com.company.analyzer.cache;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.service.CsvReaderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgRegistryTest {
+
+    @Test
+    void testConcurrentRequestsShareOneLoad(@TempDir Path tempDir) throws Exception {
+        // Arrange - the load blocks until every request has been issued
+        Path file = writeOrg(tempDir, "a.csv", 100);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger parses = new AtomicInteger();
+        OrgRegistry registry = new OrgRegistry(Long.MAX_VALUE, source -> {
+            parses.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new CsvReaderService().readIndex(source.toString(), ProgressTracker.silent());
+        });
+
+        // Act
+        List<Future<OrgIndex>> requests = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                requests.add(executor.submit(() -> registry.get(file)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            OrgIndex first = requests.get(0).get();
+            for (Future<OrgIndex> request : requests) {
+                assertSame(first, request.get());
+            }
+        }
+        assertEquals(1, parses.get());
+        assertEquals(100, registry.get(file).size());
+        assertEquals(1, registry.getLoadCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedOverBudget(@TempDir Path tempDir) throws Exception {
+        // Arrange - a budget that fits two of the three equally sized organizations
+        Path a = writeOrg(tempDir, "a.csv", 1_000);
+        Path b = writeOrg(tempDir, "b.csv", 1_000);
+        Path c = writeOrg(tempDir, "c.csv", 1_000);
+        long orgBytes = new CsvReaderService().readIndex(a.toString(), ProgressTracker.silent()).estimateHeapBytes();
+        OrgRegistry registry = new OrgRegistry(orgBytes * 5 / 2);
+
+        // Act
+        OrgIndex orgA = registry.get(a);
+        registry.get(b);
+        registry.get(a);
+        registry.get(c);
+
+        // Assert - b was the least recently used
+        assertEquals(2, registry.size());
+        assertEquals(2 * orgBytes, registry.getResidentBytes());
+        assertSame(orgA, registry.get(a));
+        assertEquals(3, registry.getLoadCount());
+        registry.get(b);
+        assertEquals(4, registry.getLoadCount());
+        assertTrue(registry.getResidentBytes() <= orgBytes * 5 / 2);
+    }
+
+    @Test
+    void testReloadsChangedFileAndRetriesFailedLoad(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path file = writeOrg(tempDir, "a.csv", 10);
+        OrgRegistry registry = new OrgRegistry(Long.MAX_VALUE);
+        OrgIndex before = registry.get(file);
+
+        // Act - replace the export, then break it
+        writeOrg(tempDir, "a.csv", 20);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        OrgIndex after = registry.get(file);
+        Files.writeString(file, "Id,firstName,lastName,salary,managerId\n1,Broken,Row,abc,\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(120)));
+
+        // Assert
+        assertEquals(10, before.size());
+        assertEquals(20, after.size());
+        assertThrows(EmployeeDataException.class, () -> registry.get(file));
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.getResidentBytes());
+        writeOrg(tempDir, "a.csv", 5);
+        assertEquals(5, registry.get(file).size());
+    }
+
+    private static Path writeOrg(Path dir, String name, int size) throws IOException {
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        content.append("0,Chief,Executive,500000,\n");
+        for (int i = 1; i < size; i++) {
+            content.append(i).append(",First").append(i).append(",Last").append(i).append(",50000,")
+                .append((i - 1) / 10).append('\n');
+        }
+        Path file = dir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,161 @@
+package com.company.analyzer.cache;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.RuleEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    @Test
+    void testReportRoundTrip(@TempDir Path tempDir) throws EmployeeDataException {
+        // Arrange
+        ResultCache cache = new ResultCache(tempDir, 1024 * 1024);
+        AnalysisReport report = sampleReport();
+
+        // Act
+        cache.put("entry", report);
+        Optional<AnalysisReport> cached = cache.get("entry");
+
+        // Assert
+        assertTrue(cached.isPresent());
+        AnalysisReport restored = cached.get();
+        AnalysisReport.SalaryIssue underpaid = restored.getUnderpaidManagers().get(0);
+        assertEquals("1", underpaid.getManager().getId());
+        assertNull(underpaid.getManager().getManagerId());
+        assertEquals(50000.5, underpaid.getAverageSubordinateSalary());
+        assertEquals(1234.25, underpaid.getDifference());
+        assertEquals("Tab\tName", restored.getOverpaidManagers().get(0).getManager().getLastName());
+        assertEquals(6, restored.getLongReportingLines().get(0).getReportingLevels());
+        assertEquals(2, restored.getLongReportingLines().get(0).getExcessLevels());
+        assertEquals(List.of("span-of-control"), List.copyOf(restored.getRuleIds()));
+        AnalysisReport.RuleIssue ruleIssue = restored.getRuleIssues("span-of-control").get(0);
+        assertEquals(12, ruleIssue.getActualValue());
+        assertEquals(10, ruleIssue.getLimit());
+        assertEquals("12 direct reports", ruleIssue.getDescription());
+    }
+
+    @Test
+    void testKeyDependsOnContentAndThresholds(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        ResultCache cache = new ResultCache(tempDir.resolve("cache"), 1024 * 1024);
+        Path input = tempDir.resolve("employees.csv");
+        Files.writeString(input, "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60000,\n");
+        RuleEngine defaults = RuleEngine.defaults();
+        RuleEngine stricter = RuleEngine.fromConfig(RuleConfig.of(Map.of("rules.reporting-depth.max-levels", "3")));
+
+        // Act
+        String original = cache.key(input, defaults);
+        String sameAgain = cache.key(input, RuleEngine.fromConfig(RuleConfig.defaults()));
+        String otherRules = cache.key(input, stricter);
+        Files.writeString(input, "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,65000,\n");
+        String otherContent = cache.key(input, defaults);
+
+        // Assert
+        assertEquals(original, sameAgain);
+        assertNotEquals(original, otherRules);
+        assertNotEquals(original, otherContent);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvicted(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - three entries of equal size, then "a" is read again
+        ResultCache unbounded = new ResultCache(tempDir, Long.MAX_VALUE);
+        for (String key : List.of("a", "b", "c")) {
+            unbounded.put(key, sampleReport());
+        }
+        long entrySize = Files.size(tempDir.resolve("a" + ResultCache.ENTRY_SUFFIX));
+        Instant now = Instant.now();
+        setLastUsed(tempDir, "a", now.minus(Duration.ofHours(3)));
+        setLastUsed(tempDir, "b", now.minus(Duration.ofHours(2)));
+        setLastUsed(tempDir, "c", now.minus(Duration.ofHours(1)));
+        assertTrue(unbounded.get("a").isPresent());
+
+        // Act - room for two and a half entries
+        new ResultCache(tempDir, entrySize * 5 / 2).put("d", sampleReport());
+
+        // Assert
+        assertTrue(Files.exists(tempDir.resolve("a" + ResultCache.ENTRY_SUFFIX)));
+        assertFalse(Files.exists(tempDir.resolve("b" + ResultCache.ENTRY_SUFFIX)));
+        assertFalse(Files.exists(tempDir.resolve("c" + ResultCache.ENTRY_SUFFIX)));
+        assertTrue(Files.exists(tempDir.resolve("d" + ResultCache.ENTRY_SUFFIX)));
+    }
+
+    @Test
+    void testUnreadableEntryIsAMiss(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Files.writeString(tempDir.resolve("broken" + ResultCache.ENTRY_SUFFIX), "not a report");
+        ResultCache cache = new ResultCache(tempDir, 1024 * 1024);
+
+        // Act & Assert
+        assertTrue(cache.get("broken").isEmpty());
+        assertTrue(cache.get("missing").isEmpty());
+    }
+
+    @Test
+    void testConcurrentWritersShareDirectory(@TempDir Path tempDir) throws Exception {
+        // Arrange - several caches (as if in separate processes) on one small directory
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            ResultCache cache = new ResultCache(tempDir, 4096);
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    String key = "k" + ((thread + i) % 5);
+                    cache.put(key, sampleReport());
+                    cache.get(key).ifPresent(report -> assertEquals(1, report.getUnderpaidManagers().size()));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert - no temporary files are left behind
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.allMatch(file -> file.toString().endsWith(ResultCache.ENTRY_SUFFIX)));
+        }
+    }
+
+    private static void setLastUsed(Path directory, String key, Instant time) throws IOException {
+        Files.setLastModifiedTime(directory.resolve(key + ResultCache.ENTRY_SUFFIX), FileTime.from(time));
+    }
+
+    private static AnalysisReport sampleReport() {
+        Employee ceo = new Employee("1", "Joe", "Doe", 60000, null);
+        Employee manager = new Employee("2", "Ann", "Tab\tName", 90000, "1");
+        Employee deep = new Employee("3", "Bob", "Deep", 40000, "2");
+
+        AnalysisReport report = new AnalysisReport();
+        report.addUnderpaidManager(new AnalysisReport.SalaryIssue(ceo, 50000.5, 1234.25));
+        report.addOverpaidManager(new AnalysisReport.SalaryIssue(manager, 40000, 30000));
+        report.addLongReportingLine(new AnalysisReport.ReportingLineIssue(deep, 6, 2));
+        report.addRuleIssue(new AnalysisReport.RuleIssue("span-of-control", manager, 12, 10, "12 direct reports"));
+        return report;
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.analyzer.history;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryStoreTest {
+
+    private static final LocalDate JAN = LocalDate.of(2024, 1, 31);
+    private static final LocalDate FEB = LocalDate.of(2024, 2, 29);
+    private static final LocalDate MAR = LocalDate.of(2024, 3, 31);
+    private static final LocalDate APR = LocalDate.of(2024, 4, 30);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSnapshotOfAnalysisRoundTrip() throws EmployeeDataException {
+        // Arrange - an underpaid middle manager below an overpaid CEO
+        OrgIndex org = OrgIndex.build(List.of(
+            new Employee("1", "Chief", "Executive", 200000, null),
+            new Employee("2", "Middle", "Manager", 50000, "1"),
+            new Employee("3", "Line", "Worker", 60000, "2")));
+        AnalysisReport report = RuleEngine.defaults().evaluate(org);
+        HistoryStore store = new HistoryStore(tempDir.resolve("history"));
+
+        // Act
+        store.append(Snapshot.of(JAN, org, report));
+        Snapshot restored = store.get(JAN).orElseThrow();
+
+        // Assert
+        SnapshotSummary summary = restored.getSummary();
+        assertEquals(JAN, summary.getDate());
+        assertEquals(3, summary.getEmployeeCount());
+        assertEquals(2, summary.getMaxDepth());
+        assertEquals(1, summary.getUnderpaidManagers());
+        assertEquals(1, summary.getOverpaidManagers());
+        assertEquals(Map.of("underpaid:2", 22000.0, "overpaid:1", 125000.0), restored.getIssues());
+        assertEquals(List.of("1", "2"),
+            restored.getManagers().stream().map(Snapshot.ManagerAggregate::getManagerId).toList());
+        Snapshot.ManagerAggregate manager = restored.getManagers().get(1);
+        assertEquals(50000, manager.getSalary());
+        assertEquals(1, manager.getDirectReports());
+        assertEquals(60000, manager.getAverageDirectReportSalary());
+        assertTrue(store.get(FEB).isEmpty());
+    }
+
+    @Test
+    void testTrendReadsRangeInDateOrder() throws EmployeeDataException {
+        // Arrange - appended out of order, March recorded twice
+        HistoryStore store = new HistoryStore(tempDir);
+        store.append(snapshot(MAR, 3, "underpaid:7"));
+        store.append(snapshot(JAN, 1, "underpaid:7"));
+        store.append(snapshot(FEB, 2));
+        store.append(snapshot(MAR, 4, "underpaid:7", "overpaid:9"));
+
+        // Act
+        List<SnapshotSummary> trend = store.trend(FEB, APR);
+
+        // Assert
+        assertEquals(List.of(JAN, FEB, MAR), store.getDates());
+        assertEquals(List.of(FEB, MAR), trend.stream().map(SnapshotSummary::getDate).toList());
+        assertEquals(List.of(2, 4), trend.stream().map(SnapshotSummary::getEmployeeCount).toList());
+        assertEquals(Map.of("span-of-control", 1), trend.get(1).getRuleIssueCounts());
+    }
+
+    @Test
+    void testFlaggedSinceFollowsUnbrokenRuns() throws EmployeeDataException {
+        // Arrange
+        HistoryStore store = new HistoryStore(tempDir);
+        store.append(snapshot(JAN, 1, "underpaid:7", "overpaid:9"));
+        store.append(snapshot(FEB, 1, "underpaid:7"));
+        store.append(snapshot(MAR, 1, "underpaid:7", "overpaid:9"));
+        store.append(snapshot(APR, 1, "overpaid:9"));
+
+        // Act
+        Map<String, LocalDate> open = store.flaggedSince(MAR);
+
+        // Assert
+        assertEquals(Map.of("underpaid:7", JAN, "overpaid:9", MAR), open);
+        assertEquals(MAR, store.flaggedSince("overpaid:9", APR).orElseThrow());
+        assertTrue(store.flaggedSince("underpaid:7", APR).isEmpty());
+        assertEquals(JAN, store.flaggedSince("underpaid:7", LocalDate.of(2024, 3, 1)).orElseThrow());
+        assertTrue(store.flaggedSince(LocalDate.of(2023, 12, 31)).isEmpty());
+    }
+
+    @Test
+    void testTornIndexEntryIsIgnored() throws EmployeeDataException, IOException {
+        // Arrange - a crash after writing half of an index entry
+        HistoryStore store = new HistoryStore(tempDir);
+        store.append(snapshot(JAN, 1));
+        Files.write(tempDir.resolve(HistoryStore.INDEX_FILE), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Act
+        List<LocalDate> before = store.getDates();
+        store.append(snapshot(FEB, 2));
+
+        // Assert
+        assertEquals(List.of(JAN), before);
+        assertEquals(List.of(JAN, FEB), store.getDates());
+        assertEquals(2, store.get(FEB).orElseThrow().getSummary().getEmployeeCount());
+    }
+
+    private static Snapshot snapshot(LocalDate date, int employees, String... issues) {
+        Map<String, Double> issueMap = new LinkedHashMap<>();
+        for (String issue : issues) {
+            issueMap.put(issue, 1.0);
+        }
+        SnapshotSummary summary = new SnapshotSummary(date, employees, 1, 0, 0, 0,
+            employees > 3 ? Map.of("span-of-control", 1) : Map.of());
+        return new Snapshot(summary, issueMap, List.of());
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.analyzer.kernel;
+
+/**
+ * Compares the scalar and vectorized salary kernels on a synthetic organization.
+ *
+ * Not part of the test run. After {@code mvn test-compile}:
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes \
+ *     com.company.analyzer.kernel.SalaryKernelBenchmark [employees]
+ * </pre>
+ */
+public final class SalaryKernelBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private SalaryKernelBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        SalaryKernelTest.Org org = SalaryKernelTest.randomOrg(size, 42);
+
+        SalaryKernel[] kernels = SalaryKernels.isVectorApiAvailable()
+            ? new SalaryKernel[] {SalaryKernels.scalar(), SalaryKernels.vector()}
+            : new SalaryKernel[] {SalaryKernels.scalar()};
+        if (kernels.length == 1) {
+            System.out.println("Vector API not enabled; start with --add-modules jdk.incubator.vector");
+        }
+
+        System.out.printf("%d employees%n", size);
+        System.out.printf("%-12s %14s %14s%n", "kernel", "sums (ms)", "band (ms)");
+        for (SalaryKernel kernel : kernels) {
+            double[] sums = new double[size];
+            long[] under = new long[(size + 63) >>> 6];
+            long[] over = new long[under.length];
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(kernel, org, sums, under, over);
+            }
+            long sumNanos = 0;
+            long bandNanos = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                kernel.sumDirectReports(org.salaries, org.children, org.childOffsets, 0, size, sums);
+                long middle = System.nanoTime();
+                kernel.markSalaryBand(org.salaries, sums, org.childOffsets, 1.2, 1.5, 0, size, under, over);
+                long end = System.nanoTime();
+                sumNanos += middle - start;
+                bandNanos += end - middle;
+            }
+            System.out.printf("%-12s %14.3f %14.3f%n", kernel.getName(),
+                sumNanos / 1e6 / MEASURED_ROUNDS, bandNanos / 1e6 / MEASURED_ROUNDS);
+        }
+    }
+
+    private static void run(SalaryKernel kernel, SalaryKernelTest.Org org, double[] sums, long[] under, long[] over) {
+        kernel.sumDirectReports(org.salaries, org.children, org.childOffsets, 0, org.size, sums);
+        kernel.markSalaryBand(org.salaries, sums, org.childOffsets, 1.2, 1.5, 0, org.size, under, over);
+    }
+}
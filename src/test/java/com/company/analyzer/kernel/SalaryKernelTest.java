@@ -0,0 +1,135 @@
+package com.company.analyzer.kernel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryKernelTest {
+
+    @Test
+    void testVectorApiIsEnabledForTests() {
+        // The surefire configuration adds the incubator module
+        assertTrue(SalaryKernels.isVectorApiAvailable());
+        assertTrue(SalaryKernels.get().getName().startsWith("vector"));
+    }
+
+    @Test
+    void testVectorKernelMatchesScalarKernel() {
+        // Arrange - odd size so that the scalar tail and bitset word boundaries are exercised
+        Org org = randomOrg(10_007, 7);
+        SalaryKernel scalar = SalaryKernels.scalar();
+        SalaryKernel vector = SalaryKernels.vector();
+
+        // Act
+        double[] scalarSums = new double[org.size];
+        double[] vectorSums = new double[org.size];
+        scalar.sumDirectReports(org.salaries, org.children, org.childOffsets, 0, org.size, scalarSums);
+        vector.sumDirectReports(org.salaries, org.children, org.childOffsets, 0, org.size, vectorSums);
+
+        int words = (org.size + 63) >>> 6;
+        long[] scalarUnder = new long[words];
+        long[] scalarOver = new long[words];
+        long[] vectorUnder = new long[words];
+        long[] vectorOver = new long[words];
+        scalar.markSalaryBand(org.salaries, scalarSums, org.childOffsets, 1.2, 1.5, 0, org.size, scalarUnder, scalarOver);
+        vector.markSalaryBand(org.salaries, scalarSums, org.childOffsets, 1.2, 1.5, 0, org.size, vectorUnder, vectorOver);
+
+        // Assert - whole-number salaries add up exactly in any order
+        assertArrayEquals(scalarSums, vectorSums);
+        assertArrayEquals(scalarUnder, vectorUnder);
+        assertArrayEquals(scalarOver, vectorOver);
+        assertTrue(Arrays.stream(scalarUnder).anyMatch(word -> word != 0));
+        assertTrue(Arrays.stream(scalarOver).anyMatch(word -> word != 0));
+    }
+
+    @Test
+    void testSumsAreAddedInChildOrder() {
+        // Arrange - one wide span whose total depends on the order of the additions: added one
+        // by one, each 0.5 is lost against 1e16
+        int reports = 64;
+        double[] salaries = new double[reports + 1];
+        int[] children = new int[reports];
+        Arrays.fill(salaries, 0.5);
+        salaries[1] = 1e16;
+        for (int k = 0; k < reports; k++) {
+            children[k] = k + 1;
+        }
+        int[] childOffsets = new int[reports + 2];
+        Arrays.fill(childOffsets, 1, childOffsets.length, reports);
+        double[] scalarSums = new double[reports + 1];
+        double[] vectorSums = new double[reports + 1];
+
+        // Act
+        SalaryKernels.scalar().sumDirectReports(salaries, children, childOffsets, 0, reports + 1, scalarSums);
+        SalaryKernels.vector().sumDirectReports(salaries, children, childOffsets, 0, reports + 1, vectorSums);
+
+        // Assert
+        assertEquals(1e16, scalarSums[0]);
+        assertArrayEquals(scalarSums, vectorSums);
+    }
+
+    @Test
+    void testSubRangeOnlyTouchesRange() {
+        // Arrange
+        Org org = randomOrg(1_000, 11);
+        double[] sums = new double[org.size];
+        SalaryKernels.scalar().sumDirectReports(org.salaries, org.children, org.childOffsets, 0, org.size, sums);
+        long[] under = new long[(org.size + 63) >>> 6];
+        long[] over = new long[under.length];
+
+        // Act
+        SalaryKernels.vector().markSalaryBand(org.salaries, sums, org.childOffsets, 1.2, 1.5, 100, 203, under, over);
+
+        // Assert
+        for (int i = 0; i < org.size; i++) {
+            boolean marked = (under[i >>> 6] & (1L << i)) != 0 || (over[i >>> 6] & (1L << i)) != 0;
+            if (i < 100 || i >= 203) {
+                assertFalse(marked, "employee " + i);
+            }
+        }
+    }
+
+    /**
+     * Random tree in CSR layout: employee i > 0 reports to a random earlier employee,
+     * with a few managers getting wide spans.
+     */
+    static Org randomOrg(int size, long seed) {
+        Random random = new Random(seed);
+        int[] manager = new int[size];
+        double[] salaries = new double[size];
+        int[] childOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            salaries[i] = 30_000 + random.nextInt(150_000);
+            if (i > 0) {
+                manager[i] = random.nextInt(10) == 0 ? random.nextInt(Math.min(i, 20)) : random.nextInt(i);
+                childOffsets[manager[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        int[] children = new int[size - 1];
+        int[] cursor = new int[size];
+        for (int i = 1; i < size; i++) {
+            children[childOffsets[manager[i]] + cursor[manager[i]]++] = i;
+        }
+        return new Org(size, salaries, children, childOffsets);
+    }
+
+    static final class Org {
+        final int size;
+        final double[] salaries;
+        final int[] children;
+        final int[] childOffsets;
+
+        Org(int size, double[] salaries, int[] children, int[] childOffsets) {
+            this.size = size;
+            this.salaries = salaries;
+            this.children = children;
+            this.childOffsets = childOffsets;
+        }
+    }
+}
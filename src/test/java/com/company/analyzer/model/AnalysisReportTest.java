@@ -0,0 +1,89 @@
+package com.company.analyzer.model;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisReportTest {
+
+    private OrgIndex org;
+
+    @BeforeEach
+    void setUp() throws EmployeeDataException {
+        org = OrgIndex.build(List.of(
+            new Employee("1", "Chief", "Executive", 100000, null),
+            new Employee("2", "Middle", "Manager", 50000, "1"),
+            new Employee("3", "Line", "Worker", 60000, "2")));
+    }
+
+    @Test
+    void testIndexedIssuesResolveEmployeesOnRead() {
+        // Arrange
+        AnalysisReport report = new AnalysisReport(org);
+
+        // Act
+        report.addUnderpaidManager(org, 1, 60000, 22000);
+        report.addLongReportingLine(org, 2, 2, 1);
+
+        // Assert
+        assertTrue(report.hasIssues());
+        AnalysisReport.SalaryIssue issue = report.getUnderpaidManagers().get(0);
+        assertSame(org.getEmployee(1), issue.getManager());
+        assertEquals(60000, issue.getAverageSubordinateSalary());
+        assertEquals(22000, issue.getDifference());
+        AnalysisReport.ReportingLineIssue line = report.getLongReportingLines().get(0);
+        assertEquals("3", line.getEmployee().getId());
+        assertEquals(2, line.getReportingLevels());
+        assertEquals(1, line.getExcessLevels());
+        assertTrue(report.getOverpaidManagers().isEmpty());
+    }
+
+    @Test
+    void testMixedIssuesKeepInsertionOrder() {
+        // Arrange
+        AnalysisReport report = new AnalysisReport(org);
+        Employee outsider = new Employee("9", "Other", "Org", 1000, null);
+        OrgView otherView = new OrgView() {
+            @Override public int size() { return 1; }
+            @Override public Employee getEmployee(int index) { return outsider; }
+            @Override public int getManagerIndex(int index) { return OrgIndex.NO_MANAGER; }
+            @Override public int getDepth(int index) { return 0; }
+            @Override public double getSalary(int index) { return 1000; }
+            @Override public int getDirectReportCount(int index) { return 0; }
+            @Override public double getDirectReportSalarySum(int index) { return 0; }
+            @Override public double getDirectReportSalaryVariance(int index) { return 0; }
+        };
+
+        // Act - index, detached object, foreign view, index
+        report.addOverpaidManager(org, 0, 50000, 25000);
+        report.addOverpaidManager(new AnalysisReport.SalaryIssue(org.getEmployee(1), 1, 2));
+        report.addOverpaidManager(otherView, 0, 3, 4);
+        report.addOverpaidManager(org, 1, 5, 6);
+
+        // Assert
+        List<AnalysisReport.SalaryIssue> issues = report.getOverpaidManagers();
+        assertEquals(4, issues.size());
+        assertEquals(List.of("1", "2", "9", "2"),
+            issues.stream().map(issue -> issue.getManager().getId()).toList());
+        assertEquals(List.of(25000.0, 2.0, 4.0, 6.0),
+            issues.stream().map(AnalysisReport.SalaryIssue::getDifference).toList());
+        assertThrows(UnsupportedOperationException.class, () -> issues.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> issues.get(4));
+    }
+
+    @Test
+    void testReportWithoutIndexStoresEmployees() {
+        // Arrange
+        AnalysisReport report = new AnalysisReport();
+
+        // Act
+        report.addLongReportingLine(org, 2, 6, 2);
+
+        // Assert
+        assertSame(org.getEmployee(2), report.getLongReportingLines().get(0).getEmployee());
+    }
+}
@@ -0,0 +1,82 @@
+package com.company.analyzer.model;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentReportBuilderTest {
+
+    @Test
+    void testSegmentsAreMergedInKeyOrder() throws Exception {
+        // Arrange - 8 producers start together and each reports its own index range
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "Chief", "Executive", 100000, null));
+        for (int i = 1; i < 8_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "First", "Last", 1000, "0"));
+        }
+        OrgIndex org = OrgIndex.build(employees);
+        ConcurrentReportBuilder builder = new ConcurrentReportBuilder(org);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int producer = 7; producer >= 0; producer--) {
+            int from = producer * 1_000;
+            AnalysisReport segment = builder.segment(from);
+            producers.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                for (int employee = from; employee < from + 1_000; employee++) {
+                    segment.addLongReportingLine(org, employee, employee, 0);
+                }
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        AnalysisReport report = builder.build();
+
+        // Assert
+        List<AnalysisReport.ReportingLineIssue> lines = report.getLongReportingLines();
+        assertEquals(8_000, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(i, lines.get(i).getReportingLevels());
+            assertSame(org.getEmployee(i), lines.get(i).getEmployee());
+        }
+    }
+
+    @Test
+    void testBuiltReportIsReadOnly() {
+        // Arrange
+        ConcurrentReportBuilder builder = new ConcurrentReportBuilder(null);
+        AnalysisReport segment = builder.segment(1);
+        Employee employee = new Employee("1", "Only", "Employee", 1000, null);
+        segment.addRuleIssue(new AnalysisReport.RuleIssue("custom", employee, 2, 1, "too many"));
+        assertThrows(IllegalArgumentException.class, () -> builder.segment(1));
+
+        // Act
+        AnalysisReport report = builder.build();
+
+        // Assert
+        assertEquals(1, report.getRuleIssues("custom").size());
+        assertThrows(IllegalStateException.class, () -> report.addRuleIssue(
+            new AnalysisReport.RuleIssue("custom", employee, 3, 1, "more")));
+        assertThrows(IllegalStateException.class, () -> segment.addRuleIssue(
+            new AnalysisReport.RuleIssue("custom", employee, 3, 1, "late")));
+        assertThrows(IllegalStateException.class, () -> builder.segment(2));
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.company.analyzer.model;
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.service.OrganizationAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOrgIndexTest {
+
+    @Test
+    void testCopyMatchesOrgIndex() throws EmployeeDataException {
+        // Arrange - random tree with non-ASCII names
+        OrgIndex org = OrgIndex.build(randomOrg(5_000));
+
+        // Act
+        OffHeapOrgIndex offHeap = OffHeapOrgIndex.copyOf(org);
+
+        // Assert
+        assertEquals(org.size(), offHeap.size());
+        assertEquals(org.getCeoIndex(), offHeap.getCeoIndex());
+        for (int i = 0; i < org.size(); i++) {
+            Employee expected = org.getEmployee(i);
+            Employee actual = offHeap.getEmployee(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getFullName(), actual.getFullName());
+            assertEquals(expected.getManagerId(), actual.getManagerId());
+            assertEquals(org.getSalary(i), offHeap.getSalary(i));
+            assertEquals(org.getManagerIndex(i), offHeap.getManagerIndex(i));
+            assertEquals(org.getDepth(i), offHeap.getDepth(i));
+            assertEquals(org.getDirectReportCount(i), offHeap.getDirectReportCount(i));
+            assertEquals(org.getDirectReportSalarySum(i), offHeap.getDirectReportSalarySum(i));
+            for (int k = 0; k < org.getDirectReportCount(i); k++) {
+                assertEquals(org.getDirectReport(i, k), offHeap.getDirectReport(i, k));
+            }
+            assertEquals(i, offHeap.indexOf(expected.getId()));
+        }
+        assertEquals(-1, offHeap.indexOf("missing"));
+        assertTrue(offHeap.getOffHeapBytes() > 0);
+    }
+
+    @Test
+    void testAnalysisMatchesOrgIndex() throws EmployeeDataException, AnalysisCancelledException {
+        // Arrange
+        OrgIndex org = OrgIndex.build(randomOrg(20_000));
+        OffHeapOrgIndex offHeap = OffHeapOrgIndex.copyOf(org);
+        OrganizationAnalyzer analyzer = new OrganizationAnalyzer(RuleEngine.defaults(), 4);
+
+        // Act
+        AnalysisReport expected = RuleEngine.defaults().evaluate(org);
+        AnalysisReport actual = analyzer.analyzeView(offHeap, ProgressTracker.silent(), null);
+
+        // Assert
+        assertEquals(ids(expected.getUnderpaidManagers().stream().map(AnalysisReport.SalaryIssue::getManager).toList()),
+            ids(actual.getUnderpaidManagers().stream().map(AnalysisReport.SalaryIssue::getManager).toList()));
+        assertEquals(ids(expected.getOverpaidManagers().stream().map(AnalysisReport.SalaryIssue::getManager).toList()),
+            ids(actual.getOverpaidManagers().stream().map(AnalysisReport.SalaryIssue::getManager).toList()));
+        assertEquals(ids(expected.getLongReportingLines().stream().map(AnalysisReport.ReportingLineIssue::getEmployee).toList()),
+            ids(actual.getLongReportingLines().stream().map(AnalysisReport.ReportingLineIssue::getEmployee).toList()));
+    }
+
+    private static List<Employee> randomOrg(int size) {
+        List<Employee> employees = new ArrayList<>();
+        Random random = new Random(11);
+        employees.add(new Employee("ceo", "Chief", "Exécutive", 500000, null));
+        for (int i = 1; i < size; i++) {
+            String manager = i < 10 ? "ceo" : "e" + (1 + random.nextInt(i - 1));
+            employees.add(new Employee("e" + i, i % 7 == 0 ? "Zoë" : "First", "Last" + i,
+                30000 + random.nextInt(150000), manager));
+        }
+        return employees;
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+}
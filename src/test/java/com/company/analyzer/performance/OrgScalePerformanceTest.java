@@ -0,0 +1,155 @@
+package com.company.analyzer.performance;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OffHeapOrgIndex;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.search.EmployeeSearchIndex;
+import com.company.analyzer.service.ExecutiveReportService;
+import com.company.analyzer.service.IngestionPipeline;
+import com.company.analyzer.service.NdjsonReportWriter;
+import com.company.analyzer.service.ReportGenerator;
+import com.company.analyzer.simulation.Scenario;
+import com.company.analyzer.simulation.ScenarioResult;
+import com.company.analyzer.simulation.ScenarioSimulator;
+import com.company.analyzer.stats.SalaryDistribution;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scaling tests on generated organizations of adversarial shapes. Excluded from the
+ * default build; run with {@code mvn test -Pperformance}.
+ */
+@Tag("performance")
+class OrgScalePerformanceTest {
+
+    private static final int CHAIN_DEPTH = 100_000;
+    private static final int WIDE_REPORTS = 1_000_000;
+    private static final int RANDOM_SIZE = 1_000_000;
+
+    @Test
+    void testDeepChain() throws Exception {
+        // Arrange - everyone reports to the previous employee
+        List<Employee> employees = new ArrayList<>(CHAIN_DEPTH);
+        employees.add(new Employee("0", "Level", "0", 1_000_000, null));
+        for (int i = 1; i < CHAIN_DEPTH; i++) {
+            employees.add(new Employee(String.valueOf(i), "Level", String.valueOf(i), 1_000_000 - i, String.valueOf(i - 1)));
+        }
+
+        // Act & Assert
+        OrgIndex org = PerformanceBudget.of("chain: build index", 2_000, 400)
+            .measure(() -> OrgIndex.build(employees));
+        AnalysisReport report = PerformanceBudget.of("chain: evaluate rules", 2_000, 200)
+            .measure(() -> RuleEngine.defaults().evaluate(org));
+        assertEquals(CHAIN_DEPTH - 5, report.getLongReportingLines().size());
+        SalaryDistribution distribution = PerformanceBudget.of("chain: salary distribution", 3_000, 400)
+            .measure(() -> SalaryDistribution.of(org, SalaryDistribution.EXECUTIVE_SUBTREES));
+        assertEquals(CHAIN_DEPTH, distribution.getLevelCount());
+
+        // Moving the middle of the chain up re-checks the whole lower half
+        ScenarioSimulator simulator = new ScenarioSimulator(org);
+        ScenarioResult result = PerformanceBudget.of("chain: simulate reassignment", 5_000, 500)
+            .measure(() -> simulator.simulate(Scenario.named("flatten")
+                .reassign(String.valueOf(CHAIN_DEPTH / 2), "0").build()));
+        assertTrue(result.getAffectedEmployees() >= CHAIN_DEPTH / 2);
+    }
+
+    @Test
+    void testCeoWithMillionDirectReports() throws Exception {
+        // Arrange
+        List<Employee> employees = new ArrayList<>(WIDE_REPORTS + 1);
+        employees.add(new Employee("ceo", "Chief", "Executive", 100_000, null));
+        for (int i = 0; i < WIDE_REPORTS; i++) {
+            employees.add(new Employee("e" + i, "First", "Last", 50_000 + i % 1_000, "ceo"));
+        }
+
+        // Act & Assert
+        OrgIndex org = PerformanceBudget.of("wide: build index", 5_000, 1_000)
+            .measure(() -> OrgIndex.build(employees));
+        AnalysisReport report = PerformanceBudget.of("wide: evaluate rules", 2_000, 100)
+            .measure(() -> RuleEngine.defaults().evaluate(org));
+        assertEquals(1, report.getOverpaidManagers().size());
+        PerformanceBudget.of("wide: evaluate rules in parallel", 5_000, 200)
+            .measure(() -> RuleEngine.defaults().evaluateParallel(org, 4));
+        PerformanceBudget.of("wide: salary distribution", 10_000, 1_500)
+            .measure(() -> SalaryDistribution.of(org, SalaryDistribution.EXECUTIVE_SUBTREES));
+
+        // A raise for everyone dirties the CEO's aggregate once, not once per report
+        ScenarioSimulator simulator = new ScenarioSimulator(org);
+        PerformanceBudget.of("wide: simulate org-wide raise", 10_000, 1_500)
+            .measure(() -> simulator.simulate(Scenario.named("raise").raiseSubtree("ceo", 0.05).build()));
+    }
+
+    @Test
+    void testRandomOrgFromCsv(@TempDir Path tempDir) throws Exception {
+        // Arrange - random recursive tree, written as a CSV export
+        Path csv = tempDir.resolve("employees.csv");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            writer.write("0,Chief,Executive,500000,\n");
+            for (int i = 1; i < RANDOM_SIZE; i++) {
+                writer.write(i + ",First" + i + ",Last" + i + "," + (30_000 + random.nextInt(90_000))
+                    + "," + random.nextInt(i) + "\n");
+            }
+        } catch (IOException e) {
+            fail("Cannot write fixture: " + e.getMessage());
+        }
+
+        // Act & Assert
+        OrgIndex org = PerformanceBudget.of("random: ingest CSV", 30_000, 1_000)
+            .measure(() -> new IngestionPipeline().readIndex(csv.toString()));
+        assertEquals(RANDOM_SIZE, org.size());
+        AnalysisReport report = PerformanceBudget.of("random: evaluate rules", 3_000, 300)
+            .measure(() -> RuleEngine.defaults().evaluate(org));
+        assertTrue(report.hasIssues());
+        // Off the heap, only the employees of the issues are decoded onto the heap; most
+        // employees of a random tree sit on a long reporting line
+        OffHeapOrgIndex offHeap = PerformanceBudget.of("random: copy off heap", 10_000, 10)
+            .measure(() -> OffHeapOrgIndex.copyOf(org));
+        AnalysisReport offHeapReport = PerformanceBudget.of("random: evaluate rules off heap", 10_000, 800)
+            .measure(() -> RuleEngine.defaults().evaluate(offHeap));
+        assertEquals(report.getLongReportingLines().size(), offHeapReport.getLongReportingLines().size());
+        // Fanning out per executive should take about as long as rendering the report once;
+        // its allocation happens on the writer threads and is not counted here
+        Path single = tempDir.resolve("report.txt");
+        PerformanceBudget.of("random: render single report", 20_000, 4_000).measure(() -> {
+            try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(single)))) {
+                new ReportGenerator().printReport(report, out);
+            }
+            return single;
+        });
+        // Chains of managers are rendered once per manager and shared by their reports
+        Path ndjson = tempDir.resolve("report.ndjson");
+        PerformanceBudget.of("random: write NDJSON with chains", 20_000, 4_000).measure(() -> {
+            new NdjsonReportWriter().write(report, org, ndjson);
+            return ndjson;
+        });
+        Map<Employee, Path> files = PerformanceBudget.of("random: render executive reports", 20_000, 500)
+            .measure(() -> new ExecutiveReportService(new ReportGenerator())
+                .writeReports(org, report, tempDir.resolve("executives")));
+        assertEquals(org.getDirectReportCount(org.getCeoIndex()) + 1, files.size());
+        PerformanceBudget.of("random: salary distribution", 10_000, 1_000)
+            .measure(() -> SalaryDistribution.of(org, SalaryDistribution.EXECUTIVE_SUBTREES));
+        EmployeeSearchIndex search = PerformanceBudget.of("random: build search index", 10_000, 50)
+            .measure(() -> EmployeeSearchIndex.build(org));
+        int[] matches = PerformanceBudget.of("random: prefix lookup", 50, 1)
+            .measure(() -> search.findByPrefix("first12345", 20));
+        assertEquals(11, matches.length);
+    }
+}
@@ -0,0 +1,51 @@
+package com.company.analyzer.performance;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs an operation and fails if it exceeds a wall-time or allocation budget.
+ *
+ * Allocations are those of the calling thread, as reported by the JVM's
+ * {@code ThreadMXBean}; work handed to other threads only counts towards wall time.
+ * Budgets are meant to be several times the expected cost, so that only a change in
+ * complexity, not a slow build machine, fails the test.
+ */
+final class PerformanceBudget {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final long maxMillis;
+    private final long maxBytes;
+
+    private PerformanceBudget(String name, long maxMillis, long maxBytes) {
+        this.name = name;
+        this.maxMillis = maxMillis;
+        this.maxBytes = maxBytes;
+    }
+
+    static PerformanceBudget of(String name, long maxMillis, long maxMegabytes) {
+        return new PerformanceBudget(name, maxMillis, maxMegabytes << 20);
+    }
+
+    interface Operation<T> {
+        T run() throws Exception;
+    }
+
+    <T> T measure(Operation<T> operation) throws Exception {
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        T result = operation.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-40s %6d ms %8d MB%n", name, millis, allocated >> 20);
+        assertTrue(millis <= maxMillis,
+            name + " took " + millis + " ms, budget " + maxMillis + " ms");
+        assertTrue(allocated <= maxBytes,
+            name + " allocated " + (allocated >> 20) + " MB, budget " + (maxBytes >> 20) + " MB");
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.analyzer.plan;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionPlannerTest {
+
+    private static final long GB = 1L << 30;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSmallFileRunsSerially() throws IOException, EmployeeDataException {
+        // Arrange
+        Path csv = writeCsv("small.csv", 1_000, false);
+        ExecutionPlanner planner = new ExecutionPlanner(ExecutionPlanner.Thresholds.defaults(), 8, 4 * GB);
+
+        // Act
+        ExecutionPlan plan = planner.plan(csv, ExecutionPlanner.Overrides.none());
+
+        // Assert
+        assertEquals(ExecutionPlan.Parser.SERIAL, plan.getParser());
+        assertEquals(1, plan.getAnalysisThreads());
+        assertEquals(ExecutionPlan.Strategy.IN_MEMORY, plan.getStrategy());
+        assertEquals(1_000, plan.getEstimatedRows(), 50);
+        assertEquals(3, plan.getReasons().size());
+    }
+
+    @Test
+    void testLargeFileUsesPipelineAndAllCores() throws IOException, EmployeeDataException {
+        // Arrange - lowered thresholds stand in for a large file
+        Path csv = writeCsv("large.csv", 50_000, false);
+        ExecutionPlanner.Thresholds thresholds = ExecutionPlanner.Thresholds.defaults()
+            .with("pipeline-min-bytes", "100000")
+            .with("parallel-min-rows", "10000");
+        ExecutionPlanner planner = new ExecutionPlanner(thresholds, 8, 4 * GB);
+
+        // Act
+        ExecutionPlan plan = planner.plan(csv, ExecutionPlanner.Overrides.none());
+
+        // Assert
+        assertEquals(ExecutionPlan.Parser.PIPELINED, plan.getParser());
+        assertEquals(7, plan.getParseWorkers());
+        assertEquals(8, plan.getAnalysisThreads());
+        assertEquals(ExecutionPlan.Strategy.IN_MEMORY, plan.getStrategy());
+    }
+
+    @Test
+    void testOrganizationLargerThanHeapIsSharded() throws IOException, EmployeeDataException {
+        // Arrange - 50k rows at 420 bytes need ~20 MB, the budget is half of 8 MB
+        Path csv = writeCsv("huge.csv", 50_000, false);
+        ExecutionPlanner planner = new ExecutionPlanner(ExecutionPlanner.Thresholds.defaults(), 4, 8L << 20);
+
+        // Act
+        ExecutionPlan sharded = planner.plan(csv, ExecutionPlanner.Overrides.none());
+        ExecutionPlan forced = planner.plan(csv, ExecutionPlanner.Overrides.none().inMemory().threads(2));
+
+        // Assert
+        assertEquals(ExecutionPlan.Strategy.SHARDED, sharded.getStrategy());
+        assertEquals(4, sharded.getShards());
+        assertEquals(1, sharded.getAnalysisThreads());
+        assertEquals(ExecutionPlan.Strategy.IN_MEMORY, forced.getStrategy());
+        assertEquals(2, forced.getAnalysisThreads());
+    }
+
+    @Test
+    void testGzipSizeComesFromTrailer() throws IOException, EmployeeDataException {
+        // Arrange - the estimate samples the start of the file, where ids are shorter
+        Path gzip = writeCsv("export.csv.gz", 20_000, true);
+        ExecutionPlanner planner = new ExecutionPlanner(ExecutionPlanner.Thresholds.defaults(), 1, 4 * GB);
+
+        // Act
+        ExecutionPlan plan = planner.plan(gzip, ExecutionPlanner.Overrides.none().parser(ExecutionPlan.Parser.SERIAL));
+
+        // Assert
+        assertEquals(ExecutionPlan.Parser.PIPELINED, plan.getParser());
+        assertEquals(20_000, plan.getEstimatedRows(), 2_500);
+        assertEquals(ExecutionPlan.Strategy.IN_MEMORY, plan.getStrategy());
+    }
+
+    @Test
+    void testPlanRowsAndInvalidThresholds() {
+        // Arrange
+        ExecutionPlanner planner = new ExecutionPlanner(ExecutionPlanner.Thresholds.defaults(), 4, GB);
+
+        // Act & Assert
+        assertEquals(1, planner.planRows(1_000, ExecutionPlanner.Overrides.none()).getAnalysisThreads());
+        assertEquals(4, planner.planRows(2_000_000, ExecutionPlanner.Overrides.none()).getAnalysisThreads());
+        assertThrows(IllegalArgumentException.class,
+            () -> ExecutionPlanner.Thresholds.defaults().with("unknown", "1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> ExecutionPlanner.Thresholds.defaults().with("heap-fraction", "1.5"));
+        assertThrows(IllegalArgumentException.class,
+            () -> ExecutionPlanner.Thresholds.defaults().with("parallel-min-rows", "many"));
+    }
+
+    private Path writeCsv(String name, int rows, boolean gzip) throws IOException {
+        Path file = tempDir.resolve(name);
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(Files.newOutputStream(file))
+                : Files.newOutputStream(file);
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            writer.write("0,Chief,Executive,500000,\n");
+            for (int i = 1; i < rows; i++) {
+                writer.write(i + ",First" + i % 1000 + ",Last" + i % 1000 + ",50000," + (i - 1) / 5 + "\n");
+            }
+        }
+        return file;
+    }
+}
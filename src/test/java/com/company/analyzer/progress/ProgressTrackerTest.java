@@ -0,0 +1,145 @@
+package com.company.analyzer.progress;
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.service.CsvReaderService;
+import com.company.analyzer.service.IngestionPipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressTrackerTest {
+
+    @Test
+    void testUpdatesAreThrottledAndCarryEta() throws AnalysisCancelledException {
+        // Arrange - manual clock in milliseconds
+        AtomicLong millis = new AtomicLong();
+        List<Progress> seen = new ArrayList<>();
+        ProgressTracker tracker = new ProgressTracker(seen::add, new CancellationToken(),
+            Duration.ofMillis(500), () -> millis.get() * 1_000_000);
+
+        // Act
+        tracker.startPhase(Progress.Phase.READING, 1_000, Progress.UNKNOWN);
+        millis.set(100);
+        tracker.update(100, 10);   // within the interval: dropped
+        millis.set(1_000);
+        tracker.update(250, 25);   // reported
+        millis.set(1_200);
+        tracker.update(300, 30);   // dropped
+        millis.set(4_000);
+        tracker.finishPhase(1_000, 100);
+
+        // Assert
+        assertEquals(2, seen.size());
+        Progress first = seen.get(0);
+        assertEquals(Progress.Phase.READING, first.getPhase());
+        assertEquals(25, first.getRowsProcessed());
+        assertEquals(25.0, first.getRowsPerSecond(), 1e-9);
+        assertEquals(Duration.ofSeconds(3), first.getEta().orElseThrow());
+        assertFalse(first.isPhaseComplete());
+        Progress last = seen.get(1);
+        assertTrue(last.isPhaseComplete());
+        assertEquals(Duration.ZERO, last.getEta().orElseThrow());
+        assertTrue(last.toString().startsWith("reading: 100 rows, 100%"), last.toString());
+    }
+
+    @Test
+    void testReaderStopsWhenCancelled(@TempDir Path tempDir) throws IOException {
+        // Arrange - the listener cancels the run on its first notification
+        Path csv = writeCsv(tempDir, 50_000);
+        CancellationToken token = new CancellationToken();
+        List<Progress> seen = new ArrayList<>();
+        ProgressTracker tracker = new ProgressTracker(progress -> {
+            seen.add(progress);
+            token.cancel();
+        }, token, Duration.ZERO);
+
+        // Act & Assert
+        assertThrows(AnalysisCancelledException.class,
+            () -> new CsvReaderService().readEmployees(csv.toString(), tracker));
+        assertEquals(1, seen.size());
+        assertTrue(seen.get(0).getRowsProcessed() < 50_000);
+        assertTrue(seen.get(0).getBytesProcessed() > 0);
+        assertEquals(Files.size(csv), seen.get(0).getTotalBytes());
+        assertThrows(AnalysisCancelledException.class,
+            () -> new IngestionPipeline(2, 1_000).readIndex(csv.toString(), tracker));
+    }
+
+    @Test
+    void testPipelineAndRuleEngineReportEveryPhase(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path csv = writeCsv(tempDir, 200_000);
+        List<Progress> seen = new ArrayList<>();
+        ProgressTracker tracker = new ProgressTracker(seen::add, new CancellationToken(), Duration.ZERO);
+
+        // Act
+        OrgIndex org = new IngestionPipeline(2, 1_000).readIndex(csv.toString(), tracker);
+        RuleEngine.defaults().evaluateParallel(org, 2, tracker);
+
+        // Assert - progress is monotonic within each phase and each phase completes
+        for (Progress.Phase phase : Progress.Phase.values()) {
+            List<Progress> ofPhase = seen.stream().filter(p -> p.getPhase() == phase).toList();
+            assertTrue(ofPhase.get(ofPhase.size() - 1).isPhaseComplete(), phase.name());
+            for (int i = 1; i < ofPhase.size(); i++) {
+                assertTrue(ofPhase.get(i).getRowsProcessed() >= ofPhase.get(i - 1).getRowsProcessed());
+            }
+        }
+        Progress analyzed = seen.get(seen.size() - 1);
+        assertEquals(200_000, analyzed.getRowsProcessed());
+        assertEquals(200_000, analyzed.getTotalRows());
+    }
+
+    @Test
+    void testCancelledAnalysisStops() {
+        // Arrange
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "Chief", "Executive", 100_000, null));
+        for (int i = 1; i < 300_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "First", "Last", 50_000, "0"));
+        }
+        CancellationToken token = new CancellationToken();
+        ProgressTracker tracker = new ProgressTracker(progress -> token.cancel(), token, Duration.ZERO);
+
+        // Act & Assert
+        assertThrows(AnalysisCancelledException.class,
+            () -> RuleEngine.defaults().evaluateParallel(OrgIndex.build(employees), 4, tracker));
+    }
+
+    @Test
+    void testSilentTrackerCannotBeCancelled() throws Exception {
+        // Arrange
+        CancellationToken shared = ProgressTracker.silent().getToken();
+        OrgIndex org = OrgIndex.build(List.of(
+            new Employee("1", "Chief", "Executive", 70_000, null),
+            new Employee("2", "First", "Last", 50_000, "1")));
+
+        // Act & Assert - the shared token refuses to cancel, so later silent runs still complete
+        assertThrows(UnsupportedOperationException.class, shared::cancel);
+        assertFalse(shared.isCancelled());
+        assertFalse(RuleEngine.defaults().evaluateParallel(org, 2).hasIssues());
+    }
+
+    private static Path writeCsv(Path dir, int rows) throws IOException {
+        Path csv = dir.resolve("employees.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            writer.write("0,Chief,Executive,500000,\n");
+            for (int i = 1; i < rows; i++) {
+                writer.write(i + ",First,Last,50000," + (i - 1) / 10 + "\n");
+            }
+        }
+        return csv;
+    }
+}
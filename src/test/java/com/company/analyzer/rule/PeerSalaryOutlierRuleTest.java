@@ -0,0 +1,100 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OffHeapOrgIndex;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.simulation.Scenario;
+import com.company.analyzer.simulation.ScenarioResult;
+import com.company.analyzer.simulation.ScenarioSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeerSalaryOutlierRuleTest {
+
+    /**
+     * Builds a CEO with one manager whose direct reports earn the given salaries,
+     * with IDs starting at 10.
+     */
+    private static OrgIndex team(double... salaries) throws EmployeeDataException {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("1", "CEO", "Boss", 400000, null));
+        employees.add(new Employee("2", "Team", "Lead", 70000, "1"));
+        for (int i = 0; i < salaries.length; i++) {
+            employees.add(new Employee(String.valueOf(10 + i), "Member", "M" + i, salaries[i], "2"));
+        }
+        return OrgIndex.build(employees);
+    }
+
+    @Test
+    void testFlagsOutlierAmongPeers() throws EmployeeDataException {
+        // Arrange - the peers of 15 average 50,000 with a standard deviation of about 707
+        OrgIndex org = team(50000, 51000, 49000, 50500, 49500, 120000);
+
+        // Act
+        AnalysisReport report = RuleEngine.defaults().evaluate(org);
+
+        // Assert
+        List<AnalysisReport.PeerSalaryOutlier> outliers = report.getPeerSalaryOutliers();
+        assertEquals(1, outliers.size());
+        assertEquals("15", outliers.get(0).getEmployee().getId());
+        assertEquals(50000, outliers.get(0).getPeerAverageSalary(), 0.01);
+        assertEquals(70000 / Math.sqrt(500000), outliers.get(0).getZScore(), 1e-6);
+    }
+
+    @Test
+    void testVarianceMatchesTwoPassComputation() throws EmployeeDataException {
+        // Arrange
+        double[] salaries = {50000, 51000, 49000, 50500, 49500, 120000};
+        OrgIndex org = team(salaries);
+        double mean = 0;
+        for (double salary : salaries) {
+            mean += salary / salaries.length;
+        }
+        double squares = 0;
+        for (double salary : salaries) {
+            squares += (salary - mean) * (salary - mean);
+        }
+
+        // Act & Assert
+        assertEquals(squares / salaries.length, org.getDirectReportSalaryVariance(1), 1e-3);
+        assertEquals(0, org.getDirectReportSalaryVariance(0));
+        assertEquals(0, org.getDirectReportSalaryVariance(2));
+        assertEquals(org.getDirectReportSalaryVariance(1),
+            OffHeapOrgIndex.copyOf(org).getDirectReportSalaryVariance(1));
+    }
+
+    @Test
+    void testSkipsSmallGroupsAndEqualPeers() throws EmployeeDataException {
+        // Arrange
+        OrgIndex fourPeers = team(50000, 51000, 49000, 50500, 120000);
+        OrgIndex equalPeers = team(50000, 50000, 50000, 50000, 50000, 120000);
+        RuleEngine lowerMinimum = RuleEngine.fromConfig(RuleConfig.of(Map.of(
+            "rules.peer-salary-outlier.min-peers", "4")));
+
+        // Act & Assert
+        assertTrue(RuleEngine.defaults().evaluate(fourPeers).getPeerSalaryOutliers().isEmpty());
+        assertEquals(1, lowerMinimum.evaluate(fourPeers).getPeerSalaryOutliers().size());
+        assertTrue(RuleEngine.defaults().evaluate(equalPeers).getPeerSalaryOutliers().isEmpty());
+    }
+
+    @Test
+    void testScenarioRechecksPeersOfChangedSalary() throws EmployeeDataException {
+        // Arrange
+        ScenarioSimulator simulator = new ScenarioSimulator(team(50000, 51000, 49000, 50500, 49500, 50000));
+
+        // Act
+        ScenarioResult result = simulator.simulate(Scenario.named("raise").setSalary("15", 120000).build());
+
+        // Assert - the raised employee and their five peers were rechecked
+        assertEquals(0, result.getBaseline().getOtherRuleIssues());
+        assertEquals(1, result.getOutcome().getOtherRuleIssues());
+        assertEquals(7, result.getAffectedEmployees());
+    }
+}
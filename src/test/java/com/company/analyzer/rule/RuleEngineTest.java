@@ -0,0 +1,160 @@
+package com.company.analyzer.rule;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleEngineTest {
+
+    private OrgIndex org;
+
+    @BeforeEach
+    void setUp() throws EmployeeDataException {
+        org = OrgIndex.build(List.of(
+            new Employee("1", "CEO", "Boss", 100000, null),
+            new Employee("2", "Manager", "One", 55000, "1"),
+            new Employee("3", "Employee", "A", 40000, "2"),
+            new Employee("4", "Employee", "B", 40000, "2"),
+            new Employee("5", "Employee", "C", 40000, "2")
+        ));
+    }
+
+    @Test
+    void testDefaultRulesFromConfig() throws EmployeeDataException {
+        // Act
+        RuleEngine engine = RuleEngine.fromConfig(RuleConfig.defaults());
+
+        // Assert
+        List<String> ruleIds = engine.getRules().stream().map(OrganizationRule::getId).toList();
+        assertEquals(List.of(SalaryBandRule.ID, ReportingDepthRule.ID, PeerSalaryOutlierRule.ID), ruleIds);
+    }
+
+    @Test
+    void testSpanOfControlRuleEnabledByConfig() throws EmployeeDataException {
+        // Arrange
+        RuleConfig config = RuleConfig.of(Map.of(
+            "rules.span-of-control.enabled", "true",
+            "rules.span-of-control.max-direct-reports", "2"));
+
+        // Act
+        AnalysisReport report = RuleEngine.fromConfig(config).evaluate(org);
+
+        // Assert
+        List<AnalysisReport.RuleIssue> issues = report.getRuleIssues(SpanOfControlRule.ID);
+        assertEquals(1, issues.size());
+        assertEquals("2", issues.get(0).getEmployee().getId());
+        assertEquals(3, issues.get(0).getActualValue());
+        assertEquals(2, issues.get(0).getLimit());
+    }
+
+    @Test
+    void testPerLevelSalaryBand() throws EmployeeDataException {
+        // Arrange - the manager at level 1 earns 1.375x the average, inside the default band
+        RuleConfig config = RuleConfig.of(Map.of("rules.salary-band.level.1.min-ratio", "1.40"));
+
+        // Act
+        AnalysisReport defaultReport = RuleEngine.fromConfig(RuleConfig.defaults()).evaluate(org);
+        AnalysisReport configuredReport = RuleEngine.fromConfig(config).evaluate(org);
+
+        // Assert
+        assertTrue(defaultReport.getUnderpaidManagers().isEmpty());
+        assertEquals(1, configuredReport.getUnderpaidManagers().size());
+        assertEquals(1000, configuredReport.getUnderpaidManagers().get(0).getDifference(), 0.01);
+    }
+
+    @Test
+    void testDisabledRuleDoesNotRun() throws EmployeeDataException {
+        // Arrange
+        RuleConfig config = RuleConfig.of(Map.of(
+            "rules.reporting-depth.enabled", "false",
+            "rules.salary-band.enabled", "false",
+            "rules.peer-salary-outlier.enabled", "false"));
+
+        // Act
+        RuleEngine engine = RuleEngine.fromConfig(config);
+
+        // Assert
+        assertTrue(engine.getRules().isEmpty());
+        assertFalse(engine.evaluate(org).hasIssues());
+    }
+
+    @Test
+    void testInvalidThresholdIsRejected() {
+        // Arrange
+        RuleConfig config = RuleConfig.of(Map.of("rules.reporting-depth.max-levels", "four"));
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> RuleEngine.fromConfig(config));
+        assertTrue(exception.getMessage().contains(ReportingDepthRule.ID));
+    }
+
+    @Test
+    void testLoadConfigFromFile(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Path rulesFile = tempDir.resolve("rules.properties");
+        Files.writeString(rulesFile, "rules.reporting-depth.max-levels = 0\n");
+
+        // Act
+        AnalysisReport report = RuleEngine.fromConfig(RuleConfig.load(rulesFile)).evaluate(org);
+
+        // Assert
+        assertEquals(4, report.getLongReportingLines().size());
+    }
+
+    @Test
+    void testParallelEvaluationMatchesSequential() throws EmployeeDataException {
+        // Arrange - large random org; the per-level band forces the per-employee salary check
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "Chief", "Executive", 200000, null));
+        for (int i = 1; i < 50_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "First" + i, "Last" + i,
+                30000 + random.nextInt(90000), String.valueOf(random.nextInt(i))));
+        }
+        OrgIndex largeOrg = OrgIndex.build(employees);
+        RuleEngine engine = RuleEngine.fromConfig(RuleConfig.of(Map.of(
+            "rules.salary-band.level.1.max-ratio", "2.0",
+            "rules.span-of-control.enabled", "true",
+            "rules.span-of-control.max-direct-reports", "3")));
+
+        // Act
+        AnalysisReport sequential = engine.evaluate(largeOrg);
+        AnalysisReport parallel = engine.evaluateParallel(largeOrg, 4);
+
+        // Assert
+        assertEquals(describe(sequential), describe(parallel));
+        assertFalse(sequential.getUnderpaidManagers().isEmpty());
+        assertFalse(sequential.getRuleIssues(SpanOfControlRule.ID).isEmpty());
+        assertThrows(IllegalStateException.class, () -> parallel.addLongReportingLine(largeOrg, 1, 9, 5));
+    }
+
+    private static List<String> describe(AnalysisReport report) {
+        List<String> lines = new ArrayList<>();
+        report.getUnderpaidManagers().forEach(issue ->
+            lines.add("U " + issue.getManager().getId() + " " + issue.getDifference()));
+        report.getOverpaidManagers().forEach(issue ->
+            lines.add("O " + issue.getManager().getId() + " " + issue.getDifference()));
+        report.getLongReportingLines().forEach(issue ->
+            lines.add("L " + issue.getEmployee().getId() + " " + issue.getExcessLevels()));
+        for (String ruleId : report.getRuleIds()) {
+            report.getRuleIssues(ruleId).forEach(issue ->
+                lines.add(ruleId + " " + issue.getEmployee().getId() + " " + issue.getActualValue()));
+        }
+        return lines;
+    }
+}
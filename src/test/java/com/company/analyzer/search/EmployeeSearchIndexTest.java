@@ -0,0 +1,74 @@
+package com.company.analyzer.search;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSearchIndexTest {
+
+    private OrgIndex org;
+    private EmployeeSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws EmployeeDataException {
+        org = OrgIndex.build(List.of(
+            new Employee("123", "Joe", "Doe", 60000, null),
+            new Employee("124", "Martin", "Chekov", 45000, "123"),
+            new Employee("125", "Bob", "Ronstad", 47000, "123"),
+            new Employee("300", "Alice", "Hasacat", 50000, "124"),
+            new Employee("305", "Brett", "Hardleaf", 34000, "300"),
+            new Employee("M12", "Marta", "Martinez", 41000, "300")));
+        index = EmployeeSearchIndex.build(org);
+    }
+
+    @Test
+    void testPrefixMatchesIdsAndNames() {
+        // Act & Assert
+        assertEquals(List.of("123", "124", "125"), ids(index.findByPrefix("12", 10)));
+        assertEquals(List.of("M12", "124"), ids(index.findByPrefix("MAR", 10)));
+        assertEquals(List.of("305", "300"), ids(index.findByPrefix("ha", 10)));
+        assertEquals(List.of("124"), ids(index.findByPrefix("  martin   che ", 10)));
+        assertEquals(List.of("124"), ids(index.findByPrefix("martin", 1)));
+        assertEquals(6, index.findByPrefix("", 100).length);
+        assertEquals(0, index.findByPrefix("zz", 10).length);
+    }
+
+    @Test
+    void testExactMatchesWholeKeysOnly() {
+        // Act & Assert
+        assertEquals(List.of("124"), ids(index.findExact("martin chekov")));
+        assertEquals(List.of("M12"), ids(index.findExact("m12")));
+        assertEquals(List.of("300"), ids(index.findExact("Hasacat")));
+        assertEquals(0, index.findExact("Mar").length);
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void testDuplicateNamesAreAllFound() throws EmployeeDataException {
+        // Arrange - many employees sharing names, in reverse ID order
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("ceo", "Chief", "Executive", 500000, null));
+        for (int i = 999; i >= 0; i--) {
+            employees.add(new Employee("e" + i, "Sam", i % 2 == 0 ? "Smith" : "Smyth", 50000, "ceo"));
+        }
+        EmployeeSearchIndex people = EmployeeSearchIndex.build(OrgIndex.build(employees));
+
+        // Act & Assert
+        assertEquals(500, people.findExact("sam smith").length);
+        assertEquals(1000, people.findByPrefix("sm", 5000).length);
+        assertEquals(1000, people.findByPrefix("sam s", 5000).length);
+        assertEquals(111, people.findByPrefix("e1", 5000).length);
+    }
+
+    private List<String> ids(int[] employees) {
+        return Arrays.stream(employees).mapToObj(i -> org.getEmployee(i).getId()).toList();
+    }
+}
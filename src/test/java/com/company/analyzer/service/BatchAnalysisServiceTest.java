@@ -0,0 +1,157 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.BatchSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchAnalysisServiceTest {
+
+    private static final String VALID_CSV = """
+        Id,firstName,lastName,salary,managerId
+        123,Joe,Doe,60000,
+        124,Martin,Chekov,30000,123
+        125,Bob,Ronstad,47000,123
+        300,Alice,Hasacat,50000,124
+        """;
+
+    private BatchAnalysisService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchAnalysisService(
+            new CsvReaderService(), new OrganizationAnalyzer(), new ReportGenerator(), 2);
+    }
+
+    @Test
+    void testAnalyzeAllWritesReportsAndSummary(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Path inputDir = Files.createDirectories(tempDir.resolve("in"));
+        Files.writeString(inputDir.resolve("unit-a.csv"), VALID_CSV);
+        Files.writeString(inputDir.resolve("unit-b.csv"), VALID_CSV);
+        Path outputDir = tempDir.resolve("out");
+
+        // Act
+        List<Path> inputs = batchService.resolveInputs(inputDir.toString());
+        BatchSummary summary = batchService.analyzeAll(inputs, outputDir);
+
+        // Assert
+        assertEquals(2, summary.getResults().size());
+        assertFalse(summary.hasFailures());
+        assertEquals(1, summary.getResults().get(0).getUnderpaidManagers());
+        assertTrue(Files.exists(outputDir.resolve("unit-a.csv" + BatchAnalysisService.REPORT_SUFFIX)));
+        assertTrue(Files.exists(outputDir.resolve("unit-b.csv" + BatchAnalysisService.REPORT_SUFFIX)));
+        assertTrue(Files.readString(outputDir.resolve(BatchAnalysisService.SUMMARY_FILE_NAME))
+            .contains("succeeded: 2, failed: 0"));
+    }
+
+    @Test
+    void testSummaryCountsPeerSalaryOutliers(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - the sixth report earns far more than the other five
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,Chief,Executive,500000,\n");
+        double[] salaries = {200000, 201000, 199000, 200500, 199500, 480000};
+        for (int i = 0; i < salaries.length; i++) {
+            csv.append(10 + i).append(",Exec,E").append(i).append(',').append(salaries[i]).append(",1\n");
+        }
+        Files.writeString(tempDir.resolve("peers.csv"), csv);
+        Path outputDir = tempDir.resolve("out");
+
+        // Act
+        BatchSummary summary = batchService.analyzeAll(batchService.resolveInputs(tempDir.toString()), outputDir);
+
+        // Assert
+        assertEquals(1, summary.getResults().get(0).getPeerSalaryOutliers());
+        assertTrue(Files.readString(outputDir.resolve(BatchAnalysisService.SUMMARY_FILE_NAME))
+            .contains("peer salary outliers: 1"));
+    }
+
+    @Test
+    void testConcurrentReportsMatchSequentialRender(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - files of underpaid managers whose amounts differ in every digit
+        for (int file = 0; file < 24; file++) {
+            StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,Chief,Executive,9000000,\n");
+            for (int i = 0; i < 100; i++) {
+                csv.append("m").append(i).append(",Manager,M").append(i).append(',')
+                    .append(50000 + file * 101.17 + i * 37.13).append(",1\n");
+                csv.append("r").append(i).append(",Report,R").append(i).append(',')
+                    .append(90000 + file * 7.31 + i * 13.71).append(",m").append(i).append('\n');
+            }
+            Files.writeString(tempDir.resolve("unit-" + file + ".csv"), csv);
+        }
+        Path outputDir = tempDir.resolve("out");
+        ReportGenerator generator = new ReportGenerator();
+        BatchAnalysisService concurrent = new BatchAnalysisService(
+            new CsvReaderService(), new OrganizationAnalyzer(), generator, 8);
+
+        // Act
+        BatchSummary summary = concurrent.analyzeAll(concurrent.resolveInputs(tempDir.toString()), outputDir);
+
+        // Assert
+        assertEquals(24, summary.getSuccessfulResults().size());
+        for (BatchSummary.FileResult result : summary.getSuccessfulResults()) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(expected, false, StandardCharsets.UTF_8)) {
+                generator.printReport(new OrganizationAnalyzer().analyze(
+                    new CsvReaderService().readEmployees(result.getInput().toString())), out);
+            }
+            assertEquals(expected.toString(StandardCharsets.UTF_8), Files.readString(result.getReportFile()),
+                result.getInput().getFileName().toString());
+        }
+    }
+
+    @Test
+    void testBadFileDoesNotAbortBatch(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Files.writeString(tempDir.resolve("good.csv"), VALID_CSV);
+        Files.writeString(tempDir.resolve("bad.csv"), """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,invalid,
+            """);
+        Path outputDir = tempDir.resolve("out");
+
+        // Act
+        List<Path> inputs = batchService.resolveInputs(tempDir.toString());
+        BatchSummary summary = batchService.analyzeAll(inputs, outputDir);
+
+        // Assert
+        assertTrue(summary.hasFailures());
+        assertEquals(1, summary.getSuccessfulResults().size());
+        assertEquals(1, summary.getFailedResults().size());
+        assertTrue(summary.getFailedResults().get(0).getError().contains("Invalid salary value"));
+        assertTrue(Files.readString(outputDir.resolve(BatchAnalysisService.SUMMARY_FILE_NAME))
+            .contains("bad.csv"));
+    }
+
+    @Test
+    void testResolveInputsWithGlob(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Files.writeString(tempDir.resolve("2024-01.csv"), VALID_CSV);
+        Files.writeString(tempDir.resolve("2024-02.csv"), VALID_CSV);
+        Files.writeString(tempDir.resolve("2023-12.csv"), VALID_CSV);
+
+        // Act
+        List<Path> inputs = batchService.resolveInputs(tempDir.resolve("2024-*.csv").toString());
+
+        // Assert
+        assertEquals(2, inputs.size());
+        assertEquals("2024-01.csv", inputs.get(0).getFileName().toString());
+    }
+
+    @Test
+    void testResolveInputsWithNoMatches(@TempDir Path tempDir) {
+        // Act & Assert
+        assertThrows(EmployeeDataException.class,
+            () -> batchService.resolveInputs(tempDir.resolve("*.csv").toString()));
+    }
+}
@@ -2,6 +2,9 @@ package com.company.analyzer.service;
   
 import com.company.analyzer.exception.EmployeeDataException;  
 import com.company.analyzer.model.Employee;  
+import com.company.analyzer.model.IngestionErrors;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.progress.ProgressTracker;
 import org.junit.jupiter.api.BeforeEach;  
 import org.junit.jupiter.api.Test;  
 import org.junit.jupiter.api.io.TempDir;
@@ -9,6 +12,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;  
 import java.nio.file.Files;  
 import java.nio.file.Path;  
+import java.util.ArrayList;
 import java.util.List;
   
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,6 +94,30 @@ class CsvReaderServiceTest {
         assertTrue(exception.getMessage().contains("Invalid salary value"));  
     }
   
+    @Test
+    void testRejectsNegativeSalary(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,-45000,123
+            125,Bob,Ronstad,47000,123
+            """);
+        IngestionErrors errors = new IngestionErrors();
+
+        // Act & Assert - strict reads fail on the row, lenient reads leave it out
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> csvReaderService.readEmployees(csvFile.toString()));
+        assertEquals("Invalid data at line 3: Salary cannot be negative: -45000", exception.getMessage());
+
+        OrgIndex org = csvReaderService.readIndex(csvFile.toString(), ProgressTracker.silent(), errors);
+        assertEquals(2, org.size());
+        assertEquals(1, errors.getTotalCount());
+        assertEquals("Invalid salary value", errors.getKinds().get(0).getKind());
+        assertEquals(3, errors.getKinds().get(0).getOccurrences().get(0).getLineNumber());
+    }
+
     @Test  
     void testReadCsvWithMissingColumns(@TempDir Path tempDir) throws IOException {  
         // Arrange  
@@ -135,4 +163,116 @@ class CsvReaderServiceTest {
         );  
         assertTrue(exception.getMessage().contains("No employee data found"));  
     }  
-}  
\ No newline at end of file
+
+    @Test
+    void testMapsColumnsFromHeader(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - reordered columns, unused columns and CRLF line ends, as HRIS exports have
+        Path csvFile = tempDir.resolve("export.csv");
+        Files.writeString(csvFile, "Department,Manager ID,Last Name,Employee ID,Title,Salary,First Name\r\n"
+            + "Board,,Doe,123,CEO,60000,Joe\r\n"
+            + "Sales,123,Chekov,124,Rep,45000,Martin\r\n"
+            + "Sales,123,,125,Rep,47000,\r\n");
+
+        // Act
+        List<Employee> hierarchy = new ArrayList<>();
+        csvReaderService.forEachEmployee(csvFile.toString(), hierarchy::add, ProgressTracker.silent(),
+            CsvProjection.HIERARCHY);
+
+        // Assert - names are decoded for the CEO only, so the nameless row passes
+        assertEquals(3, hierarchy.size());
+        assertEquals("Joe Doe", hierarchy.get(0).getFullName());
+        assertTrue(hierarchy.get(0).isCeo());
+        assertEquals("124", hierarchy.get(1).getId());
+        assertEquals("123", hierarchy.get(1).getManagerId());
+        assertEquals(45000, hierarchy.get(1).getSalary());
+        assertEquals("", hierarchy.get(1).getFirstName());
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> csvReaderService.readEmployees(csvFile.toString()));
+        assertEquals("Invalid data at line 4: Employee name cannot be empty", exception.getMessage());
+    }
+
+    @Test
+    void testRejectsHeaderWithoutRequiredColumn(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("export.csv");
+        Files.writeString(csvFile, """
+            Employee ID,First Name,Last Name,Manager ID,Title,Department
+            123,Joe,Doe,,CEO,Board
+            """);
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> csvReaderService.readEmployees(csvFile.toString()));
+        assertEquals("Missing column in header: salary", exception.getMessage());
+    }
+
+    @Test
+    void testLenientReadCollectsAllErrors(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Path csvFile = writeScatteredErrors(tempDir);
+        IngestionErrors errors = new IngestionErrors();
+
+        // Act
+        OrgIndex org = csvReaderService.readIndex(csvFile.toString(), ProgressTracker.silent(), errors);
+
+        // Assert - only the CEO, 2 and 10 are valid and connected
+        assertEquals(3, org.size());
+        assertEquals("1", org.getEmployee(org.getCeoIndex()).getId());
+        assertEquals(List.of("2", "10"), List.of(org.getEmployee(1).getId(), org.getEmployee(2).getId()));
+        assertEquals(9, errors.getTotalCount());
+        assertEquals(List.of("Invalid salary value", "Wrong number of columns", "Duplicate employee ID",
+                "Multiple CEOs", "Unknown manager", "Cut off from the CEO", "Reporting cycle"),
+            errors.getKinds().stream().map(IngestionErrors.ErrorKind::getKind).toList());
+
+        IngestionErrors.ErrorKind salary = errors.getKinds().get(0);
+        assertEquals(2, salary.getCount());
+        assertEquals(List.of(4L, 13L), salary.getOccurrences().stream().map(IngestionErrors.Occurrence::getLineNumber).toList());
+        assertEquals("Duplicate employee ID found: 2 (first defined at line 3)",
+            errors.getKinds().get(2).getOccurrences().get(0).getMessage());
+        assertEquals("Employee 6 reports through left-out employee 5",
+            errors.getKinds().get(5).getOccurrences().get(0).getMessage());
+        assertEquals(List.of(9L, 10L), errors.getKinds().get(6).getOccurrences().stream()
+            .map(IngestionErrors.Occurrence::getLineNumber).toList());
+    }
+
+    @Test
+    void testLenientErrorBufferIsBounded(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - two kinds with one occurrence each
+        Path csvFile = writeScatteredErrors(tempDir);
+        IngestionErrors errors = new IngestionErrors(2, 1);
+
+        // Act
+        csvReaderService.readIndex(csvFile.toString(), ProgressTracker.silent(), errors);
+
+        // Assert
+        assertEquals(9, errors.getTotalCount());
+        assertEquals(2, errors.getKinds().size());
+        assertEquals(2, errors.getKinds().get(0).getCount());
+        assertEquals(1, errors.getKinds().get(0).getOccurrences().size());
+        assertEquals(6, errors.getOtherCount());
+    }
+
+    /**
+     * Writes a file with one error of every kind, two invalid salaries, and three valid
+     * connected rows (1, 2 and 10).
+     */
+    static Path writeScatteredErrors(Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("scattered.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Chief,Executive,500000,
+            2,Ann,Able,100000,1
+            3,Bob,Baker,abc,1
+            4,Cid,Cole,90000,1,extra
+            2,Dup,Dean,80000,1
+            5,Eve,Eden,70000,9
+            6,Fay,Ford,60000,5
+            7,Gus,Gray,60000,8
+            8,Hal,Hart,60000,7
+            9x,Ivy,Irwin,50000,
+            10,Jo,Jones,50000,2
+            11,Kim,King,xyz,2
+            """);
+        return csvFile;
+    }
+}
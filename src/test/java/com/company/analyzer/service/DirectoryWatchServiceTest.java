@@ -0,0 +1,168 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.IssueDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryWatchServiceTest {
+
+    private static final String UNDERPAID_CSV = """
+        Id,firstName,lastName,salary,managerId
+        123,Joe,Doe,40000,
+        124,Martin,Chekov,30000,123
+        300,Alice,Hasacat,50000,124
+        """;
+
+    private static final String FIXED_CSV = """
+        Id,firstName,lastName,salary,managerId
+        123,Joe,Doe,90000,
+        124,Martin,Chekov,65000,123
+        300,Alice,Hasacat,50000,124
+        """;
+
+    private DirectoryWatchService watchService;
+    private ByteArrayOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() {
+        outputStream = new ByteArrayOutputStream();
+        watchService = new DirectoryWatchService(Duration.ofMillis(50), new PrintStream(outputStream, true));
+    }
+
+    @Test
+    void testFirstRunReportsAllIssuesAsNew(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, UNDERPAID_CSV);
+
+        // Act
+        Optional<IssueDelta> delta = watchService.processFile(csvFile);
+
+        // Assert
+        assertTrue(delta.isPresent());
+        assertEquals(1, delta.get().getAdded().size());
+        assertTrue(delta.get().getAdded().containsKey("underpaid:124"));
+        assertEquals(3, watchService.getLoadedEmployees(csvFile).size());
+    }
+
+    @Test
+    void testUnchangedContentIsSkipped(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, UNDERPAID_CSV);
+        watchService.processFile(csvFile);
+
+        // Act
+        Files.writeString(csvFile, UNDERPAID_CSV);
+        Optional<IssueDelta> delta = watchService.processFile(csvFile);
+
+        // Assert
+        assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    void testChangedContentReportsOnlyDifferences(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, UNDERPAID_CSV);
+        watchService.processFile(csvFile);
+
+        // Act
+        Files.writeString(csvFile, FIXED_CSV);
+        Optional<IssueDelta> delta = watchService.processFile(csvFile);
+
+        // Assert
+        assertTrue(delta.isPresent());
+        assertTrue(delta.get().getAdded().isEmpty());
+        assertTrue(delta.get().getResolved().containsKey("underpaid:124"));
+        assertTrue(outputStream.toString().contains("1 resolved"));
+    }
+
+    @Test
+    void testInvalidContentKeepsPreviousState(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, UNDERPAID_CSV);
+        watchService.processFile(csvFile);
+
+        // Act - simulate a half-written export
+        Files.writeString(csvFile, "Id,firstName,lastName,salary,managerId\n123,Joe");
+        Optional<IssueDelta> delta = watchService.processFile(csvFile);
+
+        // Assert
+        assertTrue(delta.isEmpty());
+        assertEquals(3, watchService.getLoadedEmployees(csvFile).size());
+        assertTrue(outputStream.toString().contains("error"));
+    }
+
+    @Test
+    void testRewriteDuringParseIsPickedUpNextRun(@TempDir Path tempDir) throws IOException {
+        // Arrange - the export is rewritten while the previous version is being parsed
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, UNDERPAID_CSV);
+        CsvReaderService rewritingReader = new CsvReaderService() {
+            @Override
+            public List<Employee> readEmployees(byte[] content, String fileName) throws EmployeeDataException {
+                try {
+                    Files.writeString(csvFile, FIXED_CSV);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return super.readEmployees(content, fileName);
+            }
+        };
+        DirectoryWatchService service = new DirectoryWatchService(rewritingReader, new OrganizationAnalyzer(),
+            Duration.ofMillis(50), new PrintStream(outputStream, true));
+
+        // Act
+        service.processFile(csvFile);
+        Optional<IssueDelta> next = service.processFile(csvFile);
+
+        // Assert - the first run analyzed the version it hashed, so the rewrite counts as a change
+        assertTrue(next.isPresent());
+        assertTrue(next.get().getResolved().containsKey("underpaid:124"));
+        assertEquals(90000, service.getLoadedEmployees(csvFile).get(0).getSalary());
+    }
+
+    @Test
+    void testWatchPicksUpNewFile(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Thread watcher = Thread.ofVirtual().start(() -> {
+            try {
+                watchService.watch(tempDir);
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        Path csvFile = tempDir.resolve("employees.csv");
+
+        // Act
+        Thread.sleep(200);
+        Files.writeString(csvFile, UNDERPAID_CSV);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (watchService.getLoadedEmployees(csvFile).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        watchService.stop();
+        watcher.join(5_000);
+
+        // Assert
+        assertEquals(3, watchService.getLoadedEmployees(csvFile).size());
+        assertFalse(watcher.isAlive());
+    }
+}
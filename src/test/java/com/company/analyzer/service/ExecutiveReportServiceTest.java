@@ -0,0 +1,143 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutiveReportServiceTest {
+
+    private OrgIndex org;
+    private AnalysisReport report;
+    private ExecutiveReportService service;
+
+    @BeforeEach
+    void setUp() throws EmployeeDataException {
+        // CEO is overpaid; executive "a" is underpaid; below "b" hangs a chain of 6
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("ceo", "Chief", "Executive", 400000, null));
+        employees.add(new Employee("a", "Alice", "Alpha", 60000, "ceo"));
+        employees.add(new Employee("a1", "Adam", "One", 70000, "a"));
+        employees.add(new Employee("b", "Bob", "Beta", 120000, "ceo"));
+        String manager = "b";
+        for (int level = 1; level <= 6; level++) {
+            employees.add(new Employee("b" + level, "Level", "B" + level, 100000 - level * 10000, manager));
+            manager = "b" + level;
+        }
+        employees.add(new Employee("c", "Carol", "Gamma", 100000, "ceo"));
+        org = OrgIndex.build(employees);
+        report = RuleEngine.defaults().evaluate(org);
+        service = new ExecutiveReportService(new ReportGenerator());
+    }
+
+    @Test
+    void testIssuesGoToTheirExecutive() {
+        // Act
+        Map<Employee, AnalysisReport> slices = service.split(org, report);
+
+        // Assert
+        assertEquals(List.of("ceo", "a", "b", "c"), slices.keySet().stream().map(Employee::getId).toList());
+        AnalysisReport ceo = slices.get(org.getEmployee(org.indexOf("ceo")));
+        assertEquals("ceo", ceo.getOverpaidManagers().get(0).getManager().getId());
+        assertTrue(ceo.getLongReportingLines().isEmpty());
+        AnalysisReport a = slices.get(org.getEmployee(org.indexOf("a")));
+        assertEquals(List.of("a"), a.getUnderpaidManagers().stream().map(i -> i.getManager().getId()).toList());
+        AnalysisReport b = slices.get(org.getEmployee(org.indexOf("b")));
+        assertEquals(List.of("b4", "b5", "b6"), b.getLongReportingLines().stream().map(i -> i.getEmployee().getId()).toList());
+        assertFalse(slices.get(org.getEmployee(org.indexOf("c"))).hasIssues());
+
+        int total = slices.values().stream().mapToInt(slice -> slice.getUnderpaidManagers().size()
+            + slice.getOverpaidManagers().size() + slice.getLongReportingLines().size()).sum();
+        assertEquals(report.getUnderpaidManagers().size() + report.getOverpaidManagers().size()
+            + report.getLongReportingLines().size(), total);
+    }
+
+    @Test
+    void testWritesOneFilePerExecutive(@TempDir Path tempDir) throws EmployeeDataException, IOException {
+        // Arrange
+        Path outputDir = tempDir.resolve("executives");
+
+        // Act
+        Map<Employee, Path> files = service.writeReports(org, report, outputDir);
+
+        // Assert
+        assertEquals(4, files.size());
+        String b = Files.readString(outputDir.resolve("b" + ExecutiveReportService.REPORT_SUFFIX));
+        assertTrue(b.startsWith("Organization of Bob Beta (ID: b), 7 employees"));
+        assertTrue(b.contains("Level B6 (ID: b6)"));
+        assertFalse(b.contains("Chief Executive"));
+        String c = Files.readString(files.get(org.getEmployee(org.indexOf("c"))));
+        assertTrue(c.contains("No issues found"));
+    }
+
+    @Test
+    void testFileNamesStayInOutputDirectory(@TempDir Path tempDir) throws EmployeeDataException {
+        // Arrange - IDs with path separators, a parent reference and a case-only difference
+        OrgIndex unsafe = OrgIndex.build(List.of(
+            new Employee("ceo", "Chief", "Executive", 400000, null),
+            new Employee("HR/001", "Hannah", "Rhodes", 150000, "ceo"),
+            new Employee("..", "Dot", "Dot", 150000, "ceo"),
+            new Employee("../x", "Eve", "Escape", 150000, "ceo"),
+            new Employee("CEO", "Carl", "Echo", 150000, "ceo")));
+        Path outputDir = tempDir.resolve("executives");
+
+        // Act
+        Map<Employee, Path> files = service.writeReports(unsafe, RuleEngine.defaults().evaluate(unsafe), outputDir);
+
+        // Assert
+        assertEquals(List.of("ceo", "HR_001", "_..", "_.._x", "CEO-4"), files.values().stream()
+            .map(file -> file.getFileName().toString().replace(ExecutiveReportService.REPORT_SUFFIX, ""))
+            .toList());
+        for (Path file : files.values()) {
+            assertEquals(outputDir, file.getParent());
+            assertTrue(Files.exists(file));
+        }
+    }
+
+    @Test
+    void testConcurrentReportsMatchSequentialRender(@TempDir Path tempDir) throws EmployeeDataException, IOException {
+        // Arrange - many underpaid executives, so that writers format amounts at the same time
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("ceo", "Chief", "Executive", 10000000, null));
+        for (int i = 0; i < 300; i++) {
+            employees.add(new Employee("e" + i, "Exec", "E" + i, 50000 + i * 37.13, "ceo"));
+            for (int j = 0; j < 3; j++) {
+                employees.add(new Employee("e" + i + "-" + j, "Report", "R" + j, 90000 + i * 13.71 + j, "e" + i));
+            }
+        }
+        OrgIndex large = OrgIndex.build(employees);
+        AnalysisReport largeReport = RuleEngine.defaults().evaluate(large);
+        ReportGenerator generator = new ReportGenerator();
+
+        // Act
+        Map<Employee, Path> files = new ExecutiveReportService(generator)
+            .writeReports(large, largeReport, tempDir.resolve("executives"));
+
+        // Assert - each file is its header line, a blank line and the sequentially rendered slice
+        for (Map.Entry<Employee, AnalysisReport> slice : service.split(large, largeReport).entrySet()) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(expected, false, StandardCharsets.UTF_8)) {
+                generator.printReport(slice.getValue(), large, out);
+            }
+            String written = Files.readString(files.get(slice.getKey()));
+            String body = written.substring(written.indexOf(System.lineSeparator()) + 2 * System.lineSeparator().length());
+            assertEquals(expected.toString(StandardCharsets.UTF_8), body, slice.getKey().getId());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.IngestionErrors;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.progress.ProgressTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestionPipelineTest {
+
+    @Test
+    void testMatchesSequentialReader(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - small batches so that many of them are in flight at once
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, generate(10_000));
+        IngestionPipeline pipeline = new IngestionPipeline(4, 7);
+
+        // Act
+        List<Employee> expected = new CsvReaderService().readEmployees(csvFile.toString());
+        List<Employee> actual = pipeline.readEmployees(csvFile.toString());
+
+        // Assert
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getManagerId(), actual.get(i).getManagerId());
+            assertEquals(expected.get(i).getSalary(), actual.get(i).getSalary());
+        }
+    }
+
+    @Test
+    void testReadsGzippedFile(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        Path gzFile = tempDir.resolve("employees.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzFile))) {
+            out.write(generate(1_000).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Act
+        OrgIndex org = new IngestionPipeline(2, 64).readIndex(gzFile.toString());
+
+        // Assert
+        assertEquals(1_000, org.size());
+        assertEquals("1", org.getEmployee(org.getCeoIndex()).getId());
+    }
+
+    @Test
+    void testTruncatedGzipFails(@TempDir Path tempDir) throws IOException {
+        // Arrange - cut the compressed file in half, in the middle of a batch
+        Path gzFile = tempDir.resolve("employees.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzFile))) {
+            out.write(generate(20_000).getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] compressed = Files.readAllBytes(gzFile);
+        Files.write(gzFile, Arrays.copyOf(compressed, compressed.length / 2));
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> new IngestionPipeline(2, 1000).readEmployees(gzFile.toString()));
+        assertTrue(exception.getMessage().startsWith("Error reading file"), exception.getMessage());
+    }
+
+    @Test
+    void testReportsFirstInvalidLine(@TempDir Path tempDir) throws IOException {
+        // Arrange - errors at lines 502 and 803; the earlier one must win
+        String[] lines = generate(1_000).split("\n");
+        lines[501] = "502,Broken,Line,not-a-number,1";
+        lines[802] = "803,Too,Few";
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, String.join("\n", lines));
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> new IngestionPipeline(4, 10).readEmployees(csvFile.toString()));
+        assertTrue(exception.getMessage().startsWith("Invalid data at line 502"), exception.getMessage());
+    }
+
+    @Test
+    void testRejectsNegativeSalary(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange
+        String[] lines = generate(1_000).split("\n");
+        lines[401] = "9999,Negative,Salary,-1,1"; // replaces employee 399
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, String.join("\n", lines));
+        IngestionErrors errors = new IngestionErrors();
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> new IngestionPipeline(4, 10).readEmployees(csvFile.toString()));
+        assertEquals("Invalid data at line 402: Salary cannot be negative: -1", exception.getMessage());
+
+        OrgIndex org = new IngestionPipeline(4, 10).readIndex(csvFile.toString(), ProgressTracker.silent(), errors);
+        // Employees 798 and 799 reported to the replaced employee and are left out too
+        assertEquals(3, errors.getTotalCount());
+        assertEquals("Invalid salary value", errors.getKinds().get(0).getKind());
+        assertEquals(402, errors.getKinds().get(0).getOccurrences().get(0).getLineNumber());
+        assertTrue(org.indexOf("9999") < 0);
+    }
+
+    @Test
+    void testLenientReadMatchesSequentialReader(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - batches of 2 rows spread the errors over several workers
+        Path csvFile = CsvReaderServiceTest.writeScatteredErrors(tempDir);
+        IngestionErrors expected = new IngestionErrors();
+        IngestionErrors actual = new IngestionErrors();
+
+        // Act
+        OrgIndex sequential = new CsvReaderService().readIndex(csvFile.toString(), ProgressTracker.silent(), expected);
+        OrgIndex pipelined = new IngestionPipeline(3, 2).readIndex(csvFile.toString(), ProgressTracker.silent(), actual);
+
+        // Assert
+        assertEquals(sequential.size(), pipelined.size());
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        for (int k = 0; k < expected.getKinds().size(); k++) {
+            List<IngestionErrors.Occurrence> want = expected.getKinds().get(k).getOccurrences();
+            List<IngestionErrors.Occurrence> got = actual.getKinds().get(k).getOccurrences();
+            assertEquals(want.size(), got.size());
+            for (int i = 0; i < want.size(); i++) {
+                assertEquals(want.get(i).getLineNumber(), got.get(i).getLineNumber());
+                assertEquals(want.get(i).getMessage(), got.get(i).getMessage());
+            }
+        }
+    }
+
+    @Test
+    void testHeaderOnlyFileIsRejected(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, "Id,firstName,lastName,salary,managerId\n\n");
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> new IngestionPipeline().readEmployees(csvFile.toString()));
+        assertEquals("No employee data found in file", exception.getMessage());
+    }
+
+    private static String generate(int count) {
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        content.append("1,Chief,Executive,500000,\n");
+        for (int i = 2; i <= count; i++) {
+            if (i % 100 == 0) {
+                content.append('\n');
+            }
+            content.append(i).append(",First").append(i).append(",Last").append(i)
+                .append(',').append(40000 + i).append(',').append(i / 2).append('\n');
+        }
+        return content.toString();
+    }
+}
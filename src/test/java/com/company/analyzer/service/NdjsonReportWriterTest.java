@@ -0,0 +1,45 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonReportWriterTest {
+
+    @Test
+    void testWritesOneObjectPerIssueWithManagerChains() throws Exception {
+        // Arrange - 1 <- 2 <- 3 <- {4, 5}
+        OrgIndex org = OrgIndex.build(List.of(
+            new Employee("1", "Chief", "Executive", 300000, null),
+            new Employee("2", "Vice", "President", 200000, "1"),
+            new Employee("3", "Team \"A\"", "Lead", 100000, "2"),
+            new Employee("4", "Deep", "Employee", 60000, "3"),
+            new Employee("5", "Other", "Employee", 55000, "3")));
+        AnalysisReport report = new AnalysisReport(org);
+        report.addUnderpaidManager(org, org.indexOf("3"), 57500, 12000);
+        report.addLongReportingLine(org, org.indexOf("4"), 3, 2);
+        report.addLongReportingLine(org, org.indexOf("5"), 3, 2);
+        StringWriter out = new StringWriter();
+
+        // Act
+        new NdjsonReportWriter().write(report, org, out);
+
+        // Assert
+        String managers = "[{\"id\":\"3\",\"name\":\"Team \\\"A\\\" Lead\"},{\"id\":\"2\",\"name\":\"Vice President\"},"
+            + "{\"id\":\"1\",\"name\":\"Chief Executive\"}]";
+        assertEquals(List.of(
+            "{\"type\":\"underpaid-manager\",\"id\":\"3\",\"name\":\"Team \\\"A\\\" Lead\",\"salary\":100000.0,"
+                + "\"averageSubordinateSalary\":57500.0,\"difference\":12000.0}",
+            "{\"type\":\"long-reporting-line\",\"id\":\"4\",\"name\":\"Deep Employee\",\"reportingLevels\":3,"
+                + "\"excessLevels\":2,\"managers\":" + managers + "}",
+            "{\"type\":\"long-reporting-line\",\"id\":\"5\",\"name\":\"Other Employee\",\"reportingLevels\":3,"
+                + "\"excessLevels\":2,\"managers\":" + managers + "}"),
+            out.toString().lines().toList());
+    }
+}
@@ -2,11 +2,14 @@ package com.company.analyzer.service;
   
 import com.company.analyzer.model.AnalysisReport;  
 import com.company.analyzer.model.Employee;  
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleConfig;
 import org.junit.jupiter.api.BeforeEach;  
 import org.junit.jupiter.api.Test;
   
 import java.io.ByteArrayOutputStream;  
 import java.io.PrintStream;
+import java.util.List;
   
 import static org.junit.jupiter.api.Assertions.*;
   
@@ -120,4 +123,23 @@ class ReportGeneratorTest {
         assertTrue(output.contains("Over Paid"));  
         assertTrue(output.contains("Deep Employee"));  
     }  
-}  
\ No newline at end of file
+
+    @Test
+    void testPrintReportWithReportingChains() throws Exception {
+        // Arrange - 1 <- 2 <- 3 <- 4
+        OrgIndex org = OrgIndex.build(List.of(
+            new Employee("1", "Chief", "Executive", 300000, null),
+            new Employee("2", "Vice", "President", 200000, "1"),
+            new Employee("3", "Team", "Lead", 100000, "2"),
+            new Employee("4", "Deep", "Employee", 60000, "3")));
+        AnalysisReport report = new AnalysisReport(org);
+        report.addLongReportingLine(org, org.indexOf("4"), 3, 2);
+
+        // Act
+        new ReportGenerator(RuleConfig.defaults(), true).printReport(report, org, printStream);
+        String output = outputStream.toString();
+
+        // Assert
+        assertTrue(output.contains("    Managers: Team Lead (ID: 3) -> Vice President (ID: 2) -> Chief Executive (ID: 1)"));
+    }
+}
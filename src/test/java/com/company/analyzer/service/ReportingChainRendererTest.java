@@ -0,0 +1,68 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportingChainRendererTest {
+
+    @Test
+    void testReusesAncestorChains() throws Exception {
+        // Arrange - 1 <- 2 <- 3 <- {4, 5}
+        OrgIndex org = OrgIndex.build(List.of(
+            new Employee("1", "A", "A", 300000, null),
+            new Employee("2", "B", "B", 200000, "1"),
+            new Employee("3", "C", "C", 100000, "2"),
+            new Employee("4", "D", "D", 60000, "3"),
+            new Employee("5", "E", "E", 55000, "3")));
+        ReportingChainRenderer cached = new ReportingChainRenderer(org);
+        ReportingChainRenderer uncached = new ReportingChainRenderer(org,
+            employee -> employee.getId(), ">", 0);
+
+        // Act
+        String first = cached.renderManagers(org.getEmployee(org.indexOf("4")));
+        String second = cached.renderManagers(org.getEmployee(org.indexOf("5")));
+
+        // Assert - the second chain is the cached one; without a budget chains are still complete
+        assertEquals("C C (ID: 3) -> B B (ID: 2) -> A A (ID: 1)", first);
+        assertSame(first, second);
+        assertEquals("A A (ID: 1)", cached.renderManagers(org.getEmployee(org.indexOf("2"))));
+        assertEquals("", cached.renderManagers(org.getEmployee(org.indexOf("1"))));
+        assertEquals("3>2>1", uncached.renderManagers(org.getEmployee(org.indexOf("5"))));
+        assertEquals("2>1", uncached.renderManagers(org.getEmployee(org.indexOf("3"))));
+    }
+
+    @Test
+    void testRendersDeepChainBeyondBudgetInLinearTime() throws Exception {
+        // Arrange - a single line of 200,000 levels; only the chains of the top levels fit the budget
+        int depth = 200_000;
+        List<Employee> employees = new ArrayList<>(depth);
+        employees.add(new Employee("0", "A", "A", 300000, null));
+        for (int i = 1; i < depth; i++) {
+            employees.add(new Employee(String.valueOf(i), "A", "A", 50000, String.valueOf(i - 1)));
+        }
+        OrgIndex org = OrgIndex.build(employees);
+        ReportingChainRenderer renderer = new ReportingChainRenderer(org, Employee::getId, ">", 10_000);
+        StringJoiner expected = new StringJoiner(">");
+        for (int i = depth - 2; i >= 0; i--) {
+            expected.add(String.valueOf(i));
+        }
+
+        // Act - rebuilding the chain at every level would copy about 10^11 characters
+        String deepest = assertTimeout(Duration.ofSeconds(5),
+            () -> renderer.renderManagers(org.getEmployee(depth - 1)));
+
+        // Assert
+        assertEquals(expected.toString(), deepest);
+        assertEquals("2>1>0", renderer.renderManagers(org.getEmployee(3)));
+        assertEquals(expected.toString().substring(String.valueOf(depth - 2).length() + 1),
+            renderer.renderManagers(org.getEmployee(depth - 2)));
+    }
+}
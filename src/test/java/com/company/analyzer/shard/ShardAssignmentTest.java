@@ -0,0 +1,70 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.service.CsvReaderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardAssignmentTest {
+
+    private static final String HEADER = "Id,firstName,lastName,salary,managerId\n";
+
+    private final CsvReaderService csvReader = new CsvReaderService();
+
+    @Test
+    void testAssignsRowsToTheShardOfTheirExecutive(@TempDir Path tempDir) throws IOException, EmployeeDataException {
+        // Arrange - reports listed before their managers, and the CEO in the middle
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, HEADER + """
+            b2,Bea,Two,50000,b1
+            a1,Ann,One,60000,a
+            b1,Ben,One,60000,b
+            ceo,Chief,Executive,300000,
+            b,Bob,Exec,120000,ceo
+            a,Alice,Exec,120000,ceo
+            """);
+
+        // Act
+        ShardAssignment assignment = ShardAssignment.read(csvReader, csvFile.toString());
+
+        // Assert - shards are numbered in the file order of their executives
+        assertEquals(6, assignment.size());
+        assertEquals(3, assignment.getCeoRow());
+        assertEquals(2, assignment.getShardCount());
+        assertEquals(4, assignment.getExecutiveRow(0));
+        assertEquals(5, assignment.getExecutiveRow(1));
+        assertEquals(List.of(0, 1, 0, ShardAssignment.NO_SHARD, 0, 1),
+            List.of(assignment.getShard(0), assignment.getShard(1), assignment.getShard(2),
+                assignment.getShard(3), assignment.getShard(4), assignment.getShard(5)));
+    }
+
+    @Test
+    void testRejectsInvalidOrganizationsLikeOrgIndex(@TempDir Path tempDir) throws IOException {
+        List<String> invalid = List.of(
+            "1,Chief,Executive,100000,\n2,Vice,President,80000,1\n2,Copy,President,80000,1\n",
+            "1,Chief,Executive,100000,\n2,Other,Chief,80000,\n",
+            "1,Vice,President,80000,2\n2,Other,President,80000,1\n",
+            "1,Chief,Executive,100000,\n2,Vice,President,80000,9\n",
+            "1,Chief,Executive,100000,\n2,Vice,President,80000,1\n3,Loop,A,50000,4\n4,Loop,B,50000,3\n5,Below,Loop,40000,3\n");
+        for (String rows : invalid) {
+            // Arrange
+            Path csvFile = tempDir.resolve("employees.csv");
+            Files.writeString(csvFile, HEADER + rows);
+            EmployeeDataException expected = assertThrows(EmployeeDataException.class,
+                () -> OrgIndex.build(csvReader.readEmployees(csvFile.toString())));
+
+            // Act & Assert
+            EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+                () -> ShardAssignment.read(csvReader, csvFile.toString()));
+            assertEquals(expected.getMessage(), exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.analyzer.shard;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.rule.RuleConfig;
+import com.company.analyzer.rule.RuleEngine;
+import com.company.analyzer.service.CsvReaderService;
+import com.company.analyzer.service.OrganizationAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+
+    private static final RuleConfig CONFIG = RuleConfig.of(Map.of(
+        "rules.span-of-control.enabled", "true",
+        "rules.span-of-control.max-direct-reports", "4"));
+
+    @Test
+    void testShardedReportMatchesInProcessAnalysis(@TempDir Path tempDir) throws Exception {
+        // Arrange - six executives spread over two workers, with long lines and wide spans
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, generate(3_000));
+
+        // Act
+        AnalysisReport sharded = new ShardCoordinator(CONFIG, 2).analyze(csvFile.toString());
+        AnalysisReport expected = new OrganizationAnalyzer(RuleEngine.fromConfig(CONFIG))
+            .analyze(new CsvReaderService().readEmployees(csvFile.toString()));
+
+        // Assert
+        assertTrue(expected.getLongReportingLines().size() > 0);
+        assertTrue(expected.getUnderpaidManagers().size() > 0);
+        assertTrue(expected.getOverpaidManagers().size() > 0);
+        assertSameIssues(expected.getUnderpaidManagers(), sharded.getUnderpaidManagers(), ShardCoordinatorTest::describe);
+        assertSameIssues(expected.getOverpaidManagers(), sharded.getOverpaidManagers(), ShardCoordinatorTest::describe);
+        assertSameIssues(expected.getLongReportingLines(), sharded.getLongReportingLines(),
+            issue -> employee(issue.getEmployee()) + " " + issue.getReportingLevels() + " " + issue.getExcessLevels());
+        assertEquals(expected.getRuleIds(), sharded.getRuleIds());
+        for (String ruleId : expected.getRuleIds()) {
+            assertSameIssues(expected.getRuleIssues(ruleId), sharded.getRuleIssues(ruleId),
+                issue -> employee(issue.getEmployee()) + " " + issue.getActualValue() + " " + issue.getLimit()
+                    + " " + issue.getDescription());
+        }
+    }
+
+    @Test
+    void testInvalidDataIsRejectedBeforeStartingWorkers(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Chief,Executive,100000,
+            2,Vice,President,80000,9
+            """);
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> new ShardCoordinator(CONFIG, 2).analyze(csvFile.toString()));
+        assertEquals("Employee 2 references non-existent manager: 9", exception.getMessage());
+    }
+
+    @Test
+    void testWorkerFailureIsReported(@TempDir Path tempDir) throws IOException {
+        // Arrange - the worker JVM cannot start with an unknown option
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, generate(50));
+        ShardCoordinator coordinator = new ShardCoordinator(CONFIG, 1, List.of("-XX:+NoSuchAnalyzerOption"));
+
+        // Act & Assert
+        EmployeeDataException exception = assertThrows(EmployeeDataException.class,
+            () -> coordinator.analyze(csvFile.toString()));
+        assertTrue(exception.getMessage().startsWith("Shard worker"), exception.getMessage());
+    }
+
+    private static <T> void assertSameIssues(List<T> expected, List<T> actual, Function<T, String> describe) {
+        List<String> expectedLines = new ArrayList<>();
+        expected.forEach(issue -> expectedLines.add(describe.apply(issue)));
+        List<String> actualLines = new ArrayList<>();
+        actual.forEach(issue -> actualLines.add(describe.apply(issue)));
+        assertEquals(expectedLines, actualLines);
+    }
+
+    private static String describe(AnalysisReport.SalaryIssue issue) {
+        return employee(issue.getManager()) + " " + issue.getAverageSubordinateSalary() + " " + issue.getDifference();
+    }
+
+    private static String employee(Employee employee) {
+        return employee.getId() + "/" + employee.getFirstName() + "/" + employee.getLastName() + "/"
+            + employee.getSalary() + "/" + employee.getManagerId();
+    }
+
+    /**
+     * CEO with six executives; everyone else reports to a random earlier employee,
+     * which produces deep lines and uneven salaries.
+     */
+    private static String generate(int count) {
+        Random random = new Random(7);
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        content.append("e0,Chief,Executive,250000,\n");
+        for (int i = 1; i < count; i++) {
+            String manager = i <= 6 ? "e0" : "e" + (1 + random.nextInt(i - 1));
+            content.append('e').append(i).append(",First").append(i).append(",Last").append(i).append(',')
+                .append(30000 + random.nextInt(120000)).append(',').append(manager).append('\n');
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReorgOptimizerTest {
+
+    @Test
+    void testChainNeedsMinimalMoves() throws EmployeeDataException {
+        // Arrange - a single chain with 9 levels below the CEO
+        OrgIndex org = OrgIndex.build(chain(10));
+
+        // Act
+        ReorgPlan plan = new ReorgOptimizer().optimize(org);
+
+        // Assert - cutting at depth 6 and depth 2 is enough
+        assertEquals(2, plan.getMoves().size());
+        assertEquals("7", plan.getMoves().get(0).getEmployee().getId());
+        assertEquals("6", plan.getMoves().get(0).getCurrentManager().getId());
+        assertEquals("1", plan.getMoves().get(0).getNewManager().getId());
+        assertEquals(5, plan.getResult().getBaseline().getLongReportingLines());
+        assertEquals(0, plan.getResult().getOutcome().getLongReportingLines());
+    }
+
+    @Test
+    void testHealthyOrganizationNeedsNoMoves() throws EmployeeDataException {
+        // Arrange
+        OrgIndex org = OrgIndex.build(chain(5));
+
+        // Act
+        ReorgPlan plan = new ReorgOptimizer().optimize(org);
+
+        // Assert
+        assertTrue(plan.getMoves().isEmpty());
+        assertEquals(0, plan.getResult().getOutcome().getLongReportingLines());
+    }
+
+    @Test
+    void testSpanCapIsRespected() throws EmployeeDataException {
+        // Arrange - the CEO is already at the cap of one direct report
+        OrgIndex org = OrgIndex.build(chain(10));
+        ReorgOptimizer optimizer = new ReorgOptimizer(4, 1, RuleEngine.defaults());
+
+        // Act
+        ReorgPlan plan = optimizer.optimize(org);
+
+        // Assert - nothing can be placed, so the lines stay too long
+        assertTrue(plan.getMoves().isEmpty());
+        assertEquals(5, plan.getResult().getOutcome().getLongReportingLines());
+    }
+
+    @Test
+    void testLargeRandomOrganizationIsFixed() throws EmployeeDataException {
+        // Arrange - random tree where every employee reports to one of the previous 50
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "CEO", "Boss", 500000, null));
+        for (int i = 1; i < 200_000; i++) {
+            int manager = Math.max(0, i - 1 - random.nextInt(50));
+            employees.add(new Employee(String.valueOf(i), "First" + i, "Last" + i, 50000, String.valueOf(manager)));
+        }
+        OrgIndex org = OrgIndex.build(employees);
+
+        // Act
+        ReorgPlan plan = new ReorgOptimizer().optimize(org);
+
+        // Assert
+        assertTrue(plan.getResult().getBaseline().getLongReportingLines() > 0);
+        assertEquals(0, plan.getResult().getOutcome().getLongReportingLines());
+    }
+
+    private static List<Employee> chain(int length) {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("1", "Level", "0", 100000, null));
+        for (int i = 2; i <= length; i++) {
+            employees.add(new Employee(String.valueOf(i), "Level", String.valueOf(i - 1), 100000, String.valueOf(i - 1)));
+        }
+        return employees;
+    }
+}
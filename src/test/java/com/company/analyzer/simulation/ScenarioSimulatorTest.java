@@ -0,0 +1,155 @@
+package com.company.analyzer.simulation;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.AnalysisReport;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.rule.RuleEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioSimulatorTest {
+
+    private OrgIndex base;
+    private ScenarioSimulator simulator;
+
+    @BeforeEach
+    void setUp() throws EmployeeDataException {
+        base = OrgIndex.build(List.of(
+            new Employee("1", "CEO", "Boss", 200000, null),
+            new Employee("2", "VP", "Sales", 120000, "1"),
+            new Employee("3", "VP", "Engineering", 120000, "1"),
+            new Employee("4", "Manager", "Sales", 60000, "2"),
+            new Employee("5", "Manager", "Platform", 75000, "3"),
+            new Employee("6", "Lead", "Platform", 55000, "5"),
+            new Employee("7", "Engineer", "Backend", 45000, "6"),
+            new Employee("8", "Engineer", "Frontend", 45000, "6"),
+            new Employee("9", "Intern", "Backend", 20000, "7"),
+            new Employee("10", "Rep", "Inside", 48000, "4")
+        ));
+        simulator = new ScenarioSimulator(base);
+    }
+
+    @Test
+    void testEmptyScenarioMatchesBaseline() throws EmployeeDataException {
+        // Act
+        ScenarioResult result = simulator.simulate(Scenario.named("nothing").build());
+
+        // Assert
+        assertEquals(0, result.getAffectedEmployees());
+        assertEquals(result.getBaseline().toString(), result.getOutcome().toString());
+    }
+
+    @Test
+    void testSubtreeRaiseMatchesFullReanalysis() throws EmployeeDataException {
+        // Arrange
+        Scenario scenario = Scenario.named("5% under engineering VP").raiseSubtree("3", 0.05).build();
+
+        // Act
+        ScenarioResult result = simulator.simulate(scenario);
+
+        // Assert
+        ScenarioResult.IssueCounts expected = reanalyze(List.of(
+            new Employee("1", "CEO", "Boss", 200000, null),
+            new Employee("2", "VP", "Sales", 120000, "1"),
+            new Employee("3", "VP", "Engineering", 120000, "1"),
+            new Employee("4", "Manager", "Sales", 60000, "2"),
+            new Employee("5", "Manager", "Platform", 78750, "3"),
+            new Employee("6", "Lead", "Platform", 57750, "5"),
+            new Employee("7", "Engineer", "Backend", 47250, "6"),
+            new Employee("8", "Engineer", "Frontend", 47250, "6"),
+            new Employee("9", "Intern", "Backend", 21000, "7"),
+            new Employee("10", "Rep", "Inside", 48000, "4")
+        ));
+        assertEquals(expected.toString(), result.getOutcome().toString());
+        assertEquals(6, result.getAffectedEmployees()); // 5 raised employees plus VP 3's aggregate
+    }
+
+    @Test
+    void testReassignmentMatchesFullReanalysis() throws EmployeeDataException {
+        // Arrange - move the lead's team directly under the engineering VP and adjust a salary
+        Scenario scenario = Scenario.named("flatten platform")
+            .reassign("7", "3")
+            .setSalary("5", 60000)
+            .build();
+
+        // Act
+        ScenarioResult result = simulator.simulate(scenario);
+
+        // Assert
+        ScenarioResult.IssueCounts expected = reanalyze(List.of(
+            new Employee("1", "CEO", "Boss", 200000, null),
+            new Employee("2", "VP", "Sales", 120000, "1"),
+            new Employee("3", "VP", "Engineering", 120000, "1"),
+            new Employee("4", "Manager", "Sales", 60000, "2"),
+            new Employee("5", "Manager", "Platform", 60000, "3"),
+            new Employee("6", "Lead", "Platform", 55000, "5"),
+            new Employee("7", "Engineer", "Backend", 45000, "3"),
+            new Employee("8", "Engineer", "Frontend", 45000, "6"),
+            new Employee("9", "Intern", "Backend", 20000, "7"),
+            new Employee("10", "Rep", "Inside", 48000, "4")
+        ));
+        assertEquals(expected.toString(), result.getOutcome().toString());
+        assertEquals(0, result.getOutcome().getLongReportingLines());
+        assertEquals(1, result.getBaseline().getLongReportingLines());
+    }
+
+    @Test
+    void testReassignmentCreatingCycleIsRejected() {
+        // Arrange
+        Scenario scenario = Scenario.named("cycle").reassign("5", "9").build();
+
+        // Act & Assert
+        assertThrows(EmployeeDataException.class, () -> simulator.simulate(scenario));
+    }
+
+    @Test
+    void testUnknownEmployeeIsRejected() {
+        // Arrange
+        Scenario scenario = Scenario.named("unknown").raiseSalary("999", 0.1).build();
+
+        // Act & Assert
+        assertThrows(EmployeeDataException.class, () -> simulator.simulate(scenario));
+    }
+
+    @Test
+    void testSimulateAllKeepsScenarioOrder() throws EmployeeDataException {
+        // Arrange
+        List<Scenario> scenarios = List.of(
+            Scenario.named("a").raiseSubtree("1", 0.03).build(),
+            Scenario.named("b").raiseSalary("4", 0.10).build(),
+            Scenario.named("c").reassign("9", "1").build());
+
+        // Act
+        List<ScenarioResult> results = simulator.simulateAll(scenarios);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals("a", results.get(0).getScenario().getName());
+        assertEquals("c", results.get(2).getScenario().getName());
+    }
+
+    @Test
+    void testRaisingCeoSalaryFlagsCeo() throws EmployeeDataException {
+        // Arrange - 300,000 is 2.5x the VPs' average, above the 1.5x band
+        Scenario scenario = Scenario.named("CEO raise").setSalary("1", 300000).build();
+
+        // Act
+        ScenarioResult result = simulator.simulate(scenario);
+
+        // Assert
+        List<AnalysisReport.SalaryIssue> overpaid = result.getAffectedIssues().getOverpaidManagers();
+        assertEquals(1, overpaid.size());
+        assertEquals("1", overpaid.get(0).getManager().getId());
+        assertEquals(300000, overpaid.get(0).getManager().getSalary());
+        assertNull(overpaid.get(0).getManager().getManagerId());
+    }
+
+    private ScenarioResult.IssueCounts reanalyze(List<Employee> employees) throws EmployeeDataException {
+        return ScenarioResult.IssueCounts.of(RuleEngine.defaults().evaluate(OrgIndex.build(employees)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.analyzer.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KllSketchTest {
+
+    private static final double RANK_TOLERANCE = 0.02;
+
+    @Test
+    void testQuantilesWithinRankError() {
+        // Arrange - values 1..200000 in random order
+        List<Double> values = shuffledRange(200_000, 1);
+        KllSketch sketch = new KllSketch();
+
+        // Act
+        values.forEach(sketch::update);
+
+        // Assert
+        assertEquals(200_000, sketch.getCount());
+        assertEquals(1, sketch.getMin());
+        assertEquals(200_000, sketch.getMax());
+        for (double fraction : new double[] {0.1, 0.5, 0.9, 0.99}) {
+            double estimate = sketch.getQuantile(fraction);
+            assertEquals(fraction, estimate / 200_000, RANK_TOLERANCE, "p" + fraction);
+        }
+        assertTrue(sketch.getRetainedItems() < 1_000, "retained " + sketch.getRetainedItems());
+    }
+
+    @Test
+    void testMergedSketchesMatchSingleSketch() {
+        // Arrange - 50 disjoint parts, as subtrees would be
+        List<Double> values = shuffledRange(100_000, 2);
+        KllSketch merged = new KllSketch();
+        for (int part = 0; part < 50; part++) {
+            KllSketch partSketch = new KllSketch();
+            values.subList(part * 2_000, (part + 1) * 2_000).forEach(partSketch::update);
+            merged.merge(partSketch);
+        }
+
+        // Assert
+        assertEquals(100_000, merged.getCount());
+        for (double fraction : new double[] {0.1, 0.5, 0.9}) {
+            assertEquals(fraction, merged.getQuantile(fraction) / 100_000, RANK_TOLERANCE, "p" + fraction);
+            assertEquals(fraction, merged.getRank(fraction * 100_000), RANK_TOLERANCE, "rank " + fraction);
+        }
+    }
+
+    @Test
+    void testSmallSketchIsExact() {
+        // Arrange
+        KllSketch sketch = new KllSketch();
+        for (int value : new int[] {50, 10, 40, 20, 30}) {
+            sketch.update(value);
+        }
+
+        // Assert
+        assertEquals(10, sketch.getQuantile(0.1));
+        assertEquals(30, sketch.getQuantile(0.5));
+        assertEquals(50, sketch.getQuantile(0.9));
+        assertTrue(Double.isNaN(new KllSketch().getQuantile(0.5)));
+    }
+
+    private static List<Double> shuffledRange(int size, long seed) {
+        List<Double> values = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(seed));
+        return values;
+    }
+}
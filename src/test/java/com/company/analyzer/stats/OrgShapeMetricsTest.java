@@ -0,0 +1,99 @@
+package com.company.analyzer.stats;
+
+import com.company.analyzer.exception.AnalysisCancelledException;
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import com.company.analyzer.progress.ProgressTracker;
+import com.company.analyzer.rule.RuleEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgShapeMetricsTest {
+
+    @Test
+    void testMetricsFromAnalysisPass() throws EmployeeDataException {
+        // Arrange - CEO with 3 managers of 1, 2 and 40 reports; one report has a chain of 2 below
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("ceo", "Chief", "Executive", 500000, null));
+        int[] spans = {1, 2, 40};
+        for (int m = 0; m < spans.length; m++) {
+            employees.add(new Employee("m" + m, "Manager", "M" + m, 200000, "ceo"));
+            for (int r = 0; r < spans[m]; r++) {
+                employees.add(new Employee("m" + m + "r" + r, "Report", "R" + r, 100000, "m" + m));
+            }
+        }
+        employees.add(new Employee("c1", "Chain", "One", 50000, "m0r0"));
+        employees.add(new Employee("c2", "Chain", "Two", 40000, "c1"));
+        OrgIndex org = OrgIndex.build(employees);
+        OrgShapeMetrics.Collector collector = new OrgShapeMetrics.Collector(2);
+
+        // Act
+        RuleEngine.defaults().evaluate(org, ProgressTracker.silent(), collector);
+        OrgShapeMetrics metrics = collector.finish();
+
+        // Assert
+        assertEquals(org.size(), metrics.getEmployeeCount());
+        assertEquals(6, metrics.getManagerCount());
+        assertEquals((3 + 1 + 2 + 40 + 1 + 1) / 6.0, metrics.getAverageSpan());
+        assertEquals(org.size() - 6, metrics.getSpanCount(0));
+        assertEquals(3, metrics.getSpanCount(1));
+        assertEquals(1, metrics.getSpanCount(2));
+        int bucket40 = OrgShapeMetrics.spanBucket(40);
+        assertEquals(1, metrics.getSpanCount(bucket40));
+        assertEquals(32, metrics.getSpanBucketMin(bucket40));
+        assertEquals(63, metrics.getSpanBucketMax(bucket40));
+        assertEquals(bucket40 + 1, metrics.getSpanBucketCount());
+        assertArrayEquals(new int[]{1, 3, 43, 1, 1}, levels(metrics));
+        assertEquals(List.of("m2", "ceo"), ids(org, metrics.getWidestManagers()));
+        assertEquals(List.of("c2", "c1"), ids(org, metrics.getDeepestEmployees()));
+    }
+
+    @Test
+    void testParallelPassMatchesSequential() throws EmployeeDataException, AnalysisCancelledException {
+        // Arrange - random tree large enough to be split into several ranges
+        List<Employee> employees = new ArrayList<>();
+        Random random = new Random(7);
+        employees.add(new Employee("0", "Chief", "Executive", 500000, null));
+        for (int i = 1; i < 50_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "First", "Last", 50000,
+                String.valueOf(random.nextInt(Math.min(i, 2_000)))));
+        }
+        OrgIndex org = OrgIndex.build(employees);
+        OrgShapeMetrics.Collector sequential = new OrgShapeMetrics.Collector();
+        OrgShapeMetrics.Collector parallel = new OrgShapeMetrics.Collector();
+
+        // Act
+        RuleEngine.defaults().evaluate(org, ProgressTracker.silent(), sequential);
+        RuleEngine.defaults().evaluateParallel(org, 4, ProgressTracker.silent(), parallel);
+        OrgShapeMetrics expected = sequential.finish();
+        OrgShapeMetrics actual = parallel.finish();
+
+        // Assert
+        assertEquals(expected.getManagerCount(), actual.getManagerCount());
+        assertEquals(expected.getAverageSpan(), actual.getAverageSpan());
+        assertEquals(expected.getSpanBucketCount(), actual.getSpanBucketCount());
+        for (int bucket = 0; bucket < expected.getSpanBucketCount(); bucket++) {
+            assertEquals(expected.getSpanCount(bucket), actual.getSpanCount(bucket));
+        }
+        assertArrayEquals(levels(expected), levels(actual));
+        assertArrayEquals(expected.getWidestManagers(), actual.getWidestManagers());
+        assertArrayEquals(expected.getDeepestEmployees(), actual.getDeepestEmployees());
+    }
+
+    private static int[] levels(OrgShapeMetrics metrics) {
+        int[] levels = new int[metrics.getLevelCount()];
+        Arrays.setAll(levels, metrics::getHeadcount);
+        return levels;
+    }
+
+    private static List<String> ids(OrgIndex org, int[] employees) {
+        return Arrays.stream(employees).mapToObj(i -> org.getEmployee(i).getId()).toList();
+    }
+}
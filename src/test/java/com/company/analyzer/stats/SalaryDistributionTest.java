@@ -0,0 +1,65 @@
+package com.company.analyzer.stats;
+
+import com.company.analyzer.exception.EmployeeDataException;
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.model.OrgIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryDistributionTest {
+
+    @Test
+    void testLevelsAndSubtrees() throws EmployeeDataException {
+        // Arrange - CEO, two executives, ten reports each with salaries 1..10 (x1000)
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("ceo", "Chief", "Executive", 500_000, null));
+        employees.add(new Employee("a", "Exec", "A", 200_000, "ceo"));
+        employees.add(new Employee("b", "Exec", "B", 300_000, "ceo"));
+        for (int i = 1; i <= 10; i++) {
+            employees.add(new Employee("a" + i, "Report", "A" + i, i * 1_000, "a"));
+            employees.add(new Employee("b" + i, "Report", "B" + i, 100_000 + i * 1_000, "b"));
+        }
+        OrgIndex org = OrgIndex.build(employees);
+
+        // Act
+        SalaryDistribution distribution = SalaryDistribution.of(org, SalaryDistribution.EXECUTIVE_SUBTREES);
+
+        // Assert
+        assertEquals(3, distribution.getLevelCount());
+        assertEquals(1, distribution.getLevel(0).getCount());
+        assertEquals(250_000, distribution.getLevelQuantile(1, 0.5), 50_000);
+        assertEquals(20, distribution.getLevel(2).getCount());
+
+        assertEquals(List.of("ceo", "a", "b"),
+            distribution.getSubtreeRoots().stream().map(Employee::getId).toList());
+        assertEquals(23, distribution.getSubtree("ceo").orElseThrow().getCount());
+        assertEquals(11, distribution.getSubtree("a").orElseThrow().getCount());
+        assertEquals(6_000, distribution.getSubtreeQuantile("a", 0.5));
+        assertEquals(200_000, distribution.getSubtreeQuantile("a", 1.0));
+        assertEquals(106_000, distribution.getSubtreeQuantile("b", 0.5));
+        assertTrue(distribution.getSubtree("a1").isEmpty());
+    }
+
+    @Test
+    void testDeepChainUsesIterativeWalk() throws EmployeeDataException {
+        // Arrange - far deeper than any recursion limit
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "Level", "0", 100_000, null));
+        for (int i = 1; i < 100_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "Level", String.valueOf(i), 100_000 - i, String.valueOf(i - 1)));
+        }
+
+        // Act
+        SalaryDistribution distribution = SalaryDistribution.of(OrgIndex.build(employees), 0);
+
+        // Assert
+        assertEquals(100_000, distribution.getLevelCount());
+        KllSketch whole = distribution.getSubtree("0").orElseThrow();
+        assertEquals(100_000, whole.getCount());
+        assertEquals(0.5, whole.getQuantile(0.5) / 100_000, 0.02);
+    }
+}